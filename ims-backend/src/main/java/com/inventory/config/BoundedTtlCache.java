@@ -0,0 +1,273 @@
+package com.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small in-process LRU cache with a time-to-live per entry, for reference data that is read on
+ * most writes but rarely changes. Nulls are never stored, so a lookup that finds nothing is
+ * retried next time rather than hiding a row created later.
+ *
+ * <p>Evict/clear called inside a transaction take effect once it commits, so readers never cache
+ * the row again between the eviction and the commit. Each one also bumps a generation; a value
+ * loaded through {@link #get(Object, Callable)} is only stored if no invalidation happened while
+ * it was being read, so a load racing an update cannot put the old row back afterwards.
+ *
+ * <p>{@link #put(Object, Object, Duration)} stores an entry that expires sooner than the cache's
+ * TTL, for values that stop being valid at a known time.
+ *
+ * <p>Hits take no lock: entries sit in a {@link ConcurrentHashMap} and a read only stamps the
+ * entry it found. Stores and invalidations are serialized on the cache, which is what keeps the
+ * generation check exact. When full, a store evicts the least recently used of a handful of
+ * entries, taken in turn from a sweep over the map, so LRU is exact for caches that small and
+ * approximate beyond, as in Redis.
+ */
+public class BoundedTtlCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Entries compared for each eviction
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    // Written under the lock; read without it only to pick the generation a load starts from
+    private volatile long generation;
+    // Where the next eviction's sample starts; guarded by this
+    private Iterator<Map.Entry<Object, Entry>> sweep;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+        super(false);
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = current(key);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Read before the lookup, so an invalidation after it is always seen by the store
+        long loadGeneration = generation;
+        Object cached = current(key);
+        if (cached != null) {
+            hits.increment();
+            return (T) fromStoreValue(cached);
+        }
+        misses.increment();
+        // Concurrent misses on one key may both read, which is cheaper than serializing every
+        // lookup behind a slow query
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            store(key, value, loadGeneration, ttlNanos);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        put(key, value, Duration.ofNanos(ttlNanos));
+    }
+
+    // Capped at the cache's TTL; a value whose time is already up is not stored
+    public void put(Object key, Object value, Duration ttl) {
+        if (value != null && !ttl.isNegative() && !ttl.isZero()) {
+            store(key, value, generation, Math.min(ttl.toNanos(), ttlNanos));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        afterCommit(() -> {
+            synchronized (this) {
+                entries.remove(key);
+                generation++;
+            }
+        });
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(() -> {
+            synchronized (this) {
+                entries.clear();
+                generation++;
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private Object current(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.expiresAt >= 0) {
+            // Only this entry: a fresh one stored since the read stays
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        entry.accessedAt = now;
+        return entry.value;
+    }
+
+    private synchronized void store(Object key, Object value, long loadGeneration, long entryTtlNanos) {
+        if (loadGeneration != generation || maxSize <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.put(key, new Entry(toStoreValue(value), now, now + entryTtlNanos));
+        puts.increment();
+        while (entries.size() > maxSize) {
+            evictOne(now);
+        }
+    }
+
+    // Caller holds the lock. Drops the least recently used entry of the next sample, or the
+    // first expired one met
+    private void evictOne(long now) {
+        Object victim = null;
+        Entry victimEntry = null;
+        int sample = Math.min(EVICTION_SAMPLE, entries.size());
+        boolean restarted = false;
+        for (int seen = 0; seen < sample; ) {
+            if (sweep == null || !sweep.hasNext()) {
+                // Every entry has been looked at once this eviction
+                if (restarted) {
+                    break;
+                }
+                sweep = entries.entrySet().iterator();
+                restarted = true;
+                continue;
+            }
+            Map.Entry<Object, Entry> candidate = sweep.next();
+            seen++;
+            Entry entry = candidate.getValue();
+            if (now - entry.expiresAt >= 0) {
+                victim = candidate.getKey();
+                victimEntry = entry;
+                break;
+            }
+            if (victimEntry == null || entry.accessedAt - victimEntry.accessedAt < 0) {
+                victim = candidate.getKey();
+                victimEntry = entry;
+            }
+        }
+        // The sweep may hand back an entry replaced or removed since it passed it; that costs one more round
+        if (victimEntry != null && entries.remove(victim, victimEntry)) {
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+        // Last read, in System.nanoTime(); a racy write is fine, eviction only compares ages
+        private volatile long accessedAt;
+
+        private Entry(Object value, long accessedAt, long expiresAt) {
+            this.value = value;
+            this.accessedAt = accessedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Publishes the standard cache.gets/puts/evictions/size meters for a {@link BoundedTtlCache}.
+     */
+    public static class Metrics extends CacheMeterBinder<BoundedTtlCache> {
+        public Metrics(BoundedTtlCache cache, Iterable<Tag> tags) {
+            super(cache, cache.getName(), tags);
+        }
+
+        @Override
+        protected Long size() {
+            BoundedTtlCache cache = getCache();
+            return cache == null ? null : (long) cache.size();
+        }
+
+        @Override
+        protected long hitCount() {
+            BoundedTtlCache cache = getCache();
+            return cache == null ? 0 : cache.hits.sum();
+        }
+
+        @Override
+        protected Long missCount() {
+            BoundedTtlCache cache = getCache();
+            return cache == null ? null : cache.misses.sum();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            BoundedTtlCache cache = getCache();
+            return cache == null ? null : cache.evictions.sum();
+        }
+
+        @Override
+        protected long putCount() {
+            BoundedTtlCache cache = getCache();
+            return cache == null ? 0 : cache.puts.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through caches for product and warehouse lookups on the write paths, and for the tokens and
+ * users behind authenticated requests. Entries are detached entities: use them for ids, names and
+ * as association targets, never modify them.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PRODUCTS_BY_ID = "productsById";
+    public static final String PRODUCTS_BY_NAME = "productsByName";
+    public static final String WAREHOUSES_BY_ID = "warehousesById";
+    public static final String WAREHOUSES_BY_NAME = "warehousesByName";
+    public static final String VERIFIED_TOKENS = "verifiedTokens";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${inventory.cache.reference.max-size:10000}") int maxSize,
+                                     @Value("${inventory.cache.reference.ttl:10m}") Duration ttl,
+                                     @Value("${inventory.cache.auth.max-size:10000}") int authMaxSize,
+                                     @Value("${inventory.cache.auth.ttl:5m}") Duration authTtl) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        List<BoundedTtlCache> caches = Arrays.asList(PRODUCTS_BY_ID, PRODUCTS_BY_NAME, WAREHOUSES_BY_ID, WAREHOUSES_BY_NAME).stream()
+                .map(name -> new BoundedTtlCache(name, maxSize, ttl))
+                .collect(Collectors.toList());
+        // Verified tokens are also dropped at their own expiry (JwtAuthFilter); the TTL bounds how long a
+        // user's role or removal can go unnoticed by requests carrying a token that was already checked
+        caches.add(new BoundedTtlCache(VERIFIED_TOKENS, authMaxSize, authTtl));
+        caches.add(new BoundedTtlCache(USERS_BY_USERNAME, authMaxSize, authTtl));
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<BoundedTtlCache> boundedTtlCacheMeterBinderProvider() {
+        return BoundedTtlCache.Metrics::new;
+    }
+}
@@ -0,0 +1,100 @@
+package com.inventory.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Instrumentation on top of what Actuator binds by itself (JVM, Hikari pool, HTTP requests): service
+ * method timers from {@code @Timed}, Hibernate statistics, a histogram of every JDBC statement's execution
+ * time, and SQL statements per request. Actuator serves all of it at /actuator/prometheus. All of it can be switched off with {@code inventory.metrics.enabled=false}; the business
+ * counters in {@code InventoryMetrics} follow {@code management.metrics.enable.*} like any other meter.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "inventory.metrics.enabled", matchIfMissing = true)
+    static class Instrumentation {
+
+        @Bean
+        public TimedAspect timedAspect(MeterRegistry registry) {
+            return new TimedAspect(registry);
+        }
+
+        @Bean
+        public StatementCountFilter statementCountFilter(MeterRegistry registry) {
+            return new StatementCountFilter(registry);
+        }
+
+        // Ahead of the security filters, so loading the user behind a token is counted with the request
+        @Bean
+        public FilterRegistrationBean<StatementCountFilter> statementCountFilterRegistration(StatementCountFilter filter) {
+            FilterRegistrationBean<StatementCountFilter> registration = new FilterRegistrationBean<>(filter);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+            return registration;
+        }
+
+        // Statistics feed the hibernate.* meters bound below; the per-session summary Hibernate would log
+        // at INFO on every session close is turned off
+        @Bean
+        public HibernatePropertiesCustomizer hibernateMetricsCustomizer(StatementCountFilter statementCountFilter) {
+            return properties -> {
+                properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+                properties.put(AvailableSettings.LOG_SESSION_METRICS, "false");
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCountFilter);
+            };
+        }
+
+        // A meter binder, so the registry binds it once it exists; the data source needs it before then
+        @Bean
+        public SlowQueryListener slowQueryListener(
+                @Value("${inventory.metrics.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+            return new SlowQueryListener(slowQueryThreshold);
+        }
+
+        // Wraps the pool rather than replacing it, so Hikari's own metrics and health still find it by unwrapping
+        @Bean
+        public static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryListener> slowQueryListener) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                        .listener(slowQueryListener.getObject())
+                        .build();
+                }
+            };
+        }
+
+        // Actuator binds these only with the hibernate-micrometer module; Micrometer's own binder reads the
+        // same statistics. Bound once every singleton exists, as Actuator does, so the registry does not
+        // wait on the entity manager factory that itself needs the registry.
+        @Bean
+        @SuppressWarnings("deprecation")
+        public SmartInitializingSingleton hibernateStatisticsMetrics(MeterRegistry registry, EntityManagerFactory entityManagerFactory) {
+            return () -> new io.micrometer.core.instrument.binder.jpa.HibernateMetrics(
+                entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty()).bindTo(registry);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.inventory.config;
 import com.inventory.service.JwtService;
 import com.inventory.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -27,6 +28,8 @@ public class SecurityConfig {
     private JwtService jwtService;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private CacheManager cacheManager;
 
     @Bean
     public BCryptPasswordEncoder passwordEncoder() {
@@ -44,7 +47,8 @@ public class SecurityConfig {
             .authorizeRequests()
                 .anyRequest().permitAll()
             .and()
-            .addFilterBefore(new JwtAuthFilter(jwtService, userRepository), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new JwtAuthFilter(jwtService, userRepository,
+                    (BoundedTtlCache) cacheManager.getCache(CacheConfig.VERIFIED_TOKENS)), UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
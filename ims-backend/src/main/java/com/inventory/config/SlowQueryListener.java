@@ -0,0 +1,66 @@
+package com.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records every statement's execution time into the {@code inventory.queries} histogram and logs the ones
+ * slower than the threshold. Listens on the proxy around the connection pool (see {@link MetricsConfig}), so
+ * Hibernate's statements and JdbcTemplate's are timed alike; a JDBC batch is timed as one execution.
+ * Statements run before the registry binds this, such as migrations at startup, are only checked for slowness.
+ */
+@Slf4j
+class SlowQueryListener implements QueryExecutionListener, MeterBinder {
+    private static final String STARTED = SlowQueryListener.class.getName() + ".started";
+
+    private final long slowQueryNanos;
+    private volatile Timer queries;
+
+    SlowQueryListener(Duration slowQueryThreshold) {
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        queries = Timer.builder("inventory.queries")
+            .description("Execution time of SQL statements sent through the connection pool")
+            .serviceLevelObjectives(Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+                Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+                Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10))
+            .register(registry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    // The proxy's own elapsed time is in whole milliseconds, too coarse for the lower buckets
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (started == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - started;
+        Timer timer = queries;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (nanos >= slowQueryNanos) {
+            log.warn("Slow query: {} ms{}: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a request is served and records the count per
+ * endpoint as {@code inventory.request.statements}, so an endpoint that starts issuing a query per row shows
+ * up on a dashboard. Registered with Hibernate as its statement inspector (see {@link MetricsConfig}); a
+ * JDBC batch counts once, and statements sent through JdbcTemplate are not seen.
+ */
+public class StatementCountFilter extends OncePerRequestFilter implements StatementInspector {
+    private static final double[] BUCKETS = {1, 2, 5, 10, 20, 50, 100, 200, 500};
+
+    // Set only while a request is in this filter, so statements from scheduled jobs are not counted
+    private final ThreadLocal<int[]> statements = new ThreadLocal<>();
+    private final MeterRegistry registry;
+
+    public StatementCountFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = statements.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] count = new int[1];
+        statements.set(count);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements.remove();
+            // The uri tag is the matched route pattern, as on http.server.requests, so ids do not explode it
+            DistributionSummary.builder("inventory.request.statements")
+                .description("SQL statements prepared by Hibernate per request")
+                .baseUnit("statements")
+                .tags(Tags.of(WebMvcTags.method(request), WebMvcTags.uri(request, response)))
+                .serviceLevelObjectives(BUCKETS)
+                .register(registry)
+                .record(count[0]);
+        }
+    }
+}
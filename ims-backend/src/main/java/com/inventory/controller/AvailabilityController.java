@@ -0,0 +1,32 @@
+package com.inventory.controller;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+import com.inventory.service.AvailabilityService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/availability")
+public class AvailabilityController {
+    private final AvailabilityService availabilityService;
+
+    public AvailabilityController(AvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    // ?sku=A&sku=B (or sku=A,B) for those products, optionally in one warehouse; ?warehouseId alone for
+    // everything stocked there. Unknown SKUs are left out.
+    @GetMapping
+    public List<AvailabilityResponseDTO> get(@RequestParam(required = false) List<String> sku,
+                                             @RequestParam(required = false) UUID warehouseId) {
+        if (sku != null && !sku.isEmpty()) {
+            return availabilityService.getBySkus(sku, warehouseId);
+        }
+        if (warehouseId == null) {
+            throw new IllegalArgumentException("Either sku or warehouseId is required");
+        }
+        return availabilityService.getByWarehouse(warehouseId);
+    }
+}
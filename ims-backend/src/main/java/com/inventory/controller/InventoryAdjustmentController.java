@@ -0,0 +1,29 @@
+package com.inventory.controller;
+
+import com.inventory.dto.InventoryAdjustmentBatchRequestDTO;
+import com.inventory.dto.InventoryAdjustmentResultDTO;
+import com.inventory.service.InventoryAdjustmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/inventory/adjustments")
+@Validated
+@Tag(name = "Inventory Adjustments", description = "Bulk cycle-count adjustments")
+public class InventoryAdjustmentController {
+    private final InventoryAdjustmentService inventoryAdjustmentService;
+
+    public InventoryAdjustmentController(InventoryAdjustmentService inventoryAdjustmentService) {
+        this.inventoryAdjustmentService = inventoryAdjustmentService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Apply counted quantities in bulk; returns per-line errors for lines that were not applied")
+    public InventoryAdjustmentResultDTO adjust(@Valid @RequestBody InventoryAdjustmentBatchRequestDTO request) {
+        return inventoryAdjustmentService.adjust(request);
+    }
+}
@@ -1,15 +1,18 @@
 package com.inventory.controller;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.InventoryRequestDTO;
 import com.inventory.dto.InventoryResponseDTO;
+import com.inventory.dto.InventorySort;
 import com.inventory.service.InventoryService;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -28,8 +31,15 @@ public class InventoryController {
     }
 
     @GetMapping
-    public List<InventoryResponseDTO> getAll() {
-        return inventoryService.getAll();
+    public CursorPageDTO<InventoryResponseDTO> getAll(
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "ID") InventorySort sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return inventoryService.getAll(productId, warehouseId, category, sort, direction, cursor, limit);
     }
 
     @GetMapping("/{id}")
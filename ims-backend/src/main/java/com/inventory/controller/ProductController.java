@@ -1,15 +1,17 @@
 package com.inventory.controller;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.ProductRequestDTO;
 import com.inventory.dto.ProductResponseDTO;
+import com.inventory.dto.ProductSort;
 import com.inventory.service.ProductService;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -29,8 +31,13 @@ public class ProductController {
     }
 
     @GetMapping
-    public List<ProductResponseDTO> getAll() {
-        return productService.getAll();
+    public CursorPageDTO<ProductResponseDTO> getAll(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "NAME") ProductSort sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return productService.getAll(category, sort, direction, cursor, limit);
     }
 
     @GetMapping("/{id}")
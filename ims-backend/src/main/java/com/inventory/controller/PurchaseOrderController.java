@@ -1,14 +1,17 @@
 package com.inventory.controller;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.PurchaseOrderRequestDTO;
 import com.inventory.dto.PurchaseOrderResponseDTO;
 import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderSort;
+import com.inventory.model.PurchaseOrder;
 import com.inventory.service.PurchaseOrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,8 +31,14 @@ public class PurchaseOrderController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PurchaseOrderResponseDTO>> getAll() {
-        return ResponseEntity.ok(purchaseOrderService.getAllPurchaseOrders());
+    public ResponseEntity<CursorPageDTO<PurchaseOrderResponseDTO>> getAll(
+            @RequestParam(required = false) PurchaseOrder.Status status,
+            @RequestParam(required = false) String warehouseName,
+            @RequestParam(defaultValue = "ORDER_DATE") PurchaseOrderSort sort,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(purchaseOrderService.getAllPurchaseOrders(status, warehouseName, sort, direction, cursor, limit));
     }
 
     @PostMapping("/{id}/fulfill")
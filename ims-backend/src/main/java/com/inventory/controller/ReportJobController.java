@@ -0,0 +1,82 @@
+package com.inventory.controller;
+
+import com.inventory.dto.ReportJobRequestDTO;
+import com.inventory.dto.ReportJobResponseDTO;
+import com.inventory.model.ReportJob;
+import com.inventory.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/api/reports/jobs")
+@Tag(name = "Report Jobs", description = "Asynchronous report computation")
+public class ReportJobController {
+    private final ReportJobService reportJobService;
+
+    public ReportJobController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Enqueue a turnover, valuation or trends report")
+    public ResponseEntity<ReportJobResponseDTO> submit(@Valid @RequestBody ReportJobRequestDTO request, Principal principal) {
+        ReportJobResponseDTO job = reportJobService.submit(request, principal != null ? principal.getName() : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(HttpHeaders.LOCATION, "/api/reports/jobs/" + job.getId())
+            .body(job);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get report job status and progress")
+    public ReportJobResponseDTO get(@PathVariable UUID id) {
+        return reportJobService.getJob(id);
+    }
+
+    @GetMapping("/{id}/result")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Download a completed report job result")
+    public ResponseEntity<StreamingResponseBody> getResult(@PathVariable UUID id,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportJobResponseDTO job = reportJobService.getJob(id);
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        InputStream result = reportJobService.openResult(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + id + "." + job.getFormat().getExtension() + "\"");
+        // Stored gzipped; only inflate for clients that cannot take it as-is
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ResponseEntity.BodyBuilder gzipped = response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            if (job.getResultSize() != null) {
+                gzipped.contentLength(job.getResultSize());
+            }
+            return gzipped.body(out -> {
+                try (InputStream in = result) {
+                    StreamUtils.copy(in, out);
+                }
+            });
+        }
+        return response.body(out -> {
+            try (InputStream in = new GZIPInputStream(result)) {
+                StreamUtils.copy(in, out);
+            }
+        });
+    }
+}
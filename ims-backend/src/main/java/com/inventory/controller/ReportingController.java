@@ -2,15 +2,24 @@ package com.inventory.controller;
 
 import com.inventory.dto.InventoryTurnoverReportDTO;
 import com.inventory.dto.StockValuationReportDTO;
+import com.inventory.dto.StockValuationSummaryDTO;
+import com.inventory.dto.ValuationGrouping;
 import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.TrendGranularity;
+import com.inventory.dto.ExportFormat;
 import com.inventory.service.ReportingService;
+import com.inventory.util.ReportExporter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import javax.validation.constraints.NotNull;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -47,6 +56,16 @@ public class ReportingController {
         return reportingService.getStockValuation(productId, warehouseId);
     }
 
+    @GetMapping("/stock-valuation/summary")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get Stock Valuation Totals, optionally rolled up by warehouse or category")
+    public StockValuationSummaryDTO getStockValuationSummary(
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam(defaultValue = "NONE") ValuationGrouping groupBy) {
+        return reportingService.getStockValuationSummary(productId, warehouseId, groupBy);
+    }
+
     @GetMapping("/inventory-trends")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     @Operation(summary = "Get Inventory Trends Report")
@@ -54,7 +73,54 @@ public class ReportingController {
             @RequestParam(required = false) UUID productId,
             @RequestParam(required = false) UUID warehouseId,
             @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        return reportingService.getInventoryTrends(productId, warehouseId, startDate, endDate);
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAILY") TrendGranularity granularity) {
+        return reportingService.getInventoryTrends(productId, warehouseId, startDate, endDate, granularity);
+    }
+
+    @GetMapping("/inventory-turnover/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Stream Inventory Turnover Report as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportInventoryTurnover(
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return export("inventory-turnover", format, out -> ReportExporter.write(out, format, InventoryTurnoverReportDTO.class,
+            sink -> reportingService.streamInventoryTurnover(productId, warehouseId, startDate, endDate, sink)));
+    }
+
+    @GetMapping("/stock-valuation/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Stream Stock Valuation Report as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportStockValuation(
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return export("stock-valuation", format, out -> ReportExporter.write(out, format, StockValuationReportDTO.class,
+            sink -> reportingService.streamStockValuation(productId, warehouseId, sink)));
+    }
+
+    @GetMapping("/inventory-trends/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Stream Inventory Trends Report as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportInventoryTrends(
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) UUID warehouseId,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "DAILY") TrendGranularity granularity,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return export("inventory-trends", format, out -> ReportExporter.write(out, format, InventoryTrendReportDTO.class,
+            sink -> reportingService.streamInventoryTrends(productId, warehouseId, startDate, endDate, granularity, sink)));
+    }
+
+    // The body runs on an async thread after this returns; the service opens its own read-only transaction there
+    private ResponseEntity<StreamingResponseBody> export(String report, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + report + "." + format.getExtension() + "\"")
+            .body(body);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,14 @@
 package com.inventory.controller;
 
-import com.inventory.model.StockAlert;
+import com.inventory.service.StockAlertBroadcaster;
 import com.inventory.service.StockAlertService;
 import com.inventory.dto.StockAlertResponseDTO;
+import com.inventory.util.StockAlertMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,24 +18,21 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class StockAlertController {
     private final StockAlertService stockAlertService;
+    private final StockAlertBroadcaster stockAlertBroadcaster;
 
     @GetMapping
     public ResponseEntity<List<StockAlertResponseDTO>> getActiveAlerts() {
         return ResponseEntity.ok(
-            stockAlertService.getActiveAlerts().stream().map(alert -> {
-                StockAlertResponseDTO dto = new StockAlertResponseDTO();
-                dto.setId(alert.getId());
-                dto.setProductName(alert.getInventory().getProduct().getName());
-                dto.setWarehouseName(alert.getInventory().getWarehouse().getName());
-                dto.setQuantity(alert.getQuantity());
-                dto.setThreshold(alert.getThreshold());
-                dto.setCreatedAt(alert.getCreatedAt().toString());
-                dto.setResolved(alert.isResolved());
-                return dto;
-            }).collect(Collectors.toList())
+            stockAlertService.getActiveAlerts().stream().map(StockAlertMapper::toResponseDTO).collect(Collectors.toList())
         );
     }
 
+    // Live alert-created / alert-resolved events; "resync" means reload the list above
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        return stockAlertBroadcaster.subscribe();
+    }
+
     @PostMapping("/{id}/resolve")
     public ResponseEntity<Void> resolveAlert(@PathVariable Long id) {
         stockAlertService.resolveAlert(id);
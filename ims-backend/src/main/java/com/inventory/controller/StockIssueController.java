@@ -0,0 +1,39 @@
+package com.inventory.controller;
+
+import com.inventory.dto.StockIssueBatchRequestDTO;
+import com.inventory.dto.StockIssueRequestDTO;
+import com.inventory.dto.StockIssueResponseDTO;
+import com.inventory.service.StockIssueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stock-issues")
+@Validated
+@Tag(name = "Stock Issues", description = "Outbound picks against sales orders")
+public class StockIssueController {
+    private final StockIssueService stockIssueService;
+
+    public StockIssueController(StockIssueService stockIssueService) {
+        this.stockIssueService = stockIssueService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Issue stock for a single pick")
+    public ResponseEntity<StockIssueResponseDTO> issue(@Valid @RequestBody StockIssueRequestDTO request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockIssueService.issue(request));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Issue stock for every line of a sales order, all or nothing")
+    public ResponseEntity<List<StockIssueResponseDTO>> issueBatch(@Valid @RequestBody StockIssueBatchRequestDTO request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockIssueService.issueBatch(request));
+    }
+}
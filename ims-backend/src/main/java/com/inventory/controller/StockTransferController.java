@@ -0,0 +1,51 @@
+package com.inventory.controller;
+
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.dto.StockTransferResponseDTO;
+import com.inventory.service.StockTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/transfers")
+@Validated
+@Tag(name = "Stock Transfers", description = "Stock moved between warehouses")
+public class StockTransferController {
+    private final StockTransferService stockTransferService;
+
+    public StockTransferController(StockTransferService stockTransferService) {
+        this.stockTransferService = stockTransferService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Transfer stock of one or many products between two warehouses, all or nothing")
+    public ResponseEntity<StockTransferResponseDTO> transfer(@Valid @RequestBody StockTransferRequestDTO request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockTransferService.transfer(request));
+    }
+
+    @PostMapping("/{id}/receive")
+    @Operation(summary = "Receive an in-transit transfer into its destination")
+    public StockTransferResponseDTO receive(@PathVariable UUID id) {
+        return stockTransferService.receive(id);
+    }
+
+    @GetMapping("/in-transit")
+    @Operation(summary = "Transfers shipped but not yet received, oldest first")
+    public List<StockTransferResponseDTO> getInTransit() {
+        return stockTransferService.getInTransit();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a transfer and its lines")
+    public StockTransferResponseDTO getTransfer(@PathVariable UUID id) {
+        return stockTransferService.getTransfer(id);
+    }
+}
@@ -1,13 +1,15 @@
 package com.inventory.controller;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.WarehouseRequestDTO;
 import com.inventory.dto.WarehouseResponseDTO;
+import com.inventory.dto.WarehouseSort;
 import com.inventory.service.WarehouseService;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -25,8 +27,12 @@ public class WarehouseController {
     }
 
     @GetMapping
-    public List<WarehouseResponseDTO> getAll() {
-        return warehouseService.getAll();
+    public CursorPageDTO<WarehouseResponseDTO> getAll(
+            @RequestParam(defaultValue = "NAME") WarehouseSort sort,
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return warehouseService.getAll(sort, direction, cursor, limit);
     }
 
     @GetMapping("/{id}")
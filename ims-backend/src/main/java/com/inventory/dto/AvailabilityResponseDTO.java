@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponseDTO {
+    private UUID productId;
+    private String sku;
+    private long totalQuantity;
+    // Warehouses holding an inventory row for the product, in the order the matrix first saw them
+    private List<WarehouseStockDTO> warehouses;
+}
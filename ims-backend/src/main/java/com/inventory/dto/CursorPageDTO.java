@@ -0,0 +1,24 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code nextCursor} back as {@code ?cursor=} with the same
+ * sort and filters to read the following page; it is null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public <R> CursorPageDTO<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPageDTO<>(items.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentBatchRequestDTO {
+    // Recorded on every ADJUSTMENT movement, e.g. the cycle count id
+    private String reference;
+
+    @NotEmpty
+    @Size(max = 200_000)
+    private List<InventoryAdjustmentLineDTO> lines;
+}
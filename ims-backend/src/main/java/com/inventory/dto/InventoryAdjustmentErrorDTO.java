@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentErrorDTO {
+    // 1-based position in the submitted lines
+    private int line;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+// One counted line; identify the product by id or SKU and the warehouse by id or name.
+// Lines are checked individually so one bad line never rejects the whole file.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentLineDTO {
+    private UUID productId;
+    private String sku;
+    private UUID warehouseId;
+    private String warehouseName;
+    // Counted on-hand quantity; the movement records the difference to the book quantity
+    private Integer quantity;
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentResultDTO {
+    private int totalLines;
+    // Lines whose count differed from the book quantity and produced an ADJUSTMENT movement
+    private int adjusted;
+    private int unchanged;
+    private int failed;
+    private List<InventoryAdjustmentErrorDTO> errors;
+}
@@ -0,0 +1,20 @@
+package com.inventory.dto;
+
+/**
+ * Sort keys for the inventory list; ties are broken by id. Only ID may be used without a warehouse filter.
+ */
+public enum InventorySort {
+    ID("id"),
+    QUANTITY("quantity"),
+    UPDATED_AT("updatedAt");
+
+    private final String attribute;
+
+    InventorySort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+/**
+ * Sort keys for the product list; ties are broken by id.
+ */
+public enum ProductSort {
+    NAME("name"),
+    SKU("sku"),
+    PRICE("price"),
+    CREATED_AT("createdAt");
+
+    private final String attribute;
+
+    ProductSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
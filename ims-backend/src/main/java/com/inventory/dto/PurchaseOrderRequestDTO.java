@@ -1,6 +1,7 @@
 package com.inventory.dto;
 
 import lombok.Data;
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
@@ -9,5 +10,6 @@ public class PurchaseOrderRequestDTO {
     private String productName;
     private String warehouseName;
     private Integer quantity;
+    private BigDecimal unitCost;
     private UUID userId;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.inventory.dto;
 
 import lombok.Data;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -11,6 +12,7 @@ public class PurchaseOrderResponseDTO {
     private String productName;
     private String warehouseName;
     private Integer quantity;
+    private BigDecimal unitCost;
     private LocalDateTime orderDate;
     private UUID userId;
     private String status;
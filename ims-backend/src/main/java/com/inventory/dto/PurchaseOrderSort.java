@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+/**
+ * Sort keys for the purchase order list; ties are broken by id.
+ */
+public enum PurchaseOrderSort {
+    ORDER_DATE("orderDate"),
+    SUPPLIER_NAME("supplierName");
+
+    private final String attribute;
+
+    PurchaseOrderSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventory.dto;
+
+import com.inventory.model.ReportJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Report Job Request DTO")
+public class ReportJobRequestDTO {
+    @NotNull
+    @Schema(description = "Report to compute")
+    private ReportJob.ReportType reportType;
+
+    @Schema(description = "Product filter")
+    private UUID productId;
+
+    @Schema(description = "Warehouse filter")
+    private UUID warehouseId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Period start (turnover and trends)")
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Period end (turnover and trends)")
+    private LocalDate endDate;
+
+    @Schema(description = "Trend point spacing, defaults to DAILY")
+    private TrendGranularity granularity;
+
+    @Schema(description = "Result format, defaults to NDJSON")
+    private ExportFormat format;
+}
@@ -0,0 +1,51 @@
+package com.inventory.dto;
+
+import com.inventory.model.ReportJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Report Job Status DTO")
+public class ReportJobResponseDTO {
+    @Schema(description = "Job ID")
+    private UUID id;
+
+    @Schema(description = "Report being computed")
+    private ReportJob.ReportType reportType;
+
+    @Schema(description = "QUEUED, RUNNING, COMPLETED or FAILED")
+    private ReportJob.Status status;
+
+    @Schema(description = "Result format")
+    private ExportFormat format;
+
+    @Schema(description = "Rows produced so far (live while RUNNING)")
+    private Long rowsWritten;
+
+    @Schema(description = "Compressed result size in bytes once COMPLETED")
+    private Long resultSize;
+
+    @Schema(description = "Failure reason when FAILED")
+    private String errorMessage;
+
+    @Schema(description = "User who submitted the job")
+    private String requestedBy;
+
+    @Schema(description = "Submission time")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "Time the job started running")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Time the job completed or failed")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockIssueBatchRequestDTO {
+    // Used for every line that does not carry its own reference
+    private String reference;
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<StockIssueRequestDTO> lines;
+}
@@ -0,0 +1,27 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockIssueRequestDTO {
+    @NotNull
+    private UUID productId;
+
+    @NotNull
+    private UUID warehouseId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    // Sales order or pick list number, recorded on the movement
+    private String reference;
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockIssueResponseDTO {
+    private Long inventoryId;
+    private UUID productId;
+    private UUID warehouseId;
+    private Integer quantity;
+    private Integer remainingQuantity;
+    private BigDecimal unitCost;
+    private String reference;
+}
@@ -0,0 +1,21 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferLineDTO {
+    @NotNull
+    private UUID productId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+}
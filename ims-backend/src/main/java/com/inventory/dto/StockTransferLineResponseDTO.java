@@ -0,0 +1,17 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferLineResponseDTO {
+    private UUID productId;
+    private Integer quantity;
+    private BigDecimal unitCost;
+}
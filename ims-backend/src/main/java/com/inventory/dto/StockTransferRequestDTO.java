@@ -0,0 +1,34 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferRequestDTO {
+    @NotNull
+    private UUID sourceWarehouseId;
+
+    @NotNull
+    private UUID destinationWarehouseId;
+
+    // Ship now and receive later; otherwise the destination is credited in the same transaction
+    private Boolean inTransit;
+
+    private String reference;
+
+    // Lines for the same product are merged
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<StockTransferLineDTO> lines;
+}
@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferResponseDTO {
+    private UUID id;
+    private UUID sourceWarehouseId;
+    private UUID destinationWarehouseId;
+    private String status;
+    private String reference;
+    private LocalDateTime shippedAt;
+    private LocalDateTime receivedAt;
+    private List<StockTransferLineResponseDTO> lines;
+}
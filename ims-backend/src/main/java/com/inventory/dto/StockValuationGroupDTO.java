@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock Valuation Group DTO")
+public class StockValuationGroupDTO {
+    @Schema(description = "Group key (warehouse ID or category)")
+    private String key;
+
+    @Schema(description = "Group display name")
+    private String name;
+
+    @Schema(description = "Quantity On Hand in group")
+    private BigDecimal quantityOnHand;
+
+    @Schema(description = "Total Value in group")
+    private BigDecimal totalValue;
+}
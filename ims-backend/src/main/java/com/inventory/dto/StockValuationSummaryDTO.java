@@ -0,0 +1,29 @@
+package com.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock Valuation Summary DTO")
+public class StockValuationSummaryDTO {
+    @Schema(description = "Rollup applied to the groups")
+    private ValuationGrouping groupBy;
+
+    @Schema(description = "Per-group totals (empty when groupBy is NONE)")
+    private List<StockValuationGroupDTO> groups;
+
+    @Schema(description = "Grand total quantity on hand")
+    private BigDecimal totalQuantity;
+
+    @Schema(description = "Grand total value")
+    private BigDecimal totalValue;
+}
@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Spacing between points of an inventory trend series.
+ */
+public enum TrendGranularity {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * The {@code n}th point of a series starting at {@code start}. Counted from the start rather than from the
+     * previous point, so a monthly series from the 31st stays on the last day of short months instead of
+     * drifting to the 29th for good after February.
+     */
+    public LocalDate point(LocalDate start, int n) {
+        switch (this) {
+            case WEEKLY:
+                return start.plusWeeks(n);
+            case MONTHLY:
+                return start.plusMonths(n);
+            default:
+                return start.plusDays(n);
+        }
+    }
+}
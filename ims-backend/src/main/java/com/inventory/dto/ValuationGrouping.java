@@ -0,0 +1,10 @@
+package com.inventory.dto;
+
+/**
+ * Optional rollup applied to the stock valuation summary.
+ */
+public enum ValuationGrouping {
+    NONE,
+    WAREHOUSE,
+    CATEGORY
+}
@@ -0,0 +1,19 @@
+package com.inventory.dto;
+
+/**
+ * Sort keys for the warehouse list; ties are broken by id.
+ */
+public enum WarehouseSort {
+    NAME("name"),
+    LOCATION("location");
+
+    private final String attribute;
+
+    WarehouseSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
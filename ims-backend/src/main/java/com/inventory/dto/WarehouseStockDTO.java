@@ -0,0 +1,15 @@
+package com.inventory.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockDTO {
+    private UUID warehouseId;
+    private int quantity;
+}
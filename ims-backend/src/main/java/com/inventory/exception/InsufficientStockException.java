@@ -0,0 +1,11 @@
+package com.inventory.exception;
+
+import java.util.UUID;
+
+// Raised when an issue would take a product/warehouse pair below zero; nothing is written
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(UUID productId, UUID warehouseId, int requested, int available) {
+        super("Insufficient stock for product " + productId + " in warehouse " + warehouseId
+            + ": requested " + requested + ", available " + available);
+    }
+}
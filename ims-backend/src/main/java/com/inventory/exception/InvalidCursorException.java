@@ -0,0 +1,8 @@
+package com.inventory.exception;
+
+// Raised for a pagination cursor that is malformed or was issued for a different sort
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
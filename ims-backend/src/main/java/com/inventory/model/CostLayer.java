@@ -0,0 +1,43 @@
+package com.inventory.model;
+
+import lombok.*;
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "cost_layer")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CostLayer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cost_layer_seq")
+    @SequenceGenerator(name = "cost_layer_seq", sequenceName = "cost_layer_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private UUID warehouseId;
+
+    @Column(name = "quantity_received", nullable = false)
+    private Integer quantityReceived;
+
+    // Units of this receipt not yet issued; the layer is exhausted at zero
+    @Column(name = "quantity_remaining", nullable = false)
+    private Integer quantityRemaining;
+
+    @Column(name = "unit_cost", nullable = false)
+    private BigDecimal unitCost;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "reference")
+    private String reference;
+}
@@ -0,0 +1,47 @@
+package com.inventory.model;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A movement read through the {@code inventory_ledger} view: the live ledger plus the archived months
+ * (see V17). Reports read these so their results do not change when a month is archived; movements are
+ * only ever written as {@link InventoryMovement}.
+ */
+@Entity
+@Immutable
+@Table(name = "inventory_ledger")
+@Getter
+@NoArgsConstructor
+public class InventoryLedgerEntry {
+    @Id
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false)
+    private InventoryMovement.MovementType movementType;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_cost")
+    private BigDecimal unitCost;
+
+    @Column(name = "movement_date", nullable = false)
+    private LocalDateTime movementDate;
+
+    @Column(name = "reference")
+    private String reference;
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Builder
 public class InventoryMovement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movement_seq")
+    @SequenceGenerator(name = "inventory_movement_seq", sequenceName = "inventory_movement_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -41,7 +42,8 @@ public class InventoryMovement {
     @Column(name = "reference")
     private String reference;
 
+    // Transfers move stock without buying or selling it, so turnover counts neither TRANSFER_OUT nor TRANSFER_IN
     public enum MovementType {
-        INBOUND, OUTBOUND, ADJUSTMENT
+        INBOUND, OUTBOUND, ADJUSTMENT, TRANSFER_OUT, TRANSFER_IN
     }
 }
\ No newline at end of file
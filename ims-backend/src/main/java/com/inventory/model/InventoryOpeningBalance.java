@@ -0,0 +1,40 @@
+package com.inventory.model;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "inventory_opening_balance")
+@IdClass(InventoryOpeningBalance.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryOpeningBalance {
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @Id
+    @Column(name = "warehouse_id")
+    private UUID warehouseId;
+
+    // Archive horizon: the balance covers every movement dated before this day
+    @Column(name = "balance_date", nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID productId;
+        private UUID warehouseId;
+    }
+}
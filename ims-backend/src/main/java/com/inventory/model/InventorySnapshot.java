@@ -0,0 +1,47 @@
+package com.inventory.model;
+
+import lombok.*;
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Entity
+@Table(name = "inventory_snapshot")
+@IdClass(InventorySnapshot.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySnapshot {
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @Id
+    @Column(name = "warehouse_id")
+    private UUID warehouseId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    // On-hand after every movement dated on or before snapshotDate
+    @Column(name = "closing_quantity", nullable = false)
+    private Long closingQuantity;
+
+    // closingQuantity at the product price when the snapshot was built
+    @Column(name = "closing_value", nullable = false)
+    private BigDecimal closingValue;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID productId;
+        private UUID warehouseId;
+        private LocalDate snapshotDate;
+    }
+}
@@ -0,0 +1,78 @@
+package com.inventory.model;
+
+import com.inventory.dto.ExportFormat;
+import com.inventory.dto.TrendGranularity;
+import lombok.*;
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "report_job")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportType reportType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.QUEUED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExportFormat format;
+
+    private UUID productId;
+
+    private UUID warehouseId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    private TrendGranularity granularity;
+
+    private String requestedBy;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long rowsWritten = 0L;
+
+    // Compressed size in bytes
+    private Long resultSize;
+
+    private String errorMessage;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    public enum ReportType {
+        TURNOVER,
+        VALUATION,
+        TRENDS
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
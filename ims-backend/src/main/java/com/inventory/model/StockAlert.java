@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Builder
 public class StockAlert {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_alert_seq")
+    @SequenceGenerator(name = "stock_alert_seq", sequenceName = "stock_alert_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -0,0 +1,42 @@
+package com.inventory.model;
+
+import lombok.*;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_transfer")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTransfer {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID sourceWarehouseId;
+
+    @Column(nullable = false)
+    private UUID destinationWarehouseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private String reference;
+
+    @Column(nullable = false)
+    private LocalDateTime shippedAt;
+
+    private LocalDateTime receivedAt;
+
+    public enum Status {
+        // Taken out of the source, not yet in the destination
+        IN_TRANSIT,
+        RECEIVED
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventory.model;
+
+import lombok.*;
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_transfer_line")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTransferLine {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_transfer_line_seq")
+    @SequenceGenerator(name = "stock_transfer_line_seq", sequenceName = "stock_transfer_line_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "transfer_id", nullable = false)
+    private UUID transferId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Cost of the units as they left the source
+    @Column(name = "unit_cost", nullable = false)
+    private BigDecimal unitCost;
+}
@@ -0,0 +1,102 @@
+package com.inventory.repository;
+
+import com.inventory.repository.projection.CostBalance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC for cost_balance, the open quantity and value of each product/warehouse pair. Every write takes a new
+ * version from cost_balance_version_seq. Callers hold the pair's inventory row lock, as for cost layers.
+ */
+@Repository
+public class CostBalanceRepository {
+    // One unique-index probe per pair, like CostLayerBulkRepository.FIND_OPEN; pairs without a row are left out
+    private static final String FIND =
+        "SELECT b.product_id, b.warehouse_id, b.quantity, b.value, b.version " +
+        "FROM unnest(?::uuid[], ?::uuid[]) AS c(product_id, warehouse_id) " +
+        "CROSS JOIN LATERAL (" +
+        "  SELECT * FROM cost_balance b WHERE b.product_id = c.product_id AND b.warehouse_id = c.warehouse_id" +
+        ") b";
+
+    // Applies a change only if nobody else has written the pair since the caller read the expected version
+    private static final String CLAIM =
+        "UPDATE cost_balance SET quantity = quantity + ?, value = value + ?, version = nextval('cost_balance_version_seq') " +
+        "WHERE product_id = ? AND warehouse_id = ? AND version = ? RETURNING version";
+
+    // One entry per pair. A missing value is the quantity at the product's price, as found stock has no receipt
+    // to cost it; the price is read by a scalar subquery so each row is one primary key probe whatever the plan
+    private static final String ADD =
+        "INSERT INTO cost_balance AS b (product_id, warehouse_id, quantity, value, version) " +
+        "SELECT c.product_id, c.warehouse_id, c.quantity, " +
+        "  COALESCE(c.value, c.quantity * (SELECT p.price FROM product p WHERE p.id = c.product_id), 0), " +
+        "  nextval('cost_balance_version_seq') " +
+        "FROM unnest(?::uuid[], ?::uuid[], ?::bigint[], ?::numeric[]) AS c(product_id, warehouse_id, quantity, value) " +
+        "ON CONFLICT (product_id, warehouse_id) DO UPDATE SET " +
+        "  quantity = b.quantity + EXCLUDED.quantity, value = b.value + EXCLUDED.value, version = EXCLUDED.version " +
+        "RETURNING b.product_id, b.warehouse_id, b.quantity, b.value, b.version";
+
+    // Takes up to the requested quantity at the average unit value, rounded to the cent, and returns what was
+    // taken. Drawing everything takes exactly the value left, so a pair's issues add up to what its receipts cost
+    private static final String DRAW_AVERAGE =
+        "UPDATE cost_balance b SET quantity = b.quantity - d.quantity, value = b.value - d.value, " +
+        "  version = nextval('cost_balance_version_seq') " +
+        "FROM (" +
+        "  SELECT product_id, warehouse_id, LEAST(?, quantity) AS quantity, ROUND(value * LEAST(?, quantity) / quantity, 2) AS value " +
+        "  FROM cost_balance WHERE product_id = ? AND warehouse_id = ? AND quantity > 0" +
+        ") d " +
+        "WHERE b.product_id = d.product_id AND b.warehouse_id = d.warehouse_id " +
+        "RETURNING b.product_id, b.warehouse_id, d.quantity, d.value, b.version";
+
+    private static final RowMapper<CostBalance> COST_BALANCE = (rs, rowNum) -> CostBalance.builder()
+        .productId(rs.getObject("product_id", UUID.class))
+        .warehouseId(rs.getObject("warehouse_id", UUID.class))
+        .quantity(rs.getLong("quantity"))
+        .value(rs.getBigDecimal("value"))
+        .version(rs.getLong("version"))
+        .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CostBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<CostBalance> find(List<UUID> productIds, List<UUID> warehouseIds) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND);
+            ps.setArray(1, connection.createArrayOf("uuid", productIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid", warehouseIds.toArray()));
+            return ps;
+        }, COST_BALANCE);
+    }
+
+    // Returns the new version, or null if the pair has no row or its version is no longer the expected one
+    public Long claim(UUID productId, UUID warehouseId, long expectedVersion, long quantity, BigDecimal value) {
+        List<Long> versions = jdbcTemplate.queryForList(CLAIM, Long.class, quantity, value, productId, warehouseId, expectedVersion);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    // Values may be null to use the product's price; returns the rows as written
+    public List<CostBalance> add(List<UUID> productIds, List<UUID> warehouseIds, List<Long> quantities, List<BigDecimal> values) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ADD);
+            ps.setArray(1, connection.createArrayOf("uuid", productIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid", warehouseIds.toArray()));
+            ps.setArray(3, connection.createArrayOf("int8", quantities.toArray()));
+            ps.setArray(4, connection.createArrayOf("numeric", values.toArray()));
+            return ps;
+        }, COST_BALANCE);
+    }
+
+    // Returns null if the pair has nothing open
+    public CostBalance drawAverage(UUID productId, UUID warehouseId, int quantity) {
+        List<CostBalance> drawn = jdbcTemplate.query(DRAW_AVERAGE, COST_BALANCE, quantity, quantity, productId, warehouseId);
+        return drawn.isEmpty() ? null : drawn.get(0);
+    }
+}
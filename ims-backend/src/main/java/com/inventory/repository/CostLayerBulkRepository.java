@@ -0,0 +1,94 @@
+package com.inventory.repository;
+
+import com.inventory.model.CostLayer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based JDBC for cost layers touched by bulk stock counts, with keys passed as PostgreSQL arrays like
+ * {@link InventoryBulkRepository}, so a chunk costs the same few statements whatever its size.
+ */
+@Repository
+public class CostLayerBulkRepository {
+    // Oldest first within each pair, which is the order FIFO draws them down. The lateral join probes the open
+    // layers index once per pair whatever the statistics say; as a plain join, a cost_layer table that had just
+    // been bulk loaded looked empty to the planner, which then rescanned the pairs once per layer
+    private static final String FIND_OPEN =
+        "SELECT l.id, l.product_id, l.warehouse_id, l.quantity_remaining, l.unit_cost " +
+        "FROM unnest(?::uuid[], ?::uuid[]) AS c(product_id, warehouse_id) " +
+        "CROSS JOIN LATERAL (" +
+        "  SELECT * FROM cost_layer l WHERE l.product_id = c.product_id AND l.warehouse_id = c.warehouse_id " +
+        "  AND l.quantity_remaining > 0" +
+        ") l ORDER BY l.id";
+
+    private static final String UPDATE_REMAINING =
+        "UPDATE cost_layer l SET quantity_remaining = u.remaining " +
+        "FROM unnest(?::bigint[], ?::int[]) AS u(id, remaining) WHERE l.id = u.id";
+
+    // A missing unit cost falls back to the product's price, as found stock has no receipt to cost it
+    private static final String INSERT_LAYERS =
+        "INSERT INTO cost_layer (product_id, warehouse_id, quantity_received, quantity_remaining, unit_cost, received_at, reference) " +
+        "SELECT c.product_id, c.warehouse_id, c.quantity, c.quantity, COALESCE(c.unit_cost, p.price, 0), now(), ? " +
+        "FROM unnest(?::uuid[], ?::uuid[], ?::int[], ?::numeric[]) AS c(product_id, warehouse_id, quantity, unit_cost) " +
+        "JOIN product p ON p.id = c.product_id " +
+        "RETURNING id, product_id, warehouse_id, quantity_remaining, unit_cost";
+
+    private static final RowMapper<CostLayer> OPEN_LAYER = (rs, rowNum) -> CostLayer.builder()
+        .id(rs.getLong("id"))
+        .productId(rs.getObject("product_id", UUID.class))
+        .warehouseId(rs.getObject("warehouse_id", UUID.class))
+        .quantityRemaining(rs.getInt("quantity_remaining"))
+        .unitCost(rs.getBigDecimal("unit_cost"))
+        .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CostLayerBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<CostLayer> findOpen(List<UUID> productIds, List<UUID> warehouseIds) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_OPEN);
+            ps.setArray(1, connection.createArrayOf("uuid", productIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("uuid", warehouseIds.toArray()));
+            return ps;
+        }, OPEN_LAYER);
+    }
+
+    public void updateRemaining(List<Long> ids, List<Integer> remaining) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_REMAINING);
+            ps.setArray(1, connection.createArrayOf("int8", ids.toArray()));
+            ps.setArray(2, connection.createArrayOf("int4", remaining.toArray()));
+            return ps;
+        });
+    }
+
+    // Unit costs may be null to use the product's price; returns the new layers
+    public List<CostLayer> insertLayers(List<UUID> productIds, List<UUID> warehouseIds, List<Integer> quantities,
+                                        List<BigDecimal> unitCosts, String reference) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_LAYERS);
+            ps.setString(1, reference);
+            ps.setArray(2, connection.createArrayOf("uuid", productIds.toArray()));
+            ps.setArray(3, connection.createArrayOf("uuid", warehouseIds.toArray()));
+            ps.setArray(4, connection.createArrayOf("int4", quantities.toArray()));
+            ps.setArray(5, connection.createArrayOf("numeric", unitCosts.toArray()));
+            return ps;
+        }, OPEN_LAYER);
+    }
+}
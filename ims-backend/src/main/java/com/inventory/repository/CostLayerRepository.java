@@ -0,0 +1,16 @@
+package com.inventory.repository;
+
+import com.inventory.model.CostLayer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CostLayerRepository extends JpaRepository<CostLayer, Long> {
+    // Open layers are read through CostLayerBulkRepository, which never hands back a stale managed entity
+    @Modifying
+    @Query("UPDATE CostLayer c SET c.quantityRemaining = :remaining WHERE c.id = :id")
+    int updateRemaining(@Param("id") Long id, @Param("remaining") int remaining);
+}
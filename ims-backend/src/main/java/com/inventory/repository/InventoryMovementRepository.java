@@ -1,20 +1,95 @@
 package com.inventory.repository;
 
 import com.inventory.model.InventoryMovement;
-import com.inventory.model.Product;
-import com.inventory.model.Warehouse;
+import com.inventory.repository.projection.OnHandAggregate;
+import com.inventory.repository.projection.TrendMovement;
+import com.inventory.repository.projection.TurnoverAggregate;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
-    @Query("SELECT COALESCE(SUM(im.unitCost * im.quantity), 0) FROM InventoryMovement im WHERE im.product = :product AND (:warehouse IS NULL OR im.warehouse = :warehouse) AND im.movementType = 'OUTBOUND' AND im.movementDate BETWEEN :start AND :end")
-    BigDecimal sumCogsForProductAndWarehouse(@Param("product") Product product, @Param("warehouse") Warehouse warehouse, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    // Reads go through InventoryLedgerEntry, so archived months are still included.
+
+    // Net change, issued quantity and COGS per product/warehouse pair inside the report window only;
+    // the opening balance comes from the daily snapshots. Outbound quantities are taken as ABS so
+    // COGS is positive whichever sign the ledger stores.
+    // Streamed in report order so exports never hold the whole report; consume inside a transaction and close.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.inventory.repository.projection.TurnoverAggregate(" +
+            "p.id, p.name, p.price, w.id, w.name, " +
+            "SUM(CASE WHEN im.movementDate > :start THEN im.quantity ELSE 0 END), " +
+            "SUM(CASE WHEN im.movementType = :outbound THEN ABS(im.quantity) ELSE 0 END), " +
+            "SUM(CASE WHEN im.movementType = :outbound THEN (ABS(im.quantity) * im.unitCost) ELSE 0 END)) " +
+            "FROM InventoryLedgerEntry im JOIN im.product p JOIN im.warehouse w " +
+            "WHERE im.movementDate >= :start AND im.movementDate <= :end " +
+            "AND p.id = COALESCE(:productId, p.id) " +
+            "AND w.id = COALESCE(:warehouseId, w.id) " +
+            "GROUP BY p.id, p.name, p.price, w.id, w.name " +
+            "ORDER BY p.name, w.name, p.id, w.id")
+    Stream<TurnoverAggregate> aggregateTurnover(@Param("productId") UUID productId,
+                                                @Param("warehouseId") UUID warehouseId,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("end") LocalDateTime end,
+                                                @Param("outbound") InventoryMovement.MovementType outbound);
+
+    // Full-history on-hand; only used before the first snapshot has been built, for times before the
+    // archive horizon
+    @Query("SELECT new com.inventory.repository.projection.OnHandAggregate(p.id, p.name, p.price, w.id, w.name, SUM(im.quantity)) " +
+            "FROM InventoryLedgerEntry im JOIN im.product p JOIN im.warehouse w " +
+            "WHERE im.movementDate <= :at " +
+            "AND p.id = COALESCE(:productId, p.id) " +
+            "AND w.id = COALESCE(:warehouseId, w.id) " +
+            "GROUP BY p.id, p.name, p.price, w.id, w.name")
+    List<OnHandAggregate> aggregateOnHandAt(@Param("productId") UUID productId,
+                                            @Param("warehouseId") UUID warehouseId,
+                                            @Param("at") LocalDateTime at);
+
+    // Net movement per pair in [from, at]; added on top of a snapshot closing balance
+    @Query("SELECT new com.inventory.repository.projection.OnHandAggregate(p.id, p.name, p.price, w.id, w.name, SUM(im.quantity)) " +
+            "FROM InventoryLedgerEntry im JOIN im.product p JOIN im.warehouse w " +
+            "WHERE im.movementDate >= :from AND im.movementDate <= :at " +
+            "AND p.id = COALESCE(:productId, p.id) " +
+            "AND w.id = COALESCE(:warehouseId, w.id) " +
+            "GROUP BY p.id, p.name, p.price, w.id, w.name")
+    List<OnHandAggregate> aggregateNetChangeBetween(@Param("productId") UUID productId,
+                                                    @Param("warehouseId") UUID warehouseId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("at") LocalDateTime at);
+
+    @Query("SELECT MIN(im.movementDate) FROM InventoryLedgerEntry im")
+    LocalDateTime findFirstMovementDate();
+
+    // Monthly partitions covering [from, to] that do not exist yet; returns how many were created
+    @Query(value = "SELECT create_inventory_movement_partitions(:from, :to)", nativeQuery = true)
+    int createPartitions(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Moves every movement dated before the start of before's month to the archive, rolling it into the
+    // opening balances; returns how many moved
+    @Query(value = "SELECT archive_inventory_movements(:before)", nativeQuery = true)
+    long archiveBefore(@Param("before") LocalDate before);
 
-    @Query("SELECT COALESCE(SUM(im.quantity), 0) FROM InventoryMovement im WHERE im.product = :product AND (:warehouse IS NULL OR im.warehouse = :warehouse) AND im.movementDate <= :at")
-    Integer getInventoryOnHandAt(@Param("product") Product product, @Param("warehouse") Warehouse warehouse, @Param("at") LocalDateTime at);
-}
\ No newline at end of file
+    // Must be consumed inside a transaction and closed; rows arrive grouped by pair in date order.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.inventory.repository.projection.TrendMovement(p.id, p.name, w.id, w.name, im.movementDate, im.quantity) " +
+            "FROM InventoryLedgerEntry im JOIN im.product p JOIN im.warehouse w " +
+            "WHERE im.movementDate > :from AND im.movementDate <= :to " +
+            "AND p.id = COALESCE(:productId, p.id) " +
+            "AND w.id = COALESCE(:warehouseId, w.id) " +
+            "ORDER BY p.id, w.id, im.movementDate")
+    Stream<TrendMovement> streamMovementsBetween(@Param("productId") UUID productId,
+                                                 @Param("warehouseId") UUID warehouseId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+}
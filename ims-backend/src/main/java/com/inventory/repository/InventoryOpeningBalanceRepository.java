@@ -0,0 +1,26 @@
+package com.inventory.repository;
+
+import com.inventory.model.InventoryOpeningBalance;
+import com.inventory.repository.projection.OnHandAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InventoryOpeningBalanceRepository extends JpaRepository<InventoryOpeningBalance, InventoryOpeningBalance.Key> {
+    // Null until the ledger has first been archived
+    @Query("SELECT MAX(b.balanceDate) FROM InventoryOpeningBalance b")
+    LocalDate findBalanceDate();
+
+    @Query("SELECT new com.inventory.repository.projection.OnHandAggregate(p.id, p.name, p.price, w.id, w.name, b.quantity) " +
+            "FROM InventoryOpeningBalance b JOIN Product p ON p.id = b.productId JOIN Warehouse w ON w.id = b.warehouseId " +
+            "WHERE p.id = COALESCE(:productId, p.id) " +
+            "AND w.id = COALESCE(:warehouseId, w.id)")
+    List<OnHandAggregate> findBalances(@Param("productId") UUID productId,
+                                       @Param("warehouseId") UUID warehouseId);
+}
@@ -3,12 +3,97 @@ package com.inventory.repository;
 import com.inventory.model.Inventory;
 import com.inventory.model.Product;
 import com.inventory.model.Warehouse;
+import com.inventory.repository.projection.IssuedStock;
+import com.inventory.repository.projection.StockLevel;
+import com.inventory.repository.projection.ValuationRollup;
+import com.inventory.repository.projection.ValuationRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Optional<Inventory> findByProductAndWarehouse(Product product, Warehouse warehouse);
-}
\ No newline at end of file
+
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product p JOIN FETCH i.warehouse w " +
+            "WHERE p.id = COALESCE(:productId, p.id) AND w.id = COALESCE(:warehouseId, w.id)")
+    List<Inventory> findAllWithProductAndWarehouse(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    // Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.inventory.repository.projection.ValuationRow(" +
+            "p.id, p.name, p.category, w.id, w.name, i.quantity, p.price, i.quantity * p.price) " +
+            "FROM Inventory i JOIN i.product p JOIN i.warehouse w " +
+            "WHERE p.id = COALESCE(:productId, p.id) AND w.id = COALESCE(:warehouseId, w.id) " +
+            "ORDER BY p.name, w.name")
+    Stream<ValuationRow> streamValuationRows(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    @Query("SELECT new com.inventory.repository.projection.ValuationRollup(" +
+            "str(w.id), w.name, SUM(i.quantity), SUM(i.quantity * p.price)) " +
+            "FROM Inventory i JOIN i.product p JOIN i.warehouse w " +
+            "WHERE p.id = COALESCE(:productId, p.id) AND w.id = COALESCE(:warehouseId, w.id) " +
+            "GROUP BY w.id, w.name ORDER BY w.name")
+    List<ValuationRollup> sumValuationByWarehouse(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    @Query("SELECT new com.inventory.repository.projection.ValuationRollup(" +
+            "p.category, p.category, SUM(i.quantity), SUM(i.quantity * p.price)) " +
+            "FROM Inventory i JOIN i.product p JOIN i.warehouse w " +
+            "WHERE p.id = COALESCE(:productId, p.id) AND w.id = COALESCE(:warehouseId, w.id) " +
+            "GROUP BY p.category ORDER BY p.category")
+    List<ValuationRollup> sumValuationByCategory(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    @Query("SELECT new com.inventory.repository.projection.ValuationRollup(" +
+            "'TOTAL', 'TOTAL', SUM(i.quantity), SUM(i.quantity * p.price)) " +
+            "FROM Inventory i JOIN i.product p JOIN i.warehouse w " +
+            "WHERE p.id = COALESCE(:productId, p.id) AND w.id = COALESCE(:warehouseId, w.id)")
+    ValuationRollup sumValuation(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    // Adds delta in the database, creating the row on first receipt; safe under concurrent receipts
+    @Query(value = "INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold, created_at, updated_at) " +
+            "VALUES (:productId, :warehouseId, :delta, :reorderThreshold, now(), now()) " +
+            "ON CONFLICT (product_id, warehouse_id) DO UPDATE " +
+            "SET quantity = inventory.quantity + EXCLUDED.quantity, updated_at = now() " +
+            "RETURNING id, quantity, reorder_threshold AS reorderThreshold, quantity - :delta AS previousQuantity",
+            nativeQuery = true)
+    StockLevel addStock(@Param("productId") UUID productId,
+                        @Param("warehouseId") UUID warehouseId,
+                        @Param("delta") int delta,
+                        @Param("reorderThreshold") int reorderThreshold);
+
+    // Sets an absolute quantity and reports what it replaced; null if the row does not exist
+    @Query(value = "UPDATE inventory i SET quantity = :quantity, updated_at = now() " +
+            "FROM (SELECT id, quantity FROM inventory WHERE id = :id FOR UPDATE) old " +
+            "WHERE i.id = old.id " +
+            "RETURNING i.id, i.quantity, i.reorder_threshold AS reorderThreshold, old.quantity AS previousQuantity",
+            nativeQuery = true)
+    StockLevel setStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Takes quantity out only if enough is on hand; null when the row is missing or short.
+    // Locks just this pair's row, so picks on different SKUs never wait on each other.
+    @Query(value = "UPDATE inventory i SET quantity = i.quantity - :quantity, updated_at = now() " +
+            "FROM product p " +
+            "WHERE p.id = i.product_id AND i.product_id = :productId AND i.warehouse_id = :warehouseId " +
+            "AND i.quantity >= :quantity " +
+            "RETURNING i.id, i.quantity, i.reorder_threshold AS reorderThreshold, " +
+            "i.quantity + :quantity AS previousQuantity, p.price AS unitCost",
+            nativeQuery = true)
+    IssuedStock removeStock(@Param("productId") UUID productId,
+                            @Param("warehouseId") UUID warehouseId,
+                            @Param("quantity") int quantity);
+
+    @Query("SELECT i.quantity FROM Inventory i WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId")
+    Optional<Integer> findQuantity(@Param("productId") UUID productId, @Param("warehouseId") UUID warehouseId);
+
+    @Query("SELECT i.product.id FROM Inventory i WHERE i.warehouse.id = :warehouseId")
+    List<UUID> findProductIdsByWarehouseId(@Param("warehouseId") UUID warehouseId);
+}
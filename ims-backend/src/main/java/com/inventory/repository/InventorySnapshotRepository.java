@@ -0,0 +1,102 @@
+package com.inventory.repository;
+
+import com.inventory.model.InventorySnapshot;
+import com.inventory.repository.projection.OnHandAggregate;
+import com.inventory.repository.projection.SnapshotClosing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, InventorySnapshot.Key> {
+    // Last day built; null until the builder first runs
+    @Query(value = "SELECT built_through FROM inventory_snapshot_watermark", nativeQuery = true)
+    LocalDate findBuiltThrough();
+
+    @Modifying
+    @Query(value = "INSERT INTO inventory_snapshot_watermark (id, built_through) VALUES (TRUE, :day) " +
+            "ON CONFLICT (id) DO UPDATE SET built_through = EXCLUDED.built_through",
+            nativeQuery = true)
+    int markBuiltThrough(@Param("day") LocalDate day);
+
+    // Each pair's latest row on or before the day. The pairs are found by skipping through the primary key one
+    // pair at a time and each closing by one probe of it, so the cost follows the number of pairs, not the
+    // days of history behind them.
+    default List<OnHandAggregate> findClosingOn(UUID productId, UUID warehouseId, LocalDate day) {
+        return findClosingRowsOn(productId, warehouseId, day).stream()
+            .map(row -> OnHandAggregate.builder()
+                .productId(row.getProductId())
+                .productName(row.getProductName())
+                .productPrice(row.getProductPrice())
+                .warehouseId(row.getWarehouseId())
+                .warehouseName(row.getWarehouseName())
+                .quantity(row.getQuantity())
+                .build())
+            .collect(Collectors.toList());
+    }
+
+    // Ids come back as text, which Hibernate can map from a native query and the projection turns into UUIDs
+    @Query(value = "WITH RECURSIVE pairs AS (" +
+            "  (SELECT s.product_id, s.warehouse_id FROM inventory_snapshot s " +
+            "   WHERE s.product_id = COALESCE(:productId, s.product_id) " +
+            "   ORDER BY s.product_id, s.warehouse_id LIMIT 1) " +
+            "  UNION ALL " +
+            "  SELECT n.product_id, n.warehouse_id FROM pairs q CROSS JOIN LATERAL (" +
+            "    SELECT s.product_id, s.warehouse_id FROM inventory_snapshot s " +
+            "    WHERE (s.product_id, s.warehouse_id) > (q.product_id, q.warehouse_id) " +
+            "    AND s.product_id = COALESCE(:productId, s.product_id) " +
+            "    ORDER BY s.product_id, s.warehouse_id LIMIT 1) n" +
+            ") " +
+            "SELECT CAST(p.id AS text) AS productId, p.name AS productName, p.price AS productPrice, " +
+            "CAST(w.id AS text) AS warehouseId, w.name AS warehouseName, c.closing_quantity AS quantity " +
+            "FROM pairs q CROSS JOIN LATERAL (" +
+            "  SELECT s.closing_quantity FROM inventory_snapshot s " +
+            "  WHERE s.product_id = q.product_id AND s.warehouse_id = q.warehouse_id AND s.snapshot_date <= :day " +
+            "  ORDER BY s.snapshot_date DESC LIMIT 1) c " +
+            "JOIN product p ON p.id = q.product_id JOIN warehouse w ON w.id = q.warehouse_id " +
+            "WHERE q.warehouse_id = COALESCE(:warehouseId, q.warehouse_id)",
+            nativeQuery = true)
+    List<SnapshotClosing> findClosingRowsOn(@Param("productId") UUID productId,
+                                            @Param("warehouseId") UUID warehouseId,
+                                            @Param("day") LocalDate day);
+
+    // Earliest day a back-dated movement changed since it was built (V23); locked so that a movement recorded
+    // meanwhile waits for the rebuild to be reset and then marks it again
+    @Query(value = "SELECT rebuild_from FROM inventory_snapshot_watermark WHERE rebuild_from IS NOT NULL FOR UPDATE",
+            nativeQuery = true)
+    LocalDate lockRebuildFrom();
+
+    @Modifying
+    @Query(value = "DELETE FROM inventory_snapshot WHERE snapshot_date >= :day", nativeQuery = true)
+    int deleteFrom(@Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "UPDATE inventory_snapshot_watermark SET built_through = :day, rebuild_from = NULL", nativeQuery = true)
+    int reopenAfter(@Param("day") LocalDate day);
+
+    // Rows only for the pairs that moved that day: their latest earlier closing plus the day's net movement
+    @Modifying
+    @Query(value = "INSERT INTO inventory_snapshot (product_id, warehouse_id, snapshot_date, closing_quantity, closing_value) " +
+            "SELECT d.product_id, d.warehouse_id, :day, t.quantity, t.quantity * COALESCE(p.price, 0) " +
+            "FROM (SELECT product_id, warehouse_id, SUM(quantity) AS quantity FROM inventory_ledger " +
+            "      WHERE movement_date >= :dayStart AND movement_date < :nextDayStart " +
+            "      GROUP BY product_id, warehouse_id) d " +
+            "CROSS JOIN LATERAL (SELECT COALESCE((SELECT prev.closing_quantity FROM inventory_snapshot prev " +
+            "                                     WHERE prev.product_id = d.product_id AND prev.warehouse_id = d.warehouse_id " +
+            "                                       AND prev.snapshot_date < :day " +
+            "                                     ORDER BY prev.snapshot_date DESC LIMIT 1), 0) + d.quantity AS quantity) t " +
+            "JOIN product p ON p.id = d.product_id " +
+            "ON CONFLICT (product_id, warehouse_id, snapshot_date) DO NOTHING",
+            nativeQuery = true)
+    int buildDay(@Param("day") LocalDate day,
+                 @Param("dayStart") LocalDateTime dayStart,
+                 @Param("nextDayStart") LocalDateTime nextDayStart);
+}
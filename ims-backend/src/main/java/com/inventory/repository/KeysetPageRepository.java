@@ -0,0 +1,173 @@
+package com.inventory.repository;
+
+import com.inventory.dto.CursorPageDTO;
+import com.inventory.exception.InvalidCursorException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.EntityType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination for the list endpoints. Each page is "rows after the last one seen" in
+ * (sort attribute, id) order, so reading page 1000 costs the same index range scan as page 1 instead of
+ * skipping OFFSET rows. The cursor is opaque to clients: base64 of the sort it was issued for and the
+ * last row's key, and it is rejected if replayed against a different sort.
+ */
+@Repository
+public class KeysetPageRepository {
+    private static final String SEPARATOR = "\n";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int maxPageSize;
+
+    public KeysetPageRepository(@Value("${inventory.pagination.max-page-size:200}") int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Reads up to {@code limit} rows (capped at the configured max page size) matching {@code filter},
+     * ordered by {@code sortAttribute} then id, starting after {@code cursor} (null for the first page).
+     * The sort attribute must be a non-null column. {@code fetches} names to-one associations the caller
+     * will read, so they arrive in the same select instead of one lazy load per row.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> CursorPageDTO<T> findPage(Class<T> type, Specification<T> filter, String sortAttribute,
+                                         Sort.Direction direction, String cursor, int limit, String... fetches) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        String idAttribute = idAttribute(type);
+        boolean sortById = sortAttribute.equals(idAttribute);
+        String sortKey = sortAttribute + " " + direction;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        for (String fetch : fetches) {
+            root.fetch(fetch);
+        }
+        Path<Comparable> sortPath = root.get(sortAttribute);
+        Path<Comparable> idPath = root.get(idAttribute);
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter != null) {
+            Predicate predicate = filter.toPredicate(root, query, cb);
+            if (predicate != null) {
+                where.add(predicate);
+            }
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] after = decode(cursor, sortKey);
+            Comparable lastId = parse(after[0], idPath.getJavaType());
+            if (sortById) {
+                where.add(beyond(cb, direction, idPath, lastId));
+            } else {
+                Comparable lastValue = parse(after[1], sortPath.getJavaType());
+                // The non-strict bound is redundant but gives the planner an index condition to seek on;
+                // the OR alone would be applied as a filter while scanning from the start of the index
+                where.add(direction.isAscending()
+                        ? cb.greaterThanOrEqualTo(sortPath, lastValue)
+                        : cb.lessThanOrEqualTo(sortPath, lastValue));
+                where.add(cb.or(
+                        beyond(cb, direction, sortPath, lastValue),
+                        cb.and(cb.equal(sortPath, lastValue), beyond(cb, direction, idPath, lastId))));
+            }
+        }
+        query.select(root).where(where.toArray(new Predicate[0]));
+        if (sortById) {
+            query.orderBy(order(cb, direction, idPath));
+        } else {
+            query.orderBy(order(cb, direction, sortPath), order(cb, direction, idPath));
+        }
+
+        // One extra row tells us whether there is a next page without a COUNT
+        List<T> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (rows.size() <= size) {
+            return new CursorPageDTO<>(rows, null);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        BeanWrapperImpl last = new BeanWrapperImpl(items.get(size - 1));
+        Object lastValue = sortById ? null : last.getPropertyValue(sortAttribute);
+        return new CursorPageDTO<>(items, encode(sortKey, last.getPropertyValue(idAttribute), lastValue));
+    }
+
+    private <T> String idAttribute(Class<T> type) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        return entity.getId(entity.getIdType().getJavaType()).getName();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Sort.Direction direction, Path<Comparable> path, Comparable value) {
+        return direction.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static Order order(CriteriaBuilder cb, Sort.Direction direction, Path<?> path) {
+        return direction.isAscending() ? cb.asc(path) : cb.desc(path);
+    }
+
+    // The sort value goes last so that nothing it contains can shift the other fields
+    private static String encode(String sortKey, Object id, Object value) {
+        String raw = sortKey + SEPARATOR + id + (value == null ? "" : SEPARATOR + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, String sortKey) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        String[] parts = raw.split(SEPARATOR, 3);
+        if (parts.length < 2 || !parts[0].equals(sortKey)) {
+            throw new InvalidCursorException("Cursor does not match the requested sort");
+        }
+        return new String[]{parts[1], parts.length == 3 ? parts[2] : null};
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable parse(String value, Class<?> javaType) {
+        if (value == null) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        try {
+            if (javaType == String.class) {
+                return value;
+            }
+            if (javaType == UUID.class) {
+                return UUID.fromString(value);
+            }
+            if (javaType == Long.class || javaType == long.class) {
+                return Long.valueOf(value);
+            }
+            if (javaType == Integer.class || javaType == int.class) {
+                return Integer.valueOf(value);
+            }
+            if (javaType == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+            if (javaType == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (javaType.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) javaType, value);
+            }
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        throw new IllegalStateException("Unsupported sort attribute type: " + javaType);
+    }
+}
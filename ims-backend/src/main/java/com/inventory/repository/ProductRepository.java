@@ -1,7 +1,11 @@
 package com.inventory.repository;
 
+import com.inventory.config.CacheConfig;
 import com.inventory.model.Product;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +16,14 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     boolean existsByName(String name);
     boolean existsBySku(String sku);
     Optional<Product> findByName(String name);
-}
\ No newline at end of file
+
+    // Cached read-through lookups for write paths that only reference the product; the result is
+    // shared between requests, so never modify it (ProductServiceImpl loads its own copy to update)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_ID, sync = true)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findCachedById(@Param("id") UUID id);
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_NAME, sync = true)
+    @Query("SELECT p FROM Product p WHERE p.name = :name")
+    Optional<Product> findCachedByName(@Param("name") String name);
+}
@@ -0,0 +1,28 @@
+package com.inventory.repository;
+
+import com.inventory.model.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :failed, j.errorMessage = :message, j.completedAt = :at WHERE j.status IN :statuses")
+    int failAll(@Param("statuses") Collection<ReportJob.Status> statuses,
+                @Param("failed") ReportJob.Status failed,
+                @Param("message") String message,
+                @Param("at") LocalDateTime at);
+
+    // Result chunks go with their job through the foreign key's ON DELETE CASCADE
+    @Modifying
+    @Query("DELETE FROM ReportJob j WHERE j.status IN :statuses AND j.completedAt < :before")
+    int deleteFinishedBefore(@Param("statuses") Collection<ReportJob.Status> statuses,
+                             @Param("before") LocalDateTime before);
+}
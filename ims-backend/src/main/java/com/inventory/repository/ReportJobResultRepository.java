@@ -0,0 +1,86 @@
+package com.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Gzipped report exports, stored as numbered chunks. Plain JDBC so a written chunk is not kept in a
+ * persistence context until commit, and reads fetch one chunk at a time.
+ */
+@Repository
+public class ReportJobResultRepository {
+    private static final String INSERT_CHUNK = "INSERT INTO report_job_result_chunk (job_id, chunk_no, content) VALUES (?, ?, ?)";
+    private static final String DELETE_CHUNKS = "DELETE FROM report_job_result_chunk WHERE job_id = ?";
+    private static final String FIND_CHUNK = "SELECT content FROM report_job_result_chunk WHERE job_id = ? AND chunk_no = ?";
+    private static final String EXISTS = "SELECT EXISTS (SELECT 1 FROM report_job_result_chunk WHERE job_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReportJobResultRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void saveChunk(UUID jobId, int chunkNo, byte[] content) {
+        jdbcTemplate.update(INSERT_CHUNK, jobId, chunkNo, content);
+    }
+
+    public void deleteByJobId(UUID jobId) {
+        jdbcTemplate.update(DELETE_CHUNKS, jobId);
+    }
+
+    public boolean existsByJobId(UUID jobId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS, Boolean.class, jobId));
+    }
+
+    /**
+     * The stored bytes as one stream that fetches the next chunk only once the previous one is read. Each
+     * fetch is its own statement, so no connection is held while the caller writes to a slow client.
+     */
+    public InputStream open(UUID jobId) {
+        return new InputStream() {
+            private byte[] chunk = new byte[0];
+            private int position;
+            private int nextChunk;
+            private boolean exhausted;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (length == 0) {
+                    return 0;
+                }
+                while (position == chunk.length) {
+                    if (exhausted || !fetch()) {
+                        return -1;
+                    }
+                }
+                int count = Math.min(length, chunk.length - position);
+                System.arraycopy(chunk, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+
+            private boolean fetch() {
+                List<byte[]> rows = jdbcTemplate.query(FIND_CHUNK, (rs, rowNum) -> rs.getBytes(1), jobId, nextChunk);
+                if (rows.isEmpty()) {
+                    exhausted = true;
+                    return false;
+                }
+                chunk = rows.get(0);
+                position = 0;
+                nextChunk++;
+                return true;
+            }
+        };
+    }
+}
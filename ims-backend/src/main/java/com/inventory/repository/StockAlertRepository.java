@@ -1,14 +1,68 @@
 package com.inventory.repository;
 
 import com.inventory.model.StockAlert;
-import com.inventory.model.Inventory;
+import com.inventory.repository.projection.AlertChange;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
-    List<StockAlert> findByResolvedFalse();
-    List<StockAlert> findByInventory(Inventory inventory);
-}
\ No newline at end of file
+    // The alert list shows product and warehouse names; fetch them in the same select
+    @Query("SELECT a FROM StockAlert a JOIN FETCH a.inventory i JOIN FETCH i.product JOIN FETCH i.warehouse " +
+            "WHERE a.resolved = false ORDER BY a.createdAt, a.id")
+    List<StockAlert> findActiveWithInventory();
+
+    // The alert stream's view of alerts just raised or resolved. Names are looked up per alert by primary key; as a
+    // plain join the planner hashes all of inventory to name a handful of alerts
+    @Query(value = "SELECT a.id, a.inventory_id AS inventoryId, n.productName, n.warehouseName, a.quantity, a.threshold, " +
+            "a.created_at AS createdAt, a.resolved FROM stock_alert a CROSS JOIN LATERAL (" +
+            "SELECT p.name AS productName, w.name AS warehouseName FROM inventory i " +
+            "JOIN product p ON p.id = i.product_id JOIN warehouse w ON w.id = i.warehouse_id " +
+            "WHERE i.id = a.inventory_id LIMIT 1) n WHERE a.id IN (:ids) ORDER BY a.id",
+            nativeQuery = true)
+    List<AlertChange> findChanges(@Param("ids") Collection<Long> ids);
+
+    // The statements below return the ids of the alerts they raised or resolved, for StockAlertsChangedEvent
+
+    // Raises an alert unless the row already has an unresolved one (ux_stock_alert_active); empty if it had
+    @Query(value = "INSERT INTO stock_alert (inventory_id, quantity, threshold, created_at, resolved) " +
+            "VALUES (:inventoryId, :quantity, :threshold, now(), false) " +
+            "ON CONFLICT (inventory_id) WHERE resolved = false DO NOTHING RETURNING id",
+            nativeQuery = true)
+    Optional<Long> insertIfNoActiveAlert(@Param("inventoryId") Long inventoryId, @Param("quantity") int quantity,
+                                         @Param("threshold") int threshold);
+
+    @Query(value = "UPDATE stock_alert SET resolved = true, resolved_at = now() " +
+            "WHERE inventory_id = :inventoryId AND resolved = false RETURNING id",
+            nativeQuery = true)
+    Optional<Long> resolveActiveAlert(@Param("inventoryId") Long inventoryId);
+
+    @Query(value = "UPDATE stock_alert SET resolved = true, resolved_at = now() " +
+            "WHERE id = :id AND resolved = false RETURNING id",
+            nativeQuery = true)
+    Optional<Long> resolveById(@Param("id") Long id);
+
+    // Set-based createAlertIfLowStock: one unresolved alert per low row, skipping rows that already have one
+    @Query(value = "INSERT INTO stock_alert (inventory_id, quantity, threshold, created_at, resolved) " +
+            "SELECT i.id, i.quantity, i.reorder_threshold, now(), false FROM inventory i " +
+            "WHERE i.id IN (:inventoryIds) AND i.quantity < i.reorder_threshold " +
+            "ON CONFLICT (inventory_id) WHERE resolved = false DO NOTHING RETURNING id",
+            nativeQuery = true)
+    List<Long> createMissingLowStockAlerts(@Param("inventoryIds") Collection<Long> inventoryIds);
+
+    // ...and the other half: close open alerts on rows that are back at or above their threshold. The id list
+    // filters the alerts (through ux_stock_alert_active), not inventory: filtering inventory by it lets the
+    // planner nest a scan of inventory under every open alert when statistics lag a bulk load
+    @Query(value = "UPDATE stock_alert a SET resolved = true, resolved_at = now() " +
+            "WHERE a.resolved = false AND a.inventory_id IN (:inventoryIds) " +
+            "AND EXISTS (SELECT 1 FROM inventory i WHERE i.id = a.inventory_id AND i.quantity >= i.reorder_threshold) " +
+            "RETURNING a.id",
+            nativeQuery = true)
+    List<Long> resolveRecoveredAlerts(@Param("inventoryIds") Collection<Long> inventoryIds);
+}
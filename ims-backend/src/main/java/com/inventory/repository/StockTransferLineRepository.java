@@ -0,0 +1,16 @@
+package com.inventory.repository;
+
+import com.inventory.model.StockTransferLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockTransferLineRepository extends JpaRepository<StockTransferLine, Long> {
+    List<StockTransferLine> findByTransferIdOrderById(UUID transferId);
+
+    List<StockTransferLine> findByTransferIdInOrderById(Collection<UUID> transferIds);
+}
@@ -0,0 +1,23 @@
+package com.inventory.repository;
+
+import com.inventory.model.StockTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockTransferRepository extends JpaRepository<StockTransfer, UUID> {
+    // Serializes concurrent receipts of the same transfer so it is received once
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM StockTransfer t WHERE t.id = :id")
+    Optional<StockTransfer> findByIdForUpdate(@Param("id") UUID id);
+
+    List<StockTransfer> findByStatusOrderByShippedAt(StockTransfer.Status status);
+}
@@ -1,7 +1,11 @@
 package com.inventory.repository;
 
+import com.inventory.config.CacheConfig;
 import com.inventory.model.User;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +14,9 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
+
+    // The principal of authenticated requests; shared between requests, so never modify the result
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, sync = true)
+    @Query("SELECT u FROM User u WHERE u.username = :username")
+    Optional<User> findCachedByUsername(@Param("username") String username);
 }
\ No newline at end of file
@@ -1,11 +1,34 @@
 package com.inventory.repository;
 
+import com.inventory.config.CacheConfig;
 import com.inventory.model.Warehouse;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
 import java.util.Optional;
 
 public interface WarehouseRepository extends JpaRepository<Warehouse, UUID> {
-    Optional<Warehouse> findByName(String name);
-}
\ No newline at end of file
+    // Names are unique ignoring case. These compare lower(name) rather than using derived IgnoreCase
+    // methods, which compare upper(name) and so cannot use the ux_warehouse_name_lower index
+    @Query("SELECT w FROM Warehouse w WHERE lower(w.name) = lower(:name)")
+    Optional<Warehouse> findByNameIgnoreCase(@Param("name") String name);
+
+    @Query("SELECT CASE WHEN COUNT(w) > 0 THEN true ELSE false END FROM Warehouse w WHERE lower(w.name) = lower(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
+
+    @Query("SELECT CASE WHEN COUNT(w) > 0 THEN true ELSE false END FROM Warehouse w WHERE lower(w.name) = lower(:name) AND w.id <> :id")
+    boolean existsByNameIgnoreCaseAndIdNot(@Param("name") String name, @Param("id") UUID id);
+
+    // Cached read-through lookups; shared between requests, so never modify the result
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES_BY_ID, sync = true)
+    @Query("SELECT w FROM Warehouse w WHERE w.id = :id")
+    Optional<Warehouse> findCachedById(@Param("id") UUID id);
+
+    // Keyed on the lower-cased name so every spelling of a warehouse shares one entry
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES_BY_NAME, key = "#p0.toLowerCase(T(java.util.Locale).ROOT)", sync = true)
+    @Query("SELECT w FROM Warehouse w WHERE lower(w.name) = lower(:name)")
+    Optional<Warehouse> findCachedByNameIgnoreCase(@Param("name") String name);
+}
@@ -0,0 +1,18 @@
+package com.inventory.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stock alert as it stands after being raised or resolved by {@link com.inventory.repository.StockAlertRepository},
+ * with the product and warehouse names the alert views show.
+ */
+public interface AlertChange {
+    Long getId();
+    Long getInventoryId();
+    String getProductName();
+    String getWarehouseName();
+    Integer getQuantity();
+    Integer getThreshold();
+    LocalDateTime getCreatedAt();
+    Boolean getResolved();
+}
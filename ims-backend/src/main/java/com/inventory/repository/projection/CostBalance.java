@@ -0,0 +1,22 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Open quantity and value of a product/warehouse pair as of the given version, or, when returned by a draw, the
+ * quantity and value taken.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostBalance {
+    private UUID productId;
+    private UUID warehouseId;
+    private Long quantity;
+    private BigDecimal value;
+    private Long version;
+}
@@ -0,0 +1,20 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * A counted product/warehouse pair: the input to a bulk stock set and, once applied, the quantity it replaced.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountedStock {
+    private Long inventoryId;
+    private UUID productId;
+    private UUID warehouseId;
+    private Integer previousQuantity;
+    private Integer quantity;
+}
@@ -0,0 +1,10 @@
+package com.inventory.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Row returned by {@link com.inventory.repository.InventoryRepository#removeStock}; carries the product price used for units no cost layer covers.
+ */
+public interface IssuedStock extends StockLevel {
+    BigDecimal getUnitCost();
+}
@@ -0,0 +1,22 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * On-hand quantity (or net change) for one product/warehouse pair, from the ledger or a daily snapshot.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnHandAggregate {
+    private UUID productId;
+    private String productName;
+    private BigDecimal productPrice;
+    private UUID warehouseId;
+    private String warehouseName;
+    private Long quantity;
+}
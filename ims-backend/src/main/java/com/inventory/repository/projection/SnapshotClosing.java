@@ -0,0 +1,17 @@
+package com.inventory.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A pair's closing balance as read natively by {@link com.inventory.repository.InventorySnapshotRepository}, before
+ * it becomes an {@link OnHandAggregate}.
+ */
+public interface SnapshotClosing {
+    UUID getProductId();
+    String getProductName();
+    BigDecimal getProductPrice();
+    UUID getWarehouseId();
+    String getWarehouseName();
+    Long getQuantity();
+}
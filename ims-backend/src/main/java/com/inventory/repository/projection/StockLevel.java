@@ -0,0 +1,12 @@
+package com.inventory.repository.projection;
+
+/**
+ * Row returned by the atomic stock mutations in {@link com.inventory.repository.InventoryRepository}.
+ */
+public interface StockLevel {
+    Long getId();
+    Integer getQuantity();
+    Integer getReorderThreshold();
+    // Quantity immediately before this mutation, read under the same row lock
+    Integer getPreviousQuantity();
+}
@@ -0,0 +1,22 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Slim movement row read by the trend generator, ordered by product, warehouse and date.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendMovement {
+    private UUID productId;
+    private String productName;
+    private UUID warehouseId;
+    private String warehouseName;
+    private LocalDateTime movementDate;
+    private Integer quantity;
+}
@@ -0,0 +1,26 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One row per product/warehouse pair with movements inside the report window, produced by
+ * the grouped turnover query in {@link com.inventory.repository.InventoryMovementRepository}.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnoverAggregate {
+    private UUID productId;
+    private String productName;
+    private BigDecimal productPrice;
+    private UUID warehouseId;
+    private String warehouseName;
+    // Net movement after the window start; closing = opening + netChange
+    private Long netChange;
+    private Long outboundQuantity;
+    private BigDecimal costOfGoodsSold;
+}
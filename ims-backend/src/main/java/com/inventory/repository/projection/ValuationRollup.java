@@ -0,0 +1,19 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock valuation summed over a group (a warehouse, a category, or everything).
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationRollup {
+    private String groupKey;
+    private String groupName;
+    private Long quantity;
+    private BigDecimal totalValue;
+}
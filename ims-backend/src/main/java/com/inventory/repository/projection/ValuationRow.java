@@ -0,0 +1,24 @@
+package com.inventory.repository.projection;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One valued inventory row, with quantity * price already computed by the database.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationRow {
+    private UUID productId;
+    private String productName;
+    private String category;
+    private UUID warehouseId;
+    private String warehouseName;
+    private Integer quantity;
+    private BigDecimal unitCost;
+    private BigDecimal totalValue;
+}
@@ -0,0 +1,11 @@
+package com.inventory.service;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AvailabilityService {
+    List<AvailabilityResponseDTO> getBySkus(List<String> skus, UUID warehouseId);
+    List<AvailabilityResponseDTO> getByWarehouse(UUID warehouseId);
+}
@@ -0,0 +1,307 @@
+package com.inventory.service;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+import com.inventory.dto.WarehouseStockDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Availability from the in-memory {@link StockMatrix}, without touching the database. The matrix is loaded
+ * once migrations have run, before the application takes requests, and then follows notifications on a pooled
+ * connection it keeps for itself: {@code inventory_stock}, naming the pairs any instance's services changed (see
+ * {@link StockChangeNotifier}), whose quantities it then reads, and {@code product_sku}, carrying every SKU change
+ * (see V18). Changes show typically within milliseconds of the commit.
+ *
+ * <p>The listener starts listening before it loads, and reads quantities only after they commit, so changes
+ * committed while loading are simply read again on top. Writes that bypass the services, and notifications lost
+ * when the connection drops, are caught up by reloading the whole matrix: periodically, and after reconnecting.
+ * The previous matrix is served until then.
+ */
+@Slf4j
+@Service
+@DependsOnDatabaseInitialization
+public class AvailabilityServiceImpl implements AvailabilityService {
+    static final String STOCK_CHANNEL = StockChangeNotifier.CHANNEL;
+    static final String PRODUCT_CHANNEL = "product_sku";
+
+    // One primary key probe per notified pair; a pair without a row comes back with a null quantity
+    private static final String REFRESH =
+        "SELECT c.product_id, c.warehouse_id, i.quantity " +
+        "FROM unnest(?::uuid[], ?::uuid[]) AS c(product_id, warehouse_id) " +
+        "LEFT JOIN LATERAL (" +
+        "  SELECT quantity FROM inventory i WHERE i.product_id = c.product_id AND i.warehouse_id = c.warehouse_id" +
+        ") i ON true";
+
+    private final DataSource dataSource;
+    private final int maxSkus;
+    private final int pollMillis;
+    private final long reloadNanos;
+
+    private volatile StockMatrix matrix;
+    private volatile boolean running;
+    private Connection connection;
+    private long loadedAt;
+    private Thread listener;
+
+    public AvailabilityServiceImpl(DataSource dataSource,
+                                   @Value("${inventory.availability.max-skus:1000}") int maxSkus,
+                                   @Value("${inventory.availability.poll-interval:500ms}") Duration pollInterval,
+                                   @Value("${inventory.availability.reload-interval:10m}") Duration reloadInterval) {
+        this.dataSource = dataSource;
+        this.maxSkus = maxSkus;
+        this.pollMillis = (int) pollInterval.toMillis();
+        this.reloadNanos = reloadInterval.toNanos();
+    }
+
+    @PostConstruct
+    public void start() throws SQLException {
+        connection = connect();
+        reload();
+        running = true;
+        listener = new Thread(this::listen, "stock-matrix-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(pollMillis * 2L);
+    }
+
+    @Override
+    public List<AvailabilityResponseDTO> getBySkus(List<String> skus, UUID warehouseId) {
+        if (skus.size() > maxSkus) {
+            throw new IllegalArgumentException("At most " + maxSkus + " SKUs per request");
+        }
+        StockMatrix stock = matrix;
+        int warehouse = warehouseId != null ? stock.findWarehouse(warehouseId) : -1;
+        List<AvailabilityResponseDTO> result = new ArrayList<>(skus.size());
+        for (String sku : skus) {
+            int product = stock.findProduct(sku);
+            if (product < 0) {
+                continue;
+            }
+            List<WarehouseStockDTO> warehouses = new ArrayList<>();
+            long total = 0;
+            if (warehouseId == null) {
+                for (int w = 0, count = stock.warehouseCount(); w < count; w++) {
+                    total += addIfStocked(stock, product, w, warehouses);
+                }
+            } else if (warehouse >= 0) {
+                total += addIfStocked(stock, product, warehouse, warehouses);
+            }
+            result.add(availability(stock, product, total, warehouses));
+        }
+        return result;
+    }
+
+    @Override
+    public List<AvailabilityResponseDTO> getByWarehouse(UUID warehouseId) {
+        StockMatrix stock = matrix;
+        int warehouse = stock.findWarehouse(warehouseId);
+        if (warehouse < 0) {
+            return Collections.emptyList();
+        }
+        List<AvailabilityResponseDTO> result = new ArrayList<>();
+        for (int p = 0, count = stock.productCount(); p < count; p++) {
+            int quantity = stock.quantity(p, warehouse);
+            if (quantity != StockMatrix.ABSENT && stock.productId(p) != null) {
+                result.add(availability(stock, p, quantity,
+                    Collections.singletonList(new WarehouseStockDTO(warehouseId, quantity))));
+            }
+        }
+        return result;
+    }
+
+    private static int addIfStocked(StockMatrix stock, int product, int warehouse, List<WarehouseStockDTO> warehouses) {
+        int quantity = stock.quantity(product, warehouse);
+        if (quantity == StockMatrix.ABSENT) {
+            return 0;
+        }
+        warehouses.add(new WarehouseStockDTO(stock.warehouseId(warehouse), quantity));
+        return quantity;
+    }
+
+    private static AvailabilityResponseDTO availability(StockMatrix stock, int product, long total, List<WarehouseStockDTO> warehouses) {
+        return AvailabilityResponseDTO.builder()
+            .productId(stock.productId(product))
+            .sku(stock.sku(product))
+            .totalQuantity(total)
+            .warehouses(warehouses)
+            .build();
+    }
+
+    private void listen() {
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = connect();
+                    reload();
+                } else if (System.nanoTime() - loadedAt >= reloadNanos) {
+                    reload();
+                }
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(pollMillis);
+                if (notifications != null) {
+                    apply(matrix, notifications);
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Whatever was missed is only recovered by reloading, on a fresh connection
+                closeQuietly();
+                if (running) {
+                    log.warn("Stock matrix lost its change feed, reloading once reconnected: {}", e.toString());
+                    sleepQuietly();
+                }
+            }
+        }
+        closeQuietly();
+    }
+
+    private void reload() throws SQLException {
+        matrix = load(connection);
+        loadedAt = System.nanoTime();
+    }
+
+    // SKU changes apply in commit order; the pairs named by every notification in the batch are then read once
+    private void apply(StockMatrix stock, PGNotification[] notifications) throws SQLException {
+        Set<String> pairs = new LinkedHashSet<>();
+        for (PGNotification notification : notifications) {
+            if (STOCK_CHANNEL.equals(notification.getName())) {
+                // One "<product_id> <warehouse_id>" line per pair (see StockChangeNotifier)
+                Collections.addAll(pairs, notification.getParameter().split("\n"));
+            } else if (PRODUCT_CHANNEL.equals(notification.getName())) {
+                applyProduct(stock, notification.getParameter());
+            }
+        }
+        if (!pairs.isEmpty()) {
+            refresh(stock, pairs);
+        }
+    }
+
+    static void applyProduct(StockMatrix stock, String payload) {
+        // "<seq> <product_id> <sku>" (see V18); a SKU may itself contain spaces
+        String[] change = payload.split(" ", 3);
+        UUID productId = UUID.fromString(change[1]);
+        if (change.length > 2) {
+            stock.putProduct(productId, change[2]);
+        } else {
+            stock.removeProduct(productId);
+        }
+    }
+
+    // The notification was sent after the change committed, so this read sees it or something newer
+    private void refresh(StockMatrix stock, Set<String> pairs) throws SQLException {
+        UUID[] productIds = new UUID[pairs.size()];
+        UUID[] warehouseIds = new UUID[pairs.size()];
+        int i = 0;
+        for (String pair : pairs) {
+            int space = pair.indexOf(' ');
+            productIds[i] = UUID.fromString(pair.substring(0, space));
+            warehouseIds[i] = UUID.fromString(pair.substring(space + 1));
+            i++;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(REFRESH)) {
+            statement.setArray(1, connection.createArrayOf("uuid", productIds));
+            statement.setArray(2, connection.createArrayOf("uuid", warehouseIds));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    UUID productId = rs.getObject(1, UUID.class);
+                    UUID warehouseId = rs.getObject(2, UUID.class);
+                    int quantity = rs.getInt(3);
+                    if (rs.wasNull()) {
+                        stock.removeQuantity(productId, warehouseId);
+                    } else {
+                        stock.setQuantity(productId, warehouseId, quantity);
+                    }
+                }
+            }
+        }
+    }
+
+    // A connection from the pool, kept for as long as it works
+    private Connection connect() throws SQLException {
+        Connection listening = dataSource.getConnection();
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + STOCK_CHANNEL);
+            statement.execute("LISTEN " + PRODUCT_CHANNEL);
+        } catch (SQLException e) {
+            listening.close();
+            throw e;
+        }
+        return listening;
+    }
+
+    // One snapshot of products and stock, read through a cursor so the whole table is never buffered
+    private static StockMatrix load(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        StockMatrix stock = new StockMatrix();
+        connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(10_000);
+            try (ResultSet rs = statement.executeQuery("SELECT id, sku FROM product")) {
+                while (rs.next()) {
+                    stock.putProduct(rs.getObject(1, UUID.class), rs.getString(2));
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT product_id, warehouse_id, quantity FROM inventory")) {
+                while (rs.next()) {
+                    stock.setQuantity(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getInt(3));
+                }
+            }
+        } finally {
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+        log.info("Loaded stock matrix: {} products, {} warehouses in {} ms", stock.productCount(), stock.warehouseCount(),
+            Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return stock;
+    }
+
+    private void closeQuietly() {
+        if (connection == null) {
+            return;
+        }
+        // Back in the pool, the connection must not go on queueing notifications for whoever borrows it next
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+        } catch (SQLException e) {
+            log.debug("Unlistening on the stock matrix connection failed", e);
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing the stock matrix connection failed", e);
+        }
+        connection = null;
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.inventory.service;
+
+/**
+ * Open cost layers of one product/warehouse pair as parallel primitive arrays in receipt order.
+ * Layers are appended at the tail and drained from the head, so each pick costs O(1) amortized.
+ * Unit costs are held in cents to match the NUMERIC(19,2) columns. A ledger is shared by the whole process and
+ * carries the cost_balance version it matches; only the thread holding the pair's inventory row lock changes it,
+ * and the methods are synchronized so the next holder, on another thread, sees those changes.
+ */
+final class CostLayerLedger {
+    interface LayerWriter {
+        void write(long layerId, int remaining);
+    }
+
+    private long[] ids = new long[4];
+    private int[] remaining = new int[4];
+    private long[] unitCents = new long[4];
+    private int head;
+    private int tail;
+    private long openQuantity;
+    private long openValueCents;
+    private long version;
+
+    synchronized long getOpenQuantity() {
+        return openQuantity;
+    }
+
+    synchronized long getOpenValueCents() {
+        return openValueCents;
+    }
+
+    synchronized int getOpenLayers() {
+        return tail - head;
+    }
+
+    synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized void setVersion(long version) {
+        this.version = version;
+    }
+
+    synchronized void append(long id, int quantity, long unitCostCents) {
+        if (tail == ids.length) {
+            makeRoom();
+        }
+        ids[tail] = id;
+        remaining[tail] = quantity;
+        unitCents[tail] = unitCostCents;
+        tail++;
+        openQuantity += quantity;
+        openValueCents += quantity * unitCostCents;
+    }
+
+    // What drawDown(quantity) would return, without taking anything
+    synchronized long peek(int quantity) {
+        checkOpen(quantity);
+        long value = 0;
+        int left = quantity;
+        for (int i = head; left > 0; i++) {
+            int take = Math.min(left, remaining[i]);
+            value += take * unitCents[i];
+            left -= take;
+        }
+        return value;
+    }
+
+    // Takes quantity (at most getOpenQuantity()) oldest first, reporting each touched layer; returns its value in cents
+    synchronized long drawDown(int quantity, LayerWriter writer) {
+        checkOpen(quantity);
+        long value = 0;
+        int left = quantity;
+        while (left > 0) {
+            int take = Math.min(left, remaining[head]);
+            remaining[head] -= take;
+            value += take * unitCents[head];
+            left -= take;
+            writer.write(ids[head], remaining[head]);
+            if (remaining[head] == 0) {
+                head++;
+            }
+        }
+        openQuantity -= quantity;
+        openValueCents -= value;
+        return value;
+    }
+
+    private void checkOpen(int quantity) {
+        if (quantity > openQuantity) {
+            throw new IllegalArgumentException("Cannot draw " + quantity + " from " + openQuantity + " layered units");
+        }
+    }
+
+    // Slides live layers to the front, doubling only when more than half the array is live
+    private void makeRoom() {
+        int live = tail - head;
+        if (live * 2 > ids.length) {
+            int capacity = ids.length * 2;
+            long[] newIds = new long[capacity];
+            int[] newRemaining = new int[capacity];
+            long[] newUnitCents = new long[capacity];
+            System.arraycopy(ids, head, newIds, 0, live);
+            System.arraycopy(remaining, head, newRemaining, 0, live);
+            System.arraycopy(unitCents, head, newUnitCents, 0, live);
+            ids = newIds;
+            remaining = newRemaining;
+            unitCents = newUnitCents;
+        } else {
+            System.arraycopy(ids, head, ids, 0, live);
+            System.arraycopy(remaining, head, remaining, 0, live);
+            System.arraycopy(unitCents, head, unitCents, 0, live);
+        }
+        head = 0;
+        tail = live;
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventory.service;
+
+import com.inventory.repository.projection.CountedStock;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+// All calls must run inside the transaction that moves the stock, after the inventory row is locked
+public interface CostLayerService {
+    void receive(UUID productId, UUID warehouseId, int quantity, BigDecimal unitCost, String reference);
+    // Returns the unit cost to stamp on the OUTBOUND movement; units not covered by layers cost fallbackUnitCost
+    BigDecimal issue(UUID productId, UUID warehouseId, int quantity, BigDecimal fallbackUnitCost);
+    // A counted change: found units open a layer at unitCost, lost units are drawn down like an issue
+    void adjust(UUID productId, UUID warehouseId, int change, BigDecimal unitCost, String reference);
+    // adjust() for a whole chunk of bulk counts, found units costed at each product's price
+    void adjustAll(List<CountedStock> adjusted, String reference);
+}
@@ -0,0 +1,350 @@
+package com.inventory.service;
+
+import com.inventory.config.BoundedTtlCache;
+import com.inventory.model.CostLayer;
+import com.inventory.repository.CostBalanceRepository;
+import com.inventory.repository.CostLayerBulkRepository;
+import com.inventory.repository.CostLayerRepository;
+import com.inventory.repository.projection.CostBalance;
+import com.inventory.repository.projection.CountedStock;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Under FIFO, keeps each pair's open layers in a process-wide ledger and writes every change through to cost_layer
+ * in the caller's transaction, so a pick is costed from memory. Each change also moves the pair's cost_balance row
+ * to a new version, checked against the version the ledger was last in step with; a ledger left behind by another
+ * instance, a rollback or a bulk count fails that check and is loaded again. Callers hold the pair's inventory row
+ * lock, so nothing else writes the pair between the check and the write.
+ *
+ * <p>Under weighted average, cost_balance alone holds a pair's open quantity and value: receipts add to it and
+ * issues take their share of it. No layers are opened.
+ */
+@Service
+public class CostLayerServiceImpl implements CostLayerService {
+    private final CostLayerRepository costLayerRepository;
+    private final CostLayerBulkRepository costLayerBulkRepository;
+    private final CostBalanceRepository costBalanceRepository;
+    private final CostingMethod method;
+    private final BoundedTtlCache ledgers;
+
+    public CostLayerServiceImpl(CostLayerRepository costLayerRepository,
+                                CostLayerBulkRepository costLayerBulkRepository,
+                                CostBalanceRepository costBalanceRepository,
+                                @Value("${inventory.costing.method:FIFO}") CostingMethod method,
+                                @Value("${inventory.costing.ledger-cache.max-size:100000}") int ledgerCacheSize,
+                                @Value("${inventory.costing.ledger-cache.ttl:1h}") Duration ledgerCacheTtl) {
+        this.costLayerRepository = costLayerRepository;
+        this.costLayerBulkRepository = costLayerBulkRepository;
+        this.costBalanceRepository = costBalanceRepository;
+        this.method = method;
+        this.ledgers = new BoundedTtlCache("costLayerLedgers", ledgerCacheSize, ledgerCacheTtl);
+    }
+
+    @Override
+    public void receive(UUID productId, UUID warehouseId, int quantity, BigDecimal unitCost, String reference) {
+        requireTransaction();
+        long unitCents = toCents(unitCost);
+        BigDecimal value = BigDecimal.valueOf(quantity * unitCents, 2);
+        if (method == CostingMethod.WEIGHTED_AVERAGE) {
+            add(productId, warehouseId, quantity, value);
+            return;
+        }
+        long id = save(productId, warehouseId, quantity, unitCost, reference);
+        CostLayerLedger ledger = ledgers.get(new Pair(productId, warehouseId), CostLayerLedger.class);
+        Long version = ledger == null ? null
+            : costBalanceRepository.claim(productId, warehouseId, ledger.getVersion(), quantity, value);
+        if (version == null) {
+            // Not cached or no longer current: whoever loads the pair next reads the new layer with the rest
+            add(productId, warehouseId, quantity, value);
+            return;
+        }
+        ledger.append(id, quantity, unitCents);
+        ledger.setVersion(version);
+    }
+
+    @Override
+    public BigDecimal issue(UUID productId, UUID warehouseId, int quantity, BigDecimal fallbackUnitCost) {
+        requireTransaction();
+        CostBalance drawn = method == CostingMethod.WEIGHTED_AVERAGE
+            ? costBalanceRepository.drawAverage(productId, warehouseId, quantity)
+            : drawDown(new Pair(productId, warehouseId), quantity);
+        long layered = drawn == null ? 0 : drawn.getQuantity();
+        BigDecimal value = drawn == null ? BigDecimal.ZERO : drawn.getValue();
+        if (layered < quantity) {
+            BigDecimal fallback = fallbackUnitCost != null ? fallbackUnitCost : BigDecimal.ZERO;
+            value = value.add(fallback.multiply(BigDecimal.valueOf(quantity - layered)));
+        }
+        return value.divide(BigDecimal.valueOf(quantity), 2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public void adjust(UUID productId, UUID warehouseId, int change, BigDecimal unitCost, String reference) {
+        if (change > 0) {
+            receive(productId, warehouseId, change, unitCost != null ? unitCost : BigDecimal.ZERO, reference);
+        } else if (change < 0) {
+            issue(productId, warehouseId, -change, unitCost);
+        }
+    }
+
+    @Override
+    public void adjustAll(List<CountedStock> adjusted, String reference) {
+        requireTransaction();
+        List<CountedStock> changed = new ArrayList<>();
+        List<Pair> pairs = new ArrayList<>();
+        for (CountedStock stock : adjusted) {
+            if (!stock.getQuantity().equals(stock.getPreviousQuantity())) {
+                changed.add(stock);
+                pairs.add(new Pair(stock.getProductId(), stock.getWarehouseId()));
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        Map<Pair, CostBalance> balances = balances(pairs);
+        if (method == CostingMethod.WEIGHTED_AVERAGE) {
+            adjustAllAverage(changed, balances);
+        } else {
+            adjustAllFifo(changed, balances, reference);
+        }
+    }
+
+    private void adjustAllFifo(List<CountedStock> changed, Map<Pair, CostBalance> balances, String reference) {
+        // Lost units need the pair's current ledger, found ones only keep a current ledger current. A pair without
+        // a balance row yet is loaded too, which creates one from its layers
+        Map<Pair, CostLayerLedger> current = new HashMap<>();
+        List<Pair> stale = new ArrayList<>();
+        for (CountedStock stock : changed) {
+            Pair pair = new Pair(stock.getProductId(), stock.getWarehouseId());
+            CostBalance balance = balances.get(pair);
+            CostLayerLedger ledger = ledgers.get(pair, CostLayerLedger.class);
+            if (balance != null && ledger != null && ledger.getVersion() == balance.getVersion()) {
+                current.put(pair, ledger);
+            } else if (balance == null || stock.getQuantity() < stock.getPreviousQuantity()) {
+                stale.add(pair);
+            }
+        }
+        current.putAll(load(stale, balances));
+
+        List<UUID> foundProducts = new ArrayList<>();
+        List<UUID> foundWarehouses = new ArrayList<>();
+        List<Integer> foundQuantities = new ArrayList<>();
+        for (CountedStock stock : changed) {
+            if (stock.getQuantity() > stock.getPreviousQuantity()) {
+                foundProducts.add(stock.getProductId());
+                foundWarehouses.add(stock.getWarehouseId());
+                foundQuantities.add(stock.getQuantity() - stock.getPreviousQuantity());
+            }
+        }
+        Map<Pair, Long> quantityChanges = new HashMap<>();
+        Map<Pair, Long> valueChanges = new HashMap<>();
+        for (CostLayer layer : costLayerBulkRepository.insertLayers(foundProducts, foundWarehouses, foundQuantities,
+                Collections.nCopies(foundProducts.size(), null), reference)) {
+            Pair pair = new Pair(layer.getProductId(), layer.getWarehouseId());
+            long unitCents = toCents(layer.getUnitCost());
+            CostLayerLedger ledger = current.get(pair);
+            if (ledger != null) {
+                ledger.append(layer.getId(), layer.getQuantityRemaining(), unitCents);
+            }
+            quantityChanges.put(pair, (long) layer.getQuantityRemaining());
+            valueChanges.put(pair, layer.getQuantityRemaining() * unitCents);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<Integer> remaining = new ArrayList<>();
+        for (CountedStock stock : changed) {
+            if (stock.getQuantity() < stock.getPreviousQuantity()) {
+                Pair pair = new Pair(stock.getProductId(), stock.getWarehouseId());
+                CostLayerLedger ledger = current.get(pair);
+                int layered = (int) Math.min(stock.getPreviousQuantity() - stock.getQuantity(), ledger.getOpenQuantity());
+                long drawnCents = ledger.drawDown(layered, (id, left) -> {
+                    ids.add(id);
+                    remaining.add(left);
+                });
+                quantityChanges.put(pair, (long) -layered);
+                valueChanges.put(pair, -drawnCents);
+            }
+        }
+        costLayerBulkRepository.updateRemaining(ids, remaining);
+
+        for (CostBalance balance : addAll(quantityChanges, valueChanges)) {
+            CostLayerLedger ledger = current.get(new Pair(balance.getProductId(), balance.getWarehouseId()));
+            if (ledger != null) {
+                ledger.setVersion(balance.getVersion());
+            }
+        }
+    }
+
+    // Lost units are taken at each pair's average as drawAverage would, found ones added at the product's price
+    private void adjustAllAverage(List<CountedStock> changed, Map<Pair, CostBalance> balances) {
+        Map<Pair, Long> quantityChanges = new HashMap<>();
+        Map<Pair, Long> valueChanges = new HashMap<>();
+        for (CountedStock stock : changed) {
+            Pair pair = new Pair(stock.getProductId(), stock.getWarehouseId());
+            int change = stock.getQuantity() - stock.getPreviousQuantity();
+            CostBalance balance = balances.get(pair);
+            if (change > 0) {
+                quantityChanges.put(pair, (long) change);
+            } else if (balance != null && balance.getQuantity() > 0) {
+                long taken = Math.min(-change, balance.getQuantity());
+                BigDecimal value = balance.getValue().multiply(BigDecimal.valueOf(taken))
+                    .divide(BigDecimal.valueOf(balance.getQuantity()), 2, RoundingMode.HALF_UP);
+                quantityChanges.put(pair, -taken);
+                valueChanges.put(pair, -toCents(value));
+            }
+        }
+        addAll(quantityChanges, valueChanges);
+    }
+
+    // Draws quantity from the pair's ledger, as far as its layers go, and returns the quantity and value taken
+    private CostBalance drawDown(Pair pair, int quantity) {
+        CostLayerLedger ledger = ledgers.get(pair, CostLayerLedger.class);
+        for (int attempt = 0; ; attempt++) {
+            if (ledger == null) {
+                ledger = load(Collections.singletonList(pair), balances(Collections.singletonList(pair))).get(pair);
+            }
+            int layered = (int) Math.min(quantity, ledger.getOpenQuantity());
+            long cents = ledger.peek(layered);
+            // Claimed even when nothing is layered, as the check is what says the ledger's layers are all there are
+            Long version = costBalanceRepository.claim(pair.productId, pair.warehouseId, ledger.getVersion(),
+                -layered, BigDecimal.valueOf(-cents, 2));
+            if (version != null) {
+                List<Long> ids = new ArrayList<>();
+                List<Integer> remaining = new ArrayList<>();
+                ledger.drawDown(layered, (id, left) -> {
+                    ids.add(id);
+                    remaining.add(left);
+                });
+                ledger.setVersion(version);
+                for (int i = 0; i < ids.size(); i++) {
+                    costLayerRepository.updateRemaining(ids.get(i), remaining.get(i));
+                }
+                return CostBalance.builder().quantity((long) layered).value(BigDecimal.valueOf(cents, 2)).build();
+            }
+            if (attempt > 0) {
+                throw new IllegalStateException("Cost balance of product " + pair.productId + " in warehouse "
+                    + pair.warehouseId + " changed while its inventory row was locked");
+            }
+            ledger = null;
+        }
+    }
+
+    // Reads the open layers of every pair in one statement and caches them, giving pairs without any an empty ledger.
+    // Pairs without a balance row get one holding what their layers add up to
+    private Map<Pair, CostLayerLedger> load(List<Pair> pairs, Map<Pair, CostBalance> balances) {
+        Map<Pair, CostLayerLedger> loaded = new HashMap<>();
+        if (pairs.isEmpty()) {
+            return loaded;
+        }
+        // Layers saved earlier in this transaction must be in the table before it is read
+        costLayerRepository.flush();
+        List<UUID> productIds = new ArrayList<>(pairs.size());
+        List<UUID> warehouseIds = new ArrayList<>(pairs.size());
+        for (Pair pair : pairs) {
+            productIds.add(pair.productId);
+            warehouseIds.add(pair.warehouseId);
+            loaded.put(pair, new CostLayerLedger());
+        }
+        for (CostLayer layer : costLayerBulkRepository.findOpen(productIds, warehouseIds)) {
+            loaded.get(new Pair(layer.getProductId(), layer.getWarehouseId()))
+                .append(layer.getId(), layer.getQuantityRemaining(), toCents(layer.getUnitCost()));
+        }
+        Map<Pair, Long> missingQuantities = new HashMap<>();
+        Map<Pair, Long> missingValues = new HashMap<>();
+        for (Map.Entry<Pair, CostLayerLedger> entry : loaded.entrySet()) {
+            CostBalance balance = balances.get(entry.getKey());
+            if (balance != null) {
+                entry.getValue().setVersion(balance.getVersion());
+            } else {
+                missingQuantities.put(entry.getKey(), entry.getValue().getOpenQuantity());
+                missingValues.put(entry.getKey(), entry.getValue().getOpenValueCents());
+            }
+        }
+        for (CostBalance balance : addAll(missingQuantities, missingValues)) {
+            loaded.get(new Pair(balance.getProductId(), balance.getWarehouseId())).setVersion(balance.getVersion());
+        }
+        loaded.forEach(ledgers::put);
+        return loaded;
+    }
+
+    private Map<Pair, CostBalance> balances(List<Pair> pairs) {
+        List<UUID> productIds = new ArrayList<>(pairs.size());
+        List<UUID> warehouseIds = new ArrayList<>(pairs.size());
+        for (Pair pair : pairs) {
+            productIds.add(pair.productId);
+            warehouseIds.add(pair.warehouseId);
+        }
+        Map<Pair, CostBalance> balances = new HashMap<>();
+        for (CostBalance balance : costBalanceRepository.find(productIds, warehouseIds)) {
+            balances.put(new Pair(balance.getProductId(), balance.getWarehouseId()), balance);
+        }
+        return balances;
+    }
+
+    private void add(UUID productId, UUID warehouseId, long quantity, BigDecimal value) {
+        costBalanceRepository.add(Collections.singletonList(productId), Collections.singletonList(warehouseId),
+            Collections.singletonList(quantity), Collections.singletonList(value));
+    }
+
+    // Values are in cents; a pair with no value change is valued at the product's price
+    private List<CostBalance> addAll(Map<Pair, Long> quantityChanges, Map<Pair, Long> valueChanges) {
+        if (quantityChanges.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UUID> productIds = new ArrayList<>(quantityChanges.size());
+        List<UUID> warehouseIds = new ArrayList<>(quantityChanges.size());
+        List<Long> quantities = new ArrayList<>(quantityChanges.size());
+        List<BigDecimal> values = new ArrayList<>(quantityChanges.size());
+        quantityChanges.forEach((pair, quantity) -> {
+            Long cents = valueChanges.get(pair);
+            productIds.add(pair.productId);
+            warehouseIds.add(pair.warehouseId);
+            quantities.add(quantity);
+            values.add(cents == null ? null : BigDecimal.valueOf(cents, 2));
+        });
+        return costBalanceRepository.add(productIds, warehouseIds, quantities, values);
+    }
+
+    private long save(UUID productId, UUID warehouseId, int quantity, BigDecimal unitCost, String reference) {
+        return costLayerRepository.save(CostLayer.builder()
+            .productId(productId)
+            .warehouseId(warehouseId)
+            .quantityReceived(quantity)
+            .quantityRemaining(quantity)
+            .unitCost(unitCost)
+            .receivedAt(LocalDateTime.now())
+            .reference(reference)
+            .build()).getId();
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Cost layers can only change inside a transaction");
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Pair {
+        private final UUID productId;
+        private final UUID warehouseId;
+    }
+}
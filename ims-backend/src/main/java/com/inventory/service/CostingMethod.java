@@ -0,0 +1,8 @@
+package com.inventory.service;
+
+public enum CostingMethod {
+    // Issues are costed at the layers they actually consume, oldest first
+    FIFO,
+    // Issues are costed at the average unit value of the pair's open balance; no layers are opened
+    WEIGHTED_AVERAGE
+}
@@ -0,0 +1,9 @@
+package com.inventory.service;
+
+import com.inventory.dto.InventoryAdjustmentBatchRequestDTO;
+import com.inventory.dto.InventoryAdjustmentResultDTO;
+
+public interface InventoryAdjustmentService {
+    // Applies counted quantities in chunked transactions; failed lines are reported, the rest still apply
+    InventoryAdjustmentResultDTO adjust(InventoryAdjustmentBatchRequestDTO request);
+}
@@ -0,0 +1,216 @@
+package com.inventory.service;
+
+import com.inventory.dto.InventoryAdjustmentBatchRequestDTO;
+import com.inventory.dto.InventoryAdjustmentErrorDTO;
+import com.inventory.dto.InventoryAdjustmentLineDTO;
+import com.inventory.dto.InventoryAdjustmentResultDTO;
+import com.inventory.model.InventoryMovement;
+import com.inventory.repository.InventoryBulkRepository;
+import com.inventory.repository.projection.CountedStock;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cycle-count imports. Products and warehouses for the whole batch are resolved with a handful of set queries,
+ * then each chunk is set, logged, costed and alert-checked in its own transaction with a few statements, so a
+ * 100k-line count never holds locks for the whole import and a failing chunk does not undo the others.
+ */
+@Service
+public class InventoryAdjustmentServiceImpl implements InventoryAdjustmentService {
+    private static final String DEFAULT_REFERENCE = "Bulk adjustment";
+    // The order issues and transfers lock rows in, so a count running alongside them cannot deadlock
+    private static final Comparator<CountedStock> LOCK_ORDER =
+        Comparator.comparing(CountedStock::getProductId).thenComparing(CountedStock::getWarehouseId);
+
+    private final InventoryBulkRepository inventoryBulkRepository;
+    private final StockAlertService stockAlertService;
+    private final CostLayerService costLayerService;
+    private final InventoryMetrics inventoryMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public InventoryAdjustmentServiceImpl(InventoryBulkRepository inventoryBulkRepository,
+                                          StockAlertService stockAlertService,
+                                          CostLayerService costLayerService,
+                                          InventoryMetrics inventoryMetrics,
+                                          ApplicationEventPublisher eventPublisher,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${inventory.adjustments.chunk-size:5000}") int chunkSize) {
+        this.inventoryBulkRepository = inventoryBulkRepository;
+        this.stockAlertService = stockAlertService;
+        this.costLayerService = costLayerService;
+        this.inventoryMetrics = inventoryMetrics;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public InventoryAdjustmentResultDTO adjust(InventoryAdjustmentBatchRequestDTO request) {
+        List<InventoryAdjustmentLineDTO> lines = request.getLines();
+        String reference = request.getReference() != null ? request.getReference() : DEFAULT_REFERENCE;
+        List<InventoryAdjustmentErrorDTO> errors = new ArrayList<>();
+        List<CountedStock> counts = new ArrayList<>(lines.size());
+        List<Integer> lineNumbers = new ArrayList<>(lines.size());
+        resolve(lines, counts, lineNumbers, errors);
+
+        int adjusted = 0;
+        int unchanged = 0;
+        for (int from = 0; from < counts.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, counts.size());
+            List<CountedStock> chunk = counts.subList(from, to);
+            Map<Pair, CountedStock> applied;
+            try {
+                applied = transactionTemplate.execute(status -> applyChunk(chunk, reference));
+            } catch (DataAccessException e) {
+                String message = "Not applied: " + e.getMostSpecificCause().getMessage();
+                for (int i = from; i < to; i++) {
+                    errors.add(error(lineNumbers.get(i), message));
+                }
+                continue;
+            }
+            for (int i = from; i < to; i++) {
+                CountedStock result = applied.get(Pair.of(counts.get(i)));
+                if (result == null) {
+                    errors.add(error(lineNumbers.get(i), "Inventory row was created concurrently; resubmit this line"));
+                } else if (result.getQuantity().equals(result.getPreviousQuantity())) {
+                    unchanged++;
+                } else {
+                    adjusted++;
+                }
+            }
+        }
+        errors.sort(Comparator.comparingInt(InventoryAdjustmentErrorDTO::getLine));
+        return InventoryAdjustmentResultDTO.builder()
+            .totalLines(lines.size())
+            .adjusted(adjusted)
+            .unchanged(unchanged)
+            .failed(errors.size())
+            .errors(errors)
+            .build();
+    }
+
+    private Map<Pair, CountedStock> applyChunk(List<CountedStock> counted, String reference) {
+        List<CountedStock> chunk = new ArrayList<>(counted);
+        chunk.sort(LOCK_ORDER);
+        Map<Pair, CountedStock> applied = new HashMap<>(chunk.size() * 2);
+        for (CountedStock stock : inventoryBulkRepository.setQuantities(chunk)) {
+            applied.put(Pair.of(stock), stock);
+        }
+        if (applied.size() < chunk.size()) {
+            List<CountedStock> missing = chunk.stream()
+                .filter(count -> !applied.containsKey(Pair.of(count)))
+                .collect(Collectors.toList());
+            for (CountedStock stock : inventoryBulkRepository.insertQuantities(missing)) {
+                applied.put(Pair.of(stock), stock);
+            }
+        }
+        List<CountedStock> changed = applied.values().stream()
+            .filter(stock -> !stock.getQuantity().equals(stock.getPreviousQuantity()))
+            .collect(Collectors.toList());
+        inventoryBulkRepository.insertAdjustments(changed, reference, LocalDateTime.now());
+        costLayerService.adjustAll(changed, reference);
+        inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.ADJUSTMENT, changed.size());
+        stockAlertService.createAlertsIfLowStock(changed.stream().map(CountedStock::getInventoryId).collect(Collectors.toList()));
+        // Every row written, so a pair counted at zero is announced along with its new row
+        eventPublisher.publishEvent(new StockLevelsChangedEvent(
+            chunk.stream().map(CountedStock::getProductId).collect(Collectors.toList()),
+            chunk.stream().map(CountedStock::getWarehouseId).collect(Collectors.toList())));
+        return applied;
+    }
+
+    // Validates every line and maps SKUs/names to ids with one query per key kind
+    private void resolve(List<InventoryAdjustmentLineDTO> lines, List<CountedStock> counts,
+                         List<Integer> lineNumbers, List<InventoryAdjustmentErrorDTO> errors) {
+        Set<UUID> productIds = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        Set<UUID> warehouseIds = new HashSet<>();
+        Set<String> warehouseNames = new HashSet<>();
+        for (InventoryAdjustmentLineDTO line : lines) {
+            if (line.getProductId() != null) {
+                productIds.add(line.getProductId());
+            } else if (line.getSku() != null) {
+                skus.add(line.getSku());
+            }
+            if (line.getWarehouseId() != null) {
+                warehouseIds.add(line.getWarehouseId());
+            } else if (line.getWarehouseName() != null) {
+                warehouseNames.add(line.getWarehouseName());
+            }
+        }
+        Map<String, UUID> knownProducts = inventoryBulkRepository.findProductIds(productIds);
+        Map<String, UUID> productsBySku = inventoryBulkRepository.findProductIdsBySku(skus);
+        Map<String, UUID> knownWarehouses = inventoryBulkRepository.findWarehouseIds(warehouseIds);
+        Map<String, UUID> warehousesByName = inventoryBulkRepository.findWarehouseIdsByName(warehouseNames);
+
+        Map<Pair, Integer> firstLine = new HashMap<>(lines.size() * 2);
+        for (int i = 0; i < lines.size(); i++) {
+            InventoryAdjustmentLineDTO line = lines.get(i);
+            int lineNumber = i + 1;
+            if (line.getQuantity() == null || line.getQuantity() < 0) {
+                errors.add(error(lineNumber, "Quantity must be zero or more"));
+                continue;
+            }
+            UUID productId = line.getProductId() != null ? knownProducts.get(line.getProductId().toString())
+                : line.getSku() != null ? productsBySku.get(line.getSku()) : null;
+            if (productId == null) {
+                errors.add(error(lineNumber, line.getProductId() == null && line.getSku() == null
+                    ? "Product id or SKU is required"
+                    : "Product not found: " + (line.getProductId() != null ? line.getProductId() : line.getSku())));
+                continue;
+            }
+            UUID warehouseId = line.getWarehouseId() != null ? knownWarehouses.get(line.getWarehouseId().toString())
+                : line.getWarehouseName() != null ? warehousesByName.get(line.getWarehouseName()) : null;
+            if (warehouseId == null) {
+                errors.add(error(lineNumber, line.getWarehouseId() == null && line.getWarehouseName() == null
+                    ? "Warehouse id or name is required"
+                    : "Warehouse not found: " + (line.getWarehouseId() != null ? line.getWarehouseId() : line.getWarehouseName())));
+                continue;
+            }
+            Integer duplicateOf = firstLine.putIfAbsent(new Pair(productId, warehouseId), lineNumber);
+            if (duplicateOf != null) {
+                errors.add(error(lineNumber, "Duplicate of line " + duplicateOf));
+                continue;
+            }
+            counts.add(CountedStock.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(line.getQuantity())
+                .build());
+            lineNumbers.add(lineNumber);
+        }
+    }
+
+    private static InventoryAdjustmentErrorDTO error(int line, String message) {
+        return InventoryAdjustmentErrorDTO.builder().line(line).message(message).build();
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Pair {
+        private final UUID productId;
+        private final UUID warehouseId;
+
+        static Pair of(CountedStock stock) {
+            return new Pair(stock.getProductId(), stock.getWarehouseId());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.service;
+
+import com.inventory.model.InventoryMovement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Business counters: ledger movements by type, and stock alerts raised and resolved. Inside a transaction
+ * the counts are added once it commits, so work that is rolled back is never counted.
+ */
+@Component
+public class InventoryMetrics {
+    private final Map<InventoryMovement.MovementType, Counter> movements = new EnumMap<>(InventoryMovement.MovementType.class);
+    private final Counter alertsRaised;
+    private final Counter alertsResolved;
+
+    public InventoryMetrics(MeterRegistry registry) {
+        for (InventoryMovement.MovementType type : InventoryMovement.MovementType.values()) {
+            movements.put(type, Counter.builder("inventory.movements")
+                .description("Ledger movements recorded")
+                .tag("type", type.name())
+                .register(registry));
+        }
+        alertsRaised = Counter.builder("inventory.alerts.raised")
+            .description("Low stock alerts opened")
+            .register(registry);
+        alertsResolved = Counter.builder("inventory.alerts.resolved")
+            .description("Low stock alerts closed, on recovery or by hand")
+            .register(registry);
+    }
+
+    public void movementsRecorded(InventoryMovement.MovementType type, int count) {
+        add(movements.get(type), count);
+    }
+
+    public void alertsRaised(int count) {
+        add(alertsRaised, count);
+    }
+
+    public void alertsResolved(int count) {
+        add(alertsResolved, count);
+    }
+
+    private static void add(Counter counter, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment(count);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment(count);
+            }
+        });
+    }
+}
@@ -1,13 +1,17 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.InventoryRequestDTO;
 import com.inventory.dto.InventoryResponseDTO;
+import com.inventory.dto.InventorySort;
+import org.springframework.data.domain.Sort;
 
-import java.util.List;
+import java.util.UUID;
 
 public interface InventoryService {
     InventoryResponseDTO create(InventoryRequestDTO dto);
-    List<InventoryResponseDTO> getAll();
+    CursorPageDTO<InventoryResponseDTO> getAll(UUID productId, UUID warehouseId, String category,
+                                               InventorySort sort, Sort.Direction direction, String cursor, int limit);
     InventoryResponseDTO getById(Long id);
     InventoryResponseDTO update(Long id, InventoryRequestDTO dto);
     void delete(Long id);
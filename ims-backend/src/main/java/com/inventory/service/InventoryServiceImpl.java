@@ -1,28 +1,36 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.InventoryRequestDTO;
 import com.inventory.dto.InventoryResponseDTO;
+import com.inventory.dto.InventorySort;
 import com.inventory.model.Inventory;
 import com.inventory.model.Product;
 import com.inventory.model.Warehouse;
 import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.KeysetPageRepository;
 import com.inventory.repository.ProductRepository;
 import com.inventory.repository.WarehouseRepository;
+import com.inventory.repository.projection.StockLevel;
 import com.inventory.util.InventoryMapper;
 import com.inventory.service.StockAlertService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
-import java.util.List;
+import java.util.Collections;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import com.inventory.model.InventoryMovement;
 import com.inventory.repository.InventoryMovementRepository;
 import java.time.LocalDateTime;
 
 @Service
+@Timed("inventory.service")
 @Transactional
 public class InventoryServiceImpl implements InventoryService {
     private final InventoryRepository inventoryRepository;
@@ -30,20 +38,28 @@ public class InventoryServiceImpl implements InventoryService {
     private final WarehouseRepository warehouseRepository;
     private final StockAlertService stockAlertService;
     private final InventoryMovementRepository inventoryMovementRepository;
+    private final KeysetPageRepository keysetPageRepository;
+    private final InventoryMetrics inventoryMetrics;
+    private final CostLayerService costLayerService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public InventoryServiceImpl(InventoryRepository inventoryRepository, ProductRepository productRepository, WarehouseRepository warehouseRepository, StockAlertService stockAlertService, InventoryMovementRepository inventoryMovementRepository) {
+    public InventoryServiceImpl(InventoryRepository inventoryRepository, ProductRepository productRepository, WarehouseRepository warehouseRepository, StockAlertService stockAlertService, InventoryMovementRepository inventoryMovementRepository, KeysetPageRepository keysetPageRepository, InventoryMetrics inventoryMetrics, CostLayerService costLayerService, ApplicationEventPublisher eventPublisher) {
         this.inventoryRepository = inventoryRepository;
         this.productRepository = productRepository;
         this.warehouseRepository = warehouseRepository;
         this.stockAlertService = stockAlertService;
         this.inventoryMovementRepository = inventoryMovementRepository;
+        this.keysetPageRepository = keysetPageRepository;
+        this.inventoryMetrics = inventoryMetrics;
+        this.costLayerService = costLayerService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public InventoryResponseDTO create(InventoryRequestDTO dto) {
-        Product product = productRepository.findById(dto.getProductId())
+        Product product = productRepository.findCachedById(dto.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
+        Warehouse warehouse = warehouseRepository.findCachedById(dto.getWarehouseId())
                 .orElseThrow(() -> new EntityNotFoundException("Warehouse not found"));
         if (inventoryRepository.findByProductAndWarehouse(product, warehouse).isPresent()) {
             throw new DataIntegrityViolationException("Inventory for this product and warehouse already exists");
@@ -51,14 +67,26 @@ public class InventoryServiceImpl implements InventoryService {
         Inventory inventory = InventoryMapper.toEntity(dto, product, warehouse);
         Inventory saved = inventoryRepository.save(inventory);
         stockAlertService.createAlertIfLowStock(saved);
+        publishChanged(product.getId(), warehouse.getId());
         return InventoryMapper.toResponseDTO(saved);
     }
 
     @Override
-    public List<InventoryResponseDTO> getAll() {
-        return inventoryRepository.findAll().stream()
-                .map(InventoryMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<InventoryResponseDTO> getAll(UUID productId, UUID warehouseId, String category,
+                                                      InventorySort sort, Sort.Direction direction, String cursor, int limit) {
+        // quantity and updated_at are deliberately unindexed (see V12), so they only sort one warehouse's rows
+        if (sort != InventorySort.ID && warehouseId == null) {
+            throw new IllegalArgumentException("Sorting inventory by " + sort + " requires a warehouseId filter");
+        }
+        Specification<Inventory> filter = Specification.<Inventory>where(
+                        (root, query, cb) -> productId == null ? null : cb.equal(root.get("product").get("id"), productId))
+                .and((root, query, cb) -> warehouseId == null ? null : cb.equal(root.get("warehouse").get("id"), warehouseId))
+                .and((root, query, cb) -> category == null ? null : cb.equal(root.join("product").get("category"), category));
+        // The mapper reads product and warehouse names, so fetch them with the page
+        return keysetPageRepository.findPage(Inventory.class, filter, sort.getAttribute(), direction, cursor, limit,
+                        "product", "warehouse")
+                .map(InventoryMapper::toResponseDTO);
     }
 
     @Override
@@ -72,9 +100,9 @@ public class InventoryServiceImpl implements InventoryService {
     public InventoryResponseDTO update(Long id, InventoryRequestDTO dto) {
         Inventory inventory = inventoryRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Inventory not found"));
-        Product product = productRepository.findById(dto.getProductId())
+        Product product = productRepository.findCachedById(dto.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        Warehouse warehouse = warehouseRepository.findById(dto.getWarehouseId())
+        Warehouse warehouse = warehouseRepository.findCachedById(dto.getWarehouseId())
                 .orElseThrow(() -> new EntityNotFoundException("Warehouse not found"));
         // Check for duplicate (product, warehouse) except for this record
         inventoryRepository.findByProductAndWarehouse(product, warehouse)
@@ -82,17 +110,26 @@ public class InventoryServiceImpl implements InventoryService {
                 .ifPresent(existing -> {
                     throw new DataIntegrityViolationException("Inventory for this product and warehouse already exists");
                 });
-        int oldQuantity = inventory.getQuantity();
+        // Set the quantity in the database and read back what it replaced under the row lock,
+        // so the logged adjustment is exact even when receipts land concurrently
+        StockLevel level = inventoryRepository.setStock(id, dto.getQuantity());
+        if (level == null) {
+            throw new EntityNotFoundException("Inventory not found");
+        }
+        int oldQuantity = level.getPreviousQuantity();
+        // The row may move to another pair, leaving its old one empty
+        publishChanged(inventory.getProduct().getId(), inventory.getWarehouse().getId());
+        publishChanged(product.getId(), warehouse.getId());
         inventory.setProduct(product);
         inventory.setWarehouse(warehouse);
-        inventory.setQuantity(dto.getQuantity());
+        inventory.setQuantity(level.getQuantity());
         if (dto.getReorderThreshold() != null) {
             inventory.setReorderThreshold(dto.getReorderThreshold());
         }
         Inventory updated = inventoryRepository.save(inventory);
         stockAlertService.createAlertIfLowStock(updated);
         // Log inventory movement (ADJUSTMENT)
-        int diff = dto.getQuantity() - oldQuantity;
+        int diff = level.getQuantity() - oldQuantity;
         if (diff != 0) {
             InventoryMovement movement = InventoryMovement.builder()
                 .product(product)
@@ -103,15 +140,22 @@ public class InventoryServiceImpl implements InventoryService {
                 .reference("Manual adjustment")
                 .build();
             inventoryMovementRepository.save(movement);
+            inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.ADJUSTMENT, 1);
+            // Found units are costed at the product's price; lost ones leave the layers like an issue
+            costLayerService.adjust(product.getId(), warehouse.getId(), diff, product.getPrice(), movement.getReference());
         }
         return InventoryMapper.toResponseDTO(updated);
     }
 
     @Override
     public void delete(Long id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new EntityNotFoundException("Inventory not found");
-        }
-        inventoryRepository.deleteById(id);
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Inventory not found"));
+        inventoryRepository.delete(inventory);
+        publishChanged(inventory.getProduct().getId(), inventory.getWarehouse().getId());
+    }
+
+    private void publishChanged(UUID productId, UUID warehouseId) {
+        eventPublisher.publishEvent(new StockLevelsChangedEvent(Collections.singletonList(productId), Collections.singletonList(warehouseId)));
     }
 }
\ No newline at end of file
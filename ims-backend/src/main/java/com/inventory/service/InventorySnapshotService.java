@@ -0,0 +1,12 @@
+package com.inventory.service;
+
+import com.inventory.repository.projection.OnHandAggregate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface InventorySnapshotService {
+    int buildSnapshots();
+    List<OnHandAggregate> getOnHandAt(UUID productId, UUID warehouseId, LocalDateTime at);
+}
@@ -0,0 +1,144 @@
+package com.inventory.service;
+
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryOpeningBalanceRepository;
+import com.inventory.repository.InventorySnapshotRepository;
+import com.inventory.repository.projection.OnHandAggregate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains closing balances per product/warehouse pair for completed days so historical on-hand
+ * is a snapshot lookup plus the movements after it, instead of a sum over all history. A day only
+ * gets rows for the pairs that moved on it; a pair's closing on any day is its latest row on or
+ * before that day. Each day is built and committed on its own.
+ * The builder reads movements dated after the last day built. A movement recorded later with an earlier
+ * date marks its day (V23), and the next run drops the snapshots from that day on and builds them again.
+ * Before the first snapshot, on-hand after the archive horizon is the opening balances plus the live
+ * movements since.
+ */
+@Slf4j
+@Service
+@Transactional
+public class InventorySnapshotServiceImpl implements InventorySnapshotService {
+    private final InventorySnapshotRepository inventorySnapshotRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final InventoryOpeningBalanceRepository inventoryOpeningBalanceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public InventorySnapshotServiceImpl(InventorySnapshotRepository inventorySnapshotRepository,
+                                        InventoryMovementRepository inventoryMovementRepository,
+                                        InventoryOpeningBalanceRepository inventoryOpeningBalanceRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.inventorySnapshotRepository = inventorySnapshotRepository;
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.inventoryOpeningBalanceRepository = inventoryOpeningBalanceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // A first run backfills every day since the first movement; one transaction per day keeps each short
+    // and lets an interrupted backfill resume from the last day committed
+    @Override
+    @Scheduled(cron = "${inventory.snapshot.cron:0 10 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int buildSnapshots() {
+        LocalDate through = LocalDate.now().minusDays(1);
+        LocalDate rebuildFrom = transactionTemplate.execute(status -> {
+            LocalDate from = inventorySnapshotRepository.lockRebuildFrom();
+            if (from != null) {
+                inventorySnapshotRepository.deleteFrom(from);
+                inventorySnapshotRepository.reopenAfter(from.minusDays(1));
+            }
+            return from;
+        });
+        if (rebuildFrom != null) {
+            log.info("Rebuilding inventory snapshots from {} after back-dated movements", rebuildFrom);
+        }
+        LocalDate latest = inventorySnapshotRepository.findBuiltThrough();
+        LocalDate day;
+        if (latest != null) {
+            day = latest.plusDays(1);
+        } else {
+            LocalDateTime first = inventoryMovementRepository.findFirstMovementDate();
+            if (first == null) {
+                return 0;
+            }
+            day = first.toLocalDate();
+        }
+        int rows = 0;
+        int days = 0;
+        for (; !day.isAfter(through); day = day.plusDays(1)) {
+            LocalDate built = day;
+            rows += transactionTemplate.execute(status -> {
+                int dayRows = inventorySnapshotRepository.buildDay(built, built.atStartOfDay(), built.plusDays(1).atStartOfDay());
+                inventorySnapshotRepository.markBuiltThrough(built);
+                return dayRows;
+            });
+            days++;
+        }
+        if (days > 0) {
+            log.info("Built inventory snapshots for {} day(s) through {} ({} rows)", days, through, rows);
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OnHandAggregate> getOnHandAt(UUID productId, UUID warehouseId, LocalDateTime at) {
+        LocalDate latest = inventorySnapshotRepository.findBuiltThrough();
+        if (latest == null) {
+            LocalDate balanceDate = inventoryOpeningBalanceRepository.findBalanceDate();
+            if (balanceDate == null || at.isBefore(balanceDate.atStartOfDay())) {
+                return inventoryMovementRepository.aggregateOnHandAt(productId, warehouseId, at);
+            }
+            return addNetChange(inventoryOpeningBalanceRepository.findBalances(productId, warehouseId),
+                productId, warehouseId, balanceDate.atStartOfDay(), at);
+        }
+        // Last day fully closed before `at`, capped at the latest snapshot built
+        LocalDate snapshotDay = at.toLocalDate().minusDays(1);
+        if (snapshotDay.isAfter(latest)) {
+            snapshotDay = latest;
+        }
+        return addNetChange(inventorySnapshotRepository.findClosingOn(productId, warehouseId, snapshotDay),
+            productId, warehouseId, snapshotDay.plusDays(1).atStartOfDay(), at);
+    }
+
+    // Balances as of `from` plus every movement in [from, at]
+    private List<OnHandAggregate> addNetChange(List<OnHandAggregate> balances, UUID productId, UUID warehouseId,
+                                               LocalDateTime from, LocalDateTime at) {
+        Map<List<UUID>, OnHandAggregate> onHand = new LinkedHashMap<>();
+        for (OnHandAggregate row : balances) {
+            onHand.put(Arrays.asList(row.getProductId(), row.getWarehouseId()), row);
+        }
+        for (OnHandAggregate delta : inventoryMovementRepository.aggregateNetChangeBetween(productId, warehouseId, from, at)) {
+            onHand.merge(Arrays.asList(delta.getProductId(), delta.getWarehouseId()), delta, (closing, change) ->
+                OnHandAggregate.builder()
+                    .productId(closing.getProductId())
+                    .productName(closing.getProductName())
+                    .productPrice(closing.getProductPrice())
+                    .warehouseId(closing.getWarehouseId())
+                    .warehouseName(closing.getWarehouseName())
+                    .quantity(quantity(closing) + quantity(change))
+                    .build());
+        }
+        return new ArrayList<>(onHand.values());
+    }
+
+    private static long quantity(OnHandAggregate row) {
+        return row.getQuantity() != null ? row.getQuantity() : 0L;
+    }
+}
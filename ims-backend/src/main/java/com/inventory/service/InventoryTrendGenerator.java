@@ -0,0 +1,72 @@
+package com.inventory.service;
+
+import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.TrendGranularity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Turns a date-ordered movement sequence for one product/warehouse pair into trend points
+ * using a running balance, emitting each point to the sink as soon as it is final.
+ * A point dated D carries the on-hand quantity including every movement up to D 00:00.
+ */
+class InventoryTrendGenerator {
+    private final List<LocalDate> points;
+    private final Consumer<InventoryTrendReportDTO> sink;
+
+    private UUID productId;
+    private String productName;
+    private UUID warehouseId;
+    private String warehouseName;
+    private long balance;
+    private int nextPoint;
+
+    InventoryTrendGenerator(LocalDate startDate, LocalDate endDate, TrendGranularity granularity,
+                            Consumer<InventoryTrendReportDTO> sink) {
+        this.points = new ArrayList<>();
+        for (int n = 0; !granularity.point(startDate, n).isAfter(endDate); n++) {
+            points.add(granularity.point(startDate, n));
+        }
+        this.sink = sink;
+    }
+
+    void begin(UUID productId, String productName, UUID warehouseId, String warehouseName, long openingBalance) {
+        this.productId = productId;
+        this.productName = productName;
+        this.warehouseId = warehouseId;
+        this.warehouseName = warehouseName;
+        this.balance = openingBalance;
+        this.nextPoint = 0;
+    }
+
+    void apply(LocalDateTime movementDate, int quantity) {
+        // Points strictly before this movement are settled
+        while (nextPoint < points.size() && points.get(nextPoint).atStartOfDay().isBefore(movementDate)) {
+            emit(points.get(nextPoint++));
+        }
+        balance += quantity;
+    }
+
+    void end() {
+        while (nextPoint < points.size()) {
+            emit(points.get(nextPoint++));
+        }
+    }
+
+    private void emit(LocalDate date) {
+        sink.accept(InventoryTrendReportDTO.builder()
+            .productId(productId != null ? productId.getMostSignificantBits() : null)
+            .productName(productName)
+            .warehouseId(warehouseId != null ? warehouseId.getMostSignificantBits() : null)
+            .warehouseName(warehouseName)
+            .date(date.toString())
+            .quantityOnHand(BigDecimal.valueOf(balance))
+            .build());
+    }
+}
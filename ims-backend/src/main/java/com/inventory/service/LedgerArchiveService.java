@@ -0,0 +1,8 @@
+package com.inventory.service;
+
+import java.time.LocalDate;
+
+public interface LedgerArchiveService {
+    long archiveBefore(LocalDate before);
+    long archiveExpired();
+}
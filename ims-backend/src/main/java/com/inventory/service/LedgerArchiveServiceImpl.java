@@ -0,0 +1,45 @@
+package com.inventory.service;
+
+import com.inventory.repository.InventoryMovementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Moves whole months older than the horizon out of the live ledger (see V17). Each pair's archived
+ * movements are summed into its opening balance, and the detail rows are kept in the archive, which
+ * reports still read, so no report changes. Archiving detaches the months' partitions rather than
+ * deleting rows, so the live ledger gets smaller without leaving anything for vacuum.
+ */
+@Slf4j
+@Service
+@Transactional
+public class LedgerArchiveServiceImpl implements LedgerArchiveService {
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final int horizonMonths;
+
+    public LedgerArchiveServiceImpl(InventoryMovementRepository inventoryMovementRepository,
+                                    @Value("${inventory.ledger.archive.horizon-months:24}") int horizonMonths) {
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.horizonMonths = horizonMonths;
+    }
+
+    @Override
+    public long archiveBefore(LocalDate before) {
+        long archived = inventoryMovementRepository.archiveBefore(before);
+        if (archived > 0) {
+            log.info("Archived {} ledger movement(s) dated before {}", archived, before.withDayOfMonth(1));
+        }
+        return archived;
+    }
+
+    @Override
+    @Scheduled(cron = "${inventory.ledger.archive.cron:0 0 1 1 * *}")
+    public long archiveExpired() {
+        return archiveBefore(LocalDate.now().minusMonths(horizonMonths));
+    }
+}
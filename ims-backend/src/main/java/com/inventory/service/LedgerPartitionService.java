@@ -0,0 +1,8 @@
+package com.inventory.service;
+
+import java.time.LocalDate;
+
+public interface LedgerPartitionService {
+    int createPartitions(LocalDate from, LocalDate to);
+    int createUpcomingPartitions();
+}
@@ -0,0 +1,53 @@
+package com.inventory.service;
+
+import com.inventory.repository.InventoryMovementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps monthly ledger partitions (see V16) created ahead of the movements that will land in them.
+ * Movements dated in a month without a partition still succeed, into the default partition, and are
+ * moved out once that month's partition is created.
+ */
+@Slf4j
+@Service
+@Transactional
+public class LedgerPartitionServiceImpl implements LedgerPartitionService {
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final int monthsAhead;
+
+    public LedgerPartitionServiceImpl(InventoryMovementRepository inventoryMovementRepository,
+                                      @Value("${inventory.ledger.partitions.months-ahead:3}") int monthsAhead) {
+        this.inventoryMovementRepository = inventoryMovementRepository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Override
+    public int createPartitions(LocalDate from, LocalDate to) {
+        int created = inventoryMovementRepository.createPartitions(from, to);
+        if (created > 0) {
+            log.info("Created {} ledger partition(s) between {} and {}", created, from, to);
+        }
+        return created;
+    }
+
+    @Override
+    @Scheduled(cron = "${inventory.ledger.partitions.cron:0 30 0 * * *}")
+    public int createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        return createPartitions(today, today.plusMonths(monthsAhead));
+    }
+
+    // Catches up after the server was down over a month boundary
+    @EventListener(ApplicationReadyEvent.class)
+    public void createUpcomingPartitionsOnStartup() {
+        createUpcomingPartitions();
+    }
+}
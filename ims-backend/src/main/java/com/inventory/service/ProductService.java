@@ -1,14 +1,16 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.ProductRequestDTO;
 import com.inventory.dto.ProductResponseDTO;
+import com.inventory.dto.ProductSort;
+import org.springframework.data.domain.Sort;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface ProductService {
     ProductResponseDTO create(ProductRequestDTO dto);
-    List<ProductResponseDTO> getAll();
+    CursorPageDTO<ProductResponseDTO> getAll(String category, ProductSort sort, Sort.Direction direction, String cursor, int limit);
     ProductResponseDTO getById(UUID id);
     ProductResponseDTO update(UUID id, ProductRequestDTO dto);
     void delete(UUID id);
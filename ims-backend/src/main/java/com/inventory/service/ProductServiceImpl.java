@@ -1,26 +1,33 @@
 package com.inventory.service;
 
+import com.inventory.config.CacheConfig;
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.ProductRequestDTO;
 import com.inventory.dto.ProductResponseDTO;
+import com.inventory.dto.ProductSort;
 import com.inventory.model.Product;
+import com.inventory.repository.KeysetPageRepository;
 import com.inventory.repository.ProductRepository;
 import com.inventory.util.ProductMapper;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
-import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
+    private final KeysetPageRepository keysetPageRepository;
 
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, KeysetPageRepository keysetPageRepository) {
         this.productRepository = productRepository;
+        this.keysetPageRepository = keysetPageRepository;
     }
 
     @Override
@@ -37,10 +44,12 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<ProductResponseDTO> getAll() {
-        return productRepository.findAll().stream()
-                .map(ProductMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductResponseDTO> getAll(String category, ProductSort sort, Sort.Direction direction, String cursor, int limit) {
+        Specification<Product> filter = (root, query, cb) ->
+                category == null ? null : cb.equal(root.get("category"), category);
+        return keysetPageRepository.findPage(Product.class, filter, sort.getAttribute(), direction, cursor, limit)
+                .map(ProductMapper::toResponseDTO);
     }
 
     @Override
@@ -51,6 +60,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_NAME}, allEntries = true)
     public ProductResponseDTO update(UUID id, ProductRequestDTO dto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
@@ -67,6 +77,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_ID, CacheConfig.PRODUCTS_BY_NAME}, allEntries = true)
     public void delete(UUID id) {
         if (!productRepository.existsById(id)) {
             throw new EntityNotFoundException("Product not found: " + id);
@@ -1,15 +1,20 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.PurchaseOrderRequestDTO;
 import com.inventory.dto.PurchaseOrderResponseDTO;
 import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
-import java.util.List;
+import com.inventory.dto.PurchaseOrderSort;
+import com.inventory.model.PurchaseOrder;
+import org.springframework.data.domain.Sort;
+
 import java.util.UUID;
 
 public interface PurchaseOrderService {
     PurchaseOrderResponseDTO createPurchaseOrder(PurchaseOrderRequestDTO requestDTO);
     PurchaseOrderResponseDTO getPurchaseOrder(UUID id);
-    List<PurchaseOrderResponseDTO> getAllPurchaseOrders();
+    CursorPageDTO<PurchaseOrderResponseDTO> getAllPurchaseOrders(PurchaseOrder.Status status, String warehouseName,
+                                                                 PurchaseOrderSort sort, Sort.Direction direction, String cursor, int limit);
     PurchaseOrderResponseDTO fulfillPurchaseOrder(UUID id, PurchaseOrderFulfillmentRequestDTO requestDTO);
     // Add update and delete as needed
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.PurchaseOrderRequestDTO;
 import com.inventory.dto.PurchaseOrderResponseDTO;
 import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderSort;
 import com.inventory.model.PurchaseOrder;
 import com.inventory.model.Product;
 import com.inventory.model.Warehouse;
@@ -13,26 +15,38 @@ import com.inventory.repository.ProductRepository;
 import com.inventory.repository.WarehouseRepository;
 import com.inventory.repository.InventoryRepository;
 import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.KeysetPageRepository;
+import com.inventory.repository.projection.StockLevel;
 import com.inventory.service.StockAlertService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collections;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
 @Service
+@Timed("inventory.service")
 @RequiredArgsConstructor
 public class PurchaseOrderServiceImpl implements PurchaseOrderService {
+    private static final int DEFAULT_REORDER_THRESHOLD = 10;
+
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
     private final InventoryRepository inventoryRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
     private final StockAlertService stockAlertService;
+    private final CostLayerService costLayerService;
+    private final KeysetPageRepository keysetPageRepository;
+    private final InventoryMetrics inventoryMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public PurchaseOrderResponseDTO createPurchaseOrder(PurchaseOrderRequestDTO requestDTO) {
@@ -41,7 +55,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
                 .productName(requestDTO.getProductName())
                 .warehouseName(requestDTO.getWarehouseName())
                 .quantity(requestDTO.getQuantity())
-                .unitCost(BigDecimal.ZERO) // Set default value
+                .unitCost(requestDTO.getUnitCost() != null ? requestDTO.getUnitCost() : BigDecimal.ZERO)
                 .orderDate(LocalDateTime.now())
                 .userId(requestDTO.getUserId())
                 .status(PurchaseOrder.Status.PENDING)
@@ -58,49 +72,52 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
     }
 
     @Override
-    public List<PurchaseOrderResponseDTO> getAllPurchaseOrders() {
-        return purchaseOrderRepository.findAll().stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PurchaseOrderResponseDTO> getAllPurchaseOrders(PurchaseOrder.Status status, String warehouseName,
+                                                                        PurchaseOrderSort sort, Sort.Direction direction, String cursor, int limit) {
+        Specification<PurchaseOrder> filter = Specification.<PurchaseOrder>where(
+                        (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status))
+                .and((root, query, cb) -> warehouseName == null ? null : cb.equal(root.get("warehouseName"), warehouseName));
+        return keysetPageRepository.findPage(PurchaseOrder.class, filter, sort.getAttribute(), direction, cursor, limit)
+                .map(this::toResponseDTO);
     }
 
     @Override
     @Transactional
     public PurchaseOrderResponseDTO fulfillPurchaseOrder(UUID id, PurchaseOrderFulfillmentRequestDTO requestDTO) {
-        PurchaseOrder po = purchaseOrderRepository.findById(id)
+        PurchaseOrder po = purchaseOrderRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Purchase order not found"));
         if (po.getStatus() == PurchaseOrder.Status.RECEIVED) {
             throw new RuntimeException("Purchase order already fulfilled");
         }
         // Update inventory
-        Product product = productRepository.findByName(po.getProductName())
+        Product product = productRepository.findCachedByName(po.getProductName())
                 .orElseThrow(() -> new RuntimeException("Product not found: " + po.getProductName()));
-        Warehouse warehouse = warehouseRepository.findByName(po.getWarehouseName())
+        Warehouse warehouse = warehouseRepository.findCachedByNameIgnoreCase(po.getWarehouseName())
                 .orElseThrow(() -> new RuntimeException("Warehouse not found: " + po.getWarehouseName()));
-        Inventory inventory = inventoryRepository.findByProductAndWarehouse(product, warehouse)
-                .orElse(null);
-        if (inventory == null) {
-            inventory = Inventory.builder()
-                    .product(product)
-                    .warehouse(warehouse)
-                    .quantity(po.getQuantity())
-                    .build();
-        } else {
-            inventory.setQuantity(inventory.getQuantity() + po.getQuantity());
-        }
-        inventoryRepository.save(inventory);
+        // Increment in the database so concurrent receipts into the same pair never lose an update
+        StockLevel level = inventoryRepository.addStock(product.getId(), warehouse.getId(), po.getQuantity(), DEFAULT_REORDER_THRESHOLD);
+        Inventory inventory = inventoryRepository.findById(level.getId())
+                .orElseThrow(() -> new RuntimeException("Inventory not found: " + level.getId()));
+        // The row stays locked until commit, so syncing a possibly cached entity cannot clobber another writer
+        inventory.setQuantity(level.getQuantity());
         stockAlertService.createAlertIfLowStock(inventory);
+        eventPublisher.publishEvent(new StockLevelsChangedEvent(Collections.singletonList(product.getId()),
+            Collections.singletonList(warehouse.getId())));
+        BigDecimal unitCost = po.getUnitCost() != null ? po.getUnitCost() : BigDecimal.ZERO;
+        costLayerService.receive(product.getId(), warehouse.getId(), po.getQuantity(), unitCost, "PO-" + po.getId());
         // Log inventory movement
         InventoryMovement movement = InventoryMovement.builder()
             .product(product)
             .warehouse(warehouse)
             .movementType(InventoryMovement.MovementType.INBOUND)
             .quantity(po.getQuantity())
-            .unitCost(po.getUnitCost() != null ? po.getUnitCost() : BigDecimal.ZERO)
+            .unitCost(unitCost)
             .movementDate(LocalDateTime.now())
             .reference("PO-" + po.getId())
             .build();
         inventoryMovementRepository.save(movement);
+        inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.INBOUND, 1);
         // Update PO status
         po.setStatus(PurchaseOrder.Status.RECEIVED);
         po.setReceivedAt(LocalDateTime.now());
@@ -116,6 +133,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         dto.setProductName(po.getProductName());
         dto.setWarehouseName(po.getWarehouseName());
         dto.setQuantity(po.getQuantity());
+        dto.setUnitCost(po.getUnitCost());
         dto.setOrderDate(po.getOrderDate());
         dto.setUserId(po.getUserId());
         dto.setStatus(po.getStatus().name());
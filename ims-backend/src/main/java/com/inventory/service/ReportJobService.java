@@ -0,0 +1,14 @@
+package com.inventory.service;
+
+import com.inventory.dto.ReportJobRequestDTO;
+import com.inventory.dto.ReportJobResponseDTO;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface ReportJobService {
+    ReportJobResponseDTO submit(ReportJobRequestDTO request, String requestedBy);
+    ReportJobResponseDTO getJob(UUID id);
+    // The gzipped export of a completed job, read chunk by chunk as the caller consumes it
+    InputStream openResult(UUID id);
+}
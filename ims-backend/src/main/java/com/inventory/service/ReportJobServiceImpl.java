@@ -0,0 +1,304 @@
+package com.inventory.service;
+
+import com.inventory.dto.ExportFormat;
+import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.InventoryTurnoverReportDTO;
+import com.inventory.dto.ReportJobRequestDTO;
+import com.inventory.dto.ReportJobResponseDTO;
+import com.inventory.dto.StockValuationReportDTO;
+import com.inventory.dto.TrendGranularity;
+import com.inventory.model.ReportJob;
+import com.inventory.repository.ReportJobRepository;
+import com.inventory.repository.ReportJobResultRepository;
+import com.inventory.util.ReportExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs reports off the request thread. Each report type gets a fixed number of concurrent
+ * slots and a bounded backlog, so a burst of one heavy report cannot occupy the whole pool.
+ * Queued jobs are dispatched in memory; jobs still queued or running at startup are failed.
+ * Exports are gzipped to a temp file and stored in chunks, and finished jobs are purged after
+ * {@code reports.jobs.retention-days}.
+ */
+@Slf4j
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+    private final ReportJobRepository reportJobRepository;
+    private final ReportJobResultRepository reportJobResultRepository;
+    private final ReportingService reportingService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int resultChunkBytes;
+    private final int retentionDays;
+    private final Map<ReportJob.ReportType, Semaphore> slots = new EnumMap<>(ReportJob.ReportType.class);
+    // Backlog places, taken before a job is saved and given back when it is dispatched
+    private final Map<ReportJob.ReportType, Semaphore> queueSlots = new EnumMap<>(ReportJob.ReportType.class);
+    private final Map<ReportJob.ReportType, Queue<UUID>> backlog = new EnumMap<>(ReportJob.ReportType.class);
+    private final Map<UUID, AtomicLong> progress = new ConcurrentHashMap<>();
+
+    public ReportJobServiceImpl(ReportJobRepository reportJobRepository,
+                                ReportJobResultRepository reportJobResultRepository,
+                                ReportingService reportingService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${reports.jobs.threads:4}") int threads,
+                                @Value("${reports.jobs.max-running-per-type:2}") int maxRunningPerType,
+                                @Value("${reports.jobs.max-queued-per-type:20}") int maxQueuedPerType,
+                                @Value("${reports.jobs.result-chunk-bytes:1048576}") int resultChunkBytes,
+                                @Value("${reports.jobs.retention-days:7}") int retentionDays) {
+        this.reportJobRepository = reportJobRepository;
+        this.reportJobResultRepository = reportJobResultRepository;
+        this.reportingService = reportingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resultChunkBytes = resultChunkBytes;
+        this.retentionDays = retentionDays;
+        for (ReportJob.ReportType type : ReportJob.ReportType.values()) {
+            slots.put(type, new Semaphore(maxRunningPerType));
+            queueSlots.put(type, new Semaphore(maxQueuedPerType));
+            backlog.put(type, new ConcurrentLinkedQueue<>());
+        }
+        // Every dispatched job already holds a type slot, so the pool never needs a deep queue
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(ReportJob.ReportType.values().length * maxRunningPerType);
+        executor.setThreadNamePrefix("report-job-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void failInterruptedJobs() {
+        int failed = reportJobRepository.failAll(List.of(ReportJob.Status.QUEUED, ReportJob.Status.RUNNING),
+            ReportJob.Status.FAILED, "Interrupted by server restart", LocalDateTime.now());
+        if (failed > 0) {
+            log.warn("Marked {} interrupted report jobs as failed", failed);
+        }
+    }
+
+    @Scheduled(cron = "${reports.jobs.retention.cron:0 50 0 * * *}")
+    @Transactional
+    public void purgeExpiredJobs() {
+        int purged = reportJobRepository.deleteFinishedBefore(List.of(ReportJob.Status.COMPLETED, ReportJob.Status.FAILED),
+            LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} report jobs finished more than {} days ago", purged, retentionDays);
+        }
+    }
+
+    @Override
+    public ReportJobResponseDTO submit(ReportJobRequestDTO request, String requestedBy) {
+        ReportJob.ReportType type = request.getReportType();
+        if (type != ReportJob.ReportType.VALUATION && (request.getStartDate() == null || request.getEndDate() == null)) {
+            throw new IllegalArgumentException("startDate and endDate are required for " + type + " reports");
+        }
+        if (request.getStartDate() != null && request.getEndDate() != null && request.getStartDate().isAfter(request.getEndDate())) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        // Reserved before the save, so concurrent submissions cannot all pass the check and overfill the backlog
+        Semaphore queued = queueSlots.get(type);
+        if (!queued.tryAcquire()) {
+            throw new TaskRejectedException("Too many " + type + " report jobs queued, try again later");
+        }
+        ReportJob job;
+        try {
+            job = reportJobRepository.save(ReportJob.builder()
+                .reportType(type)
+                .format(request.getFormat() != null ? request.getFormat() : ExportFormat.NDJSON)
+                .productId(request.getProductId())
+                .warehouseId(request.getWarehouseId())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .granularity(type == ReportJob.ReportType.TRENDS && request.getGranularity() == null
+                    ? TrendGranularity.DAILY : request.getGranularity())
+                .requestedBy(requestedBy)
+                .build());
+        } catch (RuntimeException e) {
+            queued.release();
+            throw e;
+        }
+        backlog.get(type).add(job.getId());
+        dispatch(type);
+        return toResponseDTO(job);
+    }
+
+    @Override
+    public ReportJobResponseDTO getJob(UUID id) {
+        return reportJobRepository.findById(id)
+            .map(this::toResponseDTO)
+            .orElseThrow(() -> new EntityNotFoundException("Report job not found: " + id));
+    }
+
+    @Override
+    public InputStream openResult(UUID id) {
+        if (!reportJobResultRepository.existsByJobId(id)) {
+            throw new EntityNotFoundException("Report job result not found: " + id);
+        }
+        return reportJobResultRepository.open(id);
+    }
+
+    // Starts queued jobs of this type while it has free slots
+    private void dispatch(ReportJob.ReportType type) {
+        Semaphore typeSlots = slots.get(type);
+        Queue<UUID> queue = backlog.get(type);
+        while (!queue.isEmpty() && typeSlots.tryAcquire()) {
+            UUID id = queue.poll();
+            if (id == null) {
+                typeSlots.release();
+                return;
+            }
+            queueSlots.get(type).release();
+            try {
+                executor.execute(() -> {
+                    try {
+                        run(id);
+                    } finally {
+                        typeSlots.release();
+                        dispatch(type);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                typeSlots.release();
+                fail(id, "Report executor is saturated");
+            }
+        }
+    }
+
+    private void run(UUID id) {
+        ReportJob job = reportJobRepository.findById(id).orElse(null);
+        if (job == null || job.getStatus() != ReportJob.Status.QUEUED) {
+            return;
+        }
+        AtomicLong rows = new AtomicLong();
+        progress.put(id, rows);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ReportJob running = reportJobRepository.getReferenceById(id);
+                running.setStatus(ReportJob.Status.RUNNING);
+                running.setStartedAt(LocalDateTime.now());
+            });
+            Path file = Files.createTempFile("report-" + id + "-", ".gz");
+            try {
+                try (OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(file))) {
+                    export(job, gzip, rows);
+                }
+                long size = Files.size(file);
+                transactionTemplate.executeWithoutResult(status -> {
+                    storeResult(id, file);
+                    ReportJob completed = reportJobRepository.getReferenceById(id);
+                    completed.setStatus(ReportJob.Status.COMPLETED);
+                    completed.setRowsWritten(rows.get());
+                    completed.setResultSize(size);
+                    completed.setCompletedAt(LocalDateTime.now());
+                });
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (Exception e) {
+            log.error("Report job {} failed", id, e);
+            fail(id, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            progress.remove(id);
+        }
+    }
+
+    // Copies the export into the database one chunk at a time
+    private void storeResult(UUID id, Path file) {
+        byte[] buffer = new byte[resultChunkBytes];
+        try (InputStream in = Files.newInputStream(file)) {
+            int chunkNo = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                reportJobResultRepository.saveChunk(id, chunkNo++, Arrays.copyOf(buffer, read));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void export(ReportJob job, OutputStream out, AtomicLong rows) throws IOException {
+        switch (job.getReportType()) {
+            case TURNOVER:
+                ReportExporter.write(out, job.getFormat(), InventoryTurnoverReportDTO.class, sink ->
+                    reportingService.streamInventoryTurnover(job.getProductId(), job.getWarehouseId(),
+                        job.getStartDate(), job.getEndDate(), counting(sink, rows)));
+                break;
+            case VALUATION:
+                ReportExporter.write(out, job.getFormat(), StockValuationReportDTO.class, sink ->
+                    reportingService.streamStockValuation(job.getProductId(), job.getWarehouseId(), counting(sink, rows)));
+                break;
+            default:
+                ReportExporter.write(out, job.getFormat(), InventoryTrendReportDTO.class, sink ->
+                    reportingService.streamInventoryTrends(job.getProductId(), job.getWarehouseId(),
+                        job.getStartDate(), job.getEndDate(), job.getGranularity(), counting(sink, rows)));
+        }
+    }
+
+    private static <T> Consumer<T> counting(Consumer<T> sink, AtomicLong rows) {
+        return row -> {
+            sink.accept(row);
+            rows.incrementAndGet();
+        };
+    }
+
+    private void fail(UUID id, String message) {
+        transactionTemplate.executeWithoutResult(status -> reportJobRepository.findById(id).ifPresent(job -> {
+            job.setStatus(ReportJob.Status.FAILED);
+            job.setErrorMessage(message.length() > 1000 ? message.substring(0, 1000) : message);
+            job.setCompletedAt(LocalDateTime.now());
+        }));
+    }
+
+    private ReportJobResponseDTO toResponseDTO(ReportJob job) {
+        AtomicLong live = progress.get(job.getId());
+        return ReportJobResponseDTO.builder()
+            .id(job.getId())
+            .reportType(job.getReportType())
+            .status(job.getStatus())
+            .format(job.getFormat())
+            .rowsWritten(live != null ? live.get() : job.getRowsWritten())
+            .resultSize(job.getResultSize())
+            .errorMessage(job.getErrorMessage())
+            .requestedBy(job.getRequestedBy())
+            .createdAt(job.getCreatedAt())
+            .startedAt(job.getStartedAt())
+            .completedAt(job.getCompletedAt())
+            .build();
+    }
+}
@@ -2,14 +2,24 @@ package com.inventory.service;
 
 import com.inventory.dto.InventoryTurnoverReportDTO;
 import com.inventory.dto.StockValuationReportDTO;
+import com.inventory.dto.StockValuationSummaryDTO;
+import com.inventory.dto.ValuationGrouping;
 import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.TrendGranularity;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ReportingService {
     List<InventoryTurnoverReportDTO> getInventoryTurnover(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate);
     List<StockValuationReportDTO> getStockValuation(UUID productId, UUID warehouseId);
-    List<InventoryTrendReportDTO> getInventoryTrends(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate);
+    StockValuationSummaryDTO getStockValuationSummary(UUID productId, UUID warehouseId, ValuationGrouping groupBy);
+    List<InventoryTrendReportDTO> getInventoryTrends(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate, TrendGranularity granularity);
+
+    // Row-at-a-time variants for exports; the sink is called while the underlying cursor is open
+    void streamInventoryTurnover(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate, Consumer<InventoryTurnoverReportDTO> sink);
+    void streamStockValuation(UUID productId, UUID warehouseId, Consumer<StockValuationReportDTO> sink);
+    void streamInventoryTrends(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate, TrendGranularity granularity, Consumer<InventoryTrendReportDTO> sink);
 }
\ No newline at end of file
@@ -2,12 +2,14 @@ package com.inventory.service;
 
 import com.inventory.dto.InventoryTurnoverReportDTO;
 import com.inventory.dto.StockValuationReportDTO;
+import com.inventory.dto.StockValuationGroupDTO;
+import com.inventory.dto.StockValuationSummaryDTO;
+import com.inventory.dto.ValuationGrouping;
 import com.inventory.dto.InventoryTrendReportDTO;
 import com.inventory.repository.InventoryRepository;
-import com.inventory.repository.ProductRepository;
 import com.inventory.repository.PurchaseOrderRepository;
-import com.inventory.repository.WarehouseRepository;
 import com.inventory.repository.InventoryMovementRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -15,151 +17,251 @@ import java.util.Collections;
 import java.util.List;
 import java.util.ArrayList;
 import java.math.BigDecimal;
-import com.inventory.model.Product;
-import com.inventory.model.Warehouse;
+import java.math.RoundingMode;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import com.inventory.model.InventoryMovement;
+import com.inventory.model.Inventory;
+import com.inventory.dto.TrendGranularity;
+import com.inventory.repository.projection.OnHandAggregate;
+import com.inventory.repository.projection.TrendMovement;
+import com.inventory.repository.projection.TurnoverAggregate;
+import com.inventory.repository.projection.ValuationRollup;
+import com.inventory.repository.projection.ValuationRow;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("inventory.service")
 public class ReportingServiceImpl implements ReportingService {
     private final InventoryRepository inventoryRepository;
-    private final ProductRepository productRepository;
     private final PurchaseOrderRepository purchaseOrderRepository;
-    private final WarehouseRepository warehouseRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
+    private final InventorySnapshotService inventorySnapshotService;
 
     public ReportingServiceImpl(InventoryRepository inventoryRepository,
-                                ProductRepository productRepository,
                                 PurchaseOrderRepository purchaseOrderRepository,
-                                WarehouseRepository warehouseRepository,
-                                InventoryMovementRepository inventoryMovementRepository) {
+                                InventoryMovementRepository inventoryMovementRepository,
+                                InventorySnapshotService inventorySnapshotService) {
         this.inventoryRepository = inventoryRepository;
-        this.productRepository = productRepository;
         this.purchaseOrderRepository = purchaseOrderRepository;
-        this.warehouseRepository = warehouseRepository;
         this.inventoryMovementRepository = inventoryMovementRepository;
+        this.inventorySnapshotService = inventorySnapshotService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<InventoryTurnoverReportDTO> getInventoryTurnover(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate) {
-        List<Product> products = (productId != null)
-            ? productRepository.findAll().stream().filter(p -> p.getId().equals(productId)).collect(Collectors.toList())
-            : productRepository.findAll();
-        List<Warehouse> warehouses = (warehouseId != null)
-            ? warehouseRepository.findAll().stream().filter(w -> w.getId().equals(warehouseId)).collect(Collectors.toList())
-            : warehouseRepository.findAll();
         List<InventoryTurnoverReportDTO> result = new ArrayList<>();
-        for (Product product : products) {
-            for (Warehouse warehouse : warehouses) {
-                // Find unit cost for COGS calculation
-                BigDecimal unitCost = BigDecimal.ZERO;
-                List<InventoryMovement> movements = inventoryMovementRepository.findAll();
-                for (InventoryMovement im : movements) {
-                    if (im.getProduct().equals(product) && im.getWarehouse().equals(warehouse)
-                        && im.getMovementType() == InventoryMovement.MovementType.OUTBOUND
-                        && !im.getMovementDate().isBefore(startDate.atStartOfDay())
-                        && !im.getMovementDate().isAfter(endDate.plusDays(1).atStartOfDay().minusSeconds(1))) {
-                        unitCost = im.getUnitCost() != null ? im.getUnitCost() : BigDecimal.ZERO;
-                        break;
-                    }
-                }
-                if (unitCost.equals(BigDecimal.ZERO) && product.getPrice() != null) {
-                    unitCost = product.getPrice();
-                }
-                // Defensive: default to zero if null
-                BigDecimal cogs = inventoryMovementRepository.sumCogsForProductAndWarehouse(
-                    product, warehouse, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay().minusSeconds(1));
-                if (cogs == null) cogs = BigDecimal.ZERO;
-                Integer startQty = inventoryMovementRepository.getInventoryOnHandAt(product, warehouse, startDate.atStartOfDay());
-                Integer endQty = inventoryMovementRepository.getInventoryOnHandAt(product, warehouse, endDate.plusDays(1).atStartOfDay().minusSeconds(1));
-                if (startQty == null) startQty = 0;
-                if (endQty == null) endQty = 0;
-                BigDecimal avgInventory = (BigDecimal.valueOf(startQty).add(BigDecimal.valueOf(endQty))).divide(BigDecimal.valueOf(2), 2, BigDecimal.ROUND_HALF_UP);
-                BigDecimal turnoverRatio = BigDecimal.ZERO;
-                if (avgInventory.compareTo(BigDecimal.ZERO) > 0) {
-                    turnoverRatio = cogs.divide(avgInventory, 2, BigDecimal.ROUND_HALF_UP);
-                }
-                result.add(InventoryTurnoverReportDTO.builder()
-                    .productId(product.getId())
-                    .productName(product.getName())
-                    .warehouseId(warehouse.getId())
-                    .warehouseName(warehouse.getName())
-                    .periodStart(startDate.toString())
-                    .periodEnd(endDate.toString())
-                    .turnoverRatio(turnoverRatio)
-                    .costOfGoodsSold(cogs)
-                    .averageInventory(avgInventory)
-                    .unitCost(unitCost)
-                    .build());
-            }
-        }
+        streamInventoryTurnover(productId, warehouseId, startDate, endDate, result::add);
         return result;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamInventoryTurnover(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate,
+                                        Consumer<InventoryTurnoverReportDTO> sink) {
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay().minusSeconds(1);
+        // Opening balances come from the daily snapshots; only the window itself is aggregated
+        Map<List<UUID>, OnHandAggregate> opening = new LinkedHashMap<>();
+        for (OnHandAggregate row : inventorySnapshotService.getOnHandAt(productId, warehouseId, start)) {
+            opening.put(Arrays.asList(row.getProductId(), row.getWarehouseId()), row);
+        }
+        // Rows are emitted as the database returns them, in name order
+        try (Stream<TurnoverAggregate> window = inventoryMovementRepository.aggregateTurnover(
+                productId, warehouseId, start, end, InventoryMovement.MovementType.OUTBOUND)) {
+            window.forEach(row -> {
+                OnHandAggregate open = opening.remove(Arrays.asList(row.getProductId(), row.getWarehouseId()));
+                long openingQty = open != null && open.getQuantity() != null ? open.getQuantity() : 0L;
+                long netChange = row.getNetChange() != null ? row.getNetChange() : 0L;
+                sink.accept(toTurnoverReport(row.getProductId(), row.getProductName(), row.getProductPrice(),
+                    row.getWarehouseId(), row.getWarehouseName(), openingQty, openingQty + netChange,
+                    row.getOutboundQuantity(), row.getCostOfGoodsSold(), startDate, endDate));
+            });
+        }
+        // Pairs with history but no movement in the window follow, also in name order
+        opening.values().stream()
+            .sorted(Comparator.comparing(OnHandAggregate::getProductName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(OnHandAggregate::getWarehouseName, Comparator.nullsFirst(Comparator.naturalOrder())))
+            .forEach(open -> {
+                long openingQty = open.getQuantity() != null ? open.getQuantity() : 0L;
+                sink.accept(toTurnoverReport(open.getProductId(), open.getProductName(), open.getProductPrice(),
+                    open.getWarehouseId(), open.getWarehouseName(), openingQty, openingQty, 0L, null, startDate, endDate));
+            });
+    }
+
+    private InventoryTurnoverReportDTO toTurnoverReport(UUID productId, String productName, BigDecimal productPrice,
+                                                        UUID warehouseId, String warehouseName, long startQty, long endQty,
+                                                        Long outboundQuantity, BigDecimal costOfGoodsSold,
+                                                        LocalDate startDate, LocalDate endDate) {
+        BigDecimal cogs = costOfGoodsSold != null ? costOfGoodsSold : BigDecimal.ZERO;
+        long outboundQty = outboundQuantity != null ? outboundQuantity : 0L;
+        // Weighted average cost of what left the warehouse, falling back to list price
+        BigDecimal unitCost = BigDecimal.ZERO;
+        if (outboundQty > 0 && cogs.compareTo(BigDecimal.ZERO) > 0) {
+            unitCost = cogs.divide(BigDecimal.valueOf(outboundQty), 2, RoundingMode.HALF_UP);
+        } else if (productPrice != null) {
+            unitCost = productPrice;
+        }
+        BigDecimal avgInventory = (BigDecimal.valueOf(startQty).add(BigDecimal.valueOf(endQty))).divide(BigDecimal.valueOf(2), 2, BigDecimal.ROUND_HALF_UP);
+        BigDecimal turnoverRatio = BigDecimal.ZERO;
+        if (avgInventory.compareTo(BigDecimal.ZERO) > 0) {
+            turnoverRatio = cogs.divide(avgInventory, 2, BigDecimal.ROUND_HALF_UP);
+        }
+        return InventoryTurnoverReportDTO.builder()
+            .productId(productId)
+            .productName(productName)
+            .warehouseId(warehouseId)
+            .warehouseName(warehouseName)
+            .periodStart(startDate.toString())
+            .periodEnd(endDate.toString())
+            .turnoverRatio(turnoverRatio)
+            .costOfGoodsSold(cogs)
+            .averageInventory(avgInventory)
+            .unitCost(unitCost)
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<StockValuationReportDTO> getStockValuation(UUID productId, UUID warehouseId) {
-        List<Product> products = (productId != null)
-            ? productRepository.findAll().stream().filter(p -> p.getId().equals(productId)).collect(Collectors.toList())
-            : productRepository.findAll();
-        List<Warehouse> warehouses = (warehouseId != null)
-            ? warehouseRepository.findAll().stream().filter(w -> w.getId().equals(warehouseId)).collect(Collectors.toList())
-            : warehouseRepository.findAll();
         List<StockValuationReportDTO> result = new ArrayList<>();
-        for (Product product : products) {
-            for (Warehouse warehouse : warehouses) {
-                inventoryRepository.findByProductAndWarehouse(product, warehouse).ifPresent(inventory -> {
-                    BigDecimal quantityOnHand = inventory.getQuantity() != null ? new BigDecimal(inventory.getQuantity()) : BigDecimal.ZERO;
-                    BigDecimal unitCost = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
-                    BigDecimal totalValue = quantityOnHand.multiply(unitCost);
-                    result.add(StockValuationReportDTO.builder()
-                        .productId(product.getId() != null ? product.getId().getMostSignificantBits() : null)
-                        .productName(product.getName())
-                        .warehouseId(warehouse.getId() != null ? warehouse.getId().getMostSignificantBits() : null)
-                        .warehouseName(warehouse.getName())
-                        .quantityOnHand(quantityOnHand)
-                        .unitCost(unitCost)
-                        .totalValue(totalValue)
-                        .build());
-                });
-            }
-        }
+        streamStockValuation(productId, warehouseId, result::add);
         return result;
     }
 
     @Override
-    public List<InventoryTrendReportDTO> getInventoryTrends(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate) {
-        List<Product> products = (productId != null)
-            ? productRepository.findAll().stream().filter(p -> p.getId().equals(productId)).collect(Collectors.toList())
-            : productRepository.findAll();
-        List<Warehouse> warehouses = (warehouseId != null)
-            ? warehouseRepository.findAll().stream().filter(w -> w.getId().equals(warehouseId)).collect(Collectors.toList())
-            : warehouseRepository.findAll();
+    @Transactional(readOnly = true)
+    public void streamStockValuation(UUID productId, UUID warehouseId, Consumer<StockValuationReportDTO> sink) {
+        // Driven off inventory rows only; quantity * price is computed by the database
+        try (Stream<ValuationRow> rows = inventoryRepository.streamValuationRows(productId, warehouseId)) {
+            rows.forEach(row -> sink.accept(StockValuationReportDTO.builder()
+                .productId(row.getProductId() != null ? row.getProductId().getMostSignificantBits() : null)
+                .productName(row.getProductName())
+                .warehouseId(row.getWarehouseId() != null ? row.getWarehouseId().getMostSignificantBits() : null)
+                .warehouseName(row.getWarehouseName())
+                .quantityOnHand(row.getQuantity() != null ? new BigDecimal(row.getQuantity()) : BigDecimal.ZERO)
+                .unitCost(row.getUnitCost() != null ? row.getUnitCost() : BigDecimal.ZERO)
+                .totalValue(row.getTotalValue() != null ? row.getTotalValue() : BigDecimal.ZERO)
+                .build()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockValuationSummaryDTO getStockValuationSummary(UUID productId, UUID warehouseId, ValuationGrouping groupBy) {
+        List<ValuationRollup> groups;
+        switch (groupBy) {
+            case WAREHOUSE:
+                groups = inventoryRepository.sumValuationByWarehouse(productId, warehouseId);
+                break;
+            case CATEGORY:
+                groups = inventoryRepository.sumValuationByCategory(productId, warehouseId);
+                break;
+            default:
+                groups = Collections.emptyList();
+        }
+        ValuationRollup total = inventoryRepository.sumValuation(productId, warehouseId);
+        return StockValuationSummaryDTO.builder()
+            .groupBy(groupBy)
+            .groups(groups.stream()
+                .map(group -> StockValuationGroupDTO.builder()
+                    .key(group.getGroupKey())
+                    .name(group.getGroupName())
+                    .quantityOnHand(group.getQuantity() != null ? BigDecimal.valueOf(group.getQuantity()) : BigDecimal.ZERO)
+                    .totalValue(group.getTotalValue() != null ? group.getTotalValue() : BigDecimal.ZERO)
+                    .build())
+                .collect(Collectors.toList()))
+            .totalQuantity(total != null && total.getQuantity() != null ? BigDecimal.valueOf(total.getQuantity()) : BigDecimal.ZERO)
+            .totalValue(total != null && total.getTotalValue() != null ? total.getTotalValue() : BigDecimal.ZERO)
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryTrendReportDTO> getInventoryTrends(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate, TrendGranularity granularity) {
         List<InventoryTrendReportDTO> result = new ArrayList<>();
-        for (Product product : products) {
-            for (Warehouse warehouse : warehouses) {
-                // Get initial quantity from Inventory table
-                Integer initialQty = inventoryRepository.findByProductAndWarehouse(product, warehouse)
-                    .map(inv -> inv.getQuantity())
-                    .orElse(0);
-                LocalDate date = startDate;
-                while (!date.isAfter(endDate)) {
-                    // Use movements up to this date
-                    Integer qty = inventoryMovementRepository.getInventoryOnHandAt(product, warehouse, date.atStartOfDay());
-                    // If there are no movements, use the Inventory quantity
-                    BigDecimal quantityOnHand = (qty != null && qty != 0) ? new BigDecimal(qty) : new BigDecimal(initialQty);
-                    result.add(InventoryTrendReportDTO.builder()
-                        .productId(product.getId() != null ? product.getId().getMostSignificantBits() : null)
-                        .productName(product.getName())
-                        .warehouseId(warehouse.getId() != null ? warehouse.getId().getMostSignificantBits() : null)
-                        .warehouseName(warehouse.getName())
-                        .date(date.toString())
-                        .quantityOnHand(quantityOnHand)
-                        .build());
-                    date = date.plusDays(1);
+        streamInventoryTrends(productId, warehouseId, startDate, endDate, granularity, result::add);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInventoryTrends(UUID productId, UUID warehouseId, LocalDate startDate, LocalDate endDate,
+                                      TrendGranularity granularity, Consumer<InventoryTrendReportDTO> sink) {
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.atStartOfDay();
+        Map<List<UUID>, TrendPair> pairs = new LinkedHashMap<>();
+        // Pairs without any ledger history fall back to the Inventory quantity
+        for (Inventory inventory : inventoryRepository.findAllWithProductAndWarehouse(productId, warehouseId)) {
+            TrendPair pair = pairs.computeIfAbsent(
+                Arrays.asList(inventory.getProduct().getId(), inventory.getWarehouse().getId()),
+                key -> new TrendPair(inventory.getProduct().getId(), inventory.getProduct().getName(),
+                    inventory.getWarehouse().getId(), inventory.getWarehouse().getName()));
+            pair.fallbackQuantity = inventory.getQuantity() != null ? inventory.getQuantity() : 0;
+        }
+        // Snapshot-plus-delta opening balance seeds every running sum
+        for (OnHandAggregate row : inventorySnapshotService.getOnHandAt(productId, warehouseId, from)) {
+            TrendPair pair = pairs.computeIfAbsent(Arrays.asList(row.getProductId(), row.getWarehouseId()),
+                key -> new TrendPair(row.getProductId(), row.getProductName(), row.getWarehouseId(), row.getWarehouseName()));
+            pair.opening = row.getQuantity() != null ? row.getQuantity() : 0L;
+            pair.hasHistory = true;
+        }
+        InventoryTrendGenerator generator = new InventoryTrendGenerator(startDate, endDate, granularity, sink);
+        List<UUID> current = null;
+        try (Stream<TrendMovement> movements = inventoryMovementRepository.streamMovementsBetween(productId, warehouseId, from, to)) {
+            Iterator<TrendMovement> it = movements.iterator();
+            while (it.hasNext()) {
+                TrendMovement movement = it.next();
+                List<UUID> key = Arrays.asList(movement.getProductId(), movement.getWarehouseId());
+                if (!key.equals(current)) {
+                    if (current != null) {
+                        generator.end();
+                    }
+                    TrendPair pair = pairs.remove(key);
+                    if (pair == null) {
+                        pair = new TrendPair(movement.getProductId(), movement.getProductName(),
+                            movement.getWarehouseId(), movement.getWarehouseName());
+                    }
+                    generator.begin(pair.productId, pair.productName, pair.warehouseId, pair.warehouseName, pair.opening);
+                    current = key;
                 }
+                generator.apply(movement.getMovementDate(), movement.getQuantity() != null ? movement.getQuantity() : 0);
             }
         }
-        return result;
+        if (current != null) {
+            generator.end();
+        }
+        // Pairs with no movement inside the window hold a flat line
+        for (TrendPair pair : pairs.values()) {
+            generator.begin(pair.productId, pair.productName, pair.warehouseId, pair.warehouseName,
+                pair.hasHistory ? pair.opening : pair.fallbackQuantity);
+            generator.end();
+        }
+    }
+
+    private static class TrendPair {
+        private final UUID productId;
+        private final String productName;
+        private final UUID warehouseId;
+        private final String warehouseName;
+        private long opening;
+        private long fallbackQuantity;
+        private boolean hasHistory;
+
+        TrendPair(UUID productId, String productName, UUID warehouseId, String warehouseName) {
+            this.productId = productId;
+            this.productName = productName;
+            this.warehouseId = warehouseId;
+            this.warehouseName = warehouseName;
+        }
     }
-}
\ No newline at end of file
+}
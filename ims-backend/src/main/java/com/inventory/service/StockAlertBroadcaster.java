@@ -0,0 +1,250 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.StockAlertResponseDTO;
+import com.inventory.repository.StockAlertRepository;
+import com.inventory.util.StockAlertMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Fans stock alert changes out to Server-Sent Events clients once the transaction that made them commits,
+ * so dashboards get deltas instead of re-reading the alert list.
+ *
+ * <p>Publishing never waits for a client. Each client has a bounded buffer, drained by the sender pool one
+ * send at a time. A client that falls a whole buffer behind loses what was buffered and is sent a single
+ * {@value #RESYNC} event instead, telling it to reload the list; memory per client stays fixed however slow
+ * it is. Changed alerts are loaded and serialized once, whatever the number of clients, on the sender pool rather
+ * than the committing thread, and not at all while none is connected or when a change set is too big for any buffer.
+ */
+@Slf4j
+@Component
+public class StockAlertBroadcaster {
+    public static final String CREATED = "alert-created";
+    public static final String RESOLVED = "alert-resolved";
+    public static final String RESYNC = "resync";
+
+    private static final MediaType UTF8_TEXT = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final Frame RESYNC_FRAME = new Frame(RESYNC, "{}");
+    private static final Frame PING_FRAME = new Frame(null, "ping");
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final StockAlertRepository stockAlertRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor sender;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final LongAdder resyncs = new LongAdder();
+
+    public StockAlertBroadcaster(StockAlertRepository stockAlertRepository, ObjectMapper objectMapper,
+                                 @Value("${inventory.alerts.stream.buffer-size:256}") int bufferSize,
+                                 @Value("${inventory.alerts.stream.sender-threads:4}") int senderThreads,
+                                 @Value("${inventory.alerts.stream.timeout:30m}") Duration timeout) {
+        this.stockAlertRepository = stockAlertRepository;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        // A client has at most one drain task queued at a time, so beyond one load per commit that changed alerts
+        // while clients were connected, the queue is bounded by the client count
+        this.sender = new ThreadPoolTaskExecutor();
+        sender.setCorePoolSize(senderThreads);
+        sender.setMaxPoolSize(senderThreads);
+        sender.setThreadNamePrefix("alert-stream-");
+        sender.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdown();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        // Commits the response headers so the browser sees the stream open straight away
+        subscriber.offer(List.of(new Frame(null, "connected")));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAlertsChanged(StockAlertsChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (event.getAlertIds().size() > bufferSize) {
+            // Would overflow every client's buffer on its own: skip loading the alerts and go straight to a resync
+            subscribers.forEach(Subscriber::resync);
+            return;
+        }
+        // The committing thread has its caller waiting; loading and serializing happen on the sender pool
+        try {
+            sender.execute(() -> publish(event.getAlertIds()));
+        } catch (TaskRejectedException e) {
+            // Shutting down
+        }
+    }
+
+    private void publish(List<Long> alertIds) {
+        List<Frame> frames;
+        try {
+            frames = stockAlertRepository.findChanges(alertIds).stream()
+                    .map(StockAlertMapper::toResponseDTO)
+                    .map(alert -> new Frame(alert.isResolved() ? RESOLVED : CREATED, toJson(alert)))
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            // Clients cannot be sent alerts that did not load, so they reload the list instead
+            log.warn("Could not load changed stock alerts {}, asking stream clients to resync", alertIds, e);
+            subscribers.forEach(Subscriber::resync);
+            return;
+        }
+        subscribers.forEach(subscriber -> subscriber.offer(frames));
+    }
+
+    // Keeps idle connections open through proxies, and finds clients that left without closing
+    @Scheduled(fixedDelayString = "${inventory.alerts.stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(List.of(PING_FRAME)));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Times a client overflowed its buffer and was told to resync
+    public long getResyncCount() {
+        return resyncs.sum();
+    }
+
+    private String toJson(StockAlertResponseDTO alert) {
+        try {
+            return objectMapper.writeValueAsString(alert);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize stock alert " + alert.getId(), e);
+        }
+    }
+
+    // One SSE event, already serialized; a null name makes it a comment line, which clients ignore
+    private static final class Frame {
+        private final String name;
+        private final String data;
+
+        private Frame(String name, String data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            return name == null ? SseEmitter.event().comment(data) : SseEmitter.event().name(name).data(data, UTF8_TEXT);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Frame> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(List<Frame> frames) {
+            if (closed) {
+                return;
+            }
+            for (Frame frame : frames) {
+                if (!buffer.offer(frame)) {
+                    // Too far behind for deltas to help
+                    resync();
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        // Drops the buffered deltas and has the client reload the list instead
+        private void resync() {
+            if (closed) {
+                return;
+            }
+            buffer.clear();
+            buffer.offer(RESYNC_FRAME);
+            resyncs.increment();
+            schedule();
+        }
+
+        // Called by the container before it recycles the response, so it waits out a send in progress: a write
+        // still failing on a sender thread would otherwise record its error on the recycled response, and the
+        // next connection handed that processor would fail its first write
+        private void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            subscribers.remove(this);
+            buffer.clear();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while ((frame = buffer.poll()) != null) {
+                    synchronized (this) {
+                        if (closed) {
+                            return;
+                        }
+                        emitter.send(frame.toEvent());
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already ended. The container reports the failed write itself
+                // and ends the request; completing the emitter here as well would dispatch a second error
+                close();
+                log.debug("Dropped stock alert stream client: {}", e.getMessage());
+                return;
+            }
+            draining.set(false);
+            // A frame offered between the last poll and releasing the flag would otherwise wait for the next one
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
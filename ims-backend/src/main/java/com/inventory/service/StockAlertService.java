@@ -2,10 +2,14 @@ package com.inventory.service;
 
 import com.inventory.model.Inventory;
 import com.inventory.model.StockAlert;
+import java.util.Collection;
 import java.util.List;
 
 public interface StockAlertService {
+    // Raises an alert when the row is below its reorder threshold, or resolves its open alert when it is not
     void createAlertIfLowStock(Inventory inventory);
+    // Bulk form for callers that changed many rows without loading them
+    void createAlertsIfLowStock(Collection<Long> inventoryIds);
     List<StockAlert> getActiveAlerts();
     void resolveAlert(Long alertId);
 }
\ No newline at end of file
@@ -4,49 +4,79 @@ import com.inventory.model.Inventory;
 import com.inventory.model.StockAlert;
 import com.inventory.repository.StockAlertRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class StockAlertServiceImpl implements StockAlertService {
     private final StockAlertRepository stockAlertRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryMetrics inventoryMetrics;
 
     @Override
     @Transactional
     public void createAlertIfLowStock(Inventory inventory) {
+        // One indexed statement either way: the partial unique index on open alerts makes the insert a no-op
+        // when the row already has one, and finds the open alert to close once stock has recovered
         if (inventory.getQuantity() < inventory.getReorderThreshold()) {
-            // Only create a new alert if one doesn't already exist and is unresolved
-            boolean exists = stockAlertRepository.findByInventory(inventory).stream()
-                .anyMatch(alert -> !alert.isResolved());
-            if (!exists) {
-                StockAlert alert = StockAlert.builder()
-                        .inventory(inventory)
-                        .quantity(inventory.getQuantity())
-                        .threshold(inventory.getReorderThreshold())
-                        .createdAt(LocalDateTime.now())
-                        .resolved(false)
-                        .build();
-                stockAlertRepository.save(alert);
-            }
+            stockAlertRepository.insertIfNoActiveAlert(inventory.getId(), inventory.getQuantity(), inventory.getReorderThreshold())
+                    .ifPresent(alertId -> {
+                        inventoryMetrics.alertsRaised(1);
+                        publish(alertId);
+                    });
+        } else {
+            stockAlertRepository.resolveActiveAlert(inventory.getId()).ifPresent(alertId -> {
+                inventoryMetrics.alertsResolved(1);
+                publish(alertId);
+            });
         }
     }
 
     @Override
+    @Transactional
+    public void createAlertsIfLowStock(Collection<Long> inventoryIds) {
+        if (!inventoryIds.isEmpty()) {
+            List<Long> raised = stockAlertRepository.createMissingLowStockAlerts(inventoryIds);
+            List<Long> resolved = stockAlertRepository.resolveRecoveredAlerts(inventoryIds);
+            inventoryMetrics.alertsRaised(raised.size());
+            inventoryMetrics.alertsResolved(resolved.size());
+            List<Long> changed = new ArrayList<>(raised);
+            changed.addAll(resolved);
+            publish(changed);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<StockAlert> getActiveAlerts() {
-        return stockAlertRepository.findByResolvedFalse();
+        return stockAlertRepository.findActiveWithInventory();
     }
 
     @Override
     @Transactional
     public void resolveAlert(Long alertId) {
-        StockAlert alert = stockAlertRepository.findById(alertId)
-                .orElseThrow(() -> new RuntimeException("Stock alert not found"));
-        alert.setResolved(true);
-        alert.setResolvedAt(LocalDateTime.now());
-        stockAlertRepository.save(alert);
+        Long resolved = stockAlertRepository.resolveById(alertId).orElse(null);
+        if (resolved != null) {
+            inventoryMetrics.alertsResolved(1);
+            publish(resolved);
+        } else if (!stockAlertRepository.existsById(alertId)) {
+            throw new RuntimeException("Stock alert not found");
+        }
+    }
+
+    private void publish(Long alertId) {
+        publish(List.of(alertId));
+    }
+
+    private void publish(List<Long> alertIds) {
+        if (!alertIds.isEmpty()) {
+            eventPublisher.publishEvent(new StockAlertsChangedEvent(alertIds));
+        }
     }
-}
\ No newline at end of file
+}
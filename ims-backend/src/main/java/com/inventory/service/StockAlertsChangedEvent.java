@@ -0,0 +1,17 @@
+package com.inventory.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ids of the alerts raised or resolved by one {@link StockAlertService} call, published inside the writing
+ * transaction. Listeners that talk to clients should use {@code @TransactionalEventListener} so a rollback never
+ * shows, and load the alerts themselves: writes made while no one is listening pay for nothing but the ids.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StockAlertsChangedEvent {
+    private final List<Long> alertIds;
+}
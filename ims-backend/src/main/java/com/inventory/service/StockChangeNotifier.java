@@ -0,0 +1,114 @@
+package com.inventory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Announces changed product/warehouse pairs on the {@code inventory_stock} channel once the transaction that
+ * changed them commits, for the stock matrix of every instance (see {@link AvailabilityServiceImpl}).
+ *
+ * <p>None of it runs on the write path: the committing thread only queues the pairs, and one background thread
+ * sends whatever has queued up since its last round, without repeats, a hundred pairs to a notification. A send
+ * that fails is logged and dropped; the matrix catches up at its next periodic reload.
+ */
+@Slf4j
+@Component
+public class StockChangeNotifier {
+    static final String CHANNEL = "inventory_stock";
+    // "<product_id> <warehouse_id>" lines of 73 bytes, well under PostgreSQL's 8000-byte payload limit
+    private static final int PAIRS_PER_NOTIFICATION = 100;
+    private static final String NOTIFY = "SELECT pg_notify('" + CHANNEL + "', payload) FROM unnest(?::text[]) AS payload";
+
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor sender;
+
+    public StockChangeNotifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // One round at a time, so pairs queued during a send go out merged in the next one
+        this.sender = new ThreadPoolTaskExecutor();
+        sender.setCorePoolSize(1);
+        sender.setMaxPoolSize(1);
+        sender.setThreadNamePrefix("stock-notify-");
+        sender.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+    }
+
+    // Writes made outside a transaction are announced straight away
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockLevelsChanged(StockLevelsChangedEvent event) {
+        for (int i = 0; i < event.getProductIds().size(); i++) {
+            pending.add(event.getProductIds().get(i) + " " + event.getWarehouseIds().get(i));
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Shutting down
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        List<String> pairs;
+        while (!(pairs = takePending()).isEmpty()) {
+            try {
+                send(pairs);
+            } catch (RuntimeException e) {
+                log.warn("Could not announce {} changed stock pairs: {}", pairs.size(), e.toString());
+            }
+        }
+        draining.set(false);
+        // Pairs queued between the last poll and releasing the flag would otherwise wait for the next commit
+        if (!pending.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private List<String> takePending() {
+        Set<String> pairs = new LinkedHashSet<>();
+        String pair;
+        while ((pair = pending.poll()) != null) {
+            pairs.add(pair);
+        }
+        return new ArrayList<>(pairs);
+    }
+
+    private void send(List<String> pairs) {
+        List<String> payloads = new ArrayList<>(pairs.size() / PAIRS_PER_NOTIFICATION + 1);
+        for (int from = 0; from < pairs.size(); from += PAIRS_PER_NOTIFICATION) {
+            payloads.add(String.join("\n", pairs.subList(from, Math.min(from + PAIRS_PER_NOTIFICATION, pairs.size()))));
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(NOTIFY);
+            ps.setArray(1, connection.createArrayOf("text", payloads.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> { });
+    }
+}
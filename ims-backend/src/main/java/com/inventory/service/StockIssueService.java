@@ -0,0 +1,13 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockIssueBatchRequestDTO;
+import com.inventory.dto.StockIssueRequestDTO;
+import com.inventory.dto.StockIssueResponseDTO;
+
+import java.util.List;
+
+public interface StockIssueService {
+    StockIssueResponseDTO issue(StockIssueRequestDTO request);
+    // All lines are issued or none are
+    List<StockIssueResponseDTO> issueBatch(StockIssueBatchRequestDTO request);
+}
@@ -0,0 +1,147 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockIssueBatchRequestDTO;
+import com.inventory.dto.StockIssueRequestDTO;
+import com.inventory.dto.StockIssueResponseDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.model.Inventory;
+import com.inventory.model.InventoryMovement;
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.WarehouseRepository;
+import com.inventory.repository.projection.IssuedStock;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class StockIssueServiceImpl implements StockIssueService {
+    // Every transaction locks pairs in this order, so two batches sharing SKUs cannot deadlock
+    private static final Comparator<Pair> LOCK_ORDER = Comparator.comparing(Pair::getProductId).thenComparing(Pair::getWarehouseId);
+
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final StockAlertService stockAlertService;
+    private final CostLayerService costLayerService;
+    private final InventoryMetrics inventoryMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public StockIssueResponseDTO issue(StockIssueRequestDTO request) {
+        return issueLines(Collections.singletonList(request), request.getReference()).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<StockIssueResponseDTO> issueBatch(StockIssueBatchRequestDTO request) {
+        return issueLines(request.getLines(), request.getReference());
+    }
+
+    private List<StockIssueResponseDTO> issueLines(List<StockIssueRequestDTO> lines, String defaultReference) {
+        // One decrement per pair however many lines hit it
+        Map<Pair, Integer> totals = new TreeMap<>(LOCK_ORDER);
+        for (StockIssueRequestDTO line : lines) {
+            Pair pair = new Pair(line.getProductId(), line.getWarehouseId());
+            try {
+                totals.merge(pair, line.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                // A wrapped total would be negative, and removing a negative quantity adds stock
+                throw new IllegalArgumentException("Total quantity for product " + pair.getProductId()
+                    + " in warehouse " + pair.getWarehouseId() + " exceeds " + Integer.MAX_VALUE);
+            }
+        }
+        Map<Pair, IssuedStock> issued = new TreeMap<>(LOCK_ORDER);
+        Map<Pair, BigDecimal> unitCosts = new TreeMap<>(LOCK_ORDER);
+        for (Map.Entry<Pair, Integer> total : totals.entrySet()) {
+            Pair pair = total.getKey();
+            IssuedStock level = inventoryRepository.removeStock(pair.getProductId(), pair.getWarehouseId(), total.getValue());
+            if (level == null) {
+                throw notIssuable(pair, total.getValue());
+            }
+            issued.put(pair, level);
+            // Product price only covers units received before cost layers existed
+            unitCosts.put(pair, costLayerService.issue(pair.getProductId(), pair.getWarehouseId(), total.getValue(), level.getUnitCost()));
+            if (level.getQuantity() < level.getReorderThreshold()) {
+                // Only load the entity when an alert may be due; the hot path stays at one statement per pair
+                Inventory inventory = inventoryRepository.findById(level.getId())
+                        .orElseThrow(() -> new EntityNotFoundException("Inventory not found: " + level.getId()));
+                inventory.setQuantity(level.getQuantity());
+                stockAlertService.createAlertIfLowStock(inventory);
+            }
+        }
+        eventPublisher.publishEvent(changedLevels(totals.keySet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<InventoryMovement> movements = new ArrayList<>(lines.size());
+        List<StockIssueResponseDTO> responses = new ArrayList<>(lines.size());
+        for (StockIssueRequestDTO line : lines) {
+            Pair pair = new Pair(line.getProductId(), line.getWarehouseId());
+            IssuedStock level = issued.get(pair);
+            BigDecimal unitCost = unitCosts.get(pair);
+            String reference = line.getReference() != null ? line.getReference() : defaultReference;
+            movements.add(InventoryMovement.builder()
+                .product(productRepository.getReferenceById(line.getProductId()))
+                .warehouse(warehouseRepository.getReferenceById(line.getWarehouseId()))
+                .movementType(InventoryMovement.MovementType.OUTBOUND)
+                .quantity(-line.getQuantity())
+                .unitCost(unitCost)
+                .movementDate(now)
+                .reference(reference)
+                .build());
+            responses.add(StockIssueResponseDTO.builder()
+                .inventoryId(level.getId())
+                .productId(line.getProductId())
+                .warehouseId(line.getWarehouseId())
+                .quantity(line.getQuantity())
+                .remainingQuantity(level.getQuantity())
+                .unitCost(unitCost)
+                .reference(reference)
+                .build());
+        }
+        inventoryMovementRepository.saveAll(movements);
+        inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.OUTBOUND, movements.size());
+        return responses;
+    }
+
+    private RuntimeException notIssuable(Pair pair, int requested) {
+        return inventoryRepository.findQuantity(pair.getProductId(), pair.getWarehouseId())
+            .<RuntimeException>map(available -> new InsufficientStockException(pair.getProductId(), pair.getWarehouseId(), requested, available))
+            .orElseGet(() -> new EntityNotFoundException("Inventory not found for product " + pair.getProductId()
+                + " in warehouse " + pair.getWarehouseId()));
+    }
+
+    private static StockLevelsChangedEvent changedLevels(Collection<Pair> pairs) {
+        List<UUID> productIds = new ArrayList<>(pairs.size());
+        List<UUID> warehouseIds = new ArrayList<>(pairs.size());
+        for (Pair pair : pairs) {
+            productIds.add(pair.getProductId());
+            warehouseIds.add(pair.getWarehouseId());
+        }
+        return new StockLevelsChangedEvent(productIds, warehouseIds);
+    }
+
+    @Value
+    private static class Pair {
+        UUID productId;
+        UUID warehouseId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventory.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Product/warehouse pairs whose inventory row was created, changed or deleted by one service call, as parallel
+ * lists, published inside the writing transaction. Only the pairs travel: whoever needs the quantities reads
+ * them once the write has committed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class StockLevelsChangedEvent {
+    private final List<UUID> productIds;
+    private final List<UUID> warehouseIds;
+}
@@ -0,0 +1,157 @@
+package com.inventory.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quantity on hand of every product/warehouse pair, in memory. Products and warehouses get dense indices
+ * in the order they are first seen; each stocked product has one {@code int[]} row indexed by warehouse,
+ * holding {@link #ABSENT} where the pair has no inventory row. A lookup is a hash probe for the index and
+ * two array reads, with no boxing and no locks.
+ *
+ * <p>Changes are serialized (one writer at a time); readers never wait. Every change ends with a volatile
+ * write of the array it touched, so a reader that then reads that array sees the change. Indices are never
+ * reused: a deleted product keeps its slot, emptied, until the matrix is rebuilt.
+ */
+public class StockMatrix {
+    public static final int ABSENT = Integer.MIN_VALUE;
+
+    private final Map<UUID, Integer> productIndex = new ConcurrentHashMap<>();
+    private final Map<String, Integer> skuIndex = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> warehouseIndex = new ConcurrentHashMap<>();
+
+    private volatile UUID[] productIds = new UUID[1024];
+    private volatile String[] skus = new String[1024];
+    private volatile int[][] quantities = new int[1024][];
+    private volatile UUID[] warehouseIds = new UUID[64];
+    private volatile int productCount;
+    private volatile int warehouseCount;
+
+    public synchronized void putProduct(UUID productId, String sku) {
+        int product = productSlot(productId);
+        String previous = skus[product];
+        if (previous != null && !previous.equals(sku)) {
+            skuIndex.remove(previous, product);
+        }
+        skus[product] = sku;
+        skus = skus;
+        skuIndex.put(sku, product);
+    }
+
+    public synchronized void removeProduct(UUID productId) {
+        Integer product = productIndex.remove(productId);
+        if (product == null) {
+            return;
+        }
+        if (skus[product] != null) {
+            skuIndex.remove(skus[product], product);
+        }
+        skus[product] = null;
+        productIds[product] = null;
+        quantities[product] = null;
+        quantities = quantities;
+    }
+
+    public synchronized void setQuantity(UUID productId, UUID warehouseId, int quantity) {
+        int product = productSlot(productId);
+        int warehouse = warehouseSlot(warehouseId);
+        int[] row = quantities[product];
+        if (row == null || warehouse >= row.length) {
+            int from = row == null ? 0 : row.length;
+            row = row == null ? new int[warehouseIds.length] : Arrays.copyOf(row, warehouseIds.length);
+            Arrays.fill(row, from, row.length, ABSENT);
+            quantities[product] = row;
+        }
+        row[warehouse] = quantity;
+        quantities = quantities;
+    }
+
+    public synchronized void removeQuantity(UUID productId, UUID warehouseId) {
+        Integer product = productIndex.get(productId);
+        Integer warehouse = warehouseIndex.get(warehouseId);
+        if (product == null || warehouse == null) {
+            return;
+        }
+        int[] row = quantities[product];
+        if (row != null && warehouse < row.length) {
+            row[warehouse] = ABSENT;
+            quantities = quantities;
+        }
+    }
+
+    // -1 when unknown
+    public int findProduct(String sku) {
+        Integer product = skuIndex.get(sku);
+        return product != null ? product : -1;
+    }
+
+    public int findWarehouse(UUID warehouseId) {
+        Integer warehouse = warehouseIndex.get(warehouseId);
+        return warehouse != null ? warehouse : -1;
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    public int warehouseCount() {
+        return warehouseCount;
+    }
+
+    // Null for a deleted product
+    public UUID productId(int product) {
+        return productIds[product];
+    }
+
+    public String sku(int product) {
+        return skus[product];
+    }
+
+    public UUID warehouseId(int warehouse) {
+        return warehouseIds[warehouse];
+    }
+
+    public int quantity(int product, int warehouse) {
+        int[][] rows = quantities;
+        int[] row = product < rows.length ? rows[product] : null;
+        return row != null && warehouse < row.length ? row[warehouse] : ABSENT;
+    }
+
+    // Arrays are grown and published before the index is, so a reader holding an index can read its slot
+    private int productSlot(UUID productId) {
+        Integer existing = productIndex.get(productId);
+        if (existing != null) {
+            return existing;
+        }
+        int product = productCount;
+        if (product == productIds.length) {
+            int capacity = product * 2;
+            quantities = Arrays.copyOf(quantities, capacity);
+            skus = Arrays.copyOf(skus, capacity);
+            productIds = Arrays.copyOf(productIds, capacity);
+        }
+        productIds[product] = productId;
+        productIds = productIds;
+        productCount = product + 1;
+        productIndex.put(productId, product);
+        return product;
+    }
+
+    private int warehouseSlot(UUID warehouseId) {
+        Integer existing = warehouseIndex.get(warehouseId);
+        if (existing != null) {
+            return existing;
+        }
+        int warehouse = warehouseCount;
+        if (warehouse == warehouseIds.length) {
+            warehouseIds = Arrays.copyOf(warehouseIds, warehouse * 2);
+        }
+        warehouseIds[warehouse] = warehouseId;
+        warehouseIds = warehouseIds;
+        warehouseCount = warehouse + 1;
+        warehouseIndex.put(warehouseId, warehouse);
+        return warehouse;
+    }
+}
@@ -0,0 +1,15 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.dto.StockTransferResponseDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface StockTransferService {
+    // All lines move or none do
+    StockTransferResponseDTO transfer(StockTransferRequestDTO request);
+    StockTransferResponseDTO receive(UUID id);
+    StockTransferResponseDTO getTransfer(UUID id);
+    List<StockTransferResponseDTO> getInTransit();
+}
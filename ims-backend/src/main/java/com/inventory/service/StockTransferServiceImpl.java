@@ -0,0 +1,290 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockTransferLineDTO;
+import com.inventory.dto.StockTransferLineResponseDTO;
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.dto.StockTransferResponseDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.model.InventoryMovement;
+import com.inventory.model.StockTransfer;
+import com.inventory.model.StockTransferLine;
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockTransferLineRepository;
+import com.inventory.repository.StockTransferRepository;
+import com.inventory.repository.WarehouseRepository;
+import com.inventory.repository.projection.IssuedStock;
+import com.inventory.repository.projection.StockLevel;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Stock moved between warehouses in two legs. Shipping takes the units out of the source and records a
+ * TRANSFER_OUT movement per product; receiving puts them into the destination and records the matching
+ * TRANSFER_IN, both referenced {@code TR-<transfer id>}. In between, the units are in transit: on the
+ * transfer's lines and on hand nowhere. A transfer that does not go in transit does both legs in one
+ * transaction.
+ *
+ * <p>The units keep their cost: the source's cost layers are drawn down as for an issue, and the
+ * destination receives a layer at that cost.
+ */
+@Service
+@Timed("inventory.service")
+@RequiredArgsConstructor
+public class StockTransferServiceImpl implements StockTransferService {
+    private static final int DEFAULT_REORDER_THRESHOLD = 10;
+    // Stock issues lock pairs in the same order. A transfer locks source and destination rows together in
+    // this order, so opposite transfers, and transfers and picks sharing SKUs, cannot deadlock.
+    private static final Comparator<Pair> LOCK_ORDER = Comparator.comparing(Pair::getProductId).thenComparing(Pair::getWarehouseId);
+
+    private final StockTransferRepository stockTransferRepository;
+    private final StockTransferLineRepository stockTransferLineRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final StockAlertService stockAlertService;
+    private final CostLayerService costLayerService;
+    private final InventoryMetrics inventoryMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public StockTransferResponseDTO transfer(StockTransferRequestDTO request) {
+        UUID source = request.getSourceWarehouseId();
+        UUID destination = request.getDestinationWarehouseId();
+        if (source.equals(destination)) {
+            throw new IllegalArgumentException("Source and destination warehouse must differ");
+        }
+        requireWarehouse(source);
+        requireWarehouse(destination);
+        boolean inTransit = Boolean.TRUE.equals(request.getInTransit());
+        Map<UUID, Integer> totals = new LinkedHashMap<>();
+        for (StockTransferLineDTO line : request.getLines()) {
+            try {
+                totals.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                // A wrapped total would turn the source's decrement into an increment
+                throw new IllegalArgumentException("Total quantity for product " + line.getProductId() + " exceeds " + Integer.MAX_VALUE);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StockTransfer transfer = stockTransferRepository.save(StockTransfer.builder()
+            .sourceWarehouseId(source)
+            .destinationWarehouseId(destination)
+            .status(inTransit ? StockTransfer.Status.IN_TRANSIT : StockTransfer.Status.RECEIVED)
+            .reference(request.getReference())
+            .shippedAt(now)
+            .receivedAt(inTransit ? null : now)
+            .build());
+
+        Map<Pair, Integer> changes = new TreeMap<>(LOCK_ORDER);
+        totals.forEach((productId, quantity) -> {
+            changes.put(new Pair(productId, source), -quantity);
+            if (!inTransit) {
+                changes.put(new Pair(productId, destination), quantity);
+            }
+        });
+        List<Long> alertChecks = new ArrayList<>();
+        Map<Pair, StockLevel> levels = apply(changes, alertChecks);
+
+        // Every row is locked by now, so the cost layers can follow in any order
+        String reference = reference(transfer);
+        List<StockTransferLine> lines = new ArrayList<>(totals.size());
+        List<InventoryMovement> movements = new ArrayList<>(totals.size() * 2);
+        totals.forEach((productId, quantity) -> {
+            IssuedStock issued = (IssuedStock) levels.get(new Pair(productId, source));
+            BigDecimal unitCost = costLayerService.issue(productId, source, quantity, issued.getUnitCost());
+            lines.add(StockTransferLine.builder()
+                .transferId(transfer.getId())
+                .productId(productId)
+                .quantity(quantity)
+                .unitCost(unitCost)
+                .build());
+            movements.add(movement(productId, source, InventoryMovement.MovementType.TRANSFER_OUT, -quantity, unitCost, now, reference));
+            if (!inTransit) {
+                costLayerService.receive(productId, destination, quantity, unitCost, reference);
+                movements.add(movement(productId, destination, InventoryMovement.MovementType.TRANSFER_IN, quantity, unitCost, now, reference));
+            }
+        });
+        stockTransferLineRepository.saveAll(lines);
+        inventoryMovementRepository.saveAll(movements);
+        inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.TRANSFER_OUT, totals.size());
+        if (!inTransit) {
+            inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.TRANSFER_IN, totals.size());
+        }
+        stockAlertService.createAlertsIfLowStock(alertChecks);
+        return toResponseDTO(transfer, lines);
+    }
+
+    @Override
+    @Transactional
+    public StockTransferResponseDTO receive(UUID id) {
+        StockTransfer transfer = stockTransferRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new EntityNotFoundException("Transfer not found: " + id));
+        if (transfer.getStatus() != StockTransfer.Status.IN_TRANSIT) {
+            throw new IllegalArgumentException("Transfer " + id + " is not in transit");
+        }
+        UUID destination = transfer.getDestinationWarehouseId();
+        List<StockTransferLine> lines = stockTransferLineRepository.findByTransferIdOrderById(id);
+        Map<Pair, Integer> changes = new TreeMap<>(LOCK_ORDER);
+        for (StockTransferLine line : lines) {
+            changes.put(new Pair(line.getProductId(), destination), line.getQuantity());
+        }
+        List<Long> alertChecks = new ArrayList<>();
+        apply(changes, alertChecks);
+
+        LocalDateTime now = LocalDateTime.now();
+        String reference = reference(transfer);
+        List<InventoryMovement> movements = new ArrayList<>(lines.size());
+        for (StockTransferLine line : lines) {
+            costLayerService.receive(line.getProductId(), destination, line.getQuantity(), line.getUnitCost(), reference);
+            movements.add(movement(line.getProductId(), destination, InventoryMovement.MovementType.TRANSFER_IN,
+                line.getQuantity(), line.getUnitCost(), now, reference));
+        }
+        inventoryMovementRepository.saveAll(movements);
+        inventoryMetrics.movementsRecorded(InventoryMovement.MovementType.TRANSFER_IN, movements.size());
+        stockAlertService.createAlertsIfLowStock(alertChecks);
+        transfer.setStatus(StockTransfer.Status.RECEIVED);
+        transfer.setReceivedAt(now);
+        return toResponseDTO(stockTransferRepository.save(transfer), lines);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockTransferResponseDTO getTransfer(UUID id) {
+        StockTransfer transfer = stockTransferRepository.findById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Transfer not found: " + id));
+        return toResponseDTO(transfer, stockTransferLineRepository.findByTransferIdOrderById(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockTransferResponseDTO> getInTransit() {
+        List<StockTransfer> transfers = stockTransferRepository.findByStatusOrderByShippedAt(StockTransfer.Status.IN_TRANSIT);
+        if (transfers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, List<StockTransferLine>> lines = stockTransferLineRepository
+            .findByTransferIdInOrderById(transfers.stream().map(StockTransfer::getId).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.groupingBy(StockTransferLine::getTransferId));
+        return transfers.stream()
+            .map(transfer -> toResponseDTO(transfer, lines.getOrDefault(transfer.getId(), new ArrayList<>())))
+            .collect(Collectors.toList());
+    }
+
+    // Applies every pair's change in lock order, one statement each: a negative change only if that much is on
+    // hand, a positive one creating the row if needed. Rows whose alert may have to open or close are collected.
+    private Map<Pair, StockLevel> apply(Map<Pair, Integer> changes, List<Long> alertChecks) {
+        Map<Pair, StockLevel> levels = new HashMap<>(changes.size() * 2);
+        for (Map.Entry<Pair, Integer> change : changes.entrySet()) {
+            Pair pair = change.getKey();
+            int delta = change.getValue();
+            StockLevel level;
+            if (delta < 0) {
+                level = inventoryRepository.removeStock(pair.getProductId(), pair.getWarehouseId(), -delta);
+                if (level == null) {
+                    throw notShippable(pair, -delta);
+                }
+                if (level.getQuantity() < level.getReorderThreshold()) {
+                    alertChecks.add(level.getId());
+                }
+            } else {
+                level = inventoryRepository.addStock(pair.getProductId(), pair.getWarehouseId(), delta, DEFAULT_REORDER_THRESHOLD);
+                // Only a row that was low can have an open alert to close, or be low still
+                if (level.getPreviousQuantity() < level.getReorderThreshold()) {
+                    alertChecks.add(level.getId());
+                }
+            }
+            levels.put(pair, level);
+        }
+        eventPublisher.publishEvent(changedLevels(changes.keySet()));
+        return levels;
+    }
+
+    private RuntimeException notShippable(Pair pair, int requested) {
+        return inventoryRepository.findQuantity(pair.getProductId(), pair.getWarehouseId())
+            .<RuntimeException>map(available -> new InsufficientStockException(pair.getProductId(), pair.getWarehouseId(), requested, available))
+            .orElseGet(() -> new EntityNotFoundException("Inventory not found for product " + pair.getProductId()
+                + " in warehouse " + pair.getWarehouseId()));
+    }
+
+    private void requireWarehouse(UUID warehouseId) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new EntityNotFoundException("Warehouse not found: " + warehouseId);
+        }
+    }
+
+    private InventoryMovement movement(UUID productId, UUID warehouseId, InventoryMovement.MovementType type, int quantity,
+                                       BigDecimal unitCost, LocalDateTime date, String reference) {
+        return InventoryMovement.builder()
+            .product(productRepository.getReferenceById(productId))
+            .warehouse(warehouseRepository.getReferenceById(warehouseId))
+            .movementType(type)
+            .quantity(quantity)
+            .unitCost(unitCost)
+            .movementDate(date)
+            .reference(reference)
+            .build();
+    }
+
+    private static String reference(StockTransfer transfer) {
+        return "TR-" + transfer.getId();
+    }
+
+    private static StockTransferResponseDTO toResponseDTO(StockTransfer transfer, List<StockTransferLine> lines) {
+        return StockTransferResponseDTO.builder()
+            .id(transfer.getId())
+            .sourceWarehouseId(transfer.getSourceWarehouseId())
+            .destinationWarehouseId(transfer.getDestinationWarehouseId())
+            .status(transfer.getStatus().name())
+            .reference(transfer.getReference())
+            .shippedAt(transfer.getShippedAt())
+            .receivedAt(transfer.getReceivedAt())
+            .lines(lines.stream()
+                .map(line -> StockTransferLineResponseDTO.builder()
+                    .productId(line.getProductId())
+                    .quantity(line.getQuantity())
+                    .unitCost(line.getUnitCost())
+                    .build())
+                .collect(Collectors.toList()))
+            .build();
+    }
+
+    private static StockLevelsChangedEvent changedLevels(Collection<Pair> pairs) {
+        List<UUID> productIds = new ArrayList<>(pairs.size());
+        List<UUID> warehouseIds = new ArrayList<>(pairs.size());
+        for (Pair pair : pairs) {
+            productIds.add(pair.getProductId());
+            warehouseIds.add(pair.getWarehouseId());
+        }
+        return new StockLevelsChangedEvent(productIds, warehouseIds);
+    }
+
+    @Value
+    private static class Pair {
+        UUID productId;
+        UUID warehouseId;
+    }
+}
@@ -0,0 +1,252 @@
+package com.inventory.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Bulk-loads a synthetic dataset for scaling work: products, warehouses, inventory rows and a ledger
+ * history of the configured size, streamed to the database with COPY. Runs instead of the server when the
+ * {@code datagen} profile is active, then exits:
+ * {@code java -jar ims-backend.jar --spring.profiles.active=datagen --inventory.datagen.movements=50000000}.
+ *
+ * <p>Each stocked product/warehouse pair gets its own movement history, and its inventory quantity is what
+ * that history sums to, so reports agree with the inventory table. Names carry a prefix; generating into a
+ * database that already has a dataset with the same prefix fails on the unique names.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+public class SyntheticDatasetGenerator implements ApplicationRunner {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int CATEGORIES = 40;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventorySnapshotService inventorySnapshotService;
+    private final LedgerPartitionService ledgerPartitionService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${inventory.datagen.prefix:GEN}")
+    private String prefix;
+    @Value("${inventory.datagen.products:20000}")
+    private int products;
+    @Value("${inventory.datagen.warehouses:200}")
+    private int warehouses;
+    @Value("${inventory.datagen.warehouses-per-product:10}")
+    private int warehousesPerProduct;
+    @Value("${inventory.datagen.movements:10000000}")
+    private long movements;
+    @Value("${inventory.datagen.days:730}")
+    private int days;
+    @Value("${inventory.datagen.seed:42}")
+    private long seed;
+    @Value("${inventory.datagen.build-snapshots:true}")
+    private boolean buildSnapshots;
+
+    public SyntheticDatasetGenerator(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                     InventorySnapshotService inventorySnapshotService,
+                                     LedgerPartitionService ledgerPartitionService,
+                                     ApplicationContext applicationContext) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventorySnapshotService = inventorySnapshotService;
+        this.ledgerPartitionService = ledgerPartitionService;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode = 0;
+        try {
+            generate();
+        } catch (Exception e) {
+            log.error("Dataset generation failed; rows already copied are left in place", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+
+    void generate() throws SQLException {
+        int perProduct = Math.min(warehousesPerProduct, warehouses);
+        long pairs = (long) products * perProduct;
+        log.info("Generating {} products, {} warehouses, {} inventory rows and ~{} movements over {} days",
+            products, warehouses, pairs, movements, days);
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        UUID[] warehouseIds = new UUID[warehouses];
+        try (Connection connection = dataSource.getConnection();
+             Copy copy = new Copy(connection, "COPY warehouse (id, name, location) FROM STDIN WITH (FORMAT csv)")) {
+            for (int w = 0; w < warehouses; w++) {
+                warehouseIds[w] = new UUID(random.nextLong(), random.nextLong());
+                copy.row(warehouseIds[w], String.format("%s Warehouse %04d", prefix, w + 1), "Region " + (w % 12 + 1));
+            }
+        }
+
+        UUID[] productIds = new UUID[products];
+        BigDecimal[] prices = new BigDecimal[products];
+        try (Connection connection = dataSource.getConnection();
+             Copy copy = new Copy(connection,
+                 "COPY product (id, name, sku, category, price, description) FROM STDIN WITH (FORMAT csv)")) {
+            for (int p = 0; p < products; p++) {
+                productIds[p] = new UUID(random.nextLong(), random.nextLong());
+                // Mostly cheap items with a long tail of expensive ones
+                prices[p] = BigDecimal.valueOf(Math.round(Math.exp(random.nextDouble(0.5, 7.5)) * 100), 2);
+                copy.row(productIds[p], String.format("%s Product %06d", prefix, p + 1), String.format("%s-%06d", prefix, p + 1),
+                    String.format("Category %02d", p % CATEGORIES + 1), prices[p], "Synthetic product");
+            }
+        }
+        log.info("Copied warehouses and products in {} ms", (System.nanoTime() - start) / 1_000_000);
+
+        // Inventory and ledger are written side by side on two connections, so each pair's history is
+        // generated once and its final quantity goes straight to the inventory row
+        double movementsPerPair = (double) movements / pairs;
+        LocalDateTime end = LocalDateTime.now().withNano(0);
+        long historySeconds = days * 86_400L;
+        // Partitions for the whole history first, or the copied ledger would all land in the default one
+        ledgerPartitionService.createPartitions(end.minusSeconds(historySeconds).toLocalDate(), end.toLocalDate());
+        long copied = 0;
+        try (Connection inventoryConnection = dataSource.getConnection();
+             Connection movementConnection = dataSource.getConnection();
+             Copy inventory = new Copy(inventoryConnection,
+                 "COPY inventory (product_id, warehouse_id, quantity, reorder_threshold) FROM STDIN WITH (FORMAT csv)");
+             Copy ledger = new Copy(movementConnection,
+                 "COPY inventory_movement (product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date, reference) " +
+                     "FROM STDIN WITH (FORMAT csv)")) {
+            for (int p = 0; p < products; p++) {
+                // Skewed so a few products move far more often than the rest; averages 1
+                double skew = random.nextDouble();
+                double popularity = 0.2 + 2.4 * skew * skew;
+                int firstWarehouse = random.nextInt(warehouses);
+                int stride = 1 + random.nextInt(Math.max(1, warehouses / perProduct));
+                for (int k = 0; k < perProduct; k++) {
+                    UUID warehouseId = warehouseIds[(firstWarehouse + k * stride) % warehouses];
+                    int count = (int) Math.round(movementsPerPair * popularity * random.nextDouble(0.5, 1.5));
+                    long[] offsets = new long[count];
+                    for (int m = 0; m < count; m++) {
+                        offsets[m] = random.nextLong(historySeconds);
+                    }
+                    Arrays.sort(offsets);
+                    int onHand = 0;
+                    for (long offset : offsets) {
+                        LocalDateTime date = end.minusSeconds(historySeconds - offset);
+                        String type;
+                        int quantity;
+                        BigDecimal unitCost = null;
+                        double roll = random.nextDouble();
+                        if (onHand < 20 || roll < 0.25) {
+                            type = "INBOUND";
+                            quantity = 20 + random.nextInt(180);
+                            unitCost = prices[p].multiply(BigDecimal.valueOf(random.nextInt(50, 75), 2)).setScale(2, RoundingMode.HALF_UP);
+                        } else if (roll < 0.97) {
+                            type = "OUTBOUND";
+                            quantity = -(1 + random.nextInt(Math.min(onHand, 30)));
+                        } else {
+                            type = "ADJUSTMENT";
+                            quantity = (1 + random.nextInt(3)) * (random.nextBoolean() ? 1 : -1);
+                        }
+                        onHand += quantity;
+                        ledger.row(productIds[p], warehouseId, type, quantity, unitCost, TIMESTAMP.format(date), prefix);
+                    }
+                    inventory.row(productIds[p], warehouseId, onHand, 10 + random.nextInt(40));
+                    copied += count;
+                }
+                if ((p + 1) % 1_000 == 0) {
+                    log.info("{} of {} products, {} movements", p + 1, products, copied);
+                }
+            }
+        }
+        log.info("Copied {} inventory rows and {} movements in {} ms", pairs, copied, (System.nanoTime() - start) / 1_000_000);
+
+        // Stock on hand starts as one layer at list price, as existing stock did when cost layers were introduced
+        int layers = jdbcTemplate.update("INSERT INTO cost_layer (product_id, warehouse_id, quantity_received, quantity_remaining, " +
+            "unit_cost, received_at, reference) SELECT i.product_id, i.warehouse_id, i.quantity, i.quantity, p.price, now(), 'OPENING' " +
+            "FROM inventory i JOIN product p ON p.id = i.product_id WHERE p.sku LIKE ? || '-%' AND i.quantity > 0", prefix);
+        log.info("Opened {} cost layers", layers);
+
+        jdbcTemplate.execute("ANALYZE warehouse");
+        jdbcTemplate.execute("ANALYZE product");
+        jdbcTemplate.execute("ANALYZE inventory");
+        jdbcTemplate.execute("ANALYZE inventory_movement");
+        jdbcTemplate.execute("ANALYZE cost_layer");
+        // Reports read opening balances from the daily snapshots. One row per pair per day it moved, so
+        // for large datasets this is the slowest step; without it reports aggregate the ledger from the start
+        if (buildSnapshots) {
+            log.info("Built {} snapshot rows", inventorySnapshotService.buildSnapshots());
+        }
+        log.info("Dataset ready in {} s", (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * One COPY ... FROM STDIN, fed CSV rows through a buffer. Values must not contain commas, quotes or
+     * newlines, which holds for everything generated here; nulls are written as empty fields.
+     */
+    private static final class Copy implements AutoCloseable {
+        private static final int FLUSH_BYTES = 1 << 20;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 1024);
+
+        private Copy(Connection connection, String sql) throws SQLException {
+            this.copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        }
+
+        private void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                if (values[i] != null) {
+                    buffer.append(values[i]);
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (!copyIn.isActive()) {
+                return;
+            }
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.WarehouseRequestDTO;
 import com.inventory.dto.WarehouseResponseDTO;
+import com.inventory.dto.WarehouseSort;
+import org.springframework.data.domain.Sort;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface WarehouseService {
     WarehouseResponseDTO create(WarehouseRequestDTO dto);
-    List<WarehouseResponseDTO> getAll();
+    CursorPageDTO<WarehouseResponseDTO> getAll(WarehouseSort sort, Sort.Direction direction, String cursor, int limit);
     WarehouseResponseDTO getById(UUID id);
     WarehouseResponseDTO update(UUID id, WarehouseRequestDTO dto);
     void delete(UUID id);
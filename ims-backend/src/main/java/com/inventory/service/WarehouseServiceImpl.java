@@ -1,31 +1,46 @@
 package com.inventory.service;
 
+import com.inventory.config.CacheConfig;
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.WarehouseRequestDTO;
 import com.inventory.dto.WarehouseResponseDTO;
+import com.inventory.dto.WarehouseSort;
 import com.inventory.model.Warehouse;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.KeysetPageRepository;
 import com.inventory.repository.WarehouseRepository;
 import com.inventory.util.WarehouseMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class WarehouseServiceImpl implements WarehouseService {
     private final WarehouseRepository warehouseRepository;
+    private final KeysetPageRepository keysetPageRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public WarehouseServiceImpl(WarehouseRepository warehouseRepository) {
+    public WarehouseServiceImpl(WarehouseRepository warehouseRepository, KeysetPageRepository keysetPageRepository,
+                                InventoryRepository inventoryRepository, ApplicationEventPublisher eventPublisher) {
         this.warehouseRepository = warehouseRepository;
+        this.keysetPageRepository = keysetPageRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public WarehouseResponseDTO create(WarehouseRequestDTO dto) {
-        if (warehouseRepository.findAll().stream().anyMatch(w -> w.getName().equalsIgnoreCase(dto.getName()))) {
+        if (warehouseRepository.existsByNameIgnoreCase(dto.getName())) {
             throw new DataIntegrityViolationException("Warehouse with this name already exists");
         }
         Warehouse warehouse = Warehouse.builder()
@@ -41,14 +56,14 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
-    public List<WarehouseResponseDTO> getAll() {
-        return warehouseRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public CursorPageDTO<WarehouseResponseDTO> getAll(WarehouseSort sort, Sort.Direction direction, String cursor, int limit) {
+        return keysetPageRepository.findPage(Warehouse.class, null, sort.getAttribute(), direction, cursor, limit)
                 .map(w -> WarehouseResponseDTO.builder()
                         .id(w.getId())
                         .name(w.getName())
                         .location(w.getLocation())
-                        .build())
-                .collect(Collectors.toList());
+                        .build());
     }
 
     @Override
@@ -63,10 +78,11 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.WAREHOUSES_BY_ID, CacheConfig.WAREHOUSES_BY_NAME}, allEntries = true)
     public WarehouseResponseDTO update(UUID id, WarehouseRequestDTO dto) {
         Warehouse warehouse = warehouseRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Warehouse not found"));
-        if (warehouseRepository.findAll().stream().anyMatch(w -> !w.getId().equals(id) && w.getName().equalsIgnoreCase(dto.getName()))) {
+        if (warehouseRepository.existsByNameIgnoreCaseAndIdNot(dto.getName(), id)) {
             throw new DataIntegrityViolationException("Warehouse with this name already exists");
         }
         warehouse.setName(dto.getName());
@@ -80,10 +96,14 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = {CacheConfig.WAREHOUSES_BY_ID, CacheConfig.WAREHOUSES_BY_NAME}, allEntries = true)
     public void delete(UUID id) {
         if (!warehouseRepository.existsById(id)) {
             throw new EntityNotFoundException("Warehouse not found");
         }
+        // The warehouse's inventory rows go with it, by cascade
+        List<UUID> productIds = inventoryRepository.findProductIdsByWarehouseId(id);
         warehouseRepository.deleteById(id);
+        eventPublisher.publishEvent(new StockLevelsChangedEvent(productIds, Collections.nCopies(productIds.size(), id)));
     }
 }
\ No newline at end of file
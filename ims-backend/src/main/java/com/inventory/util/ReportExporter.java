@@ -0,0 +1,65 @@
+package com.inventory.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.inventory.dto.ExportFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes report rows to an output stream one at a time, so an export never holds more than
+ * the current row and the write buffer regardless of report size.
+ */
+public class ReportExporter {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    // Columns follow DTO field order rather than CsvMapper's default alphabetical order
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+        .disable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .build();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Runs the producer with a sink that serializes each row it is given. The output stream
+     * is flushed but not closed.
+     */
+    public static <T> void write(OutputStream out, ExportFormat format, Class<T> rowType,
+                                 Consumer<Consumer<T>> producer) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        long[] rows = {0};
+        try (SequenceWriter writer = writerFor(format, rowType).writeValues(buffered)) {
+            producer.accept(row -> {
+                try {
+                    writer.write(row);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // Jackson only separates values; NDJSON wants every record newline-terminated
+        if (format == ExportFormat.NDJSON && rows[0] > 0) {
+            buffered.write('\n');
+        }
+        buffered.flush();
+    }
+
+    private static ObjectWriter writerFor(ExportFormat format, Class<?> rowType) {
+        if (format == ExportFormat.CSV) {
+            return CSV_MAPPER.writer(CSV_MAPPER.schemaFor(rowType).withHeader())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        return JSON_MAPPER.writerFor(rowType)
+            .withRootValueSeparator("\n")
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
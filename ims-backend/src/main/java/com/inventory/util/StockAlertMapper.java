@@ -0,0 +1,34 @@
+package com.inventory.util;
+
+import com.inventory.dto.StockAlertResponseDTO;
+import com.inventory.model.StockAlert;
+import com.inventory.repository.projection.AlertChange;
+
+public class StockAlertMapper {
+    // Expects inventory, product and warehouse to be loaded (see StockAlertRepository.findActiveWithInventory)
+    public static StockAlertResponseDTO toResponseDTO(StockAlert alert) {
+        if (alert == null) return null;
+        StockAlertResponseDTO dto = new StockAlertResponseDTO();
+        dto.setId(alert.getId());
+        dto.setProductName(alert.getInventory().getProduct().getName());
+        dto.setWarehouseName(alert.getInventory().getWarehouse().getName());
+        dto.setQuantity(alert.getQuantity());
+        dto.setThreshold(alert.getThreshold());
+        dto.setCreatedAt(alert.getCreatedAt().toString());
+        dto.setResolved(alert.isResolved());
+        return dto;
+    }
+
+    public static StockAlertResponseDTO toResponseDTO(AlertChange change) {
+        if (change == null) return null;
+        StockAlertResponseDTO dto = new StockAlertResponseDTO();
+        dto.setId(change.getId());
+        dto.setProductName(change.getProductName());
+        dto.setWarehouseName(change.getWarehouseName());
+        dto.setQuantity(change.getQuantity());
+        dto.setThreshold(change.getThreshold());
+        dto.setCreatedAt(change.getCreatedAt().toString());
+        dto.setResolved(Boolean.TRUE.equals(change.getResolved()));
+        return dto;
+    }
+}
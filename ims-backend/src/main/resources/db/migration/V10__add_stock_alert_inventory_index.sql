@@ -0,0 +1,3 @@
+-- Alerts are looked up by inventory row (bulk low-stock checks, findByInventory, and the
+-- ON DELETE CASCADE from inventory); without this each lookup scans every alert
+CREATE INDEX idx_stock_alert_inventory ON stock_alert(inventory_id);
@@ -0,0 +1,21 @@
+-- Hibernate allocates ids for these tables from pooled sequences (allocationSize 50), which lets it
+-- batch inserts; IDENTITY forced a round trip per row. Column defaults move to the same sequences so
+-- native inserts keep working. Each sequence starts past the current max id so the first pooled
+-- block (next value - 49 .. next value) cannot collide with existing rows.
+CREATE SEQUENCE inventory_seq INCREMENT BY 50;
+SELECT setval('inventory_seq', COALESCE((SELECT MAX(id) FROM inventory), 0) + 50, false);
+ALTER TABLE inventory ALTER COLUMN id SET DEFAULT nextval('inventory_seq');
+ALTER SEQUENCE inventory_seq OWNED BY inventory.id;
+DROP SEQUENCE inventory_id_seq;
+
+CREATE SEQUENCE inventory_movement_seq INCREMENT BY 50;
+SELECT setval('inventory_movement_seq', COALESCE((SELECT MAX(id) FROM inventory_movement), 0) + 50, false);
+ALTER TABLE inventory_movement ALTER COLUMN id SET DEFAULT nextval('inventory_movement_seq');
+ALTER SEQUENCE inventory_movement_seq OWNED BY inventory_movement.id;
+DROP SEQUENCE inventory_movement_id_seq;
+
+CREATE SEQUENCE stock_alert_seq INCREMENT BY 50;
+SELECT setval('stock_alert_seq', COALESCE((SELECT MAX(id) FROM stock_alert), 0) + 50, false);
+ALTER TABLE stock_alert ALTER COLUMN id SET DEFAULT nextval('stock_alert_seq');
+ALTER SEQUENCE stock_alert_seq OWNED BY stock_alert.id;
+DROP SEQUENCE stock_alert_id_seq;
@@ -0,0 +1,16 @@
+-- Keyset pagination reads "rows after (sort value, id)" for each list sort, so each sort key gets an
+-- index ending in id. Product name/sku and warehouse name are already covered by their unique indexes.
+CREATE INDEX idx_product_price ON product(price, id);
+CREATE INDEX idx_product_created_at ON product(created_at, id);
+CREATE INDEX idx_product_category_name ON product(category, name);
+
+-- quantity and updated_at change on every receipt, issue and adjustment, so they are not indexed: that would
+-- stop those updates from being HOT (heap-only). Inventory pages sorted by them must be filtered by warehouse
+-- and sort that warehouse's rows instead.
+CREATE INDEX idx_inventory_warehouse ON inventory(warehouse_id, id);
+
+CREATE INDEX idx_warehouse_location ON warehouse(location, id);
+
+CREATE INDEX idx_purchase_order_order_date ON purchase_order(order_date, id);
+CREATE INDEX idx_purchase_order_status_order_date ON purchase_order(status, order_date, id);
+CREATE INDEX idx_purchase_order_supplier ON purchase_order(supplier_name, id);
@@ -0,0 +1,4 @@
+-- Warehouse names are unique regardless of case. The service used to enforce that by reading every
+-- warehouse on each create/update; this index enforces it in the database (so concurrent creates
+-- cannot both succeed) and serves the lower(name) = lower(?) existence checks and lookups.
+CREATE UNIQUE INDEX ux_warehouse_name_lower ON warehouse (lower(name));
@@ -0,0 +1,14 @@
+-- At most one unresolved alert per inventory row. Raising an alert becomes a single
+-- INSERT ... ON CONFLICT DO NOTHING against this index, however many resolved alerts the row has.
+
+-- Keep the oldest open alert where duplicates slipped in
+UPDATE stock_alert a SET resolved = true, resolved_at = now()
+WHERE a.resolved = false
+  AND EXISTS (SELECT 1 FROM stock_alert b WHERE b.inventory_id = a.inventory_id AND b.resolved = false AND b.id < a.id);
+
+-- Alerts are now resolved automatically once stock is back at the threshold; apply that to existing ones
+UPDATE stock_alert a SET resolved = true, resolved_at = now()
+FROM inventory i
+WHERE a.inventory_id = i.id AND a.resolved = false AND i.quantity >= i.reorder_threshold;
+
+CREATE UNIQUE INDEX ux_stock_alert_active ON stock_alert(inventory_id) WHERE resolved = false;
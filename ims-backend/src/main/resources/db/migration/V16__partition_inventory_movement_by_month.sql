@@ -0,0 +1,81 @@
+-- The ledger only grows, and every report reads it by a date range. Monthly range partitions let those
+-- queries skip whole months, and keep each partition's indexes small enough to stay in memory.
+
+-- Creates the monthly partitions covering [from_date, to_date], skipping those that exist. Rows that
+-- already landed in the default partition for a new month are moved into it. Called at startup and
+-- nightly to stay a few months ahead, and before bulk-loading back-dated history.
+CREATE FUNCTION create_inventory_movement_partitions(from_date DATE, to_date DATE) RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_date);
+    month_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    -- Instances starting together would otherwise race to create the same partition
+    PERFORM pg_advisory_xact_lock(hashtext('create_inventory_movement_partitions'));
+    WHILE month_start <= to_date LOOP
+        month_end := month_start + INTERVAL '1 month';
+        partition_name := 'inventory_movement_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            IF EXISTS (SELECT 1 FROM inventory_movement_default
+                       WHERE movement_date >= month_start AND movement_date < month_end) THEN
+                EXECUTE format('CREATE TABLE %I (LIKE inventory_movement INCLUDING DEFAULTS)', partition_name);
+                EXECUTE format('WITH moved AS (DELETE FROM inventory_movement_default '
+                               'WHERE movement_date >= $1 AND movement_date < $2 RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM moved', partition_name)
+                    USING month_start, month_end;
+                EXECUTE format('ALTER TABLE inventory_movement ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF inventory_movement FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, month_start, month_end);
+            END IF;
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE inventory_movement RENAME TO inventory_movement_unpartitioned;
+ALTER TABLE inventory_movement_unpartitioned RENAME CONSTRAINT inventory_movement_pkey TO inventory_movement_unpartitioned_pkey;
+ALTER SEQUENCE inventory_movement_seq OWNED BY NONE;
+DROP INDEX idx_inventory_movement_date;
+
+-- The partition key has to be part of the primary key; ids still come from the one sequence
+CREATE TABLE inventory_movement (
+    id BIGINT NOT NULL DEFAULT nextval('inventory_movement_seq'),
+    product_id UUID NOT NULL REFERENCES product(id),
+    warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    movement_type VARCHAR(20) NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_cost NUMERIC(19,2),
+    movement_date TIMESTAMP NOT NULL DEFAULT NOW(),
+    reference VARCHAR(255),
+    PRIMARY KEY (id, movement_date)
+) PARTITION BY RANGE (movement_date);
+ALTER SEQUENCE inventory_movement_seq OWNED BY inventory_movement.id;
+
+-- Catches movements dated in a month with no partition yet, so a write never fails for want of one
+CREATE TABLE inventory_movement_default PARTITION OF inventory_movement DEFAULT;
+
+SELECT create_inventory_movement_partitions(
+    COALESCE((SELECT MIN(movement_date) FROM inventory_movement_unpartitioned)::DATE, CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '3 months')::DATE);
+
+INSERT INTO inventory_movement (id, product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date, reference)
+SELECT id, product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date, reference
+FROM inventory_movement_unpartitioned;
+
+DROP TABLE inventory_movement_unpartitioned;
+
+-- Reports filter by pair and date range and read quantity, cost and type; with those included they are
+-- answered from the index alone
+CREATE INDEX idx_inventory_movement_pair_date ON inventory_movement (product_id, warehouse_id, movement_date)
+    INCLUDE (movement_type, quantity, unit_cost);
+-- Rows arrive in date order, so a block range index serves date-only scans (the daily snapshot build)
+-- at a fraction of a btree's size and write cost
+CREATE INDEX idx_inventory_movement_date_brin ON inventory_movement USING BRIN (movement_date);
+
+ANALYZE inventory_movement;
@@ -0,0 +1,110 @@
+-- Movements older than the archive horizon leave the hot ledger. Their sum per pair is kept as an
+-- opening balance, and the detail rows are kept, whole months at a time, in a cold archive that reports
+-- still read through the inventory_ledger view.
+
+-- On-hand per pair from every archived movement, i.e. as of the start of balance_date
+CREATE TABLE inventory_opening_balance (
+    product_id UUID NOT NULL REFERENCES product(id),
+    warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    balance_date DATE NOT NULL,
+    quantity BIGINT NOT NULL,
+    PRIMARY KEY (product_id, warehouse_id)
+);
+
+-- Archived months are the ledger's own partitions, detached and attached here; only ever read by date
+-- range, so they keep just the block range index
+CREATE TABLE inventory_movement_archive (
+    id BIGINT NOT NULL,
+    product_id UUID NOT NULL REFERENCES product(id),
+    warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    movement_type VARCHAR(20) NOT NULL,
+    quantity INTEGER NOT NULL,
+    unit_cost NUMERIC(19,2),
+    movement_date TIMESTAMP NOT NULL,
+    reference VARCHAR(255)
+) PARTITION BY RANGE (movement_date);
+
+CREATE INDEX idx_inventory_movement_archive_date_brin ON inventory_movement_archive USING BRIN (movement_date);
+
+-- Everything ever recorded; both sides prune by date, so recent windows never touch the archive
+CREATE VIEW inventory_ledger AS
+SELECT id, product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date, reference
+FROM inventory_movement
+UNION ALL
+SELECT id, product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date, reference
+FROM inventory_movement_archive;
+
+-- Archives every movement dated before the start of before_date's month and returns how many moved.
+-- Balances are rolled forward first, in one pass over the rows about to move. Whole monthly partitions
+-- are then moved without copying; rows of those months still in the default partition, or in a month
+-- partition recreated after its month was archived, are copied.
+CREATE FUNCTION archive_inventory_movements(before_date DATE) RETURNS BIGINT AS $$
+DECLARE
+    horizon DATE := date_trunc('month', before_date);
+    archived BIGINT;
+    part RECORD;
+    archive_name TEXT;
+    month_start DATE;
+    stale RECORD;
+BEGIN
+    -- Serialized with partition creation, which also alters the ledger's partitions
+    PERFORM pg_advisory_xact_lock(hashtext('create_inventory_movement_partitions'));
+
+    WITH totals AS (
+        SELECT product_id, warehouse_id, SUM(quantity) AS quantity, COUNT(*) AS movements
+        FROM inventory_movement
+        WHERE movement_date < horizon
+        GROUP BY product_id, warehouse_id
+    ), rolled AS (
+        INSERT INTO inventory_opening_balance AS b (product_id, warehouse_id, balance_date, quantity)
+        SELECT product_id, warehouse_id, horizon, quantity FROM totals
+        ON CONFLICT (product_id, warehouse_id) DO UPDATE SET quantity = b.quantity + EXCLUDED.quantity
+    )
+    SELECT COALESCE(SUM(movements), 0) INTO archived FROM totals;
+    IF archived = 0 THEN
+        RETURN 0;
+    END IF;
+    UPDATE inventory_opening_balance SET balance_date = horizon WHERE balance_date < horizon;
+
+    FOR part IN SELECT c.relname, to_date(substring(c.relname FROM '(\d{4}_\d{2})$'), 'YYYY_MM') AS month_start
+                FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'inventory_movement'::regclass
+                  AND c.relname ~ '^inventory_movement_\d{4}_\d{2}$'
+                ORDER BY c.relname LOOP
+        CONTINUE WHEN part.month_start + INTERVAL '1 month' > horizon;
+        archive_name := 'inventory_movement_archive_' || to_char(part.month_start, 'YYYY_MM');
+        IF to_regclass(archive_name) IS NULL THEN
+            EXECUTE format('ALTER TABLE inventory_movement DETACH PARTITION %I', part.relname);
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', part.relname, archive_name);
+            FOR stale IN SELECT conname FROM pg_constraint
+                         WHERE conrelid = to_regclass(archive_name) AND contype = 'p' LOOP
+                EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', archive_name, stale.conname);
+            END LOOP;
+            EXECUTE format('ALTER TABLE inventory_movement_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                           archive_name, part.month_start, part.month_start + INTERVAL '1 month');
+            -- The covering index is the largest one and nothing looks rows up by pair in cold months
+            FOR stale IN SELECT x.indexrelid::regclass::text AS index_name FROM pg_index x
+                         WHERE x.indrelid = to_regclass(archive_name)
+                           AND NOT EXISTS (SELECT 1 FROM pg_inherits h WHERE h.inhrelid = x.indexrelid) LOOP
+                EXECUTE format('DROP INDEX %s', stale.index_name);
+            END LOOP;
+        ELSE
+            EXECUTE format('INSERT INTO %I SELECT * FROM %I', archive_name, part.relname);
+            EXECUTE format('DROP TABLE %I', part.relname);
+        END IF;
+    END LOOP;
+
+    FOR month_start IN SELECT DISTINCT date_trunc('month', movement_date)::DATE FROM inventory_movement_default
+                       WHERE movement_date < horizon LOOP
+        archive_name := 'inventory_movement_archive_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(archive_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF inventory_movement_archive FOR VALUES FROM (%L) TO (%L)',
+                           archive_name, month_start, month_start + INTERVAL '1 month');
+        END IF;
+    END LOOP;
+    WITH moved AS (DELETE FROM inventory_movement_default WHERE movement_date < horizon RETURNING *)
+    INSERT INTO inventory_movement_archive SELECT * FROM moved;
+
+    RETURN archived;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,41 @@
+-- Publishes every committed change to stock levels and SKUs, whoever makes it (services, bulk loads,
+-- cascading deletes, other instances), for the in-memory stock matrix behind /api/availability.
+-- Notifications reach listeners in commit order, so each one can carry the new value rather than a delta.
+-- Identical payloads within a transaction are delivered only once; the sequence number keeps a pair that
+-- goes back to an earlier quantity in the same transaction from being collapsed onto it.
+CREATE SEQUENCE stock_change_seq;
+
+-- inventory_stock: "<seq> <product_id> <warehouse_id> <quantity>", or without the quantity once the pair
+-- no longer has a row
+CREATE FUNCTION notify_inventory_stock() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND (OLD.product_id, OLD.warehouse_id) <> (NEW.product_id, NEW.warehouse_id)) THEN
+        PERFORM pg_notify('inventory_stock', concat_ws(' ', nextval('stock_change_seq'), OLD.product_id, OLD.warehouse_id));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM pg_notify('inventory_stock',
+                          concat_ws(' ', nextval('stock_change_seq'), NEW.product_id, NEW.warehouse_id, NEW.quantity));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER inventory_stock_changed
+    AFTER INSERT OR DELETE OR UPDATE OF product_id, warehouse_id, quantity ON inventory
+    FOR EACH ROW EXECUTE FUNCTION notify_inventory_stock();
+
+-- product_sku: "<seq> <product_id> <sku>", or without the SKU once the product is deleted
+CREATE FUNCTION notify_product_sku() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('product_sku', concat_ws(' ', nextval('stock_change_seq'), OLD.id));
+    ELSE
+        PERFORM pg_notify('product_sku', concat_ws(' ', nextval('stock_change_seq'), NEW.id, NEW.sku));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER product_sku_changed
+    AFTER INSERT OR DELETE OR UPDATE OF sku ON product
+    FOR EACH ROW EXECUTE FUNCTION notify_product_sku();
@@ -0,0 +1,30 @@
+-- Stock moved between warehouses. Shipping takes the units out of the source; until the destination
+-- receives them they are in transit, on the transfer's lines and on hand nowhere.
+CREATE TABLE stock_transfer (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    source_warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    destination_warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    status VARCHAR(20) NOT NULL,
+    reference VARCHAR(255),
+    shipped_at TIMESTAMP NOT NULL DEFAULT now(),
+    received_at TIMESTAMP,
+    CHECK (source_warehouse_id <> destination_warehouse_id)
+);
+
+CREATE INDEX idx_stock_transfer_in_transit ON stock_transfer(shipped_at) WHERE status = 'IN_TRANSIT';
+
+-- One line per product; unit_cost is what the units cost at the source, and becomes the destination's
+-- cost layer on receipt. Ids come from a pooled sequence (see V11) so a batch's lines insert in batches.
+CREATE SEQUENCE stock_transfer_line_seq INCREMENT BY 50 START WITH 50;
+
+CREATE TABLE stock_transfer_line (
+    id BIGINT PRIMARY KEY DEFAULT nextval('stock_transfer_line_seq'),
+    transfer_id UUID NOT NULL REFERENCES stock_transfer(id) ON DELETE CASCADE,
+    product_id UUID NOT NULL REFERENCES product(id),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    unit_cost NUMERIC(19,2) NOT NULL
+);
+
+ALTER SEQUENCE stock_transfer_line_seq OWNED BY stock_transfer_line.id;
+
+CREATE INDEX idx_stock_transfer_line_transfer ON stock_transfer_line(transfer_id, id);
@@ -0,0 +1,15 @@
+-- Report results in fixed-size chunks, so neither writing nor downloading one holds the whole export in memory
+CREATE TABLE report_job_result_chunk (
+    job_id UUID NOT NULL REFERENCES report_job(id) ON DELETE CASCADE,
+    chunk_no INT NOT NULL,
+    content BYTEA NOT NULL,
+    PRIMARY KEY (job_id, chunk_no)
+);
+
+INSERT INTO report_job_result_chunk (job_id, chunk_no, content)
+SELECT job_id, 0, content FROM report_job_result;
+
+DROP TABLE report_job_result;
+
+-- Retention purges finished jobs by age
+CREATE INDEX idx_report_job_completed_at ON report_job(completed_at) WHERE completed_at IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Snapshots keep a row only for the pairs whose on-hand changed that day; a pair's closing balance on any day
+-- is its latest row on or before it. How far the builder has got is recorded here rather than read off the
+-- rows, since days without movements no longer leave any.
+CREATE TABLE inventory_snapshot_watermark (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    built_through DATE NOT NULL
+);
+
+INSERT INTO inventory_snapshot_watermark (built_through)
+SELECT MAX(snapshot_date) FROM inventory_snapshot HAVING MAX(snapshot_date) IS NOT NULL;
+
+-- Carried-forward rows say nothing the row before them does not
+DELETE FROM inventory_snapshot s
+USING inventory_snapshot prev
+WHERE prev.product_id = s.product_id
+  AND prev.warehouse_id = s.warehouse_id
+  AND prev.snapshot_date = s.snapshot_date - 1
+  AND prev.closing_quantity = s.closing_quantity;
@@ -0,0 +1,68 @@
+-- V18 notified every inventory row on its own, a nextval and a pg_notify per row, which nearly doubled the
+-- time of a 100k-row UPDATE. These triggers fire once per statement instead and send the rows it changed
+-- from its transition tables, up to 80 to a notification:
+--   "<seq>" on the first line, then one line per pair, "<product_id> <warehouse_id> <quantity>", or without
+--   the quantity once the pair no longer has a row.
+-- Pairs a row moved away from come before the new values, so a row moved onto a pair another row left in the
+-- same statement is not removed again. Rows an UPDATE left as they were are not sent.
+-- Transition tables rule out a column list, so UPDATE fires on any column and finds nothing to send for
+-- changes to the others.
+DROP TRIGGER inventory_stock_changed ON inventory;
+DROP FUNCTION notify_inventory_stock();
+
+CREATE FUNCTION notify_inventory_stock() RETURNS TRIGGER AS $$
+DECLARE
+    payload TEXT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        FOR payload IN
+            SELECT nextval('stock_change_seq') || E'\n' || string_agg(concat_ws(' ', product_id, warehouse_id, quantity), E'\n')
+            FROM (SELECT n.*, (row_number() OVER () - 1) / 80 AS chunk FROM new_rows n) n
+            GROUP BY chunk
+        LOOP
+            PERFORM pg_notify('inventory_stock', payload);
+        END LOOP;
+    ELSIF TG_OP = 'DELETE' THEN
+        FOR payload IN
+            SELECT nextval('stock_change_seq') || E'\n' || string_agg(concat_ws(' ', product_id, warehouse_id), E'\n')
+            FROM (SELECT o.*, (row_number() OVER () - 1) / 80 AS chunk FROM old_rows o) o
+            GROUP BY chunk
+        LOOP
+            PERFORM pg_notify('inventory_stock', payload);
+        END LOOP;
+    ELSE
+        -- Sent first, in notifications of their own
+        FOR payload IN
+            SELECT nextval('stock_change_seq') || E'\n' || string_agg(concat_ws(' ', product_id, warehouse_id), E'\n')
+            FROM (SELECT o.*, (row_number() OVER () - 1) / 80 AS chunk
+                  FROM old_rows o JOIN new_rows n ON n.id = o.id
+                  WHERE (o.product_id, o.warehouse_id) <> (n.product_id, n.warehouse_id)) o
+            GROUP BY chunk
+        LOOP
+            PERFORM pg_notify('inventory_stock', payload);
+        END LOOP;
+        FOR payload IN
+            SELECT nextval('stock_change_seq') || E'\n' || string_agg(concat_ws(' ', product_id, warehouse_id, quantity), E'\n')
+            FROM (SELECT n.*, (row_number() OVER () - 1) / 80 AS chunk
+                  FROM old_rows o JOIN new_rows n ON n.id = o.id
+                  WHERE (o.product_id, o.warehouse_id, o.quantity) <> (n.product_id, n.warehouse_id, n.quantity)) n
+            GROUP BY chunk
+        LOOP
+            PERFORM pg_notify('inventory_stock', payload);
+        END LOOP;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER inventory_stock_inserted
+    AFTER INSERT ON inventory REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_inventory_stock();
+
+CREATE TRIGGER inventory_stock_updated
+    AFTER UPDATE ON inventory REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_inventory_stock();
+
+CREATE TRIGGER inventory_stock_deleted
+    AFTER DELETE ON inventory REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_inventory_stock();
@@ -0,0 +1,21 @@
+-- A movement dated on or before the last day built changes closings that are already stored. The earliest such
+-- day is recorded here, and the builder drops the snapshots from that day on and builds them again.
+-- Movements dated today or later cannot reach a built day, so the trigger's WHEN skips them without calling
+-- the function and the usual write pays nothing more. Only inserts are tracked: archiving and new partitions
+-- move movements without changing the ledger, and nothing else updates or deletes them.
+ALTER TABLE inventory_snapshot_watermark ADD COLUMN rebuild_from DATE;
+
+CREATE FUNCTION mark_snapshots_for_rebuild() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE inventory_snapshot_watermark
+    SET rebuild_from = NEW.movement_date::date
+    WHERE built_through >= NEW.movement_date::date
+      AND (rebuild_from IS NULL OR rebuild_from > NEW.movement_date::date);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER inventory_movement_back_dated
+    AFTER INSERT ON inventory_movement
+    FOR EACH ROW WHEN (NEW.movement_date < CURRENT_DATE)
+    EXECUTE FUNCTION mark_snapshots_for_rebuild();
@@ -0,0 +1,29 @@
+-- Open quantity and value per product/warehouse pair. Weighted average costing works from these totals alone and
+-- opens no layers. FIFO keeps them in step with its layers, and every write to a pair's layers or totals takes a
+-- new version from the sequence, so an application instance holding the pair's layers in memory can tell whether
+-- they are still current. Versions are never reused, even when a transaction that took one rolls back.
+CREATE SEQUENCE cost_balance_version_seq;
+
+CREATE TABLE cost_balance (
+    product_id UUID NOT NULL REFERENCES product(id) ON DELETE CASCADE,
+    warehouse_id UUID NOT NULL REFERENCES warehouse(id) ON DELETE CASCADE,
+    quantity BIGINT NOT NULL,
+    value NUMERIC(19,2) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (product_id, warehouse_id)
+);
+
+CREATE INDEX idx_cost_balance_warehouse ON cost_balance(warehouse_id);
+
+INSERT INTO cost_balance (product_id, warehouse_id, quantity, value, version)
+SELECT product_id, warehouse_id, SUM(quantity_remaining), SUM(quantity_remaining * unit_cost), nextval('cost_balance_version_seq')
+FROM cost_layer
+WHERE quantity_remaining > 0
+GROUP BY product_id, warehouse_id;
+
+-- As V11 did for the other ledger tables: pooled ids let Hibernate batch receipt layer inserts
+CREATE SEQUENCE cost_layer_seq INCREMENT BY 50;
+SELECT setval('cost_layer_seq', COALESCE((SELECT MAX(id) FROM cost_layer), 0) + 50, false);
+ALTER TABLE cost_layer ALTER COLUMN id SET DEFAULT nextval('cost_layer_seq');
+ALTER SEQUENCE cost_layer_seq OWNED BY cost_layer.id;
+DROP SEQUENCE cost_layer_id_seq;
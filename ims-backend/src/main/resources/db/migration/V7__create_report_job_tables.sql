@@ -0,0 +1,26 @@
+-- Asynchronous report jobs; results live in their own table so status polls never read the payload
+CREATE TABLE report_job (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    report_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    format VARCHAR(20) NOT NULL,
+    product_id UUID,
+    warehouse_id UUID,
+    start_date DATE,
+    end_date DATE,
+    granularity VARCHAR(20),
+    requested_by VARCHAR(100),
+    rows_written BIGINT NOT NULL DEFAULT 0,
+    result_size BIGINT,
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_report_job_status ON report_job(status);
+
+CREATE TABLE report_job_result (
+    job_id UUID PRIMARY KEY REFERENCES report_job(id) ON DELETE CASCADE,
+    content BYTEA NOT NULL
+);
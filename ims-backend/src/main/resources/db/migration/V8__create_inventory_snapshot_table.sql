@@ -0,0 +1,14 @@
+-- Closing on-hand per product/warehouse for every completed day, carried forward from the first movement
+CREATE TABLE inventory_snapshot (
+    product_id UUID NOT NULL REFERENCES product(id),
+    warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    snapshot_date DATE NOT NULL,
+    closing_quantity BIGINT NOT NULL,
+    closing_value NUMERIC(19,2) NOT NULL,
+    PRIMARY KEY (product_id, warehouse_id, snapshot_date)
+);
+
+CREATE INDEX idx_inventory_snapshot_date ON inventory_snapshot(snapshot_date);
+
+-- Deltas after the latest snapshot and report windows are read by movement date
+CREATE INDEX idx_inventory_movement_date ON inventory_movement(movement_date);
@@ -0,0 +1,19 @@
+-- Receipt cost layers per product/warehouse; issues draw them down oldest first
+CREATE TABLE cost_layer (
+    id BIGSERIAL PRIMARY KEY,
+    product_id UUID NOT NULL REFERENCES product(id),
+    warehouse_id UUID NOT NULL REFERENCES warehouse(id),
+    quantity_received INTEGER NOT NULL,
+    quantity_remaining INTEGER NOT NULL,
+    unit_cost NUMERIC(19,2) NOT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT now(),
+    reference VARCHAR(255)
+);
+
+CREATE INDEX idx_cost_layer_open ON cost_layer(product_id, warehouse_id, id) WHERE quantity_remaining > 0;
+
+-- Stock already on hand becomes one opening layer at the current product price
+INSERT INTO cost_layer (product_id, warehouse_id, quantity_received, quantity_remaining, unit_cost, received_at, reference)
+SELECT i.product_id, i.warehouse_id, i.quantity, i.quantity, p.price, now(), 'OPENING'
+FROM inventory i JOIN product p ON p.id = i.product_id
+WHERE i.quantity > 0;
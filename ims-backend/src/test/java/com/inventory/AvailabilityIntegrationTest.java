@@ -0,0 +1,154 @@
+package com.inventory;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+import com.inventory.dto.InventoryRequestDTO;
+import com.inventory.service.AvailabilityService;
+import com.inventory.service.InventoryService;
+import com.inventory.service.WarehouseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The stock matrix follows stock written through the services, and SKUs written by anyone
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AvailabilityIntegrationTest {
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+    private UUID otherWarehouseId;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        otherWarehouseId = UUID.randomUUID();
+        sku = "AVAIL-" + suffix;
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 4.00)",
+            productId, "Availability Product " + suffix, sku);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test'), (?, ?, 'Test')",
+            warehouseId, "Availability Warehouse " + suffix, otherWarehouseId, "Availability Warehouse " + suffix + "-2");
+    }
+
+    // Updates through the service log movements and cost layers as well
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[] {"inventory_movement", "inventory_snapshot", "cost_layer", "inventory"}) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE product_id = ?", productId);
+        }
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id IN (?, ?)", warehouseId, otherWarehouseId);
+    }
+
+    @Test
+    void stockChanges_ReachTheMatrix() {
+        List<AvailabilityResponseDTO> known = awaitSku(sku, result -> result.size() == 1);
+        assertEquals(0, known.get(0).getTotalQuantity());
+        assertTrue(known.get(0).getWarehouses().isEmpty());
+
+        Long inventoryId = inventoryService.create(stock(warehouseId, 25)).getId();
+        AvailabilityResponseDTO stocked = awaitSku(sku, result -> quantity(result) == 25).get(0);
+        assertEquals(productId, stocked.getProductId());
+        assertEquals(warehouseId, stocked.getWarehouses().get(0).getWarehouseId());
+        assertEquals(25, availabilityService.getByWarehouse(warehouseId).get(0).getTotalQuantity());
+
+        inventoryService.update(inventoryId, stock(warehouseId, 7));
+        awaitSku(sku, result -> quantity(result) == 7);
+
+        inventoryService.delete(inventoryId);
+        assertEquals(0, quantity(awaitSku(sku, result -> result.size() == 1 && result.get(0).getWarehouses().isEmpty())));
+        assertTrue(availabilityService.getByWarehouse(warehouseId).isEmpty());
+    }
+
+    @Test
+    void rowMovedToAnotherWarehouse_LeavesItsOldPair() {
+        Long inventoryId = inventoryService.create(stock(warehouseId, 4)).getId();
+        awaitSku(sku, result -> quantity(result) == 4);
+
+        inventoryService.update(inventoryId, stock(otherWarehouseId, 9));
+        AvailabilityResponseDTO moved = awaitSku(sku, result -> quantity(result) == 9).get(0);
+        assertEquals(1, moved.getWarehouses().size());
+        assertEquals(otherWarehouseId, moved.getWarehouses().get(0).getWarehouseId());
+        assertTrue(availabilityService.getByWarehouse(warehouseId).isEmpty());
+    }
+
+    @Test
+    void warehouseDeleted_LeavesTheMatrix() {
+        inventoryService.create(stock(warehouseId, 5));
+        inventoryService.create(stock(otherWarehouseId, 6));
+        awaitSku(sku, result -> quantity(result) == 11);
+
+        warehouseService.delete(otherWarehouseId);
+        AvailabilityResponseDTO left = awaitSku(sku, result -> quantity(result) == 5).get(0);
+        assertEquals(1, left.getWarehouses().size());
+        assertTrue(availabilityService.getByWarehouse(otherWarehouseId).isEmpty());
+    }
+
+    @Test
+    void skuChangesAndDeletes_ReachTheMatrix() {
+        inventoryService.create(stock(warehouseId, 3));
+        awaitSku(sku, result -> quantity(result) == 3);
+
+        String renamed = sku + "-R";
+        jdbcTemplate.update("UPDATE product SET sku = ? WHERE id = ?", renamed, productId);
+        assertEquals(3, quantity(awaitSku(renamed, result -> quantity(result) == 3)));
+        assertTrue(availabilityService.getBySkus(Collections.singletonList(sku), null).isEmpty());
+
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        awaitSku(renamed, List::isEmpty);
+        assertTrue(availabilityService.getByWarehouse(warehouseId).isEmpty());
+    }
+
+    private InventoryRequestDTO stock(UUID warehouseId, int quantity) {
+        return InventoryRequestDTO.builder().productId(productId).warehouseId(warehouseId).quantity(quantity).reorderThreshold(0).build();
+    }
+
+    private static long quantity(List<AvailabilityResponseDTO> result) {
+        return result.isEmpty() ? -1 : result.get(0).getTotalQuantity();
+    }
+
+    // Changes arrive asynchronously, shortly after they commit
+    private List<AvailabilityResponseDTO> awaitSku(String sku, Predicate<List<AvailabilityResponseDTO>> condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            List<AvailabilityResponseDTO> result = availabilityService.getBySkus(Collections.singletonList(sku), null);
+            if (condition.test(result)) {
+                return result;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                return fail("Stock matrix did not catch up for " + sku);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return fail("Interrupted");
+            }
+        }
+    }
+}
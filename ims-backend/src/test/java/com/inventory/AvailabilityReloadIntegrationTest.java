@@ -0,0 +1,76 @@
+package com.inventory;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+import com.inventory.service.AvailabilityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Stock written straight to the database is announced by no one, and only shows once the matrix reloads
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "inventory.availability.reload-interval=1s"
+})
+class AvailabilityReloadIntegrationTest {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+    private String sku;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        sku = "RELOAD-" + suffix;
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 4.00)",
+            productId, "Reload Product " + suffix, sku);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, "Reload Warehouse " + suffix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void sqlWrites_ShowAfterReload() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity) VALUES (?, ?, 12)", productId, warehouseId);
+        assertEquals(12, awaitQuantity(12));
+
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+        assertEquals(0, awaitQuantity(0));
+        assertTrue(availabilityService.getByWarehouse(warehouseId).isEmpty());
+    }
+
+    private long awaitQuantity(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        long quantity;
+        do {
+            List<AvailabilityResponseDTO> result = availabilityService.getBySkus(Collections.singletonList(sku), null);
+            quantity = result.isEmpty() ? -1 : result.get(0).getTotalQuantity();
+            if (quantity == expected) {
+                break;
+            }
+            Thread.sleep(50);
+        } while (System.currentTimeMillis() < deadline);
+        return quantity;
+    }
+}
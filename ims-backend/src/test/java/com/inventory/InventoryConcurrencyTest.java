@@ -0,0 +1,200 @@
+package com.inventory;
+
+import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderRequestDTO;
+import com.inventory.dto.StockIssueRequestDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.service.PurchaseOrderService;
+import com.inventory.service.StockIssueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fires receipts and picks at one product/warehouse pair from many threads; any lost update shows up as a wrong total
+@SpringBootTest
+class InventoryConcurrencyTest {
+    private static final int RECEIPTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private StockIssueService stockIssueService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String productName;
+    private String warehouseName;
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productName = "Stress Product " + suffix;
+        warehouseName = "Stress Warehouse " + suffix;
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price, created_at, updated_at) VALUES (?, ?, ?, 1.00, now(), now())",
+            productId, productName, "STRESS-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')",
+            warehouseId, warehouseName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_alert WHERE inventory_id IN (SELECT id FROM inventory WHERE product_id = ?)", productId);
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE product_name = ?", productName);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE name = ?", warehouseName);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+    }
+
+    @Test
+    void parallelReceipts_IntoMissingInventoryRow_LoseNoUpdates() throws Exception {
+        List<UUID> orders = new ArrayList<>();
+        int expected = 0;
+        for (int i = 0; i < RECEIPTS; i++) {
+            int quantity = 1 + i % 5;
+            orders.add(purchaseOrderService.createPurchaseOrder(order(quantity)).getId());
+            expected += quantity;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (UUID id : orders) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return purchaseOrderService.fulfillPurchaseOrder(id, receivedBy());
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(1, count("SELECT COUNT(*) FROM inventory WHERE product_id = ?"));
+        assertEquals(expected, count("SELECT quantity FROM inventory WHERE product_id = ?"));
+        assertEquals(RECEIPTS, count("SELECT COUNT(*) FROM inventory_movement WHERE product_id = ?"));
+        assertEquals(expected, count("SELECT SUM(quantity) FROM inventory_movement WHERE product_id = ?"));
+        assertEquals(RECEIPTS, count("SELECT COUNT(*) FROM cost_layer WHERE product_id = ?"));
+        assertEquals(expected, count("SELECT SUM(quantity_remaining) FROM cost_layer WHERE product_id = ?"));
+    }
+
+    @Test
+    void parallelFulfilmentOfSameOrder_ReceivesItOnce() throws Exception {
+        UUID id = purchaseOrderService.createPurchaseOrder(order(7)).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    purchaseOrderService.fulfillPurchaseOrder(id, receivedBy());
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(7, rejected.get());
+        assertEquals(7, count("SELECT quantity FROM inventory WHERE product_id = ?"));
+        assertEquals(1, count("SELECT COUNT(*) FROM inventory_movement WHERE product_id = ?"));
+    }
+
+    @Test
+    void parallelPicksOnHotSku_NeverGoBelowZero() throws Exception {
+        int stock = RECEIPTS / 2;
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 10, now(), now())", productId, warehouseId, stock);
+        // Two receipts' worth of layers: FIFO costs the first half at 1.00 and the rest at 3.00
+        jdbcTemplate.update("INSERT INTO cost_layer (product_id, warehouse_id, quantity_received, quantity_remaining, unit_cost) " +
+            "VALUES (?, ?, ?, ?, 1.00), (?, ?, ?, ?, 3.00)",
+            productId, warehouseId, stock / 2, stock / 2, productId, warehouseId, stock / 2, stock / 2);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < RECEIPTS; i++) {
+            StockIssueRequestDTO pick = StockIssueRequestDTO.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(1)
+                .reference("SO-" + i)
+                .build();
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    stockIssueService.issue(pick);
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(RECEIPTS - stock, rejected.get());
+        assertEquals(0, count("SELECT quantity FROM inventory WHERE product_id = ?"));
+        assertEquals(stock, count("SELECT COUNT(*) FROM inventory_movement WHERE product_id = ? AND movement_type = 'OUTBOUND'"));
+        assertEquals(-stock, count("SELECT SUM(quantity) FROM inventory_movement WHERE product_id = ?"));
+        assertEquals(stock * 2, count("SELECT SUM(ABS(quantity) * unit_cost) FROM inventory_movement WHERE product_id = ?"));
+        assertEquals(0, count("SELECT SUM(quantity_remaining) FROM cost_layer WHERE product_id = ?"));
+        assertEquals(1, count("SELECT COUNT(*) FROM stock_alert a JOIN inventory i ON i.id = a.inventory_id WHERE i.product_id = ? AND NOT a.resolved"));
+    }
+
+    private PurchaseOrderRequestDTO order(int quantity) {
+        PurchaseOrderRequestDTO dto = new PurchaseOrderRequestDTO();
+        dto.setSupplierName("Stress Supplier");
+        dto.setProductName(productName);
+        dto.setWarehouseName(warehouseName);
+        dto.setQuantity(quantity);
+        return dto;
+    }
+
+    private static PurchaseOrderFulfillmentRequestDTO receivedBy() {
+        PurchaseOrderFulfillmentRequestDTO dto = new PurchaseOrderFulfillmentRequestDTO();
+        dto.setReceivedBy("stress");
+        return dto;
+    }
+
+    private long count(String sql) {
+        Number value = jdbcTemplate.queryForObject(sql, Number.class, productId);
+        return value == null ? 0 : value.longValue();
+    }
+}
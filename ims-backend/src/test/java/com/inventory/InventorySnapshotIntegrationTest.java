@@ -0,0 +1,110 @@
+package com.inventory;
+
+import com.inventory.repository.InventorySnapshotRepository;
+import com.inventory.repository.projection.OnHandAggregate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Days only store the pairs that moved on them, and lookups find each pair's latest row on or before a day
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class InventorySnapshotIntegrationTest {
+    // Days no other data has movements on
+    private static final LocalDate FIRST_DAY = LocalDate.of(1998, 3, 1);
+
+    @Autowired
+    private InventorySnapshotRepository inventorySnapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 2.00)",
+            productId, "Snapshot Product " + suffix, "SNAPSHOT-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, "Snapshot Warehouse " + suffix);
+        insertMovement(10, FIRST_DAY.plusDays(1).atTime(9, 0));
+        insertMovement(-2, FIRST_DAY.plusDays(4).atTime(9, 0));
+        insertMovement(-1, FIRST_DAY.plusDays(4).atTime(15, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_snapshot_watermark");
+        jdbcTemplate.update("DELETE FROM inventory_snapshot WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void buildDay_StoresOnlyChangedPairs() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (LocalDate day = FIRST_DAY; day.isBefore(FIRST_DAY.plusDays(7)); day = day.plusDays(1)) {
+            LocalDate built = day;
+            transaction.executeWithoutResult(status ->
+                inventorySnapshotRepository.buildDay(built, built.atStartOfDay(), built.plusDays(1).atStartOfDay()));
+        }
+
+        assertEquals(List.of(10L, 7L), jdbcTemplate.queryForList(
+            "SELECT closing_quantity FROM inventory_snapshot WHERE product_id = ? ORDER BY snapshot_date", Long.class, productId));
+        assertTrue(closingOn(FIRST_DAY).isEmpty());
+        assertEquals(10L, closingOn(FIRST_DAY.plusDays(1)).get(0).getQuantity());
+        assertEquals(10L, closingOn(FIRST_DAY.plusDays(3)).get(0).getQuantity());
+        assertEquals(7L, closingOn(FIRST_DAY.plusDays(6)).get(0).getQuantity());
+        // Unfiltered on either side, other pairs' snapshots may be there too
+        assertTrue(inventorySnapshotRepository.findClosingOn(null, warehouseId, FIRST_DAY.plusDays(6)).stream()
+            .anyMatch(row -> row.getProductId().equals(productId) && row.getQuantity() == 7L));
+        assertTrue(inventorySnapshotRepository.findClosingOn(productId, null, FIRST_DAY.plusDays(6)).stream()
+            .anyMatch(row -> row.getWarehouseId().equals(warehouseId) && row.getQuantity() == 7L));
+    }
+
+    @Test
+    void backDatedMovement_MarksEarliestBuiltDayForRebuild() {
+        jdbcTemplate.update("INSERT INTO inventory_snapshot_watermark (built_through) VALUES (?)", FIRST_DAY.plusDays(6));
+
+        insertMovement(1, FIRST_DAY.plusDays(5).atTime(9, 0));
+        insertMovement(1, FIRST_DAY.plusDays(2).atTime(9, 0));
+        insertMovement(1, FIRST_DAY.plusDays(3).atTime(9, 0));
+        assertEquals(FIRST_DAY.plusDays(2), rebuildFrom());
+
+        // Days not built yet are picked up by the next build anyway
+        jdbcTemplate.update("UPDATE inventory_snapshot_watermark SET rebuild_from = NULL");
+        insertMovement(1, FIRST_DAY.plusDays(7).atTime(9, 0));
+        assertNull(rebuildFrom());
+    }
+
+    private LocalDate rebuildFrom() {
+        return jdbcTemplate.queryForObject("SELECT rebuild_from FROM inventory_snapshot_watermark", LocalDate.class);
+    }
+
+    private List<OnHandAggregate> closingOn(LocalDate day) {
+        return inventorySnapshotRepository.findClosingOn(productId, warehouseId, day);
+    }
+
+    private void insertMovement(int quantity, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO inventory_movement (product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date) " +
+            "VALUES (?, ?, ?, ?, 2.00, ?)", productId, warehouseId, quantity > 0 ? "INBOUND" : "OUTBOUND", quantity, date);
+    }
+}
@@ -0,0 +1,127 @@
+package com.inventory;
+
+import com.inventory.dto.CursorPageDTO;
+import com.inventory.dto.InventoryResponseDTO;
+import com.inventory.dto.InventorySort;
+import com.inventory.dto.ProductResponseDTO;
+import com.inventory.dto.ProductSort;
+import com.inventory.exception.InvalidCursorException;
+import com.inventory.service.InventoryService;
+import com.inventory.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Walks the list endpoints page by page against the real schema; every row must appear exactly once, in order
+@SpringBootTest(properties = "inventory.pagination.max-page-size=20")
+class KeysetPaginationIntegrationTest {
+    private static final int PRODUCTS = 45;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "PG-" + UUID.randomUUID() + "-";
+        warehouseId = UUID.randomUUID();
+        // Prices repeat every 4 products so paging has to break ties on id
+        jdbcTemplate.update("INSERT INTO product (name, sku, category, price) " +
+            "SELECT ? || lpad(g::text, 3, '0'), ? || g, ?, g % 4 FROM generate_series(1, ?) g",
+            prefix, prefix, prefix, PRODUCTS);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, prefix);
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) " +
+            "SELECT id, ?, price::int, 0 FROM product WHERE category = ?", warehouseId, prefix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM product WHERE category = ?", prefix);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void products_ByPriceDescending_VisitEveryRowOnce() {
+        List<ProductResponseDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<ProductResponseDTO> page = productService.getAll(prefix, ProductSort.PRICE, Sort.Direction.DESC, cursor, 10);
+            assertTrue(page.getItems().size() <= 10);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, pages);
+        assertEquals(PRODUCTS, seen.stream().map(ProductResponseDTO::getId).distinct().count());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).getPrice().compareTo(seen.get(i).getPrice()) >= 0);
+        }
+    }
+
+    @Test
+    void products_ByName_MatchTheFullOrdering() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<ProductResponseDTO> page = productService.getAll(prefix, ProductSort.NAME, Sort.Direction.ASC, cursor, 7);
+            page.getItems().forEach(p -> seen.add(p.getName()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<String> expected = jdbcTemplate.queryForList(
+            "SELECT name FROM product WHERE category = ? ORDER BY name", String.class, prefix);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void inventory_FilteredByWarehouse_IsCappedAtMaxPageSize() {
+        CursorPageDTO<InventoryResponseDTO> first = inventoryService.getAll(null, warehouseId, null,
+            InventorySort.QUANTITY, Sort.Direction.ASC, null, 1000);
+        assertEquals(20, first.getItems().size());
+        assertTrue(first.getItems().stream().allMatch(i -> warehouseId.equals(i.getWarehouseId())));
+
+        List<Long> ids = new ArrayList<>(first.getItems().stream().map(InventoryResponseDTO::getId).collect(Collectors.toList()));
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            CursorPageDTO<InventoryResponseDTO> page = inventoryService.getAll(null, warehouseId, null,
+                InventorySort.QUANTITY, Sort.Direction.ASC, cursor, 1000);
+            page.getItems().forEach(i -> ids.add(i.getId()));
+            cursor = page.getNextCursor();
+        }
+        assertEquals(PRODUCTS, ids.stream().distinct().count());
+    }
+
+    @Test
+    void cursor_FromAnotherSortOrGarbage_IsRejected() {
+        String byPrice = productService.getAll(prefix, ProductSort.PRICE, Sort.Direction.ASC, null, 5).getNextCursor();
+        assertNotNull(byPrice);
+
+        assertThrows(InvalidCursorException.class,
+            () -> productService.getAll(prefix, ProductSort.NAME, Sort.Direction.ASC, byPrice, 5));
+        assertThrows(InvalidCursorException.class,
+            () -> productService.getAll(prefix, ProductSort.PRICE, Sort.Direction.DESC, byPrice, 5));
+        assertThrows(InvalidCursorException.class,
+            () -> productService.getAll(prefix, ProductSort.PRICE, Sort.Direction.ASC, "not a cursor!", 5));
+    }
+}
@@ -0,0 +1,138 @@
+package com.inventory;
+
+import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.InventoryTurnoverReportDTO;
+import com.inventory.dto.TrendGranularity;
+import com.inventory.repository.projection.OnHandAggregate;
+import com.inventory.service.InventorySnapshotService;
+import com.inventory.service.LedgerArchiveService;
+import com.inventory.service.LedgerPartitionService;
+import com.inventory.service.ReportingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Archiving moves old months out of the live ledger without changing any report
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class LedgerArchiveIntegrationTest {
+    // Months no other data has partitions for; 1999-10 deliberately gets none, so it lands in the default
+    private static final LocalDate FIRST_MONTH = LocalDate.of(1999, 10, 1);
+    private static final LocalDate HORIZON = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private LedgerArchiveService ledgerArchiveService;
+
+    @Autowired
+    private LedgerPartitionService ledgerPartitionService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private InventorySnapshotService inventorySnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 4.00)",
+            productId, "Archive Product " + suffix, "ARCHIVE-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, "Archive Warehouse " + suffix);
+        ledgerPartitionService.createPartitions(FIRST_MONTH.plusMonths(1), HORIZON);
+        insertMovement("INBOUND", 100, "2.00", LocalDateTime.of(1999, 10, 15, 9, 0));
+        insertMovement("OUTBOUND", -30, "2.00", LocalDateTime.of(1999, 11, 10, 9, 0));
+        insertMovement("INBOUND", 50, "3.00", LocalDateTime.of(1999, 12, 5, 9, 0));
+        insertMovement("OUTBOUND", -10, "2.50", LocalDateTime.of(2000, 1, 20, 9, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM inventory_movement_archive WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM inventory_opening_balance WHERE product_id = ?", productId);
+        for (LocalDate month = FIRST_MONTH; !month.isAfter(HORIZON); month = month.plusMonths(1)) {
+            String suffix = String.format("%d_%02d", month.getYear(), month.getMonthValue());
+            jdbcTemplate.execute("DROP TABLE IF EXISTS inventory_movement_" + suffix);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS inventory_movement_archive_" + suffix);
+        }
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void archive_KeepsReportsIdentical() {
+        List<InventoryTurnoverReportDTO> turnover = turnover();
+        List<InventoryTrendReportDTO> trends = trends();
+        List<OnHandAggregate> onHand = onHandAt(LocalDateTime.of(2000, 1, 25, 0, 0));
+
+        assertEquals(3, ledgerArchiveService.archiveBefore(HORIZON.plusDays(14)));
+
+        assertEquals(turnover, turnover());
+        assertEquals(trends, trends());
+        List<OnHandAggregate> archivedOnHand = onHandAt(LocalDateTime.of(2000, 1, 25, 0, 0));
+        assertEquals(1, archivedOnHand.size());
+        assertEquals(onHand.get(0).getQuantity(), archivedOnHand.get(0).getQuantity());
+        assertEquals(110L, archivedOnHand.get(0).getQuantity());
+        // Before the horizon the archive itself is read
+        assertEquals(70L, onHandAt(LocalDateTime.of(1999, 11, 30, 0, 0)).get(0).getQuantity());
+    }
+
+    @Test
+    void archive_MovesOldMonthsOutOfTheLiveLedger() {
+        ledgerArchiveService.archiveBefore(HORIZON);
+
+        assertEquals(1, count("inventory_movement"));
+        assertEquals(3, count("inventory_movement_archive"));
+        assertEquals(120L, jdbcTemplate.queryForObject(
+            "SELECT quantity FROM inventory_opening_balance WHERE product_id = ? AND warehouse_id = ? AND balance_date = ?",
+            Long.class, productId, warehouseId, HORIZON));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('inventory_movement_1999_11')::text", String.class));
+        // Archived months keep only the block range index
+        assertEquals(List.of("brin"), jdbcTemplate.queryForList(
+            "SELECT am.amname FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid JOIN pg_am am ON am.oid = i.relam " +
+            "WHERE x.indrelid = 'inventory_movement_archive_1999_11'::regclass", String.class));
+
+        // A second run has nothing left to move and leaves the balances alone
+        assertEquals(0, ledgerArchiveService.archiveBefore(HORIZON));
+        assertEquals(120L, jdbcTemplate.queryForObject(
+            "SELECT quantity FROM inventory_opening_balance WHERE product_id = ?", Long.class, productId));
+    }
+
+    private void insertMovement(String type, int quantity, String unitCost, LocalDateTime date) {
+        jdbcTemplate.update("INSERT INTO inventory_movement (product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date) " +
+            "VALUES (?, ?, ?, ?, ?::numeric, ?)", productId, warehouseId, type, quantity, unitCost, date);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private List<InventoryTurnoverReportDTO> turnover() {
+        return reportingService.getInventoryTurnover(productId, warehouseId, LocalDate.of(1999, 11, 1), LocalDate.of(2000, 1, 31));
+    }
+
+    private List<InventoryTrendReportDTO> trends() {
+        return reportingService.getInventoryTrends(productId, warehouseId, FIRST_MONTH, LocalDate.of(2000, 2, 1), TrendGranularity.MONTHLY);
+    }
+
+    private List<OnHandAggregate> onHandAt(LocalDateTime at) {
+        return inventorySnapshotService.getOnHandAt(productId, warehouseId, at);
+    }
+}
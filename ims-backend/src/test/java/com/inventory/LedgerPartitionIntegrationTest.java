@@ -0,0 +1,94 @@
+package com.inventory;
+
+import com.inventory.service.LedgerPartitionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Movements land in their month's partition, and ones dated before it existed are moved into it
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class LedgerPartitionIntegrationTest {
+    // Far enough back that no other data has a partition there
+    private static final LocalDate MONTH = LocalDate.of(2001, 3, 1);
+    private static final String PARTITION = "inventory_movement_2001_03";
+
+    @Autowired
+    private LedgerPartitionService ledgerPartitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)",
+            productId, "Partition Product " + suffix, "PARTITION-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, "Partition Warehouse " + suffix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + PARTITION);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void upcomingPartitions_ExistAfterStartup() {
+        assertEquals(0, ledgerPartitionService.createUpcomingPartitions());
+        assertNotNull(partitionOf(LocalDate.now().plusMonths(3)));
+    }
+
+    @Test
+    void backDatedMovement_IsMovedIntoItsNewPartition() {
+        insertMovement(MONTH.plusDays(14));
+        assertEquals("inventory_movement_default", location());
+
+        assertEquals(1, ledgerPartitionService.createPartitions(MONTH, MONTH.plusDays(27)));
+
+        assertEquals(PARTITION, location());
+        assertEquals(PARTITION, partitionOf(MONTH));
+        assertEquals(0, ledgerPartitionService.createPartitions(MONTH, MONTH));
+    }
+
+    @Test
+    void movementInExistingPartition_LandsThere() {
+        ledgerPartitionService.createPartitions(MONTH, MONTH);
+
+        insertMovement(MONTH.plusDays(3));
+
+        assertEquals(PARTITION, location());
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM inventory_movement WHERE product_id = ? AND movement_date >= ? AND movement_date < ?",
+            Integer.class, productId, MONTH, MONTH.plusMonths(1)));
+    }
+
+    private void insertMovement(LocalDate date) {
+        jdbcTemplate.update("INSERT INTO inventory_movement (product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date) " +
+            "VALUES (?, ?, 'INBOUND', 5, 2.00, ?)", productId, warehouseId, date.atTime(12, 0));
+    }
+
+    private String location() {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM inventory_movement WHERE product_id = ?",
+            String.class, productId);
+    }
+
+    private String partitionOf(LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class,
+            "inventory_movement_" + String.format("%d_%02d", date.getYear(), date.getMonthValue()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.inventory;
+
+import com.inventory.dto.InventoryRequestDTO;
+import com.inventory.service.InventoryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Service timers, business counters, statement timings and statements per request are registered and exported for scraping
+// Metrics exporters are off in tests unless asked for, which the Prometheus scrape needs
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+    private Long inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)",
+            productId, "Metrics Product " + suffix, "METRICS-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, "Metrics Warehouse " + suffix);
+        inventoryId = jdbcTemplate.queryForObject("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) " +
+            "VALUES (?, ?, 50, 10) RETURNING id", Long.class, productId, warehouseId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+        // Cascades to inventory and stock_alert
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void adjustment_IsTimedAndCountedOnCommit() {
+        double adjustments = movements("ADJUSTMENT");
+        double raised = meterRegistry.counter("inventory.alerts.raised").count();
+        long updates = serviceCalls("update");
+
+        inventoryService.update(inventoryId, request(5));
+
+        assertEquals(1, movements("ADJUSTMENT") - adjustments);
+        assertEquals(1, meterRegistry.counter("inventory.alerts.raised").count() - raised);
+        assertEquals(1, serviceCalls("update") - updates);
+    }
+
+    @Test
+    void rolledBackAdjustment_IsNotCounted() {
+        double adjustments = movements("ADJUSTMENT");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.update(inventoryId, request(40));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, movements("ADJUSTMENT") - adjustments);
+        assertEquals(50, jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE id = ?", Integer.class, inventoryId));
+    }
+
+    @Test
+    void request_RecordsStatementsPerRoute() throws Exception {
+        DistributionSummary before = statements();
+        long requests = before != null ? before.count() : 0;
+        double total = before != null ? before.totalAmount() : 0;
+
+        mockMvc.perform(get("/api/inventory").param("warehouseId", warehouseId.toString())).andExpect(status().isOk());
+
+        // The page is one statement (see QueryCountIntegrationTest)
+        assertEquals(1, statements().count() - requests);
+        assertEquals(1, statements().totalAmount() - total);
+    }
+
+    @Test
+    void jdbcTemplateStatement_IsTimed() {
+        long before = queries();
+
+        jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE id = ?", Integer.class, inventoryId);
+
+        assertEquals(1, queries() - before);
+    }
+
+    @Test
+    void prometheusEndpoint_ExportsInstrumentedMeters() throws Exception {
+        inventoryService.update(inventoryId, request(60));
+        mockMvc.perform(get("/api/inventory").param("warehouseId", warehouseId.toString())).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("# TYPE inventory_movements_total counter\n"));
+        assertTrue(body.contains("inventory_movements_total{type=\"ADJUSTMENT\",} "));
+        assertTrue(body.contains("# TYPE inventory_service_seconds histogram\n"));
+        assertTrue(body.contains("inventory_service_seconds_bucket{class=\"com.inventory.service.InventoryServiceImpl\"," +
+            "exception=\"none\",method=\"update\",le=\"+Inf\",} "));
+        assertTrue(body.contains("inventory_request_statements_bucket{method=\"GET\",uri=\"/api/inventory\",le=\"1.0\",} "));
+        assertTrue(body.contains("# TYPE inventory_queries_seconds histogram\n"));
+        assertTrue(body.contains("hibernate_query_executions_total"));
+        assertTrue(body.contains("hikaricp_connections_active"));
+    }
+
+    private InventoryRequestDTO request(int quantity) {
+        return InventoryRequestDTO.builder()
+            .productId(productId).warehouseId(warehouseId).quantity(quantity).reorderThreshold(10).build();
+    }
+
+    private double movements(String type) {
+        return meterRegistry.counter("inventory.movements", "type", type).count();
+    }
+
+    private long queries() {
+        return meterRegistry.get("inventory.queries").timer().count();
+    }
+
+    private long serviceCalls(String method) {
+        Timer timer = meterRegistry.find("inventory.service")
+            .tags("class", "com.inventory.service.InventoryServiceImpl", "method", method, "exception", "none").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private DistributionSummary statements() {
+        return meterRegistry.find("inventory.request.statements").tag("uri", "/api/inventory").summary();
+    }
+}
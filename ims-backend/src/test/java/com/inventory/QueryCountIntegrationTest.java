@@ -0,0 +1,97 @@
+package com.inventory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards the list endpoints against N+1 lazy loading: the statements one request prepares must not grow with its rows
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class QueryCountIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+    private UUID warehouseId;
+    private int seeded;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "QC-" + UUID.randomUUID() + "-";
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, prefix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Cascades to inventory and stock_alert
+        jdbcTemplate.update("DELETE FROM product WHERE category = ?", prefix);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void inventoryPage_UsesSameStatementsForAnyPageSize() throws Exception {
+        seed(60);
+        long few = statementsFor(get("/api/inventory").param("warehouseId", warehouseId.toString()).param("limit", "3"));
+        long many = statementsFor(get("/api/inventory").param("warehouseId", warehouseId.toString()).param("limit", "60"));
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void activeAlerts_UseSameStatementsAsAlertsGrow() throws Exception {
+        seed(3);
+        long few = statementsFor(get("/api/stock-alerts"));
+        seed(40);
+        long many = statementsFor(get("/api/stock-alerts"));
+
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    // Low-stock rows in this test's warehouse, each with an unresolved alert
+    private void seed(int rows) {
+        jdbcTemplate.update("INSERT INTO product (name, sku, category, price) " +
+            "SELECT ? || (? + g), ? || (? + g), ?, 1.00 FROM generate_series(1, ?) g",
+            prefix, seeded, prefix, seeded, prefix, rows);
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) " +
+            "SELECT p.id, ?, 1, 10 FROM product p WHERE p.category = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM inventory i WHERE i.product_id = p.id)", warehouseId, prefix);
+        jdbcTemplate.update("INSERT INTO stock_alert (inventory_id, quantity, threshold) " +
+            "SELECT i.id, i.quantity, i.reorder_threshold FROM inventory i WHERE i.warehouse_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM stock_alert a WHERE a.inventory_id = i.id)", warehouseId);
+        seeded += rows;
+    }
+
+    private long statementsFor(RequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+}
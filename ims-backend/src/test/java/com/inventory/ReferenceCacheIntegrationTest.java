@@ -0,0 +1,128 @@
+package com.inventory;
+
+import com.inventory.config.CacheConfig;
+import com.inventory.dto.ProductRequestDTO;
+import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderRequestDTO;
+import com.inventory.service.ProductService;
+import com.inventory.service.PurchaseOrderService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Purchase order receipts resolve product and warehouse through the reference caches; edits must evict them on commit
+@SpringBootTest
+class ReferenceCacheIntegrationTest {
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String productName;
+    private String warehouseName;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productName = "Cached Product " + suffix;
+        warehouseName = "Cached Warehouse " + suffix;
+        productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)",
+            productId, productName, "CACHE-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", UUID.randomUUID(), warehouseName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_alert WHERE inventory_id IN (SELECT id FROM inventory WHERE product_id = ?)", productId);
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE warehouse_name = ?", warehouseName);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE name = ?", warehouseName);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+    }
+
+    @Test
+    void repeatedReceipts_ResolveProductFromCache() {
+        double hitsBefore = gets(CacheConfig.PRODUCTS_BY_NAME, "hit");
+
+        receive(productName, 5);
+        receive(productName, 5);
+        receive(productName, 5);
+
+        assertEquals(2, gets(CacheConfig.PRODUCTS_BY_NAME, "hit") - hitsBefore);
+        assertNotNull(cache(CacheConfig.PRODUCTS_BY_NAME).get(productName));
+        assertNotNull(cache(CacheConfig.WAREHOUSES_BY_NAME).get(warehouseName.toLowerCase(Locale.ROOT)));
+        assertEquals(15, jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE product_id = ?", Integer.class, productId));
+    }
+
+    @Test
+    void productRename_EvictsOnCommitSoTheNewNameResolves() {
+        receive(productName, 1);
+        String renamed = productName + " v2";
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productService.update(productId, ProductRequestDTO.builder()
+                .name(renamed).sku("CACHE-" + productId).price(BigDecimal.ONE).build());
+            // Still served until the rename is visible to other transactions
+            assertNotNull(cache(CacheConfig.PRODUCTS_BY_NAME).get(productName));
+        });
+
+        assertNull(cache(CacheConfig.PRODUCTS_BY_NAME).get(productName));
+        receive(renamed, 2);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE product_id = ?", Integer.class, productId));
+        assertThrows(RuntimeException.class, () -> receive(productName, 1));
+    }
+
+    private void receive(String product, int quantity) {
+        PurchaseOrderRequestDTO order = new PurchaseOrderRequestDTO();
+        order.setSupplierName("Cache Supplier");
+        order.setProductName(product);
+        order.setWarehouseName(warehouseName);
+        order.setQuantity(quantity);
+        UUID id = purchaseOrderService.createPurchaseOrder(order).getId();
+        PurchaseOrderFulfillmentRequestDTO fulfilment = new PurchaseOrderFulfillmentRequestDTO();
+        fulfilment.setReceivedBy("cache-test");
+        purchaseOrderService.fulfillPurchaseOrder(id, fulfilment);
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private double gets(String cache, String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", cache).tag("result", result).functionCounter();
+        assertNotNull(counter, "cache metrics should be registered for " + cache);
+        return counter.count();
+    }
+}
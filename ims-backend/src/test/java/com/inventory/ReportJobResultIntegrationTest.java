@@ -0,0 +1,68 @@
+package com.inventory;
+
+import com.inventory.repository.ReportJobResultRepository;
+import com.inventory.service.ReportJobServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Chunked result storage reads back as one stream, and retention takes the chunks with their job
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ReportJobResultIntegrationTest {
+    @Autowired
+    private ReportJobResultRepository reportJobResultRepository;
+
+    @Autowired
+    private ReportJobServiceImpl reportJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID jobId;
+
+    @BeforeEach
+    void setUp() {
+        jobId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO report_job (id, report_type, status, format, completed_at) " +
+            "VALUES (?, 'VALUATION', 'COMPLETED', 'NDJSON', now())", jobId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM report_job WHERE id = ?", jobId);
+    }
+
+    @Test
+    void chunks_ReadBackInOrderAsOneStream() throws Exception {
+        reportJobResultRepository.saveChunk(jobId, 0, "first,".getBytes(StandardCharsets.UTF_8));
+        reportJobResultRepository.saveChunk(jobId, 1, "second,".getBytes(StandardCharsets.UTF_8));
+        reportJobResultRepository.saveChunk(jobId, 2, "third".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(reportJobResultRepository.existsByJobId(jobId));
+        try (InputStream in = reportJobResultRepository.open(jobId)) {
+            assertEquals("first,second,third", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void purgeExpiredJobs_RemovesOldJobsAndTheirChunks() {
+        reportJobResultRepository.saveChunk(jobId, 0, new byte[] {1, 2, 3});
+        reportJobService.purgeExpiredJobs();
+        assertTrue(reportJobResultRepository.existsByJobId(jobId), "A job finished today is kept");
+
+        jdbcTemplate.update("UPDATE report_job SET completed_at = now() - interval '30 days' WHERE id = ?", jobId);
+        reportJobService.purgeExpiredJobs();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM report_job WHERE id = ?", Integer.class, jobId));
+        assertFalse(reportJobResultRepository.existsByJobId(jobId));
+    }
+}
@@ -0,0 +1,132 @@
+package com.inventory;
+
+import com.inventory.dto.InventoryRequestDTO;
+import com.inventory.model.Inventory;
+import com.inventory.service.InventoryService;
+import com.inventory.service.StockAlertService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Alerts follow stock across the threshold: one open alert while low, resolved once stock recovers
+@SpringBootTest
+class StockAlertIntegrationTest {
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)", productId, "Alert " + suffix, "ALERT-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, "Alert " + suffix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+        // Cascades to inventory and stock_alert
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void inventoryWrites_RaiseOnceAndResolveOnRecovery() {
+        Long id = inventoryService.create(request(2)).getId();
+        assertEquals(1, alerts(id, false));
+
+        inventoryService.update(id, request(5));
+        assertEquals(1, alerts(id, false));
+
+        inventoryService.update(id, request(20));
+        assertEquals(0, alerts(id, false));
+        assertEquals(1, alerts(id, true));
+
+        inventoryService.update(id, request(1));
+        assertEquals(1, alerts(id, false));
+        assertEquals(1, alerts(id, true));
+    }
+
+    @Test
+    void concurrentChecks_OnRowWithLongHistory_LeaveOneOpenAlert() throws Exception {
+        Long id = inventoryService.create(request(50)).getId();
+        jdbcTemplate.update("INSERT INTO stock_alert (inventory_id, quantity, threshold, resolved, resolved_at) " +
+            "SELECT ?, 1, 10, true, now() FROM generate_series(1, 5000)", id);
+        Inventory low = Inventory.builder().id(id).quantity(3).reorderThreshold(10).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                stockAlertService.createAlertIfLowStock(low);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertEquals(1, alerts(id, false));
+        assertEquals(5000, alerts(id, true));
+    }
+
+    @Test
+    void bulkCheck_RaisesForLowRowsAndResolvesRecoveredOnes() {
+        Long id = inventoryService.create(request(2)).getId();
+        jdbcTemplate.update("UPDATE inventory SET quantity = 30 WHERE id = ?", id);
+        stockAlertService.createAlertsIfLowStock(List.of(id));
+        assertEquals(0, alerts(id, false));
+
+        jdbcTemplate.update("UPDATE inventory SET quantity = 0 WHERE id = ?", id);
+        stockAlertService.createAlertsIfLowStock(List.of(id));
+        stockAlertService.createAlertsIfLowStock(List.of(id));
+        assertEquals(1, alerts(id, false));
+    }
+
+    @Test
+    void index_RejectsSecondOpenAlertWrittenAroundTheService() {
+        Long id = inventoryService.create(request(2)).getId();
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+            "INSERT INTO stock_alert (inventory_id, quantity, threshold) VALUES (?, 2, 10)", id));
+    }
+
+    private InventoryRequestDTO request(int quantity) {
+        return InventoryRequestDTO.builder()
+            .productId(productId).warehouseId(warehouseId).quantity(quantity).reorderThreshold(10).build();
+    }
+
+    private int alerts(Long inventoryId, boolean resolved) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_alert WHERE inventory_id = ? AND resolved = ?",
+            Integer.class, inventoryId, resolved);
+    }
+}
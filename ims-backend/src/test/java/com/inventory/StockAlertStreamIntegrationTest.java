@@ -0,0 +1,247 @@
+package com.inventory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.InventoryRequestDTO;
+import com.inventory.service.InventoryService;
+import com.inventory.service.StockAlertBroadcaster;
+import com.inventory.service.StockAlertsChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Real HTTP clients on the alert stream: committed changes arrive as events, slow clients are cut back to a resync
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "inventory.alerts.stream.buffer-size=8",
+    "inventory.alerts.stream.heartbeat-millis=600000",
+    "spring.jpa.show-sql=false"
+})
+class StockAlertStreamIntegrationTest {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockAlertBroadcaster broadcaster;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final List<AutoCloseable> connections = new ArrayList<>();
+    private String prefix;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "SSE-" + UUID.randomUUID() + "-";
+        warehouseId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, prefix);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable connection : connections) {
+            connection.close();
+        }
+        // Writes are what reveal a closed stream; let the server finish tearing these down before the next test
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (broadcaster.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+            broadcaster.heartbeat();
+            Thread.sleep(50);
+        }
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE warehouse_id = ?", warehouseId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE warehouse_id = ?", warehouseId);
+        // Cascades to inventory and stock_alert
+        jdbcTemplate.update("DELETE FROM product WHERE category = ?", prefix);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void committedAlertChanges_AreStreamedAsCreatedThenResolved() throws Exception {
+        BlockingQueue<Event> events = connect();
+        UUID productId = product("Widget");
+
+        Long inventoryId = inventoryService.create(request(productId, 2)).getId();
+        Event created = next(events);
+        assertEquals(StockAlertBroadcaster.CREATED, created.name);
+        assertEquals(prefix + "Widget", created.data.get("productName").asText());
+        assertEquals(prefix, created.data.get("warehouseName").asText());
+        assertEquals(2, created.data.get("quantity").asInt());
+
+        inventoryService.update(inventoryId, request(productId, 50));
+        Event resolved = next(events);
+        assertEquals(StockAlertBroadcaster.RESOLVED, resolved.name);
+        assertEquals(created.data.get("id").asLong(), resolved.data.get("id").asLong());
+        assertTrue(resolved.data.get("resolved").asBoolean());
+    }
+
+    @Test
+    void rolledBackWrite_IsNeverStreamed() throws Exception {
+        BlockingQueue<Event> events = connect();
+        UUID rolledBack = product("Rolled back");
+        UUID committed = product("Committed");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.create(request(rolledBack, 1));
+            status.setRollbackOnly();
+        });
+        inventoryService.create(request(committed, 1));
+
+        assertEquals(prefix + "Committed", next(events).data.get("productName").asText());
+    }
+
+    @Test
+    void changeSetBeyondClientBuffer_IsSentAsResync() throws Exception {
+        BlockingQueue<Event> events = connect();
+        long resyncsBefore = broadcaster.getResyncCount();
+
+        // Ids only: a change set this size is never loaded, so they need not exist
+        broadcaster.onAlertsChanged(new StockAlertsChangedEvent(
+            LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList())));
+
+        assertEquals(StockAlertBroadcaster.RESYNC, next(events).name);
+        assertTrue(broadcaster.getResyncCount() > resyncsBefore);
+    }
+
+    @Test
+    void stalledClient_DoesNotHoldUpPublisherOrOtherClients() throws Exception {
+        // Never reads past its response headers, so the server's writes to it eventually block; a fixed receive
+        // buffer stops the kernel from auto-growing it to tens of megabytes first
+        Socket stalled = new Socket();
+        stalled.setReceiveBufferSize(8 * 1024);
+        stalled.connect(new InetSocketAddress("localhost", port));
+        connections.add(stalled);
+        OutputStream out = stalled.getOutputStream();
+        out.write(("GET /api/stock-alerts/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        // The headers are only sent once the subscriber is registered
+        InputStream in = stalled.getInputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            assertNotEquals(-1, b, "Stream closed before its headers");
+            matched = b == "\r\n\r\n".charAt(matched) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        BlockingQueue<Event> events = connect();
+        long resyncsBefore = broadcaster.getResyncCount();
+
+        // Resolved alerts can pile up on one row; long names make each event a few hundred bytes
+        UUID productId = product("p".repeat(200));
+        Long inventoryId = inventoryService.create(request(productId, 50)).getId();
+        List<Long> alertIds = jdbcTemplate.queryForList("INSERT INTO stock_alert (inventory_id, quantity, threshold, " +
+            "resolved, resolved_at) SELECT ?, 1, 10, true, now() FROM generate_series(1, 40000) RETURNING id", Long.class, inventoryId);
+
+        // Publish in buffer-sized batches until the stalled client's socket buffers fill and it overflows
+        long slowestPublishNanos = 0;
+        int published = 0;
+        while (broadcaster.getResyncCount() == resyncsBefore && published < alertIds.size()) {
+            List<Long> batch = alertIds.subList(published, published + 8);
+            long start = System.nanoTime();
+            broadcaster.onAlertsChanged(new StockAlertsChangedEvent(batch));
+            slowestPublishNanos = Math.max(slowestPublishNanos, System.nanoTime() - start);
+            published += batch.size();
+            // The reading client keeps up, so it never overflows its own buffer
+            for (Long alertId : batch) {
+                Event event = next(events);
+                assertEquals(StockAlertBroadcaster.RESOLVED, event.name);
+                assertEquals(alertId.longValue(), event.data.get("id").asLong());
+            }
+        }
+
+        assertTrue(broadcaster.getResyncCount() > resyncsBefore, "The stalled client should have been cut back to a resync");
+        // A publisher that waited on the stalled socket would block here for good
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(slowestPublishNanos) < 1_000,
+            "Slowest publish took " + slowestPublishNanos / 1_000_000 + " ms");
+    }
+
+    private BlockingQueue<Event> connect() throws Exception {
+        BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stock-alerts/stream"))
+            .header("Accept", "text/event-stream").build();
+        HttpResponse<java.util.stream.Stream<String>> response = http.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        Thread reader = new Thread(() -> {
+            String name = null;
+            for (String line : (Iterable<String>) response.body()::iterator) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("data:")) {
+                    try {
+                        events.add(new Event(name, objectMapper.readTree(line.substring("data:".length()))));
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    name = null;
+                }
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        connections.add(() -> response.body().close());
+        return events;
+    }
+
+    private static Event next(BlockingQueue<Event> events) throws InterruptedException {
+        Event event = events.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event, "No event within 10s");
+        return event;
+    }
+
+    private UUID product(String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, category, price) VALUES (?, ?, ?, ?, 1.00)",
+            id, prefix + name, prefix + name, prefix);
+        return id;
+    }
+
+    private InventoryRequestDTO request(UUID productId, int quantity) {
+        return InventoryRequestDTO.builder()
+            .productId(productId).warehouseId(warehouseId).quantity(quantity).reorderThreshold(10).build();
+    }
+
+    private static final class Event {
+        private final String name;
+        private final JsonNode data;
+
+        private Event(String name, JsonNode data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
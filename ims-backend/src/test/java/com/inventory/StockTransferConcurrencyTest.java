@@ -0,0 +1,157 @@
+package com.inventory;
+
+import com.inventory.dto.StockTransferLineDTO;
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.dto.StockTransferResponseDTO;
+import com.inventory.service.StockTransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Opposite transfers of the same SKUs from many threads; a deadlock fails a transfer, a lost update a total
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class StockTransferConcurrencyTest {
+    private static final int PRODUCTS = 5;
+    private static final int STOCK = 1000;
+    private static final int TRANSFERS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StockTransferService stockTransferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> productIds = new ArrayList<>();
+    private UUID east;
+    private UUID west;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        east = UUID.randomUUID();
+        west = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test'), (?, ?, 'Test')",
+            east, "Transfer East " + suffix, west, "Transfer West " + suffix);
+        for (int p = 0; p < PRODUCTS; p++) {
+            UUID productId = UUID.randomUUID();
+            productIds.add(productId);
+            jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)",
+                productId, "Transfer Product " + p + " " + suffix, "TRANSFER-" + p + "-" + suffix);
+            jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) VALUES (?, ?, ?, 10), (?, ?, ?, 10)",
+                productId, east, STOCK, productId, west, STOCK);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_transfer WHERE source_warehouse_id IN (?, ?)", east, west);
+        for (UUID productId : productIds) {
+            jdbcTemplate.update("DELETE FROM stock_alert WHERE inventory_id IN (SELECT id FROM inventory WHERE product_id = ?)", productId);
+            jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+            jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        }
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id IN (?, ?)", east, west);
+    }
+
+    @Test
+    void oppositeBatchTransfers_NeitherDeadlockNorLoseStock() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < TRANSFERS; i++) {
+            // Lines in a different order each time; the service must not lock in request order
+            List<UUID> shuffled = new ArrayList<>(productIds);
+            Collections.shuffle(shuffled, random);
+            StockTransferRequestDTO request = i % 2 == 0 ? transfer(east, west, false, shuffled, 1) : transfer(west, east, false, shuffled, 1);
+            results.add(pool.submit(() -> {
+                start.await();
+                return stockTransferService.transfer(request);
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        for (UUID productId : productIds) {
+            assertEquals(STOCK, quantity(productId, east));
+            assertEquals(STOCK, quantity(productId, west));
+        }
+        assertEquals(TRANSFERS * PRODUCTS, movements("TRANSFER_OUT"));
+        assertEquals(TRANSFERS * PRODUCTS, movements("TRANSFER_IN"));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM inventory_movement " +
+            "WHERE warehouse_id IN (?, ?)", Long.class, east, west));
+        assertEquals(TRANSFERS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_transfer " +
+            "WHERE source_warehouse_id IN (?, ?) AND status = 'RECEIVED'", Integer.class, east, west));
+    }
+
+    @Test
+    void inTransitTransfer_IsOnHandNowhereUntilReceived() {
+        UUID productId = productIds.get(0);
+        StockTransferResponseDTO shipped = stockTransferService.transfer(
+            transfer(east, west, true, Collections.singletonList(productId), 10));
+
+        assertEquals("IN_TRANSIT", shipped.getStatus());
+        assertEquals(STOCK - 10, quantity(productId, east));
+        assertEquals(STOCK, quantity(productId, west));
+        assertTrue(stockTransferService.getInTransit().stream().anyMatch(t -> t.getId().equals(shipped.getId())));
+
+        StockTransferResponseDTO received = stockTransferService.receive(shipped.getId());
+
+        assertEquals("RECEIVED", received.getStatus());
+        assertEquals(STOCK + 10, quantity(productId, west));
+        assertTrue(stockTransferService.getInTransit().stream().noneMatch(t -> t.getId().equals(shipped.getId())));
+        // The destination's new layer carries the cost the units left the source at
+        assertEquals(0, new BigDecimal("1.00").compareTo(jdbcTemplate.queryForObject(
+            "SELECT unit_cost FROM cost_layer WHERE product_id = ? AND warehouse_id = ? AND reference = ?",
+            BigDecimal.class, productId, west, "TR-" + shipped.getId())));
+        assertEquals(List.of(-10, 10), jdbcTemplate.queryForList("SELECT quantity FROM inventory_movement " +
+            "WHERE reference = ? ORDER BY movement_type DESC", Integer.class, "TR-" + shipped.getId()));
+        assertThrows(IllegalArgumentException.class, () -> stockTransferService.receive(shipped.getId()));
+    }
+
+    private static StockTransferRequestDTO transfer(UUID source, UUID destination, boolean inTransit, List<UUID> products, int quantity) {
+        List<StockTransferLineDTO> lines = new ArrayList<>();
+        for (UUID productId : products) {
+            lines.add(StockTransferLineDTO.builder().productId(productId).quantity(quantity).build());
+        }
+        return StockTransferRequestDTO.builder()
+            .sourceWarehouseId(source)
+            .destinationWarehouseId(destination)
+            .inTransit(inTransit)
+            .lines(lines)
+            .build();
+    }
+
+    private int quantity(UUID productId, UUID warehouseId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM inventory WHERE product_id = ? AND warehouse_id = ?",
+            Integer.class, productId, warehouseId);
+    }
+
+    private int movements(String type) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_movement WHERE warehouse_id IN (?, ?) AND movement_type = ?",
+            Integer.class, east, west, type);
+    }
+}
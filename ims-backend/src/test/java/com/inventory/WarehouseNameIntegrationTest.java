@@ -0,0 +1,105 @@
+package com.inventory;
+
+import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderRequestDTO;
+import com.inventory.dto.WarehouseRequestDTO;
+import com.inventory.repository.WarehouseRepository;
+import com.inventory.service.PurchaseOrderService;
+import com.inventory.service.WarehouseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Warehouse names are unique ignoring case, checked and resolved through the lower(name) index
+@SpringBootTest
+class WarehouseNameIntegrationTest {
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String warehouseName;
+    private String productName;
+    private UUID warehouseId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        warehouseName = "Name Check " + suffix;
+        productName = "Name Check Product " + suffix;
+        warehouseId = UUID.randomUUID();
+        productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Test')", warehouseId, warehouseName);
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)", productId, productName, "NAME-" + suffix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE product_name = ?", productName);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE lower(name) LIKE lower(?) || '%'", warehouseName);
+    }
+
+    @Test
+    void createAndUpdate_RejectNameDifferingOnlyInCase() {
+        String upper = warehouseName.toUpperCase(Locale.ROOT);
+        assertThrows(DataIntegrityViolationException.class,
+            () -> warehouseService.create(WarehouseRequestDTO.builder().name(upper).location("Elsewhere").build()));
+
+        UUID otherId = warehouseService.create(WarehouseRequestDTO.builder().name(warehouseName + " B").location("Test").build()).getId();
+        assertThrows(DataIntegrityViolationException.class,
+            () -> warehouseService.update(otherId, WarehouseRequestDTO.builder().name(upper).location("Test").build()));
+        // Renaming a warehouse to a different spelling of its own name is allowed
+        assertEquals(upper, warehouseService.update(warehouseId, WarehouseRequestDTO.builder().name(upper).location("Test").build()).getName());
+    }
+
+    @Test
+    void index_RejectsCaseDuplicatesWrittenAroundTheService() {
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+            "INSERT INTO warehouse (name, location) VALUES (?, 'Test')", warehouseName.toLowerCase(Locale.ROOT)));
+    }
+
+    @Test
+    void lookups_IgnoreCase() {
+        assertTrue(warehouseRepository.existsByNameIgnoreCase(warehouseName.toLowerCase(Locale.ROOT)));
+        assertFalse(warehouseRepository.existsByNameIgnoreCaseAndIdNot(warehouseName.toUpperCase(Locale.ROOT), warehouseId));
+        assertEquals(warehouseId, warehouseRepository.findByNameIgnoreCase(warehouseName.toUpperCase(Locale.ROOT)).orElseThrow().getId());
+    }
+
+    @Test
+    void purchaseOrder_ForDifferentlyCasedWarehouseName_IsReceivedIntoIt() {
+        PurchaseOrderRequestDTO order = new PurchaseOrderRequestDTO();
+        order.setSupplierName("Name Check Supplier");
+        order.setProductName(productName);
+        order.setWarehouseName(warehouseName.toUpperCase(Locale.ROOT));
+        order.setQuantity(4);
+        UUID id = purchaseOrderService.createPurchaseOrder(order).getId();
+        PurchaseOrderFulfillmentRequestDTO receipt = new PurchaseOrderFulfillmentRequestDTO();
+        receipt.setReceivedBy("name-check");
+
+        purchaseOrderService.fulfillPurchaseOrder(id, receipt);
+
+        assertEquals(4, jdbcTemplate.queryForObject(
+            "SELECT quantity FROM inventory WHERE product_id = ? AND warehouse_id = ?", Integer.class, productId, warehouseId));
+    }
+}
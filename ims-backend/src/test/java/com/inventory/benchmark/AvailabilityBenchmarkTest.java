@@ -0,0 +1,109 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.service.AvailabilityService;
+import com.inventory.service.StockLevelsChangedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Availability lookups from the in-memory stock matrix against the same lookups in the database, for one
+ * SKU and for a bulk request of 100; see {@link BenchmarkDataset} for the data. Results go to
+ * {@code target/benchmark-results/Availability.json}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AvailabilityBenchmarkTest {
+    private static final int BULK_SKUS = 100;
+
+    private final MicroBenchmark benchmark = new MicroBenchmark("Availability");
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private BenchmarkDataset dataset;
+    private Map<String, String> params;
+    private List<String> bulkSkus;
+
+    @BeforeAll
+    void seed() throws InterruptedException {
+        dataset = new BenchmarkDataset(jdbcTemplate).seed();
+        params = Map.of("products", String.valueOf(dataset.products), "warehouses", String.valueOf(dataset.warehouses));
+        bulkSkus = new ArrayList<>();
+        for (int p = 1; p <= Math.min(BULK_SKUS, dataset.products); p++) {
+            bulkSkus.add(dataset.prefix + "P" + p);
+        }
+        // Seeded in SQL, so the pairs are announced here as the services would announce theirs
+        List<UUID> productIds = new ArrayList<>();
+        List<UUID> warehouseIds = new ArrayList<>();
+        jdbcTemplate.query("SELECT i.product_id, i.warehouse_id FROM inventory i JOIN product p ON p.id = i.product_id " +
+            "WHERE p.category = ?", rs -> {
+                productIds.add(rs.getObject(1, UUID.class));
+                warehouseIds.add(rs.getObject(2, UUID.class));
+            }, dataset.prefix);
+        eventPublisher.publishEvent(new StockLevelsChangedEvent(productIds, warehouseIds));
+        String last = dataset.prefix + "P" + dataset.products;
+        for (int i = 0; i < 600 && !stockedEverywhere(last); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(stockedEverywhere(last), "Seeded stock did not reach the matrix");
+    }
+
+    @AfterAll
+    void cleanUp() throws Exception {
+        benchmark.writeResults();
+        dataset.delete();
+    }
+
+    @Test
+    void matrix_FasterThanDatabase() throws Exception {
+        String sku = bulkSkus.get(0);
+        UUID productId = jdbcTemplate.queryForObject("SELECT id FROM product WHERE sku = ?", UUID.class, sku);
+
+        double database = benchmark.run("database_oneSku", params,
+            () -> inventoryRepository.findAllWithProductAndWarehouse(productId, null));
+        double matrix = benchmark.run("matrix_oneSku", params,
+            () -> availabilityService.getBySkus(Collections.singletonList(sku), null));
+        double databaseBulk = benchmark.run("database_bulkSkus", params,
+            () -> jdbcTemplate.queryForList("SELECT p.id, p.sku, i.warehouse_id, i.quantity FROM product p " +
+                "JOIN inventory i ON i.product_id = p.id WHERE p.sku = ANY (?)", (Object) bulkSkus.toArray(new String[0])));
+        double matrixBulk = benchmark.run("matrix_bulkSkus", params,
+            () -> availabilityService.getBySkus(bulkSkus, null));
+
+        assertEquals(bulkSkus.size(), availabilityService.getBySkus(bulkSkus, null).size());
+        assertTrue(matrix < database, "One SKU from memory should be cheaper than from the database");
+        assertTrue(matrixBulk < databaseBulk, "Bulk SKUs from memory should be cheaper than from the database");
+    }
+
+    private boolean stockedEverywhere(String sku) {
+        List<AvailabilityResponseDTO> result = availabilityService.getBySkus(Collections.singletonList(sku), null);
+        return !result.isEmpty() && result.get(0).getWarehouses().size() == dataset.warehouses;
+    }
+}
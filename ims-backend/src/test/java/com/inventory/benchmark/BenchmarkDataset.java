@@ -0,0 +1,79 @@
+package com.inventory.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds products, warehouses, one inventory row per pair and a year of ledger history for benchmarks,
+ * all tagged with a random prefix so {@link #delete()} removes exactly what was seeded. Sizes come from
+ * {@code -Dbenchmark.products}, {@code -Dbenchmark.warehouses} and {@code -Dbenchmark.movements-per-row}.
+ */
+final class BenchmarkDataset {
+    final int products;
+    final int warehouses;
+    final int movementsPerRow;
+    final String prefix = "BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+
+    private final JdbcTemplate jdbcTemplate;
+    private List<UUID> warehouseIds;
+
+    BenchmarkDataset(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Integer.getInteger("benchmark.products", 1_000), Integer.getInteger("benchmark.warehouses", 4),
+            Integer.getInteger("benchmark.movements-per-row", 24));
+    }
+
+    // For benchmarks of code too slow to run against the default sizes
+    BenchmarkDataset(JdbcTemplate jdbcTemplate, int products, int warehouses, int movementsPerRow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.products = products;
+        this.warehouses = warehouses;
+        this.movementsPerRow = movementsPerRow;
+    }
+
+    BenchmarkDataset seed() {
+        warehouseIds = jdbcTemplate.queryForList("INSERT INTO warehouse (name, location) " +
+            "SELECT ? || 'W' || w, 'Bench' FROM generate_series(1, ?) w RETURNING id", UUID.class, prefix, warehouses);
+        jdbcTemplate.update("INSERT INTO product (name, sku, category, price) " +
+            "SELECT ? || 'P' || p, ? || 'P' || p, ?, 1 + p % 100 FROM generate_series(1, ?) p",
+            prefix, prefix, prefix, products);
+        // Quantities spread across the reorder threshold, so some rows are low on stock
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) " +
+            "SELECT p.id, w.id, (abs(hashtext(p.name || w.name)) % 200), 10 FROM product p CROSS JOIN warehouse w " +
+            "WHERE p.category = ? AND w.name LIKE ? || '%'", prefix, prefix);
+        // Receipts and issues spread over the past year, in roughly the mix a live ledger has, in their
+        // monthly partitions as a live ledger's would be
+        jdbcTemplate.queryForObject("SELECT create_inventory_movement_partitions((CURRENT_DATE - 366), CURRENT_DATE)", Integer.class);
+        jdbcTemplate.update("INSERT INTO inventory_movement (id, product_id, warehouse_id, movement_type, quantity, unit_cost, movement_date, reference) " +
+            "SELECT nextval('inventory_movement_seq'), i.product_id, i.warehouse_id, " +
+            "CASE WHEN m % 3 = 0 THEN 'INBOUND' ELSE 'OUTBOUND' END, " +
+            "CASE WHEN m % 3 = 0 THEN 30 ELSE -10 END, 1 + m % 20, " +
+            "now() - (m * 365 / ?) * interval '1 day' - (i.id % 86400) * interval '1 second', ? " +
+            "FROM inventory i JOIN warehouse w ON w.id = i.warehouse_id CROSS JOIN generate_series(1, ?) m " +
+            "WHERE w.name LIKE ? || '%'", movementsPerRow, prefix, movementsPerRow, prefix);
+        jdbcTemplate.execute("ANALYZE inventory");
+        jdbcTemplate.execute("ANALYZE inventory_movement");
+        return this;
+    }
+
+    List<UUID> warehouseIds() {
+        return warehouseIds;
+    }
+
+    Long inventoryId(int index) {
+        return jdbcTemplate.queryForObject("SELECT i.id FROM inventory i JOIN warehouse w ON w.id = i.warehouse_id " +
+            "WHERE w.name LIKE ? || '%' ORDER BY i.id OFFSET ? LIMIT 1", Long.class, prefix, index);
+    }
+
+    // Also removes what benchmarks added on top: receipts, their cost layers and purchase orders
+    void delete() {
+        for (String table : new String[] {"inventory_movement", "inventory_snapshot", "cost_layer"}) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE product_id IN (SELECT id FROM product WHERE category = ?)", prefix);
+        }
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE product_name LIKE ? || '%'", prefix);
+        // Cascades to inventory, cost_balance and stock_alert
+        jdbcTemplate.update("DELETE FROM product WHERE category = ?", prefix);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE name LIKE ? || '%'", prefix);
+    }
+}
@@ -0,0 +1,91 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.InventoryAdjustmentBatchRequestDTO;
+import com.inventory.dto.InventoryAdjustmentLineDTO;
+import com.inventory.dto.InventoryAdjustmentResultDTO;
+import com.inventory.service.InventoryAdjustmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A 100k-line cycle count, 1,000 products in 100 warehouses each holding 50 units in one opening layer,
+ * applied through {@link InventoryAdjustmentService} against a budget of 30 seconds. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class InventoryAdjustmentBenchmarkTest {
+    private static final int PRODUCTS = 1_000;
+    private static final int WAREHOUSES = 100;
+
+    @Autowired
+    private InventoryAdjustmentService inventoryAdjustmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        jdbcTemplate.update("INSERT INTO product (name, sku, price) " +
+            "SELECT ? || g, ? || g, 1.00 FROM generate_series(1, ?) g", prefix, prefix, PRODUCTS);
+        jdbcTemplate.update("INSERT INTO warehouse (name, location) " +
+            "SELECT ? || g, 'Bench' FROM generate_series(1, ?) g", prefix, WAREHOUSES);
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) " +
+            "SELECT p.id, w.id, 50, 10 FROM product p, warehouse w WHERE p.sku LIKE ? || '%' AND w.name LIKE ? || '%'",
+            prefix, prefix);
+        jdbcTemplate.update("INSERT INTO cost_layer (product_id, warehouse_id, quantity_received, quantity_remaining, unit_cost, reference) " +
+            "SELECT i.product_id, i.warehouse_id, 50, 50, 1.00, ? || 'OPENING' FROM inventory i " +
+            "JOIN product p ON p.id = i.product_id WHERE p.sku LIKE ? || '%'", prefix, prefix);
+        jdbcTemplate.update("INSERT INTO cost_balance (product_id, warehouse_id, quantity, value, version) " +
+            "SELECT i.product_id, i.warehouse_id, 50, 50.00, nextval('cost_balance_version_seq') FROM inventory i " +
+            "JOIN product p ON p.id = i.product_id WHERE p.sku LIKE ? || '%'", prefix);
+        jdbcTemplate.execute("ANALYZE inventory");
+        jdbcTemplate.execute("ANALYZE cost_layer");
+        jdbcTemplate.execute("ANALYZE cost_balance");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE reference LIKE ? || '%'", prefix);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE reference LIKE ? || '%'", prefix);
+        // Cascades to inventory, cost_balance and stock_alert
+        jdbcTemplate.update("DELETE FROM product WHERE sku LIKE ? || '%'", prefix);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE name LIKE ? || '%'", prefix);
+    }
+
+    @Test
+    void adjust_HundredThousandLines_InUnderThirtySeconds() {
+        List<InventoryAdjustmentLineDTO> lines = new ArrayList<>(PRODUCTS * WAREHOUSES);
+        for (int p = 1; p <= PRODUCTS; p++) {
+            for (int w = 1; w <= WAREHOUSES; w++) {
+                lines.add(InventoryAdjustmentLineDTO.builder()
+                    .sku(prefix + p).warehouseName(prefix + w).quantity((p + w) % 100).build());
+            }
+        }
+
+        long start = System.nanoTime();
+        InventoryAdjustmentResultDTO result = inventoryAdjustmentService.adjust(
+            InventoryAdjustmentBatchRequestDTO.builder().reference(prefix + "COUNT").lines(lines).build());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("cycle count: %d lines in %d ms (%.0f lines/s)%n", lines.size(), millis, lines.size() * 1000.0 / millis);
+        assertEquals(0, result.getFailed());
+        assertEquals(lines.size(), result.getAdjusted() + result.getUnchanged());
+        assertTrue(millis < 30_000, "Applying " + lines.size() + " lines took " + millis + " ms");
+    }
+}
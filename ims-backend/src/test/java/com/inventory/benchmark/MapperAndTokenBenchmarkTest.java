@@ -0,0 +1,65 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.InventoryRequestDTO;
+import com.inventory.dto.ProductRequestDTO;
+import com.inventory.model.Inventory;
+import com.inventory.model.Product;
+import com.inventory.model.User;
+import com.inventory.model.Warehouse;
+import com.inventory.service.JwtService;
+import com.inventory.util.InventoryMapper;
+import com.inventory.util.ProductMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-operation cost of the DTO mappers and of issuing and verifying tokens; no Spring context or database.
+ * Results go to {@code target/benchmark-results/MapperAndToken.json}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MapperAndTokenBenchmarkTest {
+    private final MicroBenchmark benchmark = new MicroBenchmark("MapperAndToken");
+
+    private final Product product = Product.builder()
+        .id(UUID.randomUUID()).name("Bench Product").sku("BENCH-1").category("Bench").price(new BigDecimal("12.50"))
+        .description("A product for benchmarks").createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+    private final Warehouse warehouse = Warehouse.builder().id(UUID.randomUUID()).name("Bench Warehouse").location("Bench").build();
+    private final Inventory inventory = Inventory.builder()
+        .id(1L).product(product).warehouse(warehouse).quantity(40).reorderThreshold(10)
+        .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+
+    @AfterAll
+    void writeResults() throws Exception {
+        benchmark.writeResults();
+    }
+
+    @Test
+    void mappers() throws Exception {
+        ProductRequestDTO productRequest = ProductRequestDTO.builder()
+            .name("Bench Product").sku("BENCH-1").category("Bench").price(new BigDecimal("12.50")).build();
+        InventoryRequestDTO inventoryRequest = InventoryRequestDTO.builder()
+            .productId(product.getId()).warehouseId(warehouse.getId()).quantity(40).reorderThreshold(10).build();
+
+        benchmark.run("productToResponseDTO", () -> ProductMapper.toResponseDTO(product));
+        benchmark.run("productToEntity", () -> ProductMapper.toEntity(productRequest));
+        benchmark.run("inventoryToResponseDTO", () -> InventoryMapper.toResponseDTO(inventory));
+        benchmark.run("inventoryToEntity", () -> InventoryMapper.toEntity(inventoryRequest, product, warehouse));
+    }
+
+    @Test
+    void tokens() throws Exception {
+        JwtService jwtService = new JwtService("a-benchmark-secret-that-is-at-least-32-bytes");
+        User user = User.builder().username("bench").role("USER").build();
+        String token = jwtService.generateToken(user);
+
+        benchmark.run("jwtGenerate", () -> jwtService.generateToken(user));
+        benchmark.run("jwtVerify", () -> jwtService.verify(token));
+    }
+}
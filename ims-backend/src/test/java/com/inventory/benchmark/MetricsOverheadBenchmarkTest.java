@@ -0,0 +1,94 @@
+package com.inventory.benchmark;
+
+import com.inventory.ImsBackendApplication;
+import com.inventory.dto.InventoryRequestDTO;
+import com.inventory.model.Inventory;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.service.InventoryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * What the metrics cost on the write path: the same inventory update, which locks the row, writes an
+ * adjustment to the ledger and checks the stock alert, timed in a fully instrumented context and in one
+ * with {@code inventory.metrics.enabled=false} and every meter disabled. Both contexts run side by side
+ * against the database from {@link BenchmarkDataset}. Results go to
+ * {@code target/benchmark-results/MetricsOverhead.json}.
+ *
+ * <p>Right after seeding, the database is still catching up and both scores fall for a minute or so; warm
+ * up well past that: {@code mvn test -Pbenchmark -Dtest=MetricsOverheadBenchmarkTest
+ * -Dbenchmark.warmup-iterations=30 -Dbenchmark.iterations=16 -Dbenchmark.iteration-millis=2000}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MetricsOverheadBenchmarkTest {
+    private final MicroBenchmark benchmark = new MicroBenchmark("MetricsOverhead");
+
+    private ConfigurableApplicationContext instrumented;
+    private ConfigurableApplicationContext bare;
+    private BenchmarkDataset dataset;
+
+    @BeforeAll
+    void start() {
+        instrumented = context();
+        bare = context("--inventory.metrics.enabled=false", "--management.metrics.enable.all=false");
+        dataset = new BenchmarkDataset(instrumented.getBean(JdbcTemplate.class)).seed();
+    }
+
+    @AfterAll
+    void stop() throws Exception {
+        benchmark.writeResults();
+        dataset.delete();
+        instrumented.close();
+        bare.close();
+    }
+
+    @Test
+    void inventoryUpdate() throws Exception {
+        Callable<?> instrumentedUpdate = update(instrumented, dataset.inventoryId(0));
+        Callable<?> bareUpdate = update(bare, dataset.inventoryId(1));
+        Map<String, String> params = Map.of("movementsPerRow", String.valueOf(dataset.movementsPerRow));
+
+        // An update is a few milliseconds of database work, which drifts by more than the difference
+        double[] scores = benchmark.compare("update_bare", bareUpdate, "update_instrumented", instrumentedUpdate, params);
+        System.out.printf("MetricsOverhead.update: %+.1f%%%n", (scores[1] / scores[0] - 1) * 100);
+    }
+
+    // Arguments rather than default properties, which application.properties would override
+    private static ConfigurableApplicationContext context(String... args) {
+        String[] all = Arrays.copyOf(args, args.length + 1);
+        all[args.length] = "--spring.jpa.show-sql=false";
+        return new SpringApplicationBuilder(ImsBackendApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(all);
+    }
+
+    // Alternates between two quantities above the threshold, so every call writes a movement and no alert
+    private static Callable<?> update(ConfigurableApplicationContext context, Long inventoryId) {
+        InventoryService inventoryService = context.getBean(InventoryService.class);
+        Inventory inventory = context.getBean(InventoryRepository.class).findById(inventoryId).orElseThrow();
+        InventoryRequestDTO[] requests = {request(inventory, 100), request(inventory, 101)};
+        int[] next = {0};
+        return () -> inventoryService.update(inventoryId, requests[next[0]++ & 1]);
+    }
+
+    private static InventoryRequestDTO request(Inventory inventory, int quantity) {
+        return InventoryRequestDTO.builder()
+            .productId(inventory.getProduct().getId())
+            .warehouseId(inventory.getWarehouse().getId())
+            .quantity(quantity)
+            .reorderThreshold(inventory.getReorderThreshold())
+            .build();
+    }
+}
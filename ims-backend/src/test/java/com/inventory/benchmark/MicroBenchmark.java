@@ -0,0 +1,168 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-style runner for benchmarks that live inside the test suite, next to the Spring context and database
+ * they measure. Each benchmark gets timed warmup iterations, then measured ones; the score is the average
+ * time per operation with a 99.9% confidence interval, as JMH reports it in "avgt" mode.
+ *
+ * <p>Results are written in JMH's JSON result format to {@code target/benchmark-results/<suite>.json}, so
+ * runs from different releases can be compared with the usual JMH tooling. Iteration counts and times come
+ * from system properties, which Maven passes through from the command line:
+ * {@code mvn test -Pbenchmark -Dbenchmark.iterations=10 -Dbenchmark.iteration-millis=2000}.
+ */
+final class MicroBenchmark {
+    // Two-sided 99.9% Student t quantiles by degrees of freedom, as JMH uses for scoreError
+    private static final double[] T_999 = {636.62, 31.60, 12.92, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+        4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850};
+
+    private final String suite;
+    private final int warmupIterations = Integer.getInteger("benchmark.warmup-iterations", 3);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 5);
+    private final long iterationNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("benchmark.iteration-millis", 1000));
+    private final List<Map<String, Object>> results = new ArrayList<>();
+
+    // Every result is stored here so the JIT cannot drop the work that produced it
+    private volatile Object sink;
+
+    MicroBenchmark(String suite) {
+        this.suite = suite;
+    }
+
+    double run(String benchmark, Callable<?> operation) throws Exception {
+        return run(benchmark, Map.of(), operation);
+    }
+
+    /**
+     * Runs one benchmark, prints its score and returns it in microseconds per operation. Operations are
+     * timed back to back with a clock read after each, which adds a few tens of nanoseconds to every one.
+     */
+    double run(String benchmark, Map<String, String> params, Callable<?> operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation);
+        }
+        double[] scores = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            scores[i] = iteration(operation);
+        }
+        return record(benchmark, params, scores);
+    }
+
+    /**
+     * Runs two benchmarks with their iterations interleaved, and which goes first alternating, so drift in
+     * the machine or database over the run affects both alike. For comparisons where the difference is
+     * smaller than that drift. Returns both scores, in microseconds per operation.
+     */
+    double[] compare(String first, Callable<?> firstOperation, String second, Callable<?> secondOperation,
+                     Map<String, String> params) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(firstOperation);
+            iteration(secondOperation);
+        }
+        double[] firstScores = new double[iterations];
+        double[] secondScores = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            if (i % 2 == 0) {
+                firstScores[i] = iteration(firstOperation);
+                secondScores[i] = iteration(secondOperation);
+            } else {
+                secondScores[i] = iteration(secondOperation);
+                firstScores[i] = iteration(firstOperation);
+            }
+        }
+        return new double[] {record(first, params, firstScores), record(second, params, secondScores)};
+    }
+
+    private double record(String benchmark, Map<String, String> params, double[] scores) {
+        Map<String, Object> result = result(suite + "." + benchmark, params, scores);
+        results.add(result);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> metric = (Map<String, Object>) result.get("primaryMetric");
+        System.out.printf("%s.%s%s: %.3f +- %.3f us/op%n", suite, benchmark, params.isEmpty() ? "" : " " + new TreeMap<>(params),
+            (double) metric.get("score"), (double) metric.get("scoreError"));
+        return (double) metric.get("score");
+    }
+
+    Path writeResults() throws IOException {
+        Path dir = Paths.get(System.getProperty("benchmark.results-dir", "target/benchmark-results"));
+        Files.createDirectories(dir);
+        Path file = dir.resolve(suite + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+        System.out.println("benchmark results: " + file.toAbsolutePath());
+        return file;
+    }
+
+    // Microseconds per operation over one iteration
+    private double iteration(Callable<?> operation) throws Exception {
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink = operation.call();
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return elapsed / 1e3 / operations;
+    }
+
+    private Map<String, Object> result(String benchmark, Map<String, String> params, double[] scores) {
+        double mean = Arrays.stream(scores).average().orElse(Double.NaN);
+        double error = Double.NaN;
+        if (scores.length > 1) {
+            double variance = Arrays.stream(scores).map(s -> (s - mean) * (s - mean)).sum() / (scores.length - 1);
+            int df = scores.length - 1;
+            double t = df <= T_999.length ? T_999[df - 1] : 3.291;
+            error = t * Math.sqrt(variance / scores.length);
+        }
+        double[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double p : new double[] {0.0, 50.0, 90.0, 95.0, 99.0, 100.0}) {
+            // Nearest rank
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            percentiles.put(String.valueOf(p), sorted[Math.max(0, rank - 1)]);
+        }
+
+        Map<String, Object> metric = new LinkedHashMap<>();
+        metric.put("score", mean);
+        metric.put("scoreError", error);
+        metric.put("scoreConfidence", new double[] {mean - error, mean + error});
+        metric.put("scorePercentiles", percentiles);
+        metric.put("scoreUnit", "us/op");
+        metric.put("rawData", new double[][] {scores});
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", benchmark);
+        result.put("mode", "avgt");
+        result.put("threads", 1);
+        result.put("forks", 0);
+        result.put("jdkVersion", System.getProperty("java.version"));
+        result.put("vmName", System.getProperty("java.vm.name"));
+        result.put("vmVersion", System.getProperty("java.vm.version"));
+        result.put("warmupIterations", warmupIterations);
+        result.put("warmupTime", TimeUnit.NANOSECONDS.toMillis(iterationNanos) + " ms");
+        result.put("measurementIterations", iterations);
+        result.put("measurementTime", TimeUnit.NANOSECONDS.toMillis(iterationNanos) + " ms");
+        if (!params.isEmpty()) {
+            result.put("params", new TreeMap<>(params));
+        }
+        result.put("primaryMetric", metric);
+        result.put("secondaryMetrics", Map.of());
+        return result;
+    }
+}
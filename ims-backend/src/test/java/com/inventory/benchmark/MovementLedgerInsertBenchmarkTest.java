@@ -0,0 +1,147 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.InventoryMovement;
+import com.inventory.model.Product;
+import com.inventory.model.Warehouse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Movement-ledger insert throughput through JPA, before and after the switch to pooled sequence ids.
+ * "Before" maps the same table with IDENTITY ids, which makes Hibernate insert each row as it is persisted;
+ * "after" is the real {@link InventoryMovement} mapping, whose inserts go out in JDBC batches.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class MovementLedgerInsertBenchmarkTest {
+    private static final int WARMUP_ROWS = 5_000;
+    private static final int MEASURED_ROWS = 50_000;
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID productId;
+    private UUID warehouseId;
+    private String reference;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+        reference = "BENCH-" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)", productId, reference, reference);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Bench')", warehouseId, reference);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE reference = ?", reference);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id = ?", warehouseId);
+    }
+
+    @Test
+    void pooledSequenceIds_InsertFasterThanIdentity() {
+        IntConsumer identity = i -> entityManager.persist(IdentityMovement.builder()
+            .productId(productId)
+            .warehouseId(warehouseId)
+            .movementType(InventoryMovement.MovementType.ADJUSTMENT.name())
+            .quantity(i)
+            .unitCost(BigDecimal.ONE)
+            .movementDate(LocalDateTime.now())
+            .reference(reference)
+            .build());
+        IntConsumer pooled = i -> entityManager.persist(InventoryMovement.builder()
+            .product(entityManager.getReference(Product.class, productId))
+            .warehouse(entityManager.getReference(Warehouse.class, warehouseId))
+            .movementType(InventoryMovement.MovementType.ADJUSTMENT)
+            .quantity(i)
+            .unitCost(BigDecimal.ONE)
+            .movementDate(LocalDateTime.now())
+            .reference(reference)
+            .build());
+
+        insert(WARMUP_ROWS, identity);
+        insert(WARMUP_ROWS, pooled);
+        double identityRate = insert(MEASURED_ROWS, identity);
+        double pooledRate = insert(MEASURED_ROWS, pooled);
+
+        System.out.printf("movement inserts: IDENTITY %.0f rows/s, pooled sequence %.0f rows/s (%.1fx)%n",
+            identityRate, pooledRate, pooledRate / identityRate);
+        assertTrue(pooledRate > identityRate, "Pooled sequence inserts should beat IDENTITY");
+    }
+
+    // Rows per second, persisting in transactions of ROWS_PER_TRANSACTION like a busy write path
+    private double insert(int rows, IntConsumer persist) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += ROWS_PER_TRANSACTION) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < first + ROWS_PER_TRANSACTION; i++) {
+                    persist.accept(i);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    // The ledger as it was mapped before: IDENTITY ids, so Hibernate cannot batch its inserts
+    @Entity(name = "IdentityMovement")
+    @Table(name = "inventory_movement")
+    @lombok.Getter
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    static class IdentityMovement {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "product_id", nullable = false)
+        private UUID productId;
+
+        @Column(name = "warehouse_id", nullable = false)
+        private UUID warehouseId;
+
+        @Column(name = "movement_type", nullable = false)
+        private String movementType;
+
+        @Column(nullable = false)
+        private Integer quantity;
+
+        @Column(name = "unit_cost")
+        private BigDecimal unitCost;
+
+        @Column(name = "movement_date", nullable = false)
+        private LocalDateTime movementDate;
+
+        @Column(name = "reference")
+        private String reference;
+    }
+}
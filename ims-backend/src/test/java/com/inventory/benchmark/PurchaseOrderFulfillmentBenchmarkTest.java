@@ -0,0 +1,105 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderRequestDTO;
+import com.inventory.service.PurchaseOrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Purchase order receipt throughput with the product/warehouse reference caches warm, against the same
+ * receipts with every cache cleared before each one, so both lookups go to the database as they did
+ * before the caches existed. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class PurchaseOrderFulfillmentBenchmarkTest {
+    private static final int WARMUP_ORDERS = 500;
+    private static final int MEASURED_ORDERS = 3_000;
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String productName;
+    private String warehouseName;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        productName = "Bench Product " + suffix;
+        warehouseName = "Bench Warehouse " + suffix;
+        productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO product (id, name, sku, price) VALUES (?, ?, ?, 1.00)",
+            productId, productName, "BENCH-" + suffix);
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ?, 'Bench')", UUID.randomUUID(), warehouseName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_alert WHERE inventory_id IN (SELECT id FROM inventory WHERE product_id = ?)", productId);
+        jdbcTemplate.update("DELETE FROM inventory_movement WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM cost_layer WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM inventory WHERE product_id = ?", productId);
+        jdbcTemplate.update("DELETE FROM purchase_order WHERE product_name = ?", productName);
+        jdbcTemplate.update("DELETE FROM warehouse WHERE name = ?", warehouseName);
+        jdbcTemplate.update("DELETE FROM product WHERE id = ?", productId);
+    }
+
+    @Test
+    void cachedReferenceLookups_FulfilFasterThanUncached() {
+        Runnable uncached = () -> cacheManager.getCacheNames()
+            .forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        Runnable cached = () -> { };
+
+        fulfil(WARMUP_ORDERS, uncached);
+        fulfil(WARMUP_ORDERS, cached);
+        double uncachedRate = fulfil(MEASURED_ORDERS, uncached);
+        double cachedRate = fulfil(MEASURED_ORDERS, cached);
+
+        System.out.printf("purchase order receipts: uncached %.0f orders/s, cached %.0f orders/s (%.2fx)%n",
+            uncachedRate, cachedRate, cachedRate / uncachedRate);
+        assertTrue(cachedRate > uncachedRate, "Cached lookups should fulfil faster");
+    }
+
+    // Orders per second; the orders are created up front so only fulfilment is timed
+    private double fulfil(int orders, Runnable beforeEach) {
+        List<UUID> ids = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            PurchaseOrderRequestDTO order = new PurchaseOrderRequestDTO();
+            order.setSupplierName("Bench Supplier");
+            order.setProductName(productName);
+            order.setWarehouseName(warehouseName);
+            order.setQuantity(1);
+            ids.add(purchaseOrderService.createPurchaseOrder(order).getId());
+        }
+        PurchaseOrderFulfillmentRequestDTO receipt = new PurchaseOrderFulfillmentRequestDTO();
+        receipt.setReceivedBy("bench");
+
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            beforeEach.run();
+            purchaseOrderService.fulfillPurchaseOrder(id, receipt);
+        }
+        return orders / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,319 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.model.User;
+import com.inventory.service.JwtService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Drives the REST API with a mixed workload from concurrent clients and reports latency percentiles and
+ * throughput per operation, for the application on the configured database.
+ *
+ * <p>Point it at a dataset from the {@code datagen} profile with {@code -Dload.prefix=GEN}; without one it
+ * seeds a small {@link BenchmarkDataset}. Clients, duration and mix come from {@code -Dload.threads},
+ * {@code -Dload.warmup-seconds}, {@code -Dload.seconds} and {@code -Dload.mix} (operation=weight pairs, see
+ * {@link #DEFAULT_MIX}). Receipts are real: running against a generated dataset adds purchase orders and
+ * ledger rows to it. Results go to {@code target/benchmark-results/Load.json}. Run with
+ * {@code mvn test -Pbenchmark -Dtest=RestLoadHarnessTest}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+class RestLoadHarnessTest {
+    static final String DEFAULT_MIX = "INVENTORY_PAGE=50,RECEIVE_PURCHASE_ORDER=20,VALUATION_SUMMARY=15,TURNOVER=10,TRENDS=5";
+
+    private final int threads = Integer.getInteger("load.threads", 8);
+    private final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+    private final int seconds = Integer.getInteger("load.seconds", 30);
+    private final String mix = System.getProperty("load.mix", DEFAULT_MIX);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BenchmarkDataset seeded;
+    private List<Target> targets;
+    private String username;
+    private String token;
+    private String supplier;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = System.getProperty("load.prefix");
+        if (prefix == null) {
+            seeded = new BenchmarkDataset(jdbcTemplate).seed();
+            prefix = seeded.prefix;
+        }
+        // Requests spread over a sample of the dataset's stocked pairs
+        targets = jdbcTemplate.query("SELECT p.name AS product, w.name AS warehouse, w.id AS warehouse_id FROM inventory i " +
+                "JOIN product p ON p.id = i.product_id JOIN warehouse w ON w.id = i.warehouse_id " +
+                "WHERE p.sku LIKE ? || '%' ORDER BY random() LIMIT 1000",
+            (rs, row) -> new Target(rs.getString("product"), rs.getString("warehouse"), rs.getObject("warehouse_id", UUID.class)),
+            prefix);
+        assertFalse(targets.isEmpty(), "No inventory found for dataset prefix " + prefix);
+
+        username = "load-" + UUID.randomUUID().toString().substring(0, 8);
+        supplier = "Load " + username;
+        jdbcTemplate.update("INSERT INTO app_user (id, username, password, role) VALUES (?, ?, 'x', 'ADMIN')", UUID.randomUUID(), username);
+        token = jwtService.generateToken(User.builder().username(username).role("ADMIN").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM app_user WHERE username = ?", username);
+        if (seeded != null) {
+            seeded.delete();
+        } else {
+            jdbcTemplate.update("DELETE FROM purchase_order WHERE supplier_name = ? AND status = 'PENDING'", supplier);
+        }
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        Map<Operation, Integer> weights = parseMix();
+        run(weights, warmupSeconds, new Stats(weights));
+        Stats stats = new Stats(weights);
+        long start = System.nanoTime();
+        run(weights, seconds, stats);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<Map<String, Object>> report = stats.report(elapsedSeconds);
+        System.out.printf("load: %d clients, %d s, mix %s%n", threads, seconds, mix);
+        System.out.printf("%-22s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+            "operation", "count", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Map<String, Object> row : report) {
+            System.out.printf("%-22s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d%n", row.get("operation"), row.get("count"),
+                row.get("throughput"), row.get("p50"), row.get("p90"), row.get("p99"), row.get("p99.9"), row.get("max"), row.get("errors"));
+        }
+        writeResults(report);
+
+        assertEquals(0, report.stream().mapToLong(row -> (long) row.get("errors")).sum(), "Requests failed; see the log");
+    }
+
+    private void run(Map<Operation, Integer> weights, int durationSeconds, Stats stats) throws Exception {
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            done.add(clients.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Operation operation = pick(weights, random.nextInt(totalWeight));
+                    Target target = targets.get(random.nextInt(targets.size()));
+                    stats.record(operation, () -> execute(operation, target));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : done) {
+            client.get();
+        }
+        clients.shutdown();
+    }
+
+    private static Operation pick(Map<Operation, Integer> weights, int roll) {
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    // True when every request the operation made succeeded
+    private boolean execute(Operation operation, Target target) throws Exception {
+        LocalDate today = LocalDate.now();
+        switch (operation) {
+            case INVENTORY_PAGE:
+                return get("/api/inventory?warehouseId=" + target.warehouseId + "&limit=50") != null;
+            case RECEIVE_PURCHASE_ORDER:
+                Map<String, Object> order = new LinkedHashMap<>();
+                order.put("supplierName", supplier);
+                order.put("productName", target.product);
+                order.put("warehouseName", target.warehouse);
+                order.put("quantity", 10);
+                order.put("unitCost", 2.50);
+                String created = post("/api/purchase-orders", order);
+                if (created == null) {
+                    return false;
+                }
+                String id = objectMapper.readTree(created).get("id").asText();
+                return post("/api/purchase-orders/" + id + "/fulfill", Map.of("receivedBy", username)) != null;
+            case VALUATION_SUMMARY:
+                return get("/api/reports/stock-valuation/summary?warehouseId=" + target.warehouseId + "&groupBy=CATEGORY") != null;
+            case TURNOVER:
+                return get("/api/reports/inventory-turnover?warehouseId=" + target.warehouseId
+                    + "&startDate=" + today.minusDays(30) + "&endDate=" + today) != null;
+            case TRENDS:
+                return get("/api/reports/inventory-trends?warehouseId=" + target.warehouseId
+                    + "&startDate=" + today.minusDays(90) + "&endDate=" + today + "&granularity=WEEKLY") != null;
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+    }
+
+    // The response body, or null for a non-2xx status
+    private String get(String path) throws Exception {
+        return send(request(path).GET().build());
+    }
+
+    private String post(String path, Object body) throws Exception {
+        return send(request(path).header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            System.out.printf("%s %s -> %d %s%n", request.method(), request.uri().getPath(), response.statusCode(), response.body());
+            return null;
+        }
+        return response.body();
+    }
+
+    private Map<Operation, Integer> parseMix() {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String pair : mix.split(",")) {
+            String[] parts = pair.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private void writeResults(List<Map<String, Object>> report) throws Exception {
+        Path dir = Paths.get(System.getProperty("benchmark.results-dir", "target/benchmark-results"));
+        Files.createDirectories(dir);
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("threads", threads);
+        results.put("seconds", seconds);
+        results.put("mix", mix);
+        results.put("dataset", System.getProperty("load.prefix", "seeded"));
+        results.put("operations", report);
+        Path file = dir.resolve("Load.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), results);
+        System.out.println("load results: " + file.toAbsolutePath());
+    }
+
+    enum Operation {
+        INVENTORY_PAGE, RECEIVE_PURCHASE_ORDER, VALUATION_SUMMARY, TURNOVER, TRENDS
+    }
+
+    private interface Call {
+        boolean run() throws Exception;
+    }
+
+    // Latencies per operation in microseconds, from 1 us to 10 minutes at 3 significant digits
+    private static final class Stats {
+        private final Map<Operation, Histogram> latencies = new LinkedHashMap<>();
+        private final Map<Operation, LongAdder> errors = new LinkedHashMap<>();
+        private final Histogram all = new ConcurrentHistogram(1, TimeUnit.MINUTES.toMicros(10), 3);
+
+        private Stats(Map<Operation, Integer> weights) {
+            for (Operation operation : weights.keySet()) {
+                latencies.put(operation, new ConcurrentHistogram(1, TimeUnit.MINUTES.toMicros(10), 3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        private void record(Operation operation, Call call) {
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = call.run();
+            } catch (Exception e) {
+                System.out.printf("%s failed: %s%n", operation, e);
+                ok = false;
+            }
+            long micros = Math.max(1, (System.nanoTime() - start) / 1_000);
+            if (ok) {
+                latencies.get(operation).recordValue(micros);
+                all.recordValue(micros);
+            } else {
+                errors.get(operation).increment();
+            }
+        }
+
+        private List<Map<String, Object>> report(double elapsedSeconds) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+                rows.add(row(entry.getKey().name(), entry.getValue(), errors.get(entry.getKey()).sum(), elapsedSeconds));
+            }
+            rows.add(row("all", all, errors.values().stream().mapToLong(LongAdder::sum).sum(), elapsedSeconds));
+            return rows;
+        }
+
+        private static Map<String, Object> row(String operation, Histogram histogram, long errors, double elapsedSeconds) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("operation", operation);
+            row.put("count", histogram.getTotalCount());
+            row.put("throughput", histogram.getTotalCount() / elapsedSeconds);
+            row.put("p50", histogram.getValueAtPercentile(50) / 1e3);
+            row.put("p90", histogram.getValueAtPercentile(90) / 1e3);
+            row.put("p99", histogram.getValueAtPercentile(99) / 1e3);
+            row.put("p99.9", histogram.getValueAtPercentile(99.9) / 1e3);
+            row.put("max", histogram.getMaxValue() / 1e3);
+            row.put("errors", errors);
+            return row;
+        }
+    }
+
+    private static final class Target {
+        private final String product;
+        private final String warehouse;
+        private final UUID warehouseId;
+
+        private Target(String product, String warehouse, UUID warehouseId) {
+            this.product = product;
+            this.warehouse = warehouse;
+            this.warehouseId = warehouseId;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.TrendGranularity;
+import com.inventory.dto.ValuationGrouping;
+import com.inventory.model.Inventory;
+import com.inventory.service.ReportingService;
+import com.inventory.service.StockAlertService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-call cost of the stock alert check and the report builders against a seeded database; see
+ * {@link BenchmarkDataset} for the data and how to size it. Reports are run for one seeded warehouse, so
+ * each covers {@code benchmark.products} rows. Results go to {@code target/benchmark-results/ServiceHotPath.json}.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ServiceHotPathBenchmarkTest {
+    private final MicroBenchmark benchmark = new MicroBenchmark("ServiceHotPath");
+
+    @Autowired
+    private StockAlertService stockAlertService;
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BenchmarkDataset dataset;
+    private Map<String, String> params;
+
+    @BeforeAll
+    void seed() {
+        dataset = new BenchmarkDataset(jdbcTemplate).seed();
+        params = Map.of("products", String.valueOf(dataset.products), "warehouses", String.valueOf(dataset.warehouses),
+            "movementsPerRow", String.valueOf(dataset.movementsPerRow));
+    }
+
+    @AfterAll
+    void cleanUp() throws Exception {
+        benchmark.writeResults();
+        dataset.delete();
+    }
+
+    @Test
+    void stockAlerts() throws Exception {
+        // The common case: stock is still low and the row already has its open alert
+        Inventory stillLow = Inventory.builder().id(dataset.inventoryId(0)).quantity(1).reorderThreshold(10).build();
+        stockAlertService.createAlertIfLowStock(stillLow);
+        benchmark.run("createAlertIfLowStock_alreadyAlerted", params, () -> {
+            stockAlertService.createAlertIfLowStock(stillLow);
+            return null;
+        });
+
+        // Crossing the threshold on every call: alternately raises an alert and resolves it
+        Long inventoryId = dataset.inventoryId(1);
+        Inventory low = Inventory.builder().id(inventoryId).quantity(1).reorderThreshold(10).build();
+        Inventory recovered = Inventory.builder().id(inventoryId).quantity(50).reorderThreshold(10).build();
+        boolean[] next = {true};
+        benchmark.run("createAlertIfLowStock_raiseOrResolve", params, () -> {
+            stockAlertService.createAlertIfLowStock(next[0] ? low : recovered);
+            next[0] = !next[0];
+            return null;
+        });
+    }
+
+    @Test
+    void reports() throws Exception {
+        UUID warehouseId = dataset.warehouseIds().get(0);
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(90);
+
+        benchmark.run("inventoryTurnover", params,
+            () -> reportingService.getInventoryTurnover(null, warehouseId, start, end));
+        benchmark.run("stockValuation", params,
+            () -> reportingService.getStockValuation(null, warehouseId));
+        benchmark.run("stockValuationSummary", params,
+            () -> reportingService.getStockValuationSummary(null, warehouseId, ValuationGrouping.CATEGORY));
+        benchmark.run("inventoryTrendsWeekly", params,
+            () -> reportingService.getInventoryTrends(null, warehouseId, start, end, TrendGranularity.WEEKLY));
+    }
+}
@@ -0,0 +1,138 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.StockTransferLineDTO;
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.service.StockTransferService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Transfer throughput under contention: threads ship batches of SKUs back and forth between two warehouses,
+ * half of them in each direction, either all over the same few hot SKUs or each over SKUs of its own. With
+ * hot SKUs every transfer waits for the row locks of the one before; the point is that they queue and never
+ * deadlock. Sizes come from {@code benchmark.transfer.*} properties. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class StockTransferContentionBenchmarkTest {
+    private static final int[] THREADS = Arrays.stream(System.getProperty("benchmark.transfer.threads", "1,4,16").split(","))
+        .mapToInt(Integer::parseInt).toArray();
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("benchmark.transfer.per-thread", 50);
+    private static final int LINES = Integer.getInteger("benchmark.transfer.lines", 5);
+
+    @Autowired
+    private StockTransferService stockTransferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String prefix = "BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private List<UUID> productIds;
+    private UUID east;
+    private UUID west;
+
+    @BeforeAll
+    void seed() {
+        int maxThreads = Arrays.stream(THREADS).max().orElse(1);
+        east = UUID.randomUUID();
+        west = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO warehouse (id, name, location) VALUES (?, ? || 'East', 'Bench'), (?, ? || 'West', 'Bench')",
+            east, prefix, west, prefix);
+        // LINES hot SKUs, then LINES of its own for every thread
+        productIds = jdbcTemplate.queryForList("INSERT INTO product (name, sku, category, price) " +
+            "SELECT ? || 'P' || p, ? || 'P' || p, ?, 1 FROM generate_series(1, ?) p RETURNING id",
+            UUID.class, prefix, prefix, prefix, LINES * (maxThreads + 1));
+        jdbcTemplate.update("INSERT INTO inventory (product_id, warehouse_id, quantity, reorder_threshold) " +
+            "SELECT p.id, w.id, 1000000, 10 FROM product p CROSS JOIN warehouse w WHERE p.category = ? AND w.id IN (?, ?)",
+            prefix, east, west);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stock_transfer WHERE source_warehouse_id IN (?, ?)", east, west);
+        for (String table : new String[] {"inventory_movement", "cost_layer"}) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE product_id IN (SELECT id FROM product WHERE category = ?)", prefix);
+        }
+        // Cascades to inventory, cost_balance and stock_alert
+        jdbcTemplate.update("DELETE FROM warehouse WHERE id IN (?, ?)", east, west);
+        jdbcTemplate.update("DELETE FROM product WHERE category = ?", prefix);
+    }
+
+    @Test
+    void oppositeTransfers_QueueWithoutDeadlocks() throws Exception {
+        // Warms up the JIT, pools and cost layer ledgers
+        run(Math.min(4, THREADS[THREADS.length - 1]), true);
+        for (int threads : THREADS) {
+            double hot = run(threads, true);
+            double spread = run(threads, false);
+            System.out.printf("stock transfers, %d threads, %d lines: hot SKUs %.0f transfers/s, own SKUs %.0f transfers/s%n",
+                threads, LINES, hot, spread);
+        }
+    }
+
+    // Transfers per second; any failed transfer, a deadlock included, fails the benchmark
+    private double run(int threads, boolean hot) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<UUID> products = hot ? productIds.subList(0, LINES) : productIds.subList(LINES * (t + 1), LINES * (t + 2));
+            boolean eastbound = t % 2 == 0;
+            Random random = new Random(t);
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    try {
+                        stockTransferService.transfer(transfer(eastbound == (i % 2 == 0), products, random));
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        pool.shutdown();
+        assertEquals(0, failed.get(), "Transfers failed under contention");
+        return threads * TRANSFERS_PER_THREAD / seconds;
+    }
+
+    private StockTransferRequestDTO transfer(boolean eastbound, List<UUID> products, Random random) {
+        List<StockTransferLineDTO> lines = new ArrayList<>(products.size());
+        for (UUID productId : products) {
+            lines.add(StockTransferLineDTO.builder().productId(productId).quantity(1 + random.nextInt(5)).build());
+        }
+        return StockTransferRequestDTO.builder()
+            .sourceWarehouseId(eastbound ? west : east)
+            .destinationWarehouseId(eastbound ? east : west)
+            .lines(lines)
+            .build();
+    }
+}
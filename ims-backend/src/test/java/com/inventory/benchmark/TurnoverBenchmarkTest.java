@@ -0,0 +1,182 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.InventoryTurnoverReportDTO;
+import com.inventory.model.InventoryMovement;
+import com.inventory.model.Product;
+import com.inventory.model.Warehouse;
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.WarehouseRepository;
+import com.inventory.service.ReportingService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The turnover report before and after it became one grouped ledger query: statements prepared per report and
+ * time per report, for the same warehouse over the same seeded ledger. The old report ran two aggregates per
+ * (product, warehouse) pair and reloaded the whole ledger for each, so it gets a smaller dataset than the other
+ * benchmarks, sized by {@code benchmark.turnover.products} and {@code benchmark.turnover.movements-per-row}.
+ * Results go to {@code target/benchmark-results/Turnover.json}. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+class TurnoverBenchmarkTest {
+    private final MicroBenchmark benchmark = new MicroBenchmark("Turnover");
+
+    @Autowired
+    private ReportingService reportingService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BenchmarkDataset dataset;
+    private Map<String, String> params;
+
+    @BeforeAll
+    void seed() {
+        dataset = new BenchmarkDataset(jdbcTemplate, Integer.getInteger("benchmark.turnover.products", 100), 2,
+            Integer.getInteger("benchmark.turnover.movements-per-row", 24)).seed();
+        params = Map.of("products", String.valueOf(dataset.products), "warehouses", String.valueOf(dataset.warehouses),
+            "movementsPerRow", String.valueOf(dataset.movementsPerRow));
+    }
+
+    @AfterAll
+    void cleanUp() throws Exception {
+        benchmark.writeResults();
+        dataset.delete();
+    }
+
+    @Test
+    void groupedQuery_VersusNestedLoop() throws Exception {
+        UUID warehouseId = dataset.warehouseIds().get(0);
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(90);
+        Callable<List<InventoryTurnoverReportDTO>> nestedLoop = () -> nestedLoopTurnover(warehouseId, start, end);
+        Callable<List<InventoryTurnoverReportDTO>> groupedQuery = () -> reportingService.getInventoryTurnover(null, warehouseId, start, end);
+
+        // Both report every product in the warehouse with the same cost of goods sold
+        assertEquals(cogsByProduct(nestedLoop.call()), cogsByProduct(groupedQuery.call()));
+        long nestedStatements = statements(nestedLoop);
+        long groupedStatements = statements(groupedQuery);
+        System.out.printf("inventory turnover, %d products: nested loop %d statements, grouped query %d statements%n",
+            dataset.products, nestedStatements, groupedStatements);
+
+        double[] scores = benchmark.compare("nestedLoop", nestedLoop, "groupedQuery", groupedQuery, params);
+        System.out.printf("inventory turnover, %d products: grouped query %.1fx faster%n", dataset.products, scores[0] / scores[1]);
+    }
+
+    private long statements(Callable<?> report) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        report.call();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Map<UUID, BigDecimal> cogsByProduct(List<InventoryTurnoverReportDTO> rows) {
+        return rows.stream()
+            .filter(row -> row.getProductName().startsWith(dataset.prefix))
+            .collect(Collectors.toMap(InventoryTurnoverReportDTO::getProductId, row -> row.getCostOfGoodsSold().stripTrailingZeros()));
+    }
+
+    // The report as it was before the grouped query, for one warehouse, its two per-pair aggregates inlined
+    private List<InventoryTurnoverReportDTO> nestedLoopTurnover(UUID warehouseId, LocalDate startDate, LocalDate endDate) {
+        List<Product> products = productRepository.findAll();
+        List<Warehouse> warehouses = warehouseRepository.findAll().stream()
+            .filter(w -> w.getId().equals(warehouseId)).collect(Collectors.toList());
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay().minusSeconds(1);
+        List<InventoryTurnoverReportDTO> result = new ArrayList<>();
+        for (Product product : products) {
+            for (Warehouse warehouse : warehouses) {
+                BigDecimal unitCost = BigDecimal.ZERO;
+                for (InventoryMovement im : inventoryMovementRepository.findAll()) {
+                    if (im.getProduct().equals(product) && im.getWarehouse().equals(warehouse)
+                        && im.getMovementType() == InventoryMovement.MovementType.OUTBOUND
+                        && !im.getMovementDate().isBefore(start) && !im.getMovementDate().isAfter(end)) {
+                        unitCost = im.getUnitCost() != null ? im.getUnitCost() : BigDecimal.ZERO;
+                        break;
+                    }
+                }
+                if (unitCost.equals(BigDecimal.ZERO) && product.getPrice() != null) {
+                    unitCost = product.getPrice();
+                }
+                // Issues are stored as negative quantities, so the old sum is negated to compare like with like
+                BigDecimal cogs = entityManager.createQuery("SELECT COALESCE(SUM(im.unitCost * im.quantity), 0) FROM InventoryMovement im " +
+                        "WHERE im.product = :product AND im.warehouse = :warehouse AND im.movementType = 'OUTBOUND' " +
+                        "AND im.movementDate BETWEEN :start AND :end", BigDecimal.class)
+                    .setParameter("product", product).setParameter("warehouse", warehouse)
+                    .setParameter("start", start).setParameter("end", end)
+                    .getSingleResult().negate();
+                int startQty = onHandAt(product, warehouse, start);
+                int endQty = onHandAt(product, warehouse, end);
+                BigDecimal avgInventory = BigDecimal.valueOf(startQty).add(BigDecimal.valueOf(endQty))
+                    .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+                BigDecimal turnoverRatio = avgInventory.compareTo(BigDecimal.ZERO) > 0
+                    ? cogs.divide(avgInventory, 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+                result.add(InventoryTurnoverReportDTO.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .warehouseId(warehouse.getId())
+                    .warehouseName(warehouse.getName())
+                    .periodStart(startDate.toString())
+                    .periodEnd(endDate.toString())
+                    .turnoverRatio(turnoverRatio)
+                    .costOfGoodsSold(cogs)
+                    .averageInventory(avgInventory)
+                    .unitCost(unitCost)
+                    .build());
+            }
+        }
+        return result;
+    }
+
+    private int onHandAt(Product product, Warehouse warehouse, LocalDateTime at) {
+        return entityManager.createQuery("SELECT COALESCE(SUM(im.quantity), 0) FROM InventoryMovement im " +
+                "WHERE im.product = :product AND im.warehouse = :warehouse AND im.movementDate <= :at", Long.class)
+            .setParameter("product", product).setParameter("warehouse", warehouse).setParameter("at", at)
+            .getSingleResult().intValue();
+    }
+}
@@ -0,0 +1,121 @@
+package com.inventory.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should load once and then serve from the cache")
+    void get_ReadThrough() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, Duration.ofMinutes(1));
+
+        assertEquals("v1", cache.get("k", this::load));
+        assertEquals("v1", cache.get("k", this::load));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used entry when full")
+    void put_OverMaxSize_EvictsLeastRecentlyUsed() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 2, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within its size and keep an entry that is read between stores")
+    void put_ManyOverMaxSize_KeepsRecentlyRead() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 100, Duration.ofMinutes(1));
+        cache.put("hot", 0);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("k" + i, i);
+            assertNotNull(cache.get("hot"));
+        }
+
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should reload entries older than the TTL")
+    void get_AfterTtl_Reloads() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, Duration.ZERO);
+
+        cache.get("k", this::load);
+        assertEquals("v2", cache.get("k", this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should expire an entry at its own TTL when that is sooner than the cache's")
+    void put_WithShorterTtl_ExpiresFirst() throws InterruptedException {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, Duration.ofMinutes(1));
+        cache.put("short", 1, Duration.ofMillis(20));
+        cache.put("long", 2, Duration.ofDays(1));
+        cache.put("expired", 3, Duration.ofMillis(-1));
+        Thread.sleep(50);
+
+        assertNull(cache.get("short"));
+        assertNotNull(cache.get("long"));
+        assertNull(cache.get("expired"));
+    }
+
+    @Test
+    @DisplayName("Should not store a value whose load overlapped an invalidation")
+    void get_LoadRacingClear_IsNotStored() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, Duration.ofMinutes(1));
+
+        assertEquals("stale", cache.get("k", () -> {
+            cache.clear();
+            return "stale";
+        }));
+        assertEquals("v1", cache.get("k", this::load));
+    }
+
+    @Test
+    @DisplayName("Should not cache lookups that found nothing")
+    void get_NullResult_IsNotStored() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, Duration.ofMinutes(1));
+
+        assertNull(cache.get("k", () -> null));
+        assertEquals(0, cache.size());
+        assertEquals("v1", cache.get("k", this::load));
+    }
+
+    @Test
+    @DisplayName("Should publish hits and misses as cache.gets")
+    void metrics_CountHitsAndMisses() {
+        BoundedTtlCache cache = new BoundedTtlCache("test", 10, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new BoundedTtlCache.Metrics(cache, Tags.empty()).bindTo(registry);
+
+        cache.get("k", this::load);
+        cache.get("k", this::load);
+        cache.get("k", this::load);
+
+        assertEquals(2, registry.get("cache.gets").tags("cache", "test", "result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "test", "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.size").tags("cache", "test").gauge().value());
+    }
+
+    private String load() {
+        return "v" + loads.incrementAndGet();
+    }
+}
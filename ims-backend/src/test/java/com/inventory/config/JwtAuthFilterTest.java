@@ -0,0 +1,75 @@
+package com.inventory.config;
+
+import com.inventory.model.User;
+import com.inventory.repository.UserRepository;
+import com.inventory.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthFilterTest {
+    private final JwtService jwtService = spy(new JwtService("a-test-secret-that-is-at-least-32-bytes-long"));
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BoundedTtlCache verifiedTokens = new BoundedTtlCache("test", 10, Duration.ofMinutes(1));
+    private final JwtAuthFilter filter = new JwtAuthFilter(jwtService, userRepository, verifiedTokens);
+    private final User user = User.builder().username("alice").password("x").role("ADMIN").build();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should verify a token once and authenticate later requests from the cache")
+    void repeatedToken_IsVerifiedOnce() throws Exception {
+        when(userRepository.findCachedByUsername("alice")).thenReturn(Optional.of(user));
+        String token = jwtService.generateToken(user);
+
+        for (int i = 0; i < 3; i++) {
+            Authentication auth = filter(token);
+            assertSame(user, auth.getPrincipal());
+            assertEquals("ROLE_ADMIN", auth.getAuthorities().iterator().next().getAuthority());
+        }
+
+        verify(jwtService, times(1)).verify(token);
+    }
+
+    @Test
+    @DisplayName("Should reject a token with a bad signature and not remember it")
+    void forgedToken_IsRejected() {
+        String token = jwtService.generateToken(user);
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> filter(forged));
+        assertEquals(0, verifiedTokens.size());
+    }
+
+    @Test
+    @DisplayName("Should leave the request anonymous when the token's user no longer exists")
+    void unknownUser_IsNotAuthenticated() throws Exception {
+        when(userRepository.findCachedByUsername("alice")).thenReturn(Optional.empty());
+
+        assertNull(filter(jwtService.generateToken(user)));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setServletPath("/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
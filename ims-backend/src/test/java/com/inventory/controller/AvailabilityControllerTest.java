@@ -0,0 +1,72 @@
+package com.inventory.controller;
+
+import com.inventory.dto.AvailabilityResponseDTO;
+import com.inventory.dto.WarehouseStockDTO;
+import com.inventory.service.AvailabilityService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(AvailabilityController.class)
+class AvailabilityControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private AvailabilityService availabilityService;
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    @DisplayName("GET /api/availability?sku - one entry per known SKU")
+    void getBySkus_Success() throws Exception {
+        UUID warehouseId = UUID.randomUUID();
+        AvailabilityResponseDTO availability = AvailabilityResponseDTO.builder()
+            .productId(UUID.randomUUID())
+            .sku("SKU-1")
+            .totalQuantity(12)
+            .warehouses(Collections.singletonList(new WarehouseStockDTO(warehouseId, 12)))
+            .build();
+        Mockito.when(availabilityService.getBySkus(Arrays.asList("SKU-1", "SKU-2"), null))
+            .thenReturn(Collections.singletonList(availability));
+        mockMvc.perform(get("/api/availability").param("sku", "SKU-1,SKU-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].sku").value("SKU-1"))
+                .andExpect(jsonPath("$[0].totalQuantity").value(12))
+                .andExpect(jsonPath("$[0].warehouses[0].warehouseId").value(warehouseId.toString()));
+    }
+
+    @Test
+    @DisplayName("GET /api/availability?warehouseId - everything stocked there")
+    void getByWarehouse_Success() throws Exception {
+        UUID warehouseId = UUID.randomUUID();
+        Mockito.when(availabilityService.getByWarehouse(warehouseId)).thenReturn(Collections.emptyList());
+        mockMvc.perform(get("/api/availability").param("warehouseId", warehouseId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        Mockito.verify(availabilityService, Mockito.never()).getBySkus(any(), isNull());
+    }
+
+    @Test
+    @DisplayName("GET /api/availability - neither SKU nor warehouse")
+    void get_NoFilter_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/availability"))
+                .andExpect(status().isBadRequest());
+    }
+}
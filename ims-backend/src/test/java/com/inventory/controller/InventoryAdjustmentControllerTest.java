@@ -0,0 +1,74 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.InventoryAdjustmentBatchRequestDTO;
+import com.inventory.dto.InventoryAdjustmentErrorDTO;
+import com.inventory.dto.InventoryAdjustmentLineDTO;
+import com.inventory.dto.InventoryAdjustmentResultDTO;
+import com.inventory.service.InventoryAdjustmentService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(InventoryAdjustmentController.class)
+class InventoryAdjustmentControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private InventoryAdjustmentService inventoryAdjustmentService;
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    @DisplayName("POST /api/inventory/adjustments - returns counts and per-line errors")
+    void adjust_Success() throws Exception {
+        InventoryAdjustmentBatchRequestDTO request = InventoryAdjustmentBatchRequestDTO.builder()
+                .reference("COUNT-1")
+                .lines(Arrays.asList(
+                        InventoryAdjustmentLineDTO.builder().sku("SKU-1").warehouseName("Main").quantity(4).build(),
+                        InventoryAdjustmentLineDTO.builder().sku("SKU-X").warehouseName("Main").quantity(1).build()))
+                .build();
+        InventoryAdjustmentResultDTO result = InventoryAdjustmentResultDTO.builder()
+                .totalLines(2)
+                .adjusted(1)
+                .failed(1)
+                .errors(Collections.singletonList(InventoryAdjustmentErrorDTO.builder().line(2).message("Product not found: SKU-X").build()))
+                .build();
+        Mockito.when(inventoryAdjustmentService.adjust(any(InventoryAdjustmentBatchRequestDTO.class))).thenReturn(result);
+        mockMvc.perform(post("/api/inventory/adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.adjusted").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/inventory/adjustments - empty batch is rejected")
+    void adjust_ValidationError() throws Exception {
+        InventoryAdjustmentBatchRequestDTO request = InventoryAdjustmentBatchRequestDTO.builder()
+                .lines(Collections.emptyList())
+                .build();
+        mockMvc.perform(post("/api/inventory/adjustments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,8 +1,10 @@
 package com.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.InventoryRequestDTO;
 import com.inventory.dto.InventoryResponseDTO;
+import com.inventory.dto.InventorySort;
 import com.inventory.service.InventoryService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -78,10 +81,13 @@ class InventoryControllerTest {
                 .quantity(10)
                 .reorderThreshold(5)
                 .build();
-        Mockito.when(inventoryService.getAll()).thenReturn(List.of(response));
-        mockMvc.perform(get("/api/inventory"))
+        Mockito.when(inventoryService.getAll(null, response.getWarehouseId(), null, InventorySort.QUANTITY, Sort.Direction.ASC, null, 50))
+                .thenReturn(new CursorPageDTO<>(List.of(response), null));
+        mockMvc.perform(get("/api/inventory")
+                        .param("warehouseId", response.getWarehouseId().toString())
+                        .param("sort", "QUANTITY"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L));
+                .andExpect(jsonPath("$.items[0].id").value(1L));
     }
 
     @Test
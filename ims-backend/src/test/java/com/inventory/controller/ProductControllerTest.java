@@ -1,8 +1,10 @@
 package com.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.ProductRequestDTO;
 import com.inventory.dto.ProductResponseDTO;
+import com.inventory.dto.ProductSort;
 import com.inventory.service.ProductService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -87,10 +90,28 @@ class ProductControllerTest {
                 .price(BigDecimal.valueOf(100.0))
                 .description("A test product")
                 .build();
-        Mockito.when(productService.getAll()).thenReturn(List.of(response));
+        Mockito.when(productService.getAll(null, ProductSort.NAME, Sort.Direction.ASC, null, 50))
+                .thenReturn(new CursorPageDTO<>(List.of(response), "next"));
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].name").value("Test Product"));
+                .andExpect(jsonPath("$.items[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("GET /api/products - filter, sort and cursor are passed through")
+    void getAllProducts_WithParameters() throws Exception {
+        Mockito.when(productService.getAll("Tools", ProductSort.PRICE, Sort.Direction.DESC, "abc", 10))
+                .thenReturn(new CursorPageDTO<>(List.of(), null));
+        mockMvc.perform(get("/api/products")
+                        .param("category", "Tools")
+                        .param("sort", "PRICE")
+                        .param("direction", "DESC")
+                        .param("cursor", "abc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
     @Test
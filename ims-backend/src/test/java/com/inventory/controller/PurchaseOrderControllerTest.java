@@ -1,9 +1,12 @@
 package com.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.PurchaseOrderRequestDTO;
 import com.inventory.dto.PurchaseOrderResponseDTO;
 import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderSort;
+import com.inventory.model.PurchaseOrder;
 import com.inventory.service.PurchaseOrderService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -75,10 +79,12 @@ class PurchaseOrderControllerTest {
         PurchaseOrderResponseDTO response = new PurchaseOrderResponseDTO();
         response.setId(UUID.randomUUID());
         response.setSupplierName("Supplier");
-        Mockito.when(purchaseOrderService.getAllPurchaseOrders()).thenReturn(List.of(response));
-        mockMvc.perform(get("/api/purchase-orders"))
+        Mockito.when(purchaseOrderService.getAllPurchaseOrders(PurchaseOrder.Status.PENDING, null,
+                        PurchaseOrderSort.ORDER_DATE, Sort.Direction.DESC, null, 50))
+                .thenReturn(new CursorPageDTO<>(List.of(response), null));
+        mockMvc.perform(get("/api/purchase-orders").param("status", "PENDING"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].supplierName").value("Supplier"));
+                .andExpect(jsonPath("$.items[0].supplierName").value("Supplier"));
     }
 
     @Test
@@ -0,0 +1,95 @@
+package com.inventory.controller;
+
+import com.inventory.dto.ExportFormat;
+import com.inventory.dto.ReportJobResponseDTO;
+import com.inventory.model.ReportJob;
+import com.inventory.service.ReportJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(ReportJobController.class)
+class ReportJobControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ReportJobService reportJobService;
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    private ReportJobResponseDTO job(UUID id, ReportJob.Status status) {
+        return ReportJobResponseDTO.builder().id(id).reportType(ReportJob.ReportType.TRENDS)
+                .status(status).format(ExportFormat.NDJSON).rowsWritten(0L).build();
+    }
+
+    @Test
+    @DisplayName("POST /api/reports/jobs - accepted")
+    void submit_Accepted() throws Exception {
+        UUID id = UUID.randomUUID();
+        Mockito.when(reportJobService.submit(any(), any())).thenReturn(job(id, ReportJob.Status.QUEUED));
+        mockMvc.perform(post("/api/reports/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reportType\":\"TRENDS\",\"startDate\":\"2024-01-01\",\"endDate\":\"2024-01-31\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/reports/jobs/" + id))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("POST /api/reports/jobs - backlog full")
+    void submit_Rejected() throws Exception {
+        Mockito.when(reportJobService.submit(any(), any())).thenThrow(new TaskRejectedException("Too many TRENDS report jobs queued"));
+        mockMvc.perform(post("/api/reports/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reportType\":\"TRENDS\",\"startDate\":\"2024-01-01\",\"endDate\":\"2024-01-31\"}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("GET /api/reports/jobs/{id}/result - conflict while running")
+    void getResult_NotReady() throws Exception {
+        UUID id = UUID.randomUUID();
+        Mockito.when(reportJobService.getJob(id)).thenReturn(job(id, ReportJob.Status.RUNNING));
+        mockMvc.perform(get("/api/reports/jobs/" + id + "/result"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("GET /api/reports/jobs/{id}/result - inflates for clients without gzip")
+    void getResult_Completed() throws Exception {
+        UUID id = UUID.randomUUID();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write("{\"productName\":\"P\"}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Mockito.when(reportJobService.getJob(id)).thenReturn(job(id, ReportJob.Status.COMPLETED));
+        Mockito.when(reportJobService.openResult(id)).thenReturn(new ByteArrayInputStream(bytes.toByteArray()));
+        MvcResult result = mockMvc.perform(get("/api/reports/jobs/" + id + "/result"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string("{\"productName\":\"P\"}\n"));
+    }
+}
@@ -2,7 +2,11 @@ package com.inventory.controller;
 
 import com.inventory.dto.InventoryTurnoverReportDTO;
 import com.inventory.dto.StockValuationReportDTO;
+import com.inventory.dto.StockValuationGroupDTO;
+import com.inventory.dto.StockValuationSummaryDTO;
+import com.inventory.dto.ValuationGrouping;
 import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.TrendGranularity;
 import com.inventory.service.ReportingService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,13 +17,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -74,6 +83,23 @@ class ReportingControllerTest {
                 .andExpect(jsonPath("$[0].productName").value("P"));
     }
 
+    @Test
+    @DisplayName("GET /api/reports/stock-valuation/summary - success")
+    void getStockValuationSummary_Success() throws Exception {
+        StockValuationSummaryDTO dto = StockValuationSummaryDTO.builder()
+                .groupBy(ValuationGrouping.CATEGORY)
+                .groups(List.of(StockValuationGroupDTO.builder().key("C").name("C").quantityOnHand(BigDecimal.TEN).totalValue(BigDecimal.TEN).build()))
+                .totalQuantity(BigDecimal.TEN)
+                .totalValue(BigDecimal.TEN)
+                .build();
+        Mockito.when(reportingService.getStockValuationSummary(any(), any(), eq(ValuationGrouping.CATEGORY))).thenReturn(dto);
+        mockMvc.perform(get("/api/reports/stock-valuation/summary")
+                .param("groupBy", "CATEGORY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups[0].name").value("C"))
+                .andExpect(jsonPath("$.totalValue").value(10));
+    }
+
     @Test
     @DisplayName("GET /api/reports/inventory-trends - success")
     void getInventoryTrends_Success() throws Exception {
@@ -85,11 +111,84 @@ class ReportingControllerTest {
                 .date(LocalDate.now().toString())
                 .quantityOnHand(BigDecimal.TEN)
                 .build();
-        Mockito.when(reportingService.getInventoryTrends(any(), any(), any(), any())).thenReturn(List.of(dto));
+        Mockito.when(reportingService.getInventoryTrends(any(), any(), any(), any(), eq(TrendGranularity.DAILY))).thenReturn(List.of(dto));
         mockMvc.perform(get("/api/reports/inventory-trends")
                 .param("startDate", LocalDate.now().minusDays(7).toString())
                 .param("endDate", LocalDate.now().toString()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].productName").value("P"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/reports/inventory-trends - weekly granularity")
+    void getInventoryTrends_Weekly() throws Exception {
+        InventoryTrendReportDTO dto = InventoryTrendReportDTO.builder()
+                .productName("P")
+                .warehouseName("W")
+                .date(LocalDate.now().toString())
+                .quantityOnHand(BigDecimal.TEN)
+                .build();
+        Mockito.when(reportingService.getInventoryTrends(any(), any(), any(), any(), eq(TrendGranularity.WEEKLY))).thenReturn(List.of(dto));
+        mockMvc.perform(get("/api/reports/inventory-trends")
+                .param("startDate", LocalDate.now().minusDays(30).toString())
+                .param("endDate", LocalDate.now().toString())
+                .param("granularity", "WEEKLY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productName").value("P"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reports/inventory-trends/export - streams CSV")
+    void exportInventoryTrends_Csv() throws Exception {
+        InventoryTrendReportDTO dto = InventoryTrendReportDTO.builder()
+                .productId(1L)
+                .productName("P")
+                .warehouseId(2L)
+                .warehouseName("W")
+                .date("2024-01-01")
+                .quantityOnHand(BigDecimal.TEN)
+                .build();
+        Mockito.doAnswer(inv -> {
+            Consumer<InventoryTrendReportDTO> sink = inv.getArgument(5);
+            sink.accept(dto);
+            return null;
+        }).when(reportingService).streamInventoryTrends(any(), any(), any(), any(), eq(TrendGranularity.DAILY), any());
+        MvcResult result = mockMvc.perform(get("/api/reports/inventory-trends/export")
+                .param("startDate", "2024-01-01")
+                .param("endDate", "2024-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"inventory-trends.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("productId,productName,warehouseId,warehouseName,date,quantityOnHand\n1,P,2,W,2024-01-01,10\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reports/stock-valuation/export - streams NDJSON")
+    void exportStockValuation_Ndjson() throws Exception {
+        StockValuationReportDTO dto = StockValuationReportDTO.builder()
+                .productName("P")
+                .warehouseName("W")
+                .totalValue(BigDecimal.TEN)
+                .build();
+        Mockito.doAnswer(inv -> {
+            Consumer<StockValuationReportDTO> sink = inv.getArgument(2);
+            sink.accept(dto);
+            sink.accept(dto);
+            return null;
+        }).when(reportingService).streamStockValuation(any(), any(), any());
+        MvcResult result = mockMvc.perform(get("/api/reports/stock-valuation/export").param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"productName\":\"P\""));
+        assertTrue(body.endsWith("\n"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.inventory.controller;
 
+import com.inventory.service.StockAlertBroadcaster;
 import com.inventory.service.StockAlertService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,8 @@ class StockAlertControllerTest {
     @MockBean
     private StockAlertService stockAlertService;
     @MockBean
+    private StockAlertBroadcaster stockAlertBroadcaster;
+    @MockBean
     private JpaMetamodelMappingContext jpaMetamodelMappingContext;
 
     @Test
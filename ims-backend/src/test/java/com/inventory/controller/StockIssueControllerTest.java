@@ -0,0 +1,127 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.StockIssueBatchRequestDTO;
+import com.inventory.dto.StockIssueRequestDTO;
+import com.inventory.dto.StockIssueResponseDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.service.StockIssueService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(StockIssueController.class)
+class StockIssueControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private StockIssueService stockIssueService;
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    @DisplayName("POST /api/stock-issues - success")
+    void issue_Success() throws Exception {
+        StockIssueRequestDTO request = StockIssueRequestDTO.builder()
+                .productId(UUID.randomUUID())
+                .warehouseId(UUID.randomUUID())
+                .quantity(3)
+                .build();
+        StockIssueResponseDTO response = StockIssueResponseDTO.builder()
+                .inventoryId(1L)
+                .quantity(3)
+                .remainingQuantity(7)
+                .build();
+        Mockito.when(stockIssueService.issue(any(StockIssueRequestDTO.class))).thenReturn(response);
+        mockMvc.perform(post("/api/stock-issues")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.remainingQuantity").value(7));
+    }
+
+    @Test
+    @DisplayName("POST /api/stock-issues - zero quantity is rejected")
+    void issue_ValidationError() throws Exception {
+        StockIssueRequestDTO request = StockIssueRequestDTO.builder()
+                .productId(UUID.randomUUID())
+                .warehouseId(UUID.randomUUID())
+                .quantity(0)
+                .build();
+        mockMvc.perform(post("/api/stock-issues")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/stock-issues - insufficient stock")
+    void issue_InsufficientStock() throws Exception {
+        UUID productId = UUID.randomUUID();
+        UUID warehouseId = UUID.randomUUID();
+        StockIssueRequestDTO request = StockIssueRequestDTO.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(5)
+                .build();
+        Mockito.when(stockIssueService.issue(any(StockIssueRequestDTO.class)))
+                .thenThrow(new InsufficientStockException(productId, warehouseId, 5, 2));
+        mockMvc.perform(post("/api/stock-issues")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /api/stock-issues/batch - success")
+    void issueBatch_Success() throws Exception {
+        StockIssueBatchRequestDTO request = StockIssueBatchRequestDTO.builder()
+                .reference("SO-1")
+                .lines(Collections.singletonList(StockIssueRequestDTO.builder()
+                        .productId(UUID.randomUUID())
+                        .warehouseId(UUID.randomUUID())
+                        .quantity(2)
+                        .build()))
+                .build();
+        List<StockIssueResponseDTO> response = Collections.singletonList(StockIssueResponseDTO.builder()
+                .quantity(2)
+                .reference("SO-1")
+                .build());
+        Mockito.when(stockIssueService.issueBatch(any(StockIssueBatchRequestDTO.class))).thenReturn(response);
+        mockMvc.perform(post("/api/stock-issues/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].reference").value("SO-1"));
+    }
+
+    @Test
+    @DisplayName("POST /api/stock-issues/batch - empty batch is rejected")
+    void issueBatch_ValidationError() throws Exception {
+        StockIssueBatchRequestDTO request = StockIssueBatchRequestDTO.builder()
+                .lines(Collections.emptyList())
+                .build();
+        mockMvc.perform(post("/api/stock-issues/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,92 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.StockTransferLineDTO;
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.dto.StockTransferResponseDTO;
+import com.inventory.service.StockTransferService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc(addFilters = false)
+@WebMvcTest(StockTransferController.class)
+class StockTransferControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private StockTransferService stockTransferService;
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @Test
+    @DisplayName("POST /api/transfers - created")
+    void transfer_Success() throws Exception {
+        UUID id = UUID.randomUUID();
+        Mockito.when(stockTransferService.transfer(any(StockTransferRequestDTO.class)))
+            .thenReturn(StockTransferResponseDTO.builder().id(id).status("IN_TRANSIT").lines(Collections.emptyList()).build());
+        StockTransferRequestDTO request = StockTransferRequestDTO.builder()
+            .sourceWarehouseId(UUID.randomUUID())
+            .destinationWarehouseId(UUID.randomUUID())
+            .inTransit(true)
+            .lines(Collections.singletonList(StockTransferLineDTO.builder().productId(UUID.randomUUID()).quantity(3).build()))
+            .build();
+        mockMvc.perform(post("/api/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("IN_TRANSIT"));
+    }
+
+    @Test
+    @DisplayName("POST /api/transfers - no lines")
+    void transfer_NoLines_BadRequest() throws Exception {
+        StockTransferRequestDTO request = StockTransferRequestDTO.builder()
+            .sourceWarehouseId(UUID.randomUUID())
+            .destinationWarehouseId(UUID.randomUUID())
+            .lines(Collections.emptyList())
+            .build();
+        mockMvc.perform(post("/api/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(stockTransferService);
+    }
+
+    @Test
+    @DisplayName("POST /api/transfers/{id}/receive - success")
+    void receive_Success() throws Exception {
+        UUID id = UUID.randomUUID();
+        Mockito.when(stockTransferService.receive(id))
+            .thenReturn(StockTransferResponseDTO.builder().id(id).status("RECEIVED").lines(Collections.emptyList()).build());
+        mockMvc.perform(post("/api/transfers/" + id + "/receive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RECEIVED"));
+    }
+
+    @Test
+    @DisplayName("GET /api/transfers/in-transit - success")
+    void getInTransit_Success() throws Exception {
+        Mockito.when(stockTransferService.getInTransit()).thenReturn(Collections.emptyList());
+        mockMvc.perform(get("/api/transfers/in-transit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
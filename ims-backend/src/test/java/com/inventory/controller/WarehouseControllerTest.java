@@ -1,8 +1,10 @@
 package com.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.WarehouseRequestDTO;
 import com.inventory.dto.WarehouseResponseDTO;
+import com.inventory.dto.WarehouseSort;
 import com.inventory.service.WarehouseService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -73,10 +76,11 @@ class WarehouseControllerTest {
                 .name("Main WH")
                 .location("Loc1")
                 .build();
-        Mockito.when(warehouseService.getAll()).thenReturn(List.of(response));
+        Mockito.when(warehouseService.getAll(WarehouseSort.NAME, Sort.Direction.ASC, null, 50))
+                .thenReturn(new CursorPageDTO<>(List.of(response), null));
         mockMvc.perform(get("/api/warehouses"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].name").value("Main WH"));
+                .andExpect(jsonPath("$.items[0].name").value("Main WH"));
     }
 
     @Test
@@ -0,0 +1,75 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostLayerLedgerTest {
+    private final List<String> writes = new ArrayList<>();
+    private final CostLayerLedger.LayerWriter writer = (id, remaining) -> writes.add(id + "=" + remaining);
+
+    @Test
+    @DisplayName("Should draw layers down oldest first across layer boundaries")
+    void drawDown_Fifo() {
+        CostLayerLedger ledger = new CostLayerLedger();
+        ledger.append(1, 5, 100);
+        ledger.append(2, 5, 200);
+
+        assertEquals(3 * 100, ledger.drawDown(3, writer));
+        assertEquals(2 * 100 + 4 * 200, ledger.drawDown(6, writer));
+
+        assertEquals(Arrays.asList("1=2", "1=0", "2=1"), writes);
+        assertEquals(1, ledger.getOpenQuantity());
+        assertEquals(200, ledger.getOpenValueCents());
+        assertEquals(1, ledger.getOpenLayers());
+    }
+
+    @Test
+    @DisplayName("Should refuse to draw more than the layers hold")
+    void drawDown_MoreThanOpen_Throws() {
+        CostLayerLedger ledger = new CostLayerLedger();
+        ledger.append(1, 2, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.drawDown(3, writer));
+        assertTrue(writes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep totals right while compacting and growing over many receipts and picks")
+    void appendAndDrawDown_Churn() {
+        CostLayerLedger ledger = new CostLayerLedger();
+        long expectedValue = 0;
+        long nextToDraw = 0;
+        for (int i = 0; i < 10_000; i++) {
+            ledger.append(i, 2, i);
+            expectedValue += 2L * i;
+            if (i % 3 != 0) {
+                // Each layer holds two units at cost == id, drained strictly in id order
+                expectedValue -= nextToDraw / 2;
+                assertEquals(nextToDraw / 2, ledger.drawDown(1, writer));
+                nextToDraw++;
+            }
+        }
+        assertEquals(20_000 - nextToDraw, ledger.getOpenQuantity());
+        assertEquals(expectedValue, ledger.getOpenValueCents());
+    }
+
+    @Test
+    @DisplayName("Should price a draw without taking anything")
+    void peek_MatchesDrawDown() {
+        CostLayerLedger ledger = new CostLayerLedger();
+        ledger.append(1, 5, 100);
+        ledger.append(2, 5, 200);
+
+        assertEquals(5 * 100 + 2 * 200, ledger.peek(7));
+        assertEquals(10, ledger.getOpenQuantity());
+        assertTrue(writes.isEmpty());
+        assertEquals(ledger.peek(7), ledger.drawDown(7, writer));
+        assertThrows(IllegalArgumentException.class, () -> ledger.peek(4));
+    }
+}
@@ -0,0 +1,261 @@
+package com.inventory.service;
+
+import com.inventory.model.CostLayer;
+import com.inventory.repository.CostBalanceRepository;
+import com.inventory.repository.CostLayerBulkRepository;
+import com.inventory.repository.CostLayerRepository;
+import com.inventory.repository.projection.CostBalance;
+import com.inventory.repository.projection.CountedStock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CostLayerServiceImplTest {
+    @Mock CostLayerRepository costLayerRepository;
+    @Mock CostLayerBulkRepository costLayerBulkRepository;
+    @Mock CostBalanceRepository costBalanceRepository;
+
+    private final UUID productId = UUID.randomUUID();
+    private final UUID warehouseId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("FIFO should cost an issue at the layers it consumes and write the drawn-down layers through")
+    void issue_Fifo() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        openLayers(7L, layer(1L, 4, "1.00"), layer(2L, 10, "2.00"));
+        when(costBalanceRepository.claim(productId, warehouseId, 7L, -6, new BigDecimal("-8.00"))).thenReturn(8L);
+
+        BigDecimal unitCost = service.issue(productId, warehouseId, 6, new BigDecimal("9.99"));
+
+        // 4 @ 1.00 + 2 @ 2.00 over 6 units
+        assertEquals(new BigDecimal("1.33"), unitCost);
+        verify(costLayerRepository).updateRemaining(1L, 0);
+        verify(costLayerRepository).updateRemaining(2L, 8);
+    }
+
+    @Test
+    @DisplayName("Should keep a pair's layers across transactions while its balance version is unchanged")
+    void issue_CachedLedger_LoadsOnce() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        openLayers(7L, layer(1L, 10, "1.00"));
+        when(costBalanceRepository.claim(eq(productId), eq(warehouseId), anyLong(), anyLong(), any()))
+            .thenAnswer(inv -> inv.<Long>getArgument(2) + 1);
+
+        service.issue(productId, warehouseId, 2, BigDecimal.ZERO);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        service.issue(productId, warehouseId, 3, BigDecimal.ZERO);
+
+        verify(costLayerBulkRepository, times(1)).findOpen(anyList(), anyList());
+        verify(costBalanceRepository).claim(productId, warehouseId, 7L, -2, new BigDecimal("-2.00"));
+        verify(costBalanceRepository).claim(productId, warehouseId, 8L, -3, new BigDecimal("-3.00"));
+        verify(costLayerRepository).updateRemaining(1L, 8);
+        verify(costLayerRepository).updateRemaining(1L, 5);
+    }
+
+    @Test
+    @DisplayName("Should load the layers again when the balance moved on since they were cached")
+    void issue_StaleVersion_Reloads() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        when(costLayerBulkRepository.findOpen(anyList(), anyList()))
+            .thenReturn(Collections.singletonList(layer(1L, 10, "1.00")))
+            // Another instance drew the layer down to 4 in between
+            .thenReturn(Collections.singletonList(layer(1L, 4, "1.00")));
+        when(costBalanceRepository.find(anyList(), anyList()))
+            .thenReturn(Collections.singletonList(balance(7L)))
+            .thenReturn(Collections.singletonList(balance(12L)));
+        when(costBalanceRepository.claim(productId, warehouseId, 7L, -2, new BigDecimal("-2.00"))).thenReturn(8L);
+        when(costBalanceRepository.claim(productId, warehouseId, 8L, -3, new BigDecimal("-3.00"))).thenReturn(null);
+        when(costBalanceRepository.claim(productId, warehouseId, 12L, -3, new BigDecimal("-3.00"))).thenReturn(13L);
+
+        service.issue(productId, warehouseId, 2, BigDecimal.ZERO);
+        service.issue(productId, warehouseId, 3, BigDecimal.ZERO);
+
+        verify(costLayerBulkRepository, times(2)).findOpen(anyList(), anyList());
+        verify(costLayerRepository).updateRemaining(1L, 8);
+        verify(costLayerRepository).updateRemaining(1L, 1);
+    }
+
+    @Test
+    @DisplayName("Should give a pair whose layers have no balance row yet one holding what they add up to")
+    void issue_NoBalance_CreatesOne() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        when(costLayerBulkRepository.findOpen(anyList(), anyList())).thenReturn(Collections.singletonList(layer(1L, 10, "1.50")));
+        when(costBalanceRepository.add(anyList(), anyList(), anyList(), anyList())).thenReturn(Collections.singletonList(balance(3L)));
+        when(costBalanceRepository.claim(productId, warehouseId, 3L, -1, new BigDecimal("-1.50"))).thenReturn(4L);
+
+        assertEquals(new BigDecimal("1.50"), service.issue(productId, warehouseId, 1, BigDecimal.ZERO));
+        verify(costBalanceRepository).add(Collections.singletonList(productId), Collections.singletonList(warehouseId),
+            Collections.singletonList(10L), Collections.singletonList(new BigDecimal("15.00")));
+    }
+
+    @Test
+    @DisplayName("A receipt into a current ledger should append to it, and one into a stale ledger only add to the balance")
+    void receive_Fifo() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        openLayers(7L);
+        when(costBalanceRepository.claim(eq(productId), eq(warehouseId), anyLong(), anyLong(), any()))
+            .thenReturn(8L, 9L, null);
+        when(costLayerRepository.save(any(CostLayer.class))).thenAnswer(inv -> withId(inv.getArgument(0), 5L));
+        service.issue(productId, warehouseId, 1, new BigDecimal("2.00"));
+
+        service.receive(productId, warehouseId, 3, new BigDecimal("1.25"), "PO-1");
+        service.receive(productId, warehouseId, 2, new BigDecimal("1.25"), "PO-2");
+
+        verify(costBalanceRepository).claim(productId, warehouseId, 8L, 3, new BigDecimal("3.75"));
+        verify(costBalanceRepository).claim(productId, warehouseId, 9L, 2, new BigDecimal("2.50"));
+        verify(costBalanceRepository).add(Collections.singletonList(productId), Collections.singletonList(warehouseId),
+            Collections.singletonList(2L), Collections.singletonList(new BigDecimal("2.50")));
+    }
+
+    @Test
+    @DisplayName("Weighted average should cost an issue at the balance's average and open no layers")
+    void issue_WeightedAverage() {
+        CostLayerServiceImpl service = service(CostingMethod.WEIGHTED_AVERAGE);
+        when(costBalanceRepository.drawAverage(productId, warehouseId, 2))
+            .thenReturn(CostBalance.builder().quantity(2L).value(new BigDecimal("5.00")).build());
+
+        assertEquals(new BigDecimal("2.50"), service.issue(productId, warehouseId, 2, BigDecimal.ZERO));
+        service.receive(productId, warehouseId, 4, new BigDecimal("3.00"), "PO-1");
+
+        verify(costBalanceRepository).add(Collections.singletonList(productId), Collections.singletonList(warehouseId),
+            Collections.singletonList(4L), Collections.singletonList(new BigDecimal("12.00")));
+        verifyNoInteractions(costLayerRepository, costLayerBulkRepository);
+    }
+
+    @Test
+    @DisplayName("Should cost units beyond what is open at the fallback price")
+    void issue_BeyondLayers_UsesFallback() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        openLayers(7L, layer(1L, 2, "1.00"));
+        when(costBalanceRepository.claim(eq(productId), eq(warehouseId), eq(7L), eq(-2L), any())).thenReturn(8L);
+
+        assertEquals(new BigDecimal("2.00"), service.issue(productId, warehouseId, 4, new BigDecimal("3.00")));
+        assertEquals(new BigDecimal("3.00"), service(CostingMethod.WEIGHTED_AVERAGE).issue(productId, warehouseId, 1, new BigDecimal("3.00")));
+    }
+
+    @Test
+    @DisplayName("Should cost a chunk of counts with one balance read, one load, one layer insert and update, one balance write")
+    void adjustAll_SetBased() {
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+        UUID other = UUID.randomUUID();
+        when(costBalanceRepository.find(anyList(), anyList())).thenReturn(Arrays.asList(
+            balance(7L), CostBalance.builder().productId(other).warehouseId(warehouseId).version(3L).build()));
+        when(costLayerBulkRepository.findOpen(anyList(), anyList())).thenReturn(Arrays.asList(
+            layer(1L, 4, "1.00"), layer(2L, 10, "2.00")));
+        when(costLayerBulkRepository.insertLayers(anyList(), anyList(), anyList(), anyList(), anyString())).thenReturn(
+            Collections.singletonList(CostLayer.builder().id(3L).productId(other).warehouseId(warehouseId)
+                .quantityRemaining(4).unitCost(new BigDecimal("1.50")).build()));
+
+        service.adjustAll(Arrays.asList(
+            counted(productId, 14, 8),
+            counted(other, 5, 9),
+            counted(UUID.randomUUID(), 3, 3)), "COUNT-1");
+
+        verify(costBalanceRepository).find(Arrays.asList(productId, other), Arrays.asList(warehouseId, warehouseId));
+        verify(costLayerBulkRepository).findOpen(Collections.singletonList(productId), Collections.singletonList(warehouseId));
+        verify(costLayerBulkRepository).insertLayers(Collections.singletonList(other), Collections.singletonList(warehouseId),
+            Collections.singletonList(4), Collections.singletonList(null), "COUNT-1");
+        verify(costLayerBulkRepository).updateRemaining(Arrays.asList(1L, 2L), Arrays.asList(0, 8));
+        verify(costBalanceRepository).add(
+            argThat(products -> products.size() == 2), anyList(),
+            argThat(quantities -> quantities.containsAll(Arrays.asList(-6L, 4L))),
+            argThat(values -> values.contains(new BigDecimal("-8.00")) && values.contains(new BigDecimal("6.00"))));
+        verify(costLayerRepository, never()).updateRemaining(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Weighted average should take lost units at each pair's average and add found ones at the product price")
+    void adjustAll_WeightedAverage() {
+        CostLayerServiceImpl service = service(CostingMethod.WEIGHTED_AVERAGE);
+        UUID other = UUID.randomUUID();
+        when(costBalanceRepository.find(anyList(), anyList())).thenReturn(Collections.singletonList(
+            CostBalance.builder().productId(productId).warehouseId(warehouseId).quantity(3L).value(new BigDecimal("10.00")).version(7L).build()));
+
+        service.adjustAll(Arrays.asList(counted(productId, 3, 2), counted(other, 0, 5)), "COUNT-1");
+
+        verify(costBalanceRepository).add(
+            argThat(products -> products.size() == 2), anyList(),
+            argThat(quantities -> quantities.containsAll(Arrays.asList(-1L, 5L))),
+            argThat(values -> values.contains(new BigDecimal("-3.33")) && values.contains(null)));
+        verifyNoInteractions(costLayerRepository, costLayerBulkRepository);
+    }
+
+    @Test
+    @DisplayName("Should refuse to change layers outside a transaction")
+    void issue_NoTransaction_Throws() {
+        TransactionSynchronizationManager.clearSynchronization();
+        CostLayerServiceImpl service = service(CostingMethod.FIFO);
+
+        assertThrows(IllegalStateException.class, () -> service.issue(productId, warehouseId, 1, BigDecimal.ONE));
+    }
+
+    private CostLayerServiceImpl service(CostingMethod method) {
+        return new CostLayerServiceImpl(costLayerRepository, costLayerBulkRepository, costBalanceRepository, method,
+            1000, Duration.ofHours(1));
+    }
+
+    private void openLayers(long version, CostLayer... layers) {
+        when(costLayerBulkRepository.findOpen(Collections.singletonList(productId), Collections.singletonList(warehouseId)))
+            .thenReturn(Arrays.asList(layers));
+        when(costBalanceRepository.find(Collections.singletonList(productId), Collections.singletonList(warehouseId)))
+            .thenReturn(Collections.singletonList(balance(version)));
+    }
+
+    private CostBalance balance(long version) {
+        return CostBalance.builder().productId(productId).warehouseId(warehouseId).version(version).build();
+    }
+
+    private static CostLayer withId(CostLayer layer, long id) {
+        layer.setId(id);
+        return layer;
+    }
+
+    private CountedStock counted(UUID product, int previousQuantity, int quantity) {
+        return CountedStock.builder()
+            .productId(product)
+            .warehouseId(warehouseId)
+            .previousQuantity(previousQuantity)
+            .quantity(quantity)
+            .build();
+    }
+
+    private CostLayer layer(long id, int remaining, String unitCost) {
+        return CostLayer.builder()
+            .id(id)
+            .productId(productId)
+            .warehouseId(warehouseId)
+            .quantityReceived(remaining)
+            .quantityRemaining(remaining)
+            .unitCost(new BigDecimal(unitCost))
+            .build();
+    }
+}
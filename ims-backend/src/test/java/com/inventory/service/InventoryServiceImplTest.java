@@ -2,7 +2,9 @@ package com.inventory.service;
 
 import com.inventory.dto.InventoryRequestDTO;
 import com.inventory.dto.InventoryResponseDTO;
+import com.inventory.dto.InventorySort;
 import com.inventory.model.Inventory;
+import com.inventory.model.InventoryMovement;
 import com.inventory.model.Product;
 import com.inventory.model.Warehouse;
 import com.inventory.repository.InventoryRepository;
@@ -16,9 +18,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,6 +38,9 @@ class InventoryServiceImplTest {
     @Mock WarehouseRepository warehouseRepository;
     @Mock StockAlertService stockAlertService;
     @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock InventoryMetrics inventoryMetrics;
+    @Mock CostLayerService costLayerService;
+    @Mock ApplicationEventPublisher eventPublisher;
     @InjectMocks InventoryServiceImpl inventoryService;
 
     private InventoryRequestDTO requestDTO;
@@ -53,35 +61,36 @@ class InventoryServiceImplTest {
     @Test
     @DisplayName("Should create inventory when valid and unique")
     void createInventory_Success() {
-        when(productRepository.findById(requestDTO.getProductId())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findById(requestDTO.getWarehouseId())).thenReturn(Optional.of(warehouse));
+        when(productRepository.findCachedById(requestDTO.getProductId())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedById(requestDTO.getWarehouseId())).thenReturn(Optional.of(warehouse));
         when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.empty());
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
         InventoryResponseDTO response = inventoryService.create(requestDTO);
         assertNotNull(response);
         verify(stockAlertService).createAlertIfLowStock(any(Inventory.class));
+        verify(eventPublisher).publishEvent(any(StockLevelsChangedEvent.class));
     }
 
     @Test
     @DisplayName("Should throw exception if product not found on create")
     void createInventory_ProductNotFound() {
-        when(productRepository.findById(requestDTO.getProductId())).thenReturn(Optional.empty());
+        when(productRepository.findCachedById(requestDTO.getProductId())).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> inventoryService.create(requestDTO));
     }
 
     @Test
     @DisplayName("Should throw exception if warehouse not found on create")
     void createInventory_WarehouseNotFound() {
-        when(productRepository.findById(requestDTO.getProductId())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findById(requestDTO.getWarehouseId())).thenReturn(Optional.empty());
+        when(productRepository.findCachedById(requestDTO.getProductId())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedById(requestDTO.getWarehouseId())).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> inventoryService.create(requestDTO));
     }
 
     @Test
     @DisplayName("Should throw exception if inventory already exists for product and warehouse")
     void createInventory_Duplicate() {
-        when(productRepository.findById(requestDTO.getProductId())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findById(requestDTO.getWarehouseId())).thenReturn(Optional.of(warehouse));
+        when(productRepository.findCachedById(requestDTO.getProductId())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedById(requestDTO.getWarehouseId())).thenReturn(Optional.of(warehouse));
         when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.of(inventory));
         assertThrows(DataIntegrityViolationException.class, () -> inventoryService.create(requestDTO));
     }
@@ -102,18 +111,32 @@ class InventoryServiceImplTest {
         assertThrows(EntityNotFoundException.class, () -> inventoryService.getById(1L));
     }
 
+    @Test
+    @DisplayName("Should refuse to sort by quantity without a warehouse filter")
+    void getAll_QuantitySortWithoutWarehouse_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.getAll(null, null, null,
+                InventorySort.QUANTITY, Sort.Direction.ASC, null, 20));
+    }
+
     @Test
     @DisplayName("Should update inventory when valid and unique")
     void updateInventory_Success() {
         InventoryRequestDTO updateDTO = InventoryRequestDTO.builder().productId(product.getId()).warehouseId(warehouse.getId()).quantity(20).reorderThreshold(5).build();
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findById(warehouse.getId())).thenReturn(Optional.of(warehouse));
+        when(productRepository.findCachedById(product.getId())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedById(warehouse.getId())).thenReturn(Optional.of(warehouse));
         when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.of(inventory));
+        // A receipt landed since the entity was read: the database holds 12, not 10
+        when(inventoryRepository.setStock(1L, 20)).thenReturn(PurchaseOrderServiceImplTest.stockLevel(1L, 20, 12));
         when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
         InventoryResponseDTO response = inventoryService.update(1L, updateDTO);
         assertNotNull(response);
+        assertEquals(20, response.getQuantity());
         verify(stockAlertService).createAlertIfLowStock(any(Inventory.class));
+        verify(inventoryMovementRepository).save(argThat(m -> m.getQuantity() == 8
+                && m.getMovementType() == InventoryMovement.MovementType.ADJUSTMENT));
+        verify(inventoryMetrics).movementsRecorded(InventoryMovement.MovementType.ADJUSTMENT, 1);
+        verify(costLayerService).adjust(product.getId(), warehouse.getId(), 8, product.getPrice(), "Manual adjustment");
     }
 
     @Test
@@ -127,7 +150,7 @@ class InventoryServiceImplTest {
     @DisplayName("Should throw exception if product not found on update")
     void updateInventory_ProductNotFound() {
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.empty());
+        when(productRepository.findCachedById(product.getId())).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> inventoryService.update(1L, requestDTO));
     }
 
@@ -135,8 +158,8 @@ class InventoryServiceImplTest {
     @DisplayName("Should throw exception if warehouse not found on update")
     void updateInventory_WarehouseNotFound() {
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findById(warehouse.getId())).thenReturn(Optional.empty());
+        when(productRepository.findCachedById(product.getId())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedById(warehouse.getId())).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> inventoryService.update(1L, requestDTO));
     }
 
@@ -145,8 +168,8 @@ class InventoryServiceImplTest {
     void updateInventory_Duplicate() {
         Inventory otherInventory = Inventory.builder().id(2L).product(product).warehouse(warehouse).quantity(5).build();
         when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findById(warehouse.getId())).thenReturn(Optional.of(warehouse));
+        when(productRepository.findCachedById(product.getId())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedById(warehouse.getId())).thenReturn(Optional.of(warehouse));
         when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.of(otherInventory));
         assertThrows(DataIntegrityViolationException.class, () -> inventoryService.update(1L, requestDTO));
     }
@@ -154,17 +177,20 @@ class InventoryServiceImplTest {
     @Test
     @DisplayName("Should delete inventory when exists")
     void deleteInventory_Success() {
-        when(inventoryRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(inventoryRepository).deleteById(1L);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
         assertDoesNotThrow(() -> inventoryService.delete(1L));
-        verify(inventoryRepository).deleteById(1L);
+        verify(inventoryRepository).delete(inventory);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockLevelsChangedEvent
+                && ((StockLevelsChangedEvent) event).getProductIds().equals(List.of(product.getId()))
+                && ((StockLevelsChangedEvent) event).getWarehouseIds().equals(List.of(warehouse.getId()))));
     }
 
     @Test
     @DisplayName("Should throw exception when deleting non-existent inventory")
     void deleteInventory_NotFound() {
-        when(inventoryRepository.existsById(1L)).thenReturn(false);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> inventoryService.delete(1L));
-        verify(inventoryRepository, never()).deleteById(1L);
+        verify(inventoryRepository, never()).delete(any(Inventory.class));
+        verifyNoInteractions(eventPublisher);
     }
 }
\ No newline at end of file
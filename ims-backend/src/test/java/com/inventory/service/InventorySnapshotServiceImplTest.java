@@ -0,0 +1,163 @@
+package com.inventory.service;
+
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryOpeningBalanceRepository;
+import com.inventory.repository.InventorySnapshotRepository;
+import com.inventory.repository.projection.OnHandAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventorySnapshotServiceImplTest {
+    @Mock InventorySnapshotRepository inventorySnapshotRepository;
+    @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock InventoryOpeningBalanceRepository inventoryOpeningBalanceRepository;
+    @Mock PlatformTransactionManager transactionManager;
+    @InjectMocks InventorySnapshotServiceImpl inventorySnapshotService;
+
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID();
+        warehouseId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should only build days after the last one built, each marked as built")
+    void buildSnapshots_Incremental() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(yesterday.minusDays(3));
+        when(inventorySnapshotRepository.buildDay(any(), any(), any())).thenReturn(2);
+        assertEquals(6, inventorySnapshotService.buildSnapshots());
+        verify(inventorySnapshotRepository).buildDay(yesterday.minusDays(2),
+                yesterday.minusDays(2).atStartOfDay(), yesterday.minusDays(1).atStartOfDay());
+        verify(inventorySnapshotRepository).buildDay(eq(yesterday.minusDays(1)), any(), any());
+        verify(inventorySnapshotRepository).buildDay(eq(yesterday), any(), any());
+        verify(inventorySnapshotRepository, times(3)).buildDay(any(), any(), any());
+        verify(inventorySnapshotRepository).markBuiltThrough(yesterday);
+        // One transaction per day, after the one checking for back-dated movements
+        verify(transactionManager, times(4)).commit(any());
+        verify(inventorySnapshotRepository, never()).deleteFrom(any());
+        verify(inventoryMovementRepository, never()).findFirstMovementDate();
+    }
+
+    @Test
+    @DisplayName("Should drop and rebuild the days from the earliest back-dated movement")
+    void buildSnapshots_BackDated() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(inventorySnapshotRepository.lockRebuildFrom()).thenReturn(yesterday.minusDays(4));
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(yesterday.minusDays(5));
+        inventorySnapshotService.buildSnapshots();
+        verify(inventorySnapshotRepository).deleteFrom(yesterday.minusDays(4));
+        verify(inventorySnapshotRepository).reopenAfter(yesterday.minusDays(5));
+        verify(inventorySnapshotRepository).buildDay(eq(yesterday.minusDays(4)), any(), any());
+        verify(inventorySnapshotRepository, times(5)).buildDay(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should start from the first movement when no snapshot exists")
+    void buildSnapshots_Initial() {
+        LocalDate first = LocalDate.now().minusDays(5);
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(null);
+        when(inventoryMovementRepository.findFirstMovementDate()).thenReturn(first.atTime(13, 30));
+        inventorySnapshotService.buildSnapshots();
+        verify(inventorySnapshotRepository).buildDay(eq(first), any(), any());
+        verify(inventorySnapshotRepository, times(5)).buildDay(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when already up to date or the ledger is empty")
+    void buildSnapshots_Nothing() {
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(LocalDate.now().minusDays(1));
+        assertEquals(0, inventorySnapshotService.buildSnapshots());
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(null);
+        when(inventoryMovementRepository.findFirstMovementDate()).thenReturn(null);
+        assertEquals(0, inventorySnapshotService.buildSnapshots());
+        verify(inventorySnapshotRepository, never()).buildDay(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should add movements after the day-before snapshot to its closing balance")
+    void getOnHandAt_SnapshotPlusDelta() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 10, 0, 0);
+        UUID otherProduct = UUID.randomUUID();
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(LocalDate.of(2024, 3, 20));
+        when(inventorySnapshotRepository.findClosingOn(null, null, LocalDate.of(2024, 3, 9)))
+                .thenReturn(List.of(row(productId, 40L)));
+        when(inventoryMovementRepository.aggregateNetChangeBetween(null, null, LocalDate.of(2024, 3, 10).atStartOfDay(), at))
+                .thenReturn(List.of(row(productId, -5L), row(otherProduct, 3L)));
+        List<OnHandAggregate> result = inventorySnapshotService.getOnHandAt(null, null, at);
+        result.sort(Comparator.comparing(OnHandAggregate::getQuantity));
+        assertEquals(2, result.size());
+        assertEquals(otherProduct, result.get(0).getProductId());
+        assertEquals(3L, result.get(0).getQuantity());
+        assertEquals(35L, result.get(1).getQuantity());
+        verify(inventoryMovementRepository, never()).aggregateOnHandAt(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should read the delta from the latest snapshot when snapshots lag behind")
+    void getOnHandAt_StaleSnapshots() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 10, 12, 0);
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(LocalDate.of(2024, 3, 5));
+        when(inventorySnapshotRepository.findClosingOn(productId, warehouseId, LocalDate.of(2024, 3, 5)))
+                .thenReturn(List.of(row(productId, 10L)));
+        when(inventoryMovementRepository.aggregateNetChangeBetween(productId, warehouseId, LocalDate.of(2024, 3, 6).atStartOfDay(), at))
+                .thenReturn(List.of());
+        List<OnHandAggregate> result = inventorySnapshotService.getOnHandAt(productId, warehouseId, at);
+        assertEquals(1, result.size());
+        assertEquals(10L, result.get(0).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the full ledger before the first snapshot is built")
+    void getOnHandAt_NoSnapshots() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 10, 0, 0);
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(null);
+        when(inventoryMovementRepository.aggregateOnHandAt(null, null, at)).thenReturn(List.of(row(productId, 4L)));
+        assertEquals(4L, inventorySnapshotService.getOnHandAt(null, null, at).get(0).getQuantity());
+        verify(inventorySnapshotRepository, never()).findClosingOn(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should start from the opening balances after the ledger has been archived")
+    void getOnHandAt_NoSnapshotsArchived() {
+        LocalDateTime at = LocalDateTime.of(2024, 3, 10, 0, 0);
+        LocalDate balanceDate = LocalDate.of(2024, 1, 1);
+        when(inventorySnapshotRepository.findBuiltThrough()).thenReturn(null);
+        when(inventoryOpeningBalanceRepository.findBalanceDate()).thenReturn(balanceDate);
+        when(inventoryOpeningBalanceRepository.findBalances(productId, null)).thenReturn(List.of(row(productId, 20L)));
+        when(inventoryMovementRepository.aggregateNetChangeBetween(productId, null, balanceDate.atStartOfDay(), at))
+                .thenReturn(List.of(row(productId, 7L)));
+        assertEquals(27L, inventorySnapshotService.getOnHandAt(productId, null, at).get(0).getQuantity());
+        verify(inventoryMovementRepository, never()).aggregateOnHandAt(any(), any(), any());
+
+        // Before the horizon only the full ledger, archive included, has the answer
+        LocalDateTime before = LocalDateTime.of(2023, 12, 31, 12, 0);
+        when(inventoryMovementRepository.aggregateOnHandAt(productId, null, before)).thenReturn(List.of(row(productId, 18L)));
+        assertEquals(18L, inventorySnapshotService.getOnHandAt(productId, null, before).get(0).getQuantity());
+    }
+
+    private OnHandAggregate row(UUID product, long quantity) {
+        return OnHandAggregate.builder().productId(product).productName("P").warehouseId(warehouseId)
+                .warehouseName("W").quantity(quantity).build();
+    }
+}
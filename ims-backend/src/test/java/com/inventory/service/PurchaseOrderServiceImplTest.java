@@ -1,8 +1,10 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPageDTO;
 import com.inventory.dto.PurchaseOrderRequestDTO;
 import com.inventory.dto.PurchaseOrderResponseDTO;
 import com.inventory.dto.PurchaseOrderFulfillmentRequestDTO;
+import com.inventory.dto.PurchaseOrderSort;
 import com.inventory.model.PurchaseOrder;
 import com.inventory.model.Product;
 import com.inventory.model.Warehouse;
@@ -13,6 +15,8 @@ import com.inventory.repository.ProductRepository;
 import com.inventory.repository.WarehouseRepository;
 import com.inventory.repository.InventoryRepository;
 import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.KeysetPageRepository;
+import com.inventory.repository.projection.StockLevel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +24,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -37,7 +43,11 @@ class PurchaseOrderServiceImplTest {
     @Mock WarehouseRepository warehouseRepository;
     @Mock InventoryRepository inventoryRepository;
     @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock KeysetPageRepository keysetPageRepository;
     @Mock StockAlertService stockAlertService;
+    @Mock CostLayerService costLayerService;
+    @Mock InventoryMetrics inventoryMetrics;
+    @Mock ApplicationEventPublisher eventPublisher;
     @InjectMocks PurchaseOrderServiceImpl purchaseOrderService;
 
     private PurchaseOrderRequestDTO requestDTO;
@@ -94,10 +104,13 @@ class PurchaseOrderServiceImplTest {
     @Test
     @DisplayName("Should get all purchase orders")
     void getAllPurchaseOrders_Success() {
-        when(purchaseOrderRepository.findAll()).thenReturn(List.of(po));
-        List<PurchaseOrderResponseDTO> list = purchaseOrderService.getAllPurchaseOrders();
-        assertNotNull(list);
-        assertFalse(list.isEmpty());
+        when(keysetPageRepository.findPage(eq(PurchaseOrder.class), any(), eq("orderDate"), eq(Sort.Direction.DESC), eq("c1"), eq(20)))
+                .thenReturn(new CursorPageDTO<>(List.of(po), "c2"));
+        CursorPageDTO<PurchaseOrderResponseDTO> page = purchaseOrderService.getAllPurchaseOrders(
+                PurchaseOrder.Status.PENDING, null, PurchaseOrderSort.ORDER_DATE, Sort.Direction.DESC, "c1", 20);
+        assertEquals(1, page.getItems().size());
+        assertEquals(po.getId(), page.getItems().get(0).getId());
+        assertEquals("c2", page.getNextCursor());
     }
 
     @Test
@@ -105,18 +118,25 @@ class PurchaseOrderServiceImplTest {
     void fulfillPurchaseOrder_Success() {
         PurchaseOrderFulfillmentRequestDTO fulfillDTO = new PurchaseOrderFulfillmentRequestDTO();
         fulfillDTO.setReceivedBy("user");
-        Product product = Product.builder().name(po.getProductName()).build();
-        Warehouse warehouse = Warehouse.builder().name(po.getWarehouseName()).build();
-        Inventory inventory = Inventory.builder().product(product).warehouse(warehouse).quantity(5).build();
-        when(purchaseOrderRepository.findById(poId)).thenReturn(Optional.of(po));
-        when(productRepository.findByName(po.getProductName())).thenReturn(Optional.of(product));
-        when(warehouseRepository.findByName(po.getWarehouseName())).thenReturn(Optional.of(warehouse));
-        when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        Product product = Product.builder().id(UUID.randomUUID()).name(po.getProductName()).build();
+        Warehouse warehouse = Warehouse.builder().id(UUID.randomUUID()).name(po.getWarehouseName()).build();
+        Inventory inventory = Inventory.builder().id(7L).product(product).warehouse(warehouse).quantity(5).reorderThreshold(10).build();
+        when(purchaseOrderRepository.findByIdForUpdate(poId)).thenReturn(Optional.of(po));
+        when(productRepository.findCachedByName(po.getProductName())).thenReturn(Optional.of(product));
+        when(warehouseRepository.findCachedByNameIgnoreCase(po.getWarehouseName())).thenReturn(Optional.of(warehouse));
+        when(inventoryRepository.addStock(product.getId(), warehouse.getId(), 10, 10)).thenReturn(stockLevel(7L, 15, 5));
+        when(inventoryRepository.findById(7L)).thenReturn(Optional.of(inventory));
         when(purchaseOrderRepository.save(any(PurchaseOrder.class))).thenReturn(po);
         PurchaseOrderResponseDTO response = purchaseOrderService.fulfillPurchaseOrder(poId, fulfillDTO);
         assertNotNull(response);
         assertEquals(PurchaseOrder.Status.RECEIVED.name(), response.getStatus());
+        // Stock is incremented in the database, never read-modify-written through the entity
+        assertEquals(15, inventory.getQuantity());
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+        verify(inventoryMovementRepository).save(argThat(m -> m.getQuantity() == 10
+                && m.getMovementType() == InventoryMovement.MovementType.INBOUND));
+        verify(stockAlertService).createAlertIfLowStock(inventory);
+        verify(costLayerService).receive(product.getId(), warehouse.getId(), 10, BigDecimal.ZERO, "PO-" + poId);
     }
 
     @Test
@@ -124,7 +144,7 @@ class PurchaseOrderServiceImplTest {
     void fulfillPurchaseOrder_NotFound() {
         PurchaseOrderFulfillmentRequestDTO fulfillDTO = new PurchaseOrderFulfillmentRequestDTO();
         fulfillDTO.setReceivedBy("user");
-        when(purchaseOrderRepository.findById(poId)).thenReturn(Optional.empty());
+        when(purchaseOrderRepository.findByIdForUpdate(poId)).thenReturn(Optional.empty());
         assertThrows(RuntimeException.class, () -> purchaseOrderService.fulfillPurchaseOrder(poId, fulfillDTO));
     }
 
@@ -134,7 +154,17 @@ class PurchaseOrderServiceImplTest {
         PurchaseOrderFulfillmentRequestDTO fulfillDTO = new PurchaseOrderFulfillmentRequestDTO();
         fulfillDTO.setReceivedBy("user");
         po.setStatus(PurchaseOrder.Status.RECEIVED);
-        when(purchaseOrderRepository.findById(poId)).thenReturn(Optional.of(po));
+        when(purchaseOrderRepository.findByIdForUpdate(poId)).thenReturn(Optional.of(po));
         assertThrows(RuntimeException.class, () -> purchaseOrderService.fulfillPurchaseOrder(poId, fulfillDTO));
+        verify(inventoryRepository, never()).addStock(any(), any(), anyInt(), anyInt());
+    }
+
+    static StockLevel stockLevel(long id, int quantity, int previousQuantity) {
+        return new StockLevel() {
+            public Long getId() { return id; }
+            public Integer getQuantity() { return quantity; }
+            public Integer getReorderThreshold() { return 10; }
+            public Integer getPreviousQuantity() { return previousQuantity; }
+        };
     }
 }
\ No newline at end of file
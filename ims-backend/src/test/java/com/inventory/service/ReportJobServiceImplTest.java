@@ -0,0 +1,241 @@
+package com.inventory.service;
+
+import com.inventory.dto.ExportFormat;
+import com.inventory.dto.ReportJobRequestDTO;
+import com.inventory.dto.ReportJobResponseDTO;
+import com.inventory.dto.StockValuationReportDTO;
+import com.inventory.model.ReportJob;
+import com.inventory.repository.ReportJobRepository;
+import com.inventory.repository.ReportJobResultRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReportJobServiceImplTest {
+    @Mock ReportJobRepository reportJobRepository;
+    @Mock ReportJobResultRepository reportJobResultRepository;
+    @Mock ReportingService reportingService;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<UUID, List<byte[]>> chunks = new ConcurrentHashMap<>();
+    private ReportJobServiceImpl reportJobService;
+
+    private ReportJobServiceImpl newService(int maxRunningPerType, int maxQueuedPerType) {
+        when(reportJobRepository.save(any(ReportJob.class))).thenAnswer(inv -> {
+            ReportJob job = inv.getArgument(0);
+            job.setId(UUID.randomUUID());
+            jobs.put(job.getId(), job);
+            return job;
+        });
+        when(reportJobRepository.findById(any())).thenAnswer(inv -> Optional.ofNullable(jobs.get(inv.<UUID>getArgument(0))));
+        when(reportJobRepository.getReferenceById(any())).thenAnswer(inv -> jobs.get(inv.<UUID>getArgument(0)));
+        doAnswer(inv -> {
+            List<byte[]> stored = chunks.computeIfAbsent(inv.getArgument(0), id -> new ArrayList<>());
+            assertEquals(stored.size(), inv.<Integer>getArgument(1).intValue());
+            stored.add(inv.getArgument(2));
+            return null;
+        }).when(reportJobResultRepository).saveChunk(any(), anyInt(), any());
+        // Tiny chunks, so even a two-row export is stored in several
+        reportJobService = new ReportJobServiceImpl(reportJobRepository, reportJobResultRepository, reportingService,
+                transactionManager, 4, maxRunningPerType, maxQueuedPerType, 16, 7);
+        return reportJobService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (reportJobService != null) {
+            reportJobService.shutdown();
+        }
+    }
+
+    private void awaitStatus(UUID id, ReportJob.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jobs.get(id).getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(status, jobs.get(id).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should compute a queued report off-thread and persist it gzipped, in chunks")
+    void submit_CompletesAndPersistsCompressedResult() throws Exception {
+        newService(2, 10);
+        doAnswer(inv -> {
+            Consumer<StockValuationReportDTO> sink = inv.getArgument(2);
+            sink.accept(StockValuationReportDTO.builder().productName("P").totalValue(BigDecimal.TEN).build());
+            sink.accept(StockValuationReportDTO.builder().productName("Q").totalValue(BigDecimal.ONE).build());
+            return null;
+        }).when(reportingService).streamStockValuation(any(), any(), any());
+
+        ReportJobResponseDTO submitted = reportJobService.submit(
+                ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.VALUATION).build(), "manager");
+        assertEquals(ExportFormat.NDJSON, submitted.getFormat());
+        awaitStatus(submitted.getId(), ReportJob.Status.COMPLETED);
+
+        assertTrue(chunks.get(submitted.getId()).size() > 1);
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        for (byte[] chunk : chunks.get(submitted.getId())) {
+            assertTrue(chunk.length <= 16);
+            stored.write(chunk);
+        }
+        String content;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(stored.toByteArray()))) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(2, content.split("\n").length);
+        assertTrue(content.contains("\"productName\":\"Q\""));
+        ReportJobResponseDTO done = reportJobService.getJob(submitted.getId());
+        assertEquals(2L, done.getRowsWritten());
+        assertEquals(stored.size(), done.getResultSize());
+        assertEquals("manager", done.getRequestedBy());
+    }
+
+    @Test
+    @DisplayName("Should record the failure reason when the report throws")
+    void submit_Failure() throws Exception {
+        newService(2, 10);
+        doThrow(new IllegalStateException("boom")).when(reportingService).streamStockValuation(any(), any(), any());
+        ReportJobResponseDTO submitted = reportJobService.submit(
+                ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.VALUATION).build(), null);
+        awaitStatus(submitted.getId(), ReportJob.Status.FAILED);
+        assertEquals("boom", jobs.get(submitted.getId()).getErrorMessage());
+        verify(reportJobResultRepository, never()).saveChunk(any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should cap running jobs per report type without blocking other types")
+    void submit_PerTypeConcurrencyLimit() throws Exception {
+        newService(1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(reportingService).streamStockValuation(any(), any(), any());
+        ReportJobRequestDTO valuation = ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.VALUATION).build();
+        UUID first = reportJobService.submit(valuation, null).getId();
+        UUID second = reportJobService.submit(valuation, null).getId();
+        UUID trends = reportJobService.submit(ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.TRENDS)
+                .startDate(LocalDate.of(2024, 1, 1)).endDate(LocalDate.of(2024, 1, 31)).build(), null).getId();
+
+        awaitStatus(first, ReportJob.Status.RUNNING);
+        awaitStatus(trends, ReportJob.Status.COMPLETED);
+        assertEquals(ReportJob.Status.QUEUED, jobs.get(second).getStatus());
+
+        release.countDown();
+        awaitStatus(first, ReportJob.Status.COMPLETED);
+        awaitStatus(second, ReportJob.Status.COMPLETED);
+        verify(reportingService).streamInventoryTrends(any(), any(), eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 1, 31)), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject submissions once a report type's backlog is full")
+    void submit_BacklogFull() throws Exception {
+        newService(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(reportingService).streamStockValuation(any(), any(), any());
+        ReportJobRequestDTO valuation = ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.VALUATION).build();
+        UUID first = reportJobService.submit(valuation, null).getId();
+        awaitStatus(first, ReportJob.Status.RUNNING);
+        reportJobService.submit(valuation, null);
+        assertThrows(TaskRejectedException.class, () -> reportJobService.submit(valuation, null));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should never admit more jobs than the backlog holds, however many submit at once")
+    void submit_ConcurrentSubmissionsRespectBacklog() throws Exception {
+        newService(1, 3);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(reportingService).streamStockValuation(any(), any(), any());
+        ReportJobRequestDTO valuation = ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.VALUATION).build();
+        awaitStatus(reportJobService.submit(valuation, null).getId(), ReportJob.Status.RUNNING);
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    reportJobService.submit(valuation, null);
+                    accepted.incrementAndGet();
+                } catch (TaskRejectedException e) {
+                    // Backlog full
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertEquals(3, accepted.get());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should purge finished jobs older than the retention period")
+    void purgeExpiredJobs() {
+        newService(1, 1);
+        when(reportJobRepository.deleteFinishedBefore(any(), any())).thenReturn(2);
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        reportJobService.purgeExpiredJobs();
+        verify(reportJobRepository).deleteFinishedBefore(eq(List.of(ReportJob.Status.COMPLETED, ReportJob.Status.FAILED)),
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(before.plusMinutes(1))));
+    }
+
+    @Test
+    @DisplayName("Should require a period for turnover reports")
+    void submit_TurnoverWithoutDates() {
+        newService(1, 1);
+        assertThrows(IllegalArgumentException.class, () -> reportJobService.submit(
+                ReportJobRequestDTO.builder().reportType(ReportJob.ReportType.TURNOVER).build(), null));
+        verify(reportJobRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.service;
+
+import com.inventory.dto.ExportFormat;
+import com.inventory.dto.InventoryTrendReportDTO;
+import com.inventory.dto.TrendGranularity;
+import com.inventory.model.Inventory;
+import com.inventory.model.Product;
+import com.inventory.model.Warehouse;
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.PurchaseOrderRepository;
+import com.inventory.repository.projection.TrendMovement;
+import com.inventory.util.ReportExporter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs in the small-heap surefire execution (-Xmx64m): a million trend rows only fit if
+ * the export never materializes the report.
+ */
+@Tag("small-heap")
+@ExtendWith(MockitoExtension.class)
+class ReportingServiceImplExportTest {
+    private static final int PAIRS = 1_000;
+    private static final int DAYS = 1_000;
+    private static final int MOVEMENTS_PER_PAIR = 100;
+
+    @Mock InventoryRepository inventoryRepository;
+    @Mock PurchaseOrderRepository purchaseOrderRepository;
+    @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock InventorySnapshotService inventorySnapshotService;
+    @InjectMocks ReportingServiceImpl reportingService;
+
+    @Test
+    @DisplayName("Should stream a million-row trend export with flat memory")
+    void exportInventoryTrends_MillionRows() throws Exception {
+        LocalDate start = LocalDate.of(2021, 1, 1);
+        LocalDate end = start.plusDays(DAYS - 1);
+        Warehouse warehouse = Warehouse.builder().id(UUID.randomUUID()).name("W").build();
+        List<Inventory> inventories = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            Product product = Product.builder().id(new UUID(i + 1, 0)).name("P" + i).price(BigDecimal.ONE).build();
+            inventories.add(Inventory.builder().id((long) i).product(product).warehouse(warehouse).quantity(0).build());
+        }
+        when(inventoryRepository.findAllWithProductAndWarehouse(null, null)).thenReturn(inventories);
+        when(inventorySnapshotService.getOnHandAt(any(), any(), any())).thenReturn(Collections.emptyList());
+        // Movements are generated lazily, grouped by pair in date order, like the database cursor
+        when(inventoryMovementRepository.streamMovementsBetween(any(), any(), any(), any())).thenAnswer(inv ->
+            IntStream.range(0, PAIRS * MOVEMENTS_PER_PAIR).mapToObj(i -> {
+                Inventory inventory = inventories.get(i / MOVEMENTS_PER_PAIR);
+                return new TrendMovement(inventory.getProduct().getId(), inventory.getProduct().getName(),
+                    warehouse.getId(), warehouse.getName(),
+                    start.plusDays((long) (i % MOVEMENTS_PER_PAIR) * (DAYS / MOVEMENTS_PER_PAIR)).atTime(12, 0), 1);
+            }));
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        ReportExporter.write(out, ExportFormat.CSV, InventoryTrendReportDTO.class,
+            sink -> reportingService.streamInventoryTrends(null, null, start, end, TrendGranularity.DAILY, sink));
+
+        assertEquals(1L + (long) PAIRS * DAYS, out.lines);
+        assertTrue(Runtime.getRuntime().maxMemory() < 256L * 1024 * 1024,
+            "expected to run under the small-heap surefire execution");
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -8,10 +8,16 @@ import com.inventory.model.Warehouse;
 import com.inventory.model.Inventory;
 import com.inventory.model.InventoryMovement;
 import com.inventory.repository.InventoryRepository;
-import com.inventory.repository.ProductRepository;
 import com.inventory.repository.PurchaseOrderRepository;
-import com.inventory.repository.WarehouseRepository;
 import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.projection.OnHandAggregate;
+import com.inventory.repository.projection.TrendMovement;
+import com.inventory.repository.projection.TurnoverAggregate;
+import com.inventory.dto.TrendGranularity;
+import com.inventory.dto.StockValuationSummaryDTO;
+import com.inventory.dto.ValuationGrouping;
+import com.inventory.repository.projection.ValuationRollup;
+import com.inventory.repository.projection.ValuationRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +31,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,10 +41,9 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ReportingServiceImplTest {
     @Mock InventoryRepository inventoryRepository;
-    @Mock ProductRepository productRepository;
     @Mock PurchaseOrderRepository purchaseOrderRepository;
-    @Mock WarehouseRepository warehouseRepository;
     @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock InventorySnapshotService inventorySnapshotService;
     @InjectMocks ReportingServiceImpl reportingService;
 
     private Product product;
@@ -63,36 +70,168 @@ class ReportingServiceImplTest {
     @Test
     @DisplayName("Should return inventory turnover report")
     void getInventoryTurnover_Success() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse));
-        when(inventoryMovementRepository.findAll()).thenReturn(List.of(movement));
-        when(inventoryMovementRepository.sumCogsForProductAndWarehouse(any(), any(), any(), any())).thenReturn(BigDecimal.valueOf(500));
-        when(inventoryMovementRepository.getInventoryOnHandAt(any(), any(), any())).thenReturn(10);
+        TurnoverAggregate row = TurnoverAggregate.builder()
+                .productId(productId).productName("P").productPrice(BigDecimal.valueOf(100))
+                .warehouseId(warehouseId).warehouseName("W")
+                .netChange(-4L).outboundQuantity(4L)
+                .costOfGoodsSold(BigDecimal.valueOf(200))
+                .build();
+        when(inventorySnapshotService.getOnHandAt(null, null, startDate.atStartOfDay())).thenReturn(List.of(onHand(10L)));
+        when(inventoryMovementRepository.aggregateTurnover(any(), any(), any(), any(), eq(InventoryMovement.MovementType.OUTBOUND))).thenReturn(Stream.of(row));
         List<InventoryTurnoverReportDTO> result = reportingService.getInventoryTurnover(null, null, startDate, endDate);
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
+        assertEquals(1, result.size());
+        InventoryTurnoverReportDTO dto = result.get(0);
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(dto.getCostOfGoodsSold()));
+        assertEquals(0, BigDecimal.valueOf(8).compareTo(dto.getAverageInventory()));
+        assertEquals(0, BigDecimal.valueOf(25).compareTo(dto.getTurnoverRatio()));
+        assertEquals(0, BigDecimal.valueOf(50).compareTo(dto.getUnitCost()));
+    }
+
+    @Test
+    @DisplayName("Should fall back to product price when nothing was issued")
+    void getInventoryTurnover_NoOutbound() {
+        TurnoverAggregate row = TurnoverAggregate.builder()
+                .productId(productId).productName("P").productPrice(BigDecimal.valueOf(100))
+                .warehouseId(warehouseId).warehouseName("W")
+                .netChange(0L).outboundQuantity(0L)
+                .build();
+        when(inventoryMovementRepository.aggregateTurnover(any(), any(), any(), any(), any())).thenReturn(Stream.of(row));
+        InventoryTurnoverReportDTO dto = reportingService.getInventoryTurnover(null, null, startDate, endDate).get(0);
+        assertEquals(0, BigDecimal.ZERO.compareTo(dto.getCostOfGoodsSold()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(dto.getTurnoverRatio()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(dto.getUnitCost()));
+    }
+
+    @Test
+    @DisplayName("Should issue one window aggregate and one opening lookup regardless of product and warehouse count")
+    void getInventoryTurnover_SingleQuery() {
+        List<TurnoverAggregate> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(TurnoverAggregate.builder().productId(UUID.randomUUID()).productName("P" + i)
+                    .warehouseId(warehouseId).warehouseName("W").netChange(0L).build());
+        }
+        when(inventoryMovementRepository.aggregateTurnover(any(), any(), any(), any(), any())).thenReturn(rows.stream());
+        assertEquals(500, reportingService.getInventoryTurnover(null, null, startDate, endDate).size());
+        verify(inventoryMovementRepository, times(1)).aggregateTurnover(any(), any(), any(), any(), any());
+        verify(inventorySnapshotService, times(1)).getOnHandAt(any(), any(), any());
+        verifyNoMoreInteractions(inventoryMovementRepository);
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    @DisplayName("Should report pairs with history but no movement in the window as flat")
+    void getInventoryTurnover_QuietPair() {
+        when(inventorySnapshotService.getOnHandAt(any(), any(), any())).thenReturn(List.of(onHand(7L)));
+        when(inventoryMovementRepository.aggregateTurnover(any(), any(), any(), any(), any())).thenReturn(Stream.empty());
+        List<InventoryTurnoverReportDTO> result = reportingService.getInventoryTurnover(null, null, startDate, endDate);
+        assertEquals(1, result.size());
+        assertEquals(0, BigDecimal.valueOf(7).compareTo(result.get(0).getAverageInventory()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(result.get(0).getTurnoverRatio()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(result.get(0).getUnitCost()));
     }
 
     @Test
     @DisplayName("Should return stock valuation report")
     void getStockValuation_Success() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse));
-        when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.of(inventory));
+        ValuationRow row = ValuationRow.builder().productId(productId).productName("P").category("C")
+                .warehouseId(warehouseId).warehouseName("W").quantity(10)
+                .unitCost(BigDecimal.valueOf(100)).totalValue(BigDecimal.valueOf(1000)).build();
+        when(inventoryRepository.streamValuationRows(null, null)).thenReturn(Stream.of(row));
         List<StockValuationReportDTO> result = reportingService.getStockValuation(null, null);
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
+        assertEquals(1, result.size());
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(result.get(0).getTotalValue()));
+        verify(inventoryRepository, never()).findByProductAndWarehouse(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should roll stock valuation up by warehouse with a grand total")
+    void getStockValuationSummary_ByWarehouse() {
+        when(inventoryRepository.sumValuationByWarehouse(null, null)).thenReturn(List.of(
+                ValuationRollup.builder().groupKey(warehouseId.toString()).groupName("W").quantity(10L).totalValue(BigDecimal.valueOf(1000)).build(),
+                ValuationRollup.builder().groupKey(UUID.randomUUID().toString()).groupName("W2").quantity(5L).totalValue(BigDecimal.valueOf(250)).build()));
+        when(inventoryRepository.sumValuation(null, null)).thenReturn(
+                ValuationRollup.builder().groupKey("TOTAL").groupName("TOTAL").quantity(15L).totalValue(BigDecimal.valueOf(1250)).build());
+        StockValuationSummaryDTO summary = reportingService.getStockValuationSummary(null, null, ValuationGrouping.WAREHOUSE);
+        assertEquals(2, summary.getGroups().size());
+        assertEquals("W", summary.getGroups().get(0).getName());
+        assertEquals(0, BigDecimal.valueOf(1250).compareTo(summary.getTotalValue()));
+        assertEquals(0, BigDecimal.valueOf(15).compareTo(summary.getTotalQuantity()));
+        verify(inventoryRepository, never()).sumValuationByCategory(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return zero totals when there is no inventory")
+    void getStockValuationSummary_Empty() {
+        when(inventoryRepository.sumValuation(null, null)).thenReturn(ValuationRollup.builder().groupKey("TOTAL").groupName("TOTAL").build());
+        StockValuationSummaryDTO summary = reportingService.getStockValuationSummary(null, null, ValuationGrouping.NONE);
+        assertTrue(summary.getGroups().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getTotalValue()));
     }
 
     @Test
     @DisplayName("Should return inventory trends report")
     void getInventoryTrends_Success() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse));
-        when(inventoryRepository.findByProductAndWarehouse(product, warehouse)).thenReturn(Optional.of(inventory));
-        when(inventoryMovementRepository.getInventoryOnHandAt(any(), any(), any())).thenReturn(10);
-        List<InventoryTrendReportDTO> result = reportingService.getInventoryTrends(null, null, startDate, endDate);
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
+        when(inventoryRepository.findAllWithProductAndWarehouse(null, null)).thenReturn(List.of(inventory));
+        when(inventorySnapshotService.getOnHandAt(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(inventoryMovementRepository.streamMovementsBetween(any(), any(), any(), any())).thenReturn(Stream.empty());
+        List<InventoryTrendReportDTO> result = reportingService.getInventoryTrends(null, null, startDate, endDate, TrendGranularity.DAILY);
+        assertEquals(8, result.size());
+        assertTrue(result.stream().allMatch(r -> r.getQuantityOnHand().intValue() == 10));
+    }
+
+    @Test
+    @DisplayName("Should keep a running balance seeded by the opening aggregate")
+    void getInventoryTrends_RunningBalance() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 4);
+        when(inventoryRepository.findAllWithProductAndWarehouse(null, null)).thenReturn(List.of(inventory));
+        when(inventorySnapshotService.getOnHandAt(any(), any(), eq(start.atStartOfDay()))).thenReturn(List.of(onHand(5L)));
+        when(inventoryMovementRepository.streamMovementsBetween(any(), any(), any(), any())).thenReturn(Stream.of(
+                trendMovement(start.atTime(10, 0), 3),
+                trendMovement(start.plusDays(2).atTime(9, 0), -2),
+                trendMovement(start.plusDays(2).atTime(15, 0), 4)));
+        List<InventoryTrendReportDTO> result = reportingService.getInventoryTrends(null, null, start, end, TrendGranularity.DAILY);
+        assertEquals(List.of(5, 8, 8, 10), result.stream().map(r -> r.getQuantityOnHand().intValue()).collect(Collectors.toList()));
+        assertEquals(List.of("2024-01-01", "2024-01-02", "2024-01-03", "2024-01-04"),
+                result.stream().map(InventoryTrendReportDTO::getDate).collect(Collectors.toList()));
+        verify(inventorySnapshotService, times(1)).getOnHandAt(any(), any(), any());
+        verify(inventoryMovementRepository, times(1)).streamMovementsBetween(any(), any(), any(), any());
+        verify(inventoryMovementRepository, never()).aggregateOnHandAt(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should emit one point per bucket for weekly and monthly granularity")
+    void getInventoryTrends_Granularity() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+        when(inventoryRepository.findAllWithProductAndWarehouse(null, null)).thenReturn(List.of(inventory));
+        when(inventorySnapshotService.getOnHandAt(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(inventoryMovementRepository.streamMovementsBetween(any(), any(), any(), any())).thenAnswer(inv -> Stream.empty());
+        assertEquals(13, reportingService.getInventoryTrends(null, null, start, end, TrendGranularity.WEEKLY).size());
+        List<InventoryTrendReportDTO> monthly = reportingService.getInventoryTrends(null, null, start, end, TrendGranularity.MONTHLY);
+        assertEquals(List.of("2024-01-01", "2024-02-01", "2024-03-01"),
+                monthly.stream().map(InventoryTrendReportDTO::getDate).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should keep monthly points on the start day from the 31st without drifting")
+    void getInventoryTrends_MonthlyFromThe31st() {
+        when(inventoryRepository.findAllWithProductAndWarehouse(null, null)).thenReturn(List.of(inventory));
+        when(inventorySnapshotService.getOnHandAt(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(inventoryMovementRepository.streamMovementsBetween(any(), any(), any(), any())).thenReturn(Stream.empty());
+        List<InventoryTrendReportDTO> monthly = reportingService.getInventoryTrends(null, null,
+                LocalDate.of(2024, 1, 31), LocalDate.of(2024, 5, 31), TrendGranularity.MONTHLY);
+        assertEquals(List.of("2024-01-31", "2024-02-29", "2024-03-31", "2024-04-30", "2024-05-31"),
+                monthly.stream().map(InventoryTrendReportDTO::getDate).collect(Collectors.toList()));
+    }
+
+    private OnHandAggregate onHand(long quantity) {
+        return OnHandAggregate.builder().productId(productId).productName("P").productPrice(BigDecimal.valueOf(100))
+                .warehouseId(warehouseId).warehouseName("W").quantity(quantity).build();
+    }
+
+    private TrendMovement trendMovement(LocalDateTime at, int quantity) {
+        return TrendMovement.builder().productId(productId).productName("P")
+                .warehouseId(warehouseId).warehouseName("W").movementDate(at).quantity(quantity).build();
     }
 }
\ No newline at end of file
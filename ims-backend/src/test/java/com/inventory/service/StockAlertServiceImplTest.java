@@ -0,0 +1,79 @@
+package com.inventory.service;
+
+import com.inventory.model.Inventory;
+import com.inventory.repository.StockAlertRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockAlertServiceImplTest {
+    @Mock StockAlertRepository stockAlertRepository;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock InventoryMetrics inventoryMetrics;
+    @InjectMocks StockAlertServiceImpl stockAlertService;
+
+    @Test
+    @DisplayName("Should raise an alert when stock is below the reorder threshold")
+    void createAlertIfLowStock_BelowThreshold_Inserts() {
+        stockAlertService.createAlertIfLowStock(Inventory.builder().id(7L).quantity(3).reorderThreshold(10).build());
+        verify(stockAlertRepository).insertIfNoActiveAlert(7L, 3, 10);
+        verify(stockAlertRepository, never()).resolveActiveAlert(anyLong());
+        verify(stockAlertRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should resolve the open alert when stock is back at the reorder threshold")
+    void createAlertIfLowStock_AtThreshold_Resolves() {
+        stockAlertService.createAlertIfLowStock(Inventory.builder().id(7L).quantity(10).reorderThreshold(10).build());
+        verify(stockAlertRepository).resolveActiveAlert(7L);
+        verify(stockAlertRepository, never()).insertIfNoActiveAlert(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should raise and resolve alerts in bulk")
+    void createAlertsIfLowStock_RaisesAndResolves() {
+        stockAlertService.createAlertsIfLowStock(List.of(1L, 2L));
+        verify(stockAlertRepository).createMissingLowStockAlerts(List.of(1L, 2L));
+        verify(stockAlertRepository).resolveRecoveredAlerts(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should publish the ids of the alerts raised and resolved")
+    void createAlertsIfLowStock_PublishesChangedAlerts() {
+        when(stockAlertRepository.createMissingLowStockAlerts(List.of(1L, 2L))).thenReturn(List.of(10L));
+        when(stockAlertRepository.resolveRecoveredAlerts(List.of(1L, 2L))).thenReturn(List.of(7L));
+        stockAlertService.createAlertsIfLowStock(List.of(1L, 2L));
+        ArgumentCaptor<StockAlertsChangedEvent> event = ArgumentCaptor.forClass(StockAlertsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(10L, 7L), event.getValue().getAlertIds());
+        verify(inventoryMetrics).alertsRaised(1);
+        verify(inventoryMetrics).alertsResolved(1);
+    }
+
+    @Test
+    @DisplayName("Should publish nothing when no alert changed")
+    void createAlertIfLowStock_AlreadyAlerted_PublishesNothing() {
+        stockAlertService.createAlertIfLowStock(Inventory.builder().id(7L).quantity(3).reorderThreshold(10).build());
+        verifyNoInteractions(eventPublisher, inventoryMetrics);
+    }
+
+    @Test
+    @DisplayName("Should skip the bulk statements when nothing changed")
+    void createAlertsIfLowStock_Empty_DoesNothing() {
+        stockAlertService.createAlertsIfLowStock(Collections.emptyList());
+        verifyNoInteractions(stockAlertRepository);
+    }
+}
@@ -0,0 +1,212 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockIssueBatchRequestDTO;
+import com.inventory.dto.StockIssueRequestDTO;
+import com.inventory.dto.StockIssueResponseDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.model.Inventory;
+import com.inventory.model.InventoryMovement;
+import com.inventory.model.Product;
+import com.inventory.model.Warehouse;
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.WarehouseRepository;
+import com.inventory.repository.projection.IssuedStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockIssueServiceImplTest {
+    @Mock InventoryRepository inventoryRepository;
+    @Mock ProductRepository productRepository;
+    @Mock WarehouseRepository warehouseRepository;
+    @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock StockAlertService stockAlertService;
+    @Mock CostLayerService costLayerService;
+    @Mock InventoryMetrics inventoryMetrics;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @InjectMocks StockIssueServiceImpl stockIssueService;
+
+    private UUID productId;
+    private UUID warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        productId = new UUID(1L, 1L);
+        warehouseId = new UUID(2L, 2L);
+        when(productRepository.getReferenceById(any())).thenAnswer(inv -> Product.builder().id(inv.getArgument(0)).build());
+        when(warehouseRepository.getReferenceById(any())).thenAnswer(inv -> Warehouse.builder().id(inv.getArgument(0)).build());
+        // No cost layers unless a test says otherwise: the product price is used as is
+        when(costLayerService.issue(any(), any(), anyInt(), any())).thenAnswer(inv -> inv.getArgument(3));
+    }
+
+    @Test
+    @DisplayName("Should decrement stock and record a negative OUTBOUND movement")
+    void issue_Success() {
+        when(inventoryRepository.removeStock(productId, warehouseId, 4)).thenReturn(issued(1L, 16, 10, "2.50"));
+
+        StockIssueResponseDTO response = stockIssueService.issue(line(productId, warehouseId, 4, "SO-1"));
+
+        assertEquals(16, response.getRemainingQuantity());
+        assertEquals(new BigDecimal("2.50"), response.getUnitCost());
+        List<InventoryMovement> saved = savedMovements();
+        assertEquals(1, saved.size());
+        InventoryMovement movement = saved.get(0);
+        assertEquals(InventoryMovement.MovementType.OUTBOUND, movement.getMovementType());
+        assertEquals(-4, movement.getQuantity());
+        assertEquals(new BigDecimal("2.50"), movement.getUnitCost());
+        assertEquals("SO-1", movement.getReference());
+        verify(inventoryRepository, never()).findById(any());
+        verifyNoInteractions(stockAlertService);
+    }
+
+    @Test
+    @DisplayName("Should stamp the cost drawn from the cost layers rather than the product price")
+    void issue_StampsLayerCost() {
+        when(inventoryRepository.removeStock(productId, warehouseId, 4)).thenReturn(issued(1L, 16, 10, "2.50"));
+        when(costLayerService.issue(productId, warehouseId, 4, new BigDecimal("2.50"))).thenReturn(new BigDecimal("1.75"));
+
+        StockIssueResponseDTO response = stockIssueService.issue(line(productId, warehouseId, 4, null));
+
+        assertEquals(new BigDecimal("1.75"), response.getUnitCost());
+        assertEquals(new BigDecimal("1.75"), savedMovements().get(0).getUnitCost());
+    }
+
+    @Test
+    @DisplayName("Should raise a low-stock alert when the pick crosses the reorder threshold")
+    void issue_BelowThreshold_TriggersAlert() {
+        Inventory inventory = Inventory.builder().id(1L).quantity(12).reorderThreshold(10).build();
+        when(inventoryRepository.removeStock(productId, warehouseId, 5)).thenReturn(issued(1L, 7, 10, "1.00"));
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory));
+
+        stockIssueService.issue(line(productId, warehouseId, 5, null));
+
+        assertEquals(7, inventory.getQuantity());
+        verify(stockAlertService).createAlertIfLowStock(inventory);
+    }
+
+    @Test
+    @DisplayName("Should refuse to go below zero and record nothing")
+    void issue_Insufficient_Throws() {
+        when(inventoryRepository.removeStock(productId, warehouseId, 9)).thenReturn(null);
+        when(inventoryRepository.findQuantity(productId, warehouseId)).thenReturn(Optional.of(3));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+            () -> stockIssueService.issue(line(productId, warehouseId, 9, null)));
+
+        assertTrue(ex.getMessage().contains("available 3"));
+        verify(inventoryMovementRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should report a missing inventory row as not found")
+    void issue_NoInventory_Throws() {
+        when(inventoryRepository.removeStock(productId, warehouseId, 1)).thenReturn(null);
+        when(inventoryRepository.findQuantity(productId, warehouseId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> stockIssueService.issue(line(productId, warehouseId, 1, null)));
+    }
+
+    @Test
+    @DisplayName("Should decrement each pair once, in lock order, and keep one movement per line")
+    void issueBatch_MergesLinesAndLocksInOrder() {
+        UUID otherProduct = new UUID(0L, 5L);
+        when(inventoryRepository.removeStock(productId, warehouseId, 5)).thenReturn(issued(1L, 20, 10, "2.00"));
+        when(inventoryRepository.removeStock(otherProduct, warehouseId, 1)).thenReturn(issued(2L, 30, 10, "3.00"));
+        StockIssueBatchRequestDTO batch = StockIssueBatchRequestDTO.builder()
+            .reference("SO-9")
+            .lines(Arrays.asList(
+                line(productId, warehouseId, 2, null),
+                line(otherProduct, warehouseId, 1, "SO-9/2"),
+                line(productId, warehouseId, 3, null)))
+            .build();
+
+        List<StockIssueResponseDTO> responses = stockIssueService.issueBatch(batch);
+
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).removeStock(otherProduct, warehouseId, 1);
+        order.verify(inventoryRepository).removeStock(productId, warehouseId, 5);
+        assertEquals(3, responses.size());
+        assertEquals("SO-9", responses.get(0).getReference());
+        assertEquals("SO-9/2", responses.get(1).getReference());
+        List<InventoryMovement> saved = savedMovements();
+        assertEquals(Arrays.asList(-2, -1, -3), Arrays.asList(saved.get(0).getQuantity(), saved.get(1).getQuantity(), saved.get(2).getQuantity()));
+        assertEquals(new BigDecimal("3.00"), saved.get(1).getUnitCost());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when any pair is short")
+    void issueBatch_OneLineShort_Throws() {
+        UUID otherProduct = new UUID(9L, 9L);
+        when(inventoryRepository.removeStock(productId, warehouseId, 2)).thenReturn(issued(1L, 20, 10, "2.00"));
+        when(inventoryRepository.removeStock(otherProduct, warehouseId, 50)).thenReturn(null);
+        when(inventoryRepository.findQuantity(otherProduct, warehouseId)).thenReturn(Optional.of(10));
+        StockIssueBatchRequestDTO batch = StockIssueBatchRequestDTO.builder()
+            .lines(Arrays.asList(line(productId, warehouseId, 2, null), line(otherProduct, warehouseId, 50, null)))
+            .build();
+
+        assertThrows(InsufficientStockException.class, () -> stockIssueService.issueBatch(batch));
+        verify(inventoryMovementRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should reject lines whose total for a pair overflows instead of wrapping negative")
+    void issueBatch_TotalOverflows_Throws() {
+        StockIssueBatchRequestDTO batch = StockIssueBatchRequestDTO.builder()
+            .lines(Arrays.asList(line(productId, warehouseId, Integer.MAX_VALUE, null), line(productId, warehouseId, Integer.MAX_VALUE, null)))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> stockIssueService.issueBatch(batch));
+        verify(inventoryRepository, never()).removeStock(any(), any(), anyInt());
+        verify(inventoryMovementRepository, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryMovement> savedMovements() {
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMovementRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static StockIssueRequestDTO line(UUID productId, UUID warehouseId, int quantity, String reference) {
+        return StockIssueRequestDTO.builder()
+            .productId(productId)
+            .warehouseId(warehouseId)
+            .quantity(quantity)
+            .reference(reference)
+            .build();
+    }
+
+    static IssuedStock issued(long id, int quantity, int reorderThreshold, String unitCost) {
+        return new IssuedStock() {
+            public Long getId() { return id; }
+            public Integer getQuantity() { return quantity; }
+            public Integer getReorderThreshold() { return reorderThreshold; }
+            public Integer getPreviousQuantity() { return null; }
+            public BigDecimal getUnitCost() { return new BigDecimal(unitCost); }
+        };
+    }
+}
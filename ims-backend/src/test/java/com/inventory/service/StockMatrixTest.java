@@ -0,0 +1,108 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockMatrixTest {
+    private final StockMatrix matrix = new StockMatrix();
+    private final UUID productId = UUID.randomUUID();
+    private final UUID warehouseId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should find stock by SKU and warehouse, and tell a missing row from zero")
+    void setQuantity_FoundBySku() {
+        UUID otherWarehouse = UUID.randomUUID();
+        matrix.putProduct(productId, "SKU-1");
+        matrix.setQuantity(productId, warehouseId, 0);
+        matrix.setQuantity(productId, otherWarehouse, 7);
+
+        int product = matrix.findProduct("SKU-1");
+        assertEquals(productId, matrix.productId(product));
+        assertEquals(0, matrix.quantity(product, matrix.findWarehouse(warehouseId)));
+        assertEquals(7, matrix.quantity(product, matrix.findWarehouse(otherWarehouse)));
+
+        matrix.removeQuantity(productId, otherWarehouse);
+        assertEquals(StockMatrix.ABSENT, matrix.quantity(product, matrix.findWarehouse(otherWarehouse)));
+        assertEquals(-1, matrix.findProduct("SKU-2"));
+        assertEquals(-1, matrix.findWarehouse(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Should accept stock before the product's SKU is known")
+    void setQuantity_BeforeProduct() {
+        matrix.setQuantity(productId, warehouseId, 3);
+        assertEquals(-1, matrix.findProduct("SKU-1"));
+
+        matrix.putProduct(productId, "SKU-1");
+        assertEquals(3, matrix.quantity(matrix.findProduct("SKU-1"), 0));
+        assertEquals(1, matrix.productCount());
+    }
+
+    @Test
+    @DisplayName("Should move a product to its new SKU")
+    void putProduct_SkuChanged() {
+        matrix.putProduct(productId, "OLD");
+        matrix.putProduct(productId, "NEW");
+
+        assertEquals(-1, matrix.findProduct("OLD"));
+        assertEquals("NEW", matrix.sku(matrix.findProduct("NEW")));
+        assertEquals(1, matrix.productCount());
+    }
+
+    @Test
+    @DisplayName("Should keep a SKU handed over to another product with that product")
+    void putProduct_SkuReused() {
+        UUID otherProduct = UUID.randomUUID();
+        matrix.putProduct(productId, "SKU-1");
+        matrix.putProduct(otherProduct, "SKU-1");
+        matrix.putProduct(productId, "SKU-2");
+
+        assertEquals(otherProduct, matrix.productId(matrix.findProduct("SKU-1")));
+        assertEquals(productId, matrix.productId(matrix.findProduct("SKU-2")));
+    }
+
+    @Test
+    @DisplayName("Should forget a deleted product and its stock")
+    void removeProduct_ClearsSlot() {
+        matrix.putProduct(productId, "SKU-1");
+        matrix.setQuantity(productId, warehouseId, 5);
+        int product = matrix.findProduct("SKU-1");
+
+        matrix.removeProduct(productId);
+
+        assertEquals(-1, matrix.findProduct("SKU-1"));
+        assertNull(matrix.productId(product));
+        assertEquals(StockMatrix.ABSENT, matrix.quantity(product, 0));
+        matrix.removeQuantity(productId, warehouseId);
+    }
+
+    @Test
+    @DisplayName("Should grow past its initial product and warehouse capacity")
+    void setQuantity_Grows() {
+        UUID[] products = new UUID[3000];
+        UUID[] warehouses = new UUID[200];
+        for (int w = 0; w < warehouses.length; w++) {
+            warehouses[w] = UUID.randomUUID();
+        }
+        for (int p = 0; p < products.length; p++) {
+            products[p] = UUID.randomUUID();
+            matrix.putProduct(products[p], "SKU-" + p);
+            matrix.setQuantity(products[p], warehouses[p % warehouses.length], p);
+        }
+        // A row created before the later warehouses existed
+        matrix.setQuantity(products[0], warehouses[199], 42);
+
+        assertEquals(3000, matrix.productCount());
+        assertEquals(200, matrix.warehouseCount());
+        for (int p = 0; p < products.length; p++) {
+            int product = matrix.findProduct("SKU-" + p);
+            assertEquals(p, matrix.quantity(product, matrix.findWarehouse(warehouses[p % warehouses.length])));
+        }
+        assertEquals(42, matrix.quantity(matrix.findProduct("SKU-0"), matrix.findWarehouse(warehouses[199])));
+        assertEquals(StockMatrix.ABSENT, matrix.quantity(matrix.findProduct("SKU-0"), matrix.findWarehouse(warehouses[1])));
+    }
+}
@@ -0,0 +1,254 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockTransferLineDTO;
+import com.inventory.dto.StockTransferRequestDTO;
+import com.inventory.dto.StockTransferResponseDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.model.InventoryMovement;
+import com.inventory.model.Product;
+import com.inventory.model.StockTransfer;
+import com.inventory.model.StockTransferLine;
+import com.inventory.model.Warehouse;
+import com.inventory.repository.InventoryMovementRepository;
+import com.inventory.repository.InventoryRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockTransferLineRepository;
+import com.inventory.repository.StockTransferRepository;
+import com.inventory.repository.WarehouseRepository;
+import com.inventory.repository.projection.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.inventory.service.StockIssueServiceImplTest.issued;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StockTransferServiceImplTest {
+    @Mock StockTransferRepository stockTransferRepository;
+    @Mock StockTransferLineRepository stockTransferLineRepository;
+    @Mock InventoryRepository inventoryRepository;
+    @Mock ProductRepository productRepository;
+    @Mock WarehouseRepository warehouseRepository;
+    @Mock InventoryMovementRepository inventoryMovementRepository;
+    @Mock StockAlertService stockAlertService;
+    @Mock CostLayerService costLayerService;
+    @Mock InventoryMetrics inventoryMetrics;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @InjectMocks StockTransferServiceImpl stockTransferService;
+
+    private UUID productId;
+    private UUID low;
+    private UUID high;
+
+    @BeforeEach
+    void setUp() {
+        productId = new UUID(1L, 1L);
+        low = new UUID(2L, 2L);
+        high = new UUID(3L, 3L);
+        when(warehouseRepository.existsById(any())).thenReturn(true);
+        when(productRepository.getReferenceById(any())).thenAnswer(inv -> Product.builder().id(inv.getArgument(0)).build());
+        when(warehouseRepository.getReferenceById(any())).thenAnswer(inv -> Warehouse.builder().id(inv.getArgument(0)).build());
+        when(stockTransferRepository.save(any())).thenAnswer(inv -> {
+            StockTransfer transfer = inv.getArgument(0);
+            if (transfer.getId() == null) {
+                transfer.setId(new UUID(9L, 9L));
+            }
+            return transfer;
+        });
+        when(costLayerService.issue(any(), any(), anyInt(), any())).thenAnswer(inv -> inv.getArgument(3));
+    }
+
+    @Test
+    @DisplayName("Should debit the source, credit the destination and record paired movements at the source cost")
+    void transfer_Immediate() {
+        when(inventoryRepository.removeStock(productId, high, 4)).thenReturn(issued(1L, 16, 10, "2.50"));
+        when(inventoryRepository.addStock(productId, low, 4, 10)).thenReturn(level(2L, 24, 10));
+        when(costLayerService.issue(productId, high, 4, new BigDecimal("2.50"))).thenReturn(new BigDecimal("1.75"));
+
+        StockTransferResponseDTO response = stockTransferService.transfer(request(high, low, false, line(productId, 4)));
+
+        assertEquals("RECEIVED", response.getStatus());
+        assertNotNull(response.getReceivedAt());
+        assertEquals(new BigDecimal("1.75"), response.getLines().get(0).getUnitCost());
+        verify(costLayerService).receive(productId, low, 4, new BigDecimal("1.75"), "TR-" + response.getId());
+        List<InventoryMovement> saved = savedMovements();
+        assertEquals(2, saved.size());
+        assertEquals(InventoryMovement.MovementType.TRANSFER_OUT, saved.get(0).getMovementType());
+        assertEquals(high, saved.get(0).getWarehouse().getId());
+        assertEquals(-4, saved.get(0).getQuantity());
+        assertEquals(InventoryMovement.MovementType.TRANSFER_IN, saved.get(1).getMovementType());
+        assertEquals(low, saved.get(1).getWarehouse().getId());
+        assertEquals(4, saved.get(1).getQuantity());
+        assertEquals(saved.get(0).getReference(), saved.get(1).getReference());
+        assertEquals(new BigDecimal("1.75"), saved.get(1).getUnitCost());
+        verify(stockAlertService).createAlertsIfLowStock(Collections.emptyList());
+    }
+
+    @Test
+    @DisplayName("Should lock rows in the same order whichever way the stock moves")
+    void transfer_OppositeDirections_SameLockOrder() {
+        when(inventoryRepository.removeStock(eq(productId), any(), eq(1))).thenReturn(issued(1L, 50, 10, "1.00"));
+        when(inventoryRepository.addStock(eq(productId), any(), eq(1), eq(10))).thenReturn(level(2L, 50, 10));
+
+        stockTransferService.transfer(request(low, high, false, line(productId, 1)));
+        stockTransferService.transfer(request(high, low, false, line(productId, 1)));
+
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).removeStock(productId, low, 1);
+        order.verify(inventoryRepository).addStock(productId, high, 1, 10);
+        order.verify(inventoryRepository).addStock(productId, low, 1, 10);
+        order.verify(inventoryRepository).removeStock(productId, high, 1);
+    }
+
+    @Test
+    @DisplayName("Should merge lines per product and check alerts on rows that end low or may recover")
+    void transfer_Batch_MergesLines() {
+        UUID otherProduct = new UUID(0L, 5L);
+        when(inventoryRepository.removeStock(productId, high, 5)).thenReturn(issued(1L, 3, 10, "2.00"));
+        when(inventoryRepository.removeStock(otherProduct, high, 1)).thenReturn(issued(3L, 30, 10, "3.00"));
+        when(inventoryRepository.addStock(productId, low, 5, 10)).thenReturn(level(2L, 25, 10));
+        when(inventoryRepository.addStock(otherProduct, low, 1, 10)).thenReturn(level(4L, 6, 10));
+
+        StockTransferResponseDTO response = stockTransferService.transfer(request(high, low, false,
+            line(productId, 2), line(otherProduct, 1), line(productId, 3)));
+
+        assertEquals(2, response.getLines().size());
+        assertEquals(productId, response.getLines().get(0).getProductId());
+        assertEquals(5, response.getLines().get(0).getQuantity());
+        InOrder order = inOrder(inventoryRepository);
+        order.verify(inventoryRepository).removeStock(otherProduct, high, 1);
+        order.verify(inventoryRepository).removeStock(productId, high, 5);
+        assertEquals(4, savedMovements().size());
+        verify(stockAlertService).createAlertsIfLowStock(Arrays.asList(4L, 1L));
+    }
+
+    @Test
+    @DisplayName("Should ship into transit without touching the destination")
+    void transfer_InTransit() {
+        when(inventoryRepository.removeStock(productId, high, 4)).thenReturn(issued(1L, 16, 10, "2.50"));
+
+        StockTransferResponseDTO response = stockTransferService.transfer(request(high, low, true, line(productId, 4)));
+
+        assertEquals("IN_TRANSIT", response.getStatus());
+        assertNull(response.getReceivedAt());
+        assertEquals(new BigDecimal("2.50"), response.getLines().get(0).getUnitCost());
+        verify(inventoryRepository, never()).addStock(any(), any(), anyInt(), anyInt());
+        verify(costLayerService, never()).receive(any(), any(), anyInt(), any(), any());
+        List<InventoryMovement> saved = savedMovements();
+        assertEquals(1, saved.size());
+        assertEquals(InventoryMovement.MovementType.TRANSFER_OUT, saved.get(0).getMovementType());
+    }
+
+    @Test
+    @DisplayName("Should credit the destination at the shipped cost when an in-transit transfer is received")
+    void receive_Success() {
+        UUID id = UUID.randomUUID();
+        StockTransfer transfer = StockTransfer.builder().id(id).sourceWarehouseId(high).destinationWarehouseId(low)
+            .status(StockTransfer.Status.IN_TRANSIT).build();
+        when(stockTransferRepository.findByIdForUpdate(id)).thenReturn(Optional.of(transfer));
+        when(stockTransferLineRepository.findByTransferIdOrderById(id)).thenReturn(Collections.singletonList(
+            StockTransferLine.builder().transferId(id).productId(productId).quantity(4).unitCost(new BigDecimal("1.75")).build()));
+        when(inventoryRepository.addStock(productId, low, 4, 10)).thenReturn(level(2L, 4, 10));
+
+        StockTransferResponseDTO response = stockTransferService.receive(id);
+
+        assertEquals("RECEIVED", response.getStatus());
+        assertNotNull(response.getReceivedAt());
+        verify(costLayerService).receive(productId, low, 4, new BigDecimal("1.75"), "TR-" + id);
+        List<InventoryMovement> saved = savedMovements();
+        assertEquals(InventoryMovement.MovementType.TRANSFER_IN, saved.get(0).getMovementType());
+        assertEquals(4, saved.get(0).getQuantity());
+        // A new row below its threshold gets its alert
+        verify(stockAlertService).createAlertsIfLowStock(Collections.singletonList(2L));
+    }
+
+    @Test
+    @DisplayName("Should receive a transfer only once")
+    void receive_AlreadyReceived_Throws() {
+        UUID id = UUID.randomUUID();
+        when(stockTransferRepository.findByIdForUpdate(id)).thenReturn(Optional.of(
+            StockTransfer.builder().id(id).status(StockTransfer.Status.RECEIVED).build()));
+
+        assertThrows(IllegalArgumentException.class, () -> stockTransferService.receive(id));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    @DisplayName("Should fail the whole transfer when any product is short at the source")
+    void transfer_Short_Throws() {
+        UUID otherProduct = new UUID(9L, 9L);
+        when(inventoryRepository.removeStock(productId, high, 2)).thenReturn(issued(1L, 20, 10, "2.00"));
+        when(inventoryRepository.removeStock(otherProduct, high, 50)).thenReturn(null);
+        when(inventoryRepository.findQuantity(otherProduct, high)).thenReturn(Optional.of(10));
+        when(inventoryRepository.addStock(any(), eq(low), anyInt(), eq(10))).thenReturn(level(2L, 20, 10));
+
+        assertThrows(InsufficientStockException.class, () -> stockTransferService.transfer(
+            request(high, low, false, line(productId, 2), line(otherProduct, 50))));
+        verify(inventoryMovementRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse a transfer into the warehouse it comes from")
+    void transfer_SameWarehouse_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> stockTransferService.transfer(request(low, low, false, line(productId, 1))));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject lines whose total for a product overflows instead of wrapping negative")
+    void transfer_TotalOverflows_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> stockTransferService.transfer(
+            request(high, low, false, line(productId, Integer.MAX_VALUE), line(productId, Integer.MAX_VALUE))));
+        verifyNoInteractions(inventoryRepository);
+        verify(stockTransferRepository, never()).save(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryMovement> savedMovements() {
+        ArgumentCaptor<List<InventoryMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMovementRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static StockTransferRequestDTO request(UUID source, UUID destination, boolean inTransit, StockTransferLineDTO... lines) {
+        return StockTransferRequestDTO.builder()
+            .sourceWarehouseId(source)
+            .destinationWarehouseId(destination)
+            .inTransit(inTransit)
+            .lines(Arrays.asList(lines))
+            .build();
+    }
+
+    private static StockTransferLineDTO line(UUID productId, int quantity) {
+        return StockTransferLineDTO.builder().productId(productId).quantity(quantity).build();
+    }
+
+    private static StockLevel level(long id, int quantity, int reorderThreshold) {
+        return new StockLevel() {
+            public Long getId() { return id; }
+            public Integer getQuantity() { return quantity; }
+            public Integer getReorderThreshold() { return reorderThreshold; }
+            public Integer getPreviousQuantity() { return quantity - 1; }
+        };
+    }
+}
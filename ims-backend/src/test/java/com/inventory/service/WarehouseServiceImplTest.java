@@ -3,6 +3,7 @@ package com.inventory.service;
 import com.inventory.dto.WarehouseRequestDTO;
 import com.inventory.dto.WarehouseResponseDTO;
 import com.inventory.model.Warehouse;
+import com.inventory.repository.InventoryRepository;
 import com.inventory.repository.WarehouseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.persistence.EntityNotFoundException;
@@ -23,6 +25,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class WarehouseServiceImplTest {
     @Mock WarehouseRepository warehouseRepository;
+    @Mock InventoryRepository inventoryRepository;
+    @Mock ApplicationEventPublisher eventPublisher;
     @InjectMocks WarehouseServiceImpl warehouseService;
 
     private WarehouseRequestDTO requestDTO;
@@ -38,7 +42,7 @@ class WarehouseServiceImplTest {
     @Test
     @DisplayName("Should create warehouse when name is unique")
     void createWarehouse_Success() {
-        when(warehouseRepository.findAll()).thenReturn(Collections.emptyList());
+        when(warehouseRepository.existsByNameIgnoreCase("Main WH")).thenReturn(false);
         when(warehouseRepository.save(any(Warehouse.class))).thenReturn(warehouse);
         WarehouseResponseDTO response = warehouseService.create(requestDTO);
         assertNotNull(response);
@@ -48,8 +52,10 @@ class WarehouseServiceImplTest {
     @Test
     @DisplayName("Should throw exception when warehouse name is duplicate")
     void createWarehouse_DuplicateName() {
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse));
+        when(warehouseRepository.existsByNameIgnoreCase("Main WH")).thenReturn(true);
         assertThrows(DataIntegrityViolationException.class, () -> warehouseService.create(requestDTO));
+        verify(warehouseRepository, never()).save(any());
+        verify(warehouseRepository, never()).findAll();
     }
 
     @Test
@@ -75,7 +81,7 @@ class WarehouseServiceImplTest {
         UUID id = warehouse.getId();
         WarehouseRequestDTO updateDTO = WarehouseRequestDTO.builder().name("Updated WH").location("Loc2").build();
         when(warehouseRepository.findById(id)).thenReturn(Optional.of(warehouse));
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse));
+        when(warehouseRepository.existsByNameIgnoreCaseAndIdNot("Updated WH", id)).thenReturn(false);
         when(warehouseRepository.save(any(Warehouse.class))).thenReturn(warehouse);
         WarehouseResponseDTO response = warehouseService.update(id, updateDTO);
         assertNotNull(response);
@@ -86,10 +92,9 @@ class WarehouseServiceImplTest {
     @DisplayName("Should throw exception when updating with duplicate name")
     void updateWarehouse_DuplicateName() {
         UUID id = warehouse.getId();
-        Warehouse other = Warehouse.builder().id(UUID.randomUUID()).name("Updated WH").location("Loc2").build();
         WarehouseRequestDTO updateDTO = WarehouseRequestDTO.builder().name("Updated WH").location("Loc2").build();
         when(warehouseRepository.findById(id)).thenReturn(Optional.of(warehouse));
-        when(warehouseRepository.findAll()).thenReturn(List.of(warehouse, other));
+        when(warehouseRepository.existsByNameIgnoreCaseAndIdNot("Updated WH", id)).thenReturn(true);
         assertThrows(DataIntegrityViolationException.class, () -> warehouseService.update(id, updateDTO));
     }
 
@@ -106,10 +111,16 @@ class WarehouseServiceImplTest {
     @DisplayName("Should delete warehouse when exists")
     void deleteWarehouse_Success() {
         UUID id = warehouse.getId();
+        UUID productId = UUID.randomUUID();
         when(warehouseRepository.existsById(id)).thenReturn(true);
+        when(inventoryRepository.findProductIdsByWarehouseId(id)).thenReturn(List.of(productId));
         doNothing().when(warehouseRepository).deleteById(id);
         assertDoesNotThrow(() -> warehouseService.delete(id));
         verify(warehouseRepository).deleteById(id);
+        // The cascaded inventory rows leave the stock matrix too
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockLevelsChangedEvent
+                && ((StockLevelsChangedEvent) event).getProductIds().equals(List.of(productId))
+                && ((StockLevelsChangedEvent) event).getWarehouseIds().equals(List.of(id))));
     }
 
     @Test
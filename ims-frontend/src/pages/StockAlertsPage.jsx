@@ -28,31 +28,61 @@ const resolveStockAlert = async (id) => {
   if (!res.ok) throw new Error('Failed to resolve alert');
 };
 
+// Applies one streamed change: open alerts are added or replaced, resolved ones leave the list
+const applyChange = (list, change) => {
+  const rest = list.filter(a => a.id !== change.id);
+  return change.resolved ? rest : [...rest, change];
+};
+
 const StockAlertsPage = () => {
   const [alerts, setAlerts] = useState([]);
   const [loading, setLoading] = useState(true);
 
-  const loadAlerts = async () => {
-    setLoading(true);
-    try {
-      const data = await fetchStockAlerts();
-      setAlerts(data);
-    } catch (err) {
-      alert(err.message);
-    } finally {
-      setLoading(false);
-    }
-  };
-
   useEffect(() => {
-    loadAlerts();
+    // Changes that arrive while the list is being fetched are held back and replayed on top of it
+    let pending = null;
+
+    const loadAlerts = async () => {
+      pending = [];
+      try {
+        const data = await fetchStockAlerts();
+        setAlerts(pending.reduce(applyChange, data));
+      } catch (err) {
+        alert(err.message);
+      } finally {
+        pending = null;
+        setLoading(false);
+      }
+    };
+
+    const onChange = (event) => {
+      const change = JSON.parse(event.data);
+      if (pending) {
+        pending.push(change);
+      } else {
+        setAlerts(list => applyChange(list, change));
+      }
+    };
+
+    const source = new EventSource(`${API_URL}/api/stock-alerts/stream`);
+    source.addEventListener('alert-created', onChange);
+    source.addEventListener('alert-resolved', onChange);
+    // Sent when this client fell too far behind; deltas were dropped, so start over from the list
+    source.addEventListener('resync', loadAlerts);
+    // Fires on the first connect and on every reconnect, covering anything missed while disconnected
+    source.onopen = loadAlerts;
+    source.onerror = () => {
+      // The browser gave up reconnecting; show the list as it is now
+      if (source.readyState === EventSource.CLOSED) loadAlerts();
+    };
+    return () => source.close();
   }, []);
 
   const handleResolve = async (id) => {
     if (!window.confirm('Mark this alert as resolved?')) return;
     try {
       await resolveStockAlert(id);
-      loadAlerts();
+      setAlerts(list => list.filter(a => a.id !== id));
     } catch (err) {
       alert(err.message);
     }
@@ -10,7 +10,8 @@ export default function InventoryTrendsPage() {
     startDate: '',
     endDate: '',
     productId: '',
-    warehouseId: ''
+    warehouseId: '',
+    granularity: 'DAILY'
   });
   const [error, setError] = useState(null);
   const navigate = useNavigate();
@@ -90,6 +91,14 @@ export default function InventoryTrendsPage() {
             <label className="block text-sm font-semibold text-purple-700">Warehouse ID</label>
             <input type="text" name="warehouseId" value={filters.warehouseId} onChange={handleChange} className="input input-bordered" placeholder="(optional)" />
           </div>
+          <div>
+            <label className="block text-sm font-semibold text-purple-700">Granularity</label>
+            <select name="granularity" value={filters.granularity} onChange={handleChange} className="input input-bordered">
+              <option value="DAILY">Daily</option>
+              <option value="WEEKLY">Weekly</option>
+              <option value="MONTHLY">Monthly</option>
+            </select>
+          </div>
           <button type="submit" className="btn bg-purple-600 text-white hover:bg-purple-700">Filter</button>
         </form>
         {error && (
@@ -5,14 +5,24 @@ function getAuthHeaders() {
   return token ? { 'Authorization': `Bearer ${token}` } : {};
 }
 
+// The list endpoint is paginated; follow the cursors so callers still get every row
 export async function getPurchaseOrders() {
-  const res = await fetch(API_BASE, {
-    headers: {
-      ...getAuthHeaders(),
-    },
-  });
-  if (!res.ok) throw new Error('Failed to fetch purchase orders');
-  return res.json();
+  const items = [];
+  let cursor = null;
+  do {
+    const query = new URLSearchParams({ limit: '200' });
+    if (cursor) query.set('cursor', cursor);
+    const res = await fetch(`${API_BASE}?${query}`, {
+      headers: {
+        ...getAuthHeaders(),
+      },
+    });
+    if (!res.ok) throw new Error('Failed to fetch purchase orders');
+    const page = await res.json();
+    items.push(...page.items);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
 }
 
 export async function getPurchaseOrder(id) {
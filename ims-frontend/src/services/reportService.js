@@ -30,12 +30,13 @@ const getStockValuation = async (params = {}) => {
 };
 
 const getInventoryTrends = async (params) => {
-  const { startDate, endDate, productId, warehouseId } = params;
+  const { startDate, endDate, productId, warehouseId, granularity } = params;
   const query = [];
   if (startDate) query.push(`startDate=${startDate}`);
   if (endDate) query.push(`endDate=${endDate}`);
   if (productId) query.push(`productId=${productId}`);
   if (warehouseId) query.push(`warehouseId=${warehouseId}`);
+  if (granularity) query.push(`granularity=${granularity}`);
   const url = `${API_BASE}/inventory-trends?${query.join('&')}`;
   const res = await axios.get(url, { headers: getAuthHeaders() });
   return res.data;